@@ -0,0 +1,9 @@
+-- 変換履歴（currency_rate）のキーセット（シーク）ページング用の索引を追加する
+--
+-- ・ユーザの履歴一覧は username, deleted で絞り込み、(fetched_at, id) の降順に境界から読む
+--   （ddl-auto=update でも作成されるが、大きなテーブルでは事前にオンラインで作成しておく）
+-- ・管理者の一覧は id の降順に読むため、主キーをそのまま使用する（追加の索引は不要）
+
+CREATE INDEX idx_currency_rate_user_history
+    ON currency_rate (username, deleted, fetched_at, id)
+    ALGORITHM = INPLACE LOCK = NONE;
@@ -0,0 +1,46 @@
+-- 変換履歴（currency_rate）を fetched_at の月単位で RANGE COLUMNS パーティション化する（MySQL 8.0）
+--
+-- ・fetched_at で範囲を絞る検索は該当する月のパーティションのみを読む
+-- ・保持期間を過ぎた月はアプリの HistoryRetentionJob が EXCHANGE PARTITION / DROP PARTITION で切り離す
+--   （行単位の DELETE を行わない）。先の月のパーティションも pmax から切り出して事前に追加する
+-- ・パーティションの列は全ての一意キーに含める必要があるため、主キーを (id, fetched_at) にする
+--   （id はシーケンスで採番するため、一意性は変わらない）
+-- ・パーティション化したテーブルには外部キーを設定できないため、fk_currency_rate_snapshot を削除する
+--   （スナップショットは履歴より先に保存され、削除されないため、参照先が無くなることはない）
+--   エンティティ側も外部キー制約を作成しない（ConstraintMode.NO_CONSTRAINT）設定で、
+--   アプリは spring.jpa.hibernate.ddl-auto=validate で起動する（スキーマを変更しない）
+-- ・テーブル全体を作り直すため、大きなテーブルではメンテナンス時間内に実行する
+-- ・p_initial には移行時点で最も古い月より前の履歴が入る（保持期間を過ぎた時点でまとめて切り離される）
+--   最初の月（ここでは 2025-11）は保持期間に合わせて調整する
+
+ALTER TABLE currency_rate DROP FOREIGN KEY fk_currency_rate_snapshot;
+
+ALTER TABLE currency_rate
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, fetched_at);
+
+ALTER TABLE currency_rate
+    PARTITION BY RANGE COLUMNS (fetched_at) (
+        PARTITION p_initial VALUES LESS THAN ('2025-11-01'),
+        PARTITION p202511 VALUES LESS THAN ('2025-12-01'),
+        PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+        PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+        PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+        PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+        PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+        PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+        PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+        PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+        PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+        PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+        PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+        PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+        PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+        PARTITION pmax VALUES LESS THAN (MAXVALUE)
+    );
+
+-- 確認用：パーティションごとの行数（概算）
+-- SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+--   FROM information_schema.PARTITIONS
+--  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'currency_rate'
+--  ORDER BY PARTITION_ORDINAL_POSITION;
@@ -0,0 +1,9 @@
+-- 論理削除済みの履歴の物理削除（DeletedHistoryPurger）用の索引を追加する
+--
+-- ・deleted = true で絞り込み、(deleted_at, id) の昇順にチャンク単位で境界から読む
+--   （削除済みの行を先頭から読み直さないため、チャンクを重ねても1回あたりの読み取り量が増えない）
+-- ・ddl-auto=update でも作成されるが、大きなテーブルでは事前にオンラインで作成しておく
+
+CREATE INDEX idx_currency_rate_purge
+    ON currency_rate (deleted, deleted_at, id)
+    ALGORITHM = INPLACE LOCK = NONE;
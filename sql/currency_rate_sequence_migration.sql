@@ -0,0 +1,15 @@
+-- 変換履歴（currency_rate）の ID 採番を AUTO_INCREMENT からシーケンス（まとめて採番）へ移行する
+--
+-- ・MySQL にはシーケンスが無いため、Hibernate は currency_rate_seq テーブルで代用する
+-- ・ddl-auto=update が作成する初期値（1）のままでは既存の ID と重複するため、
+--   アプリを更新する前に一度だけ実行し、既存の最大 ID より後から採番されるようにする
+--   （まとめて採番する件数 100 件分の余裕を持たせる）
+
+CREATE TABLE IF NOT EXISTS currency_rate_seq (
+    next_val BIGINT
+);
+
+DELETE FROM currency_rate_seq;
+
+INSERT INTO currency_rate_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 101 FROM currency_rate;
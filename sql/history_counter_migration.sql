@@ -0,0 +1,23 @@
+-- 変換履歴の件数（history_counter）を作成し、既存の変換履歴から初期値を集計する
+--
+-- ・一覧画面は件数を COUNT(*) せず、このテーブルの値を表示する（保存・論理削除・完全削除のたびに加減算）
+-- ・アプリは起動時に全体の行（scope = 'global'）が無ければ同じ集計を行うため、
+--   大きなテーブルで起動を遅らせたくない場合に、事前に一度だけ実行する
+
+CREATE TABLE IF NOT EXISTS history_counter (
+    scope        VARCHAR(255) NOT NULL,
+    active_count BIGINT       NOT NULL,
+    total_count  BIGINT       NOT NULL,
+    PRIMARY KEY (scope)
+);
+
+DELETE FROM history_counter;
+
+INSERT INTO history_counter (scope, active_count, total_count)
+SELECT CONCAT('user:', username), SUM(CASE WHEN deleted = FALSE THEN 1 ELSE 0 END), COUNT(*)
+FROM currency_rate
+GROUP BY username;
+
+INSERT INTO history_counter (scope, active_count, total_count)
+SELECT 'global', COALESCE(SUM(CASE WHEN deleted = FALSE THEN 1 ELSE 0 END), 0), COUNT(*)
+FROM currency_rate;
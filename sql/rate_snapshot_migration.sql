@@ -0,0 +1,34 @@
+-- 既存の MySQL データベースを、レートスナップショット（rate_snapshot）を参照する構成へ移行する
+--
+-- ・ddl-auto=update では currency_rate.rate（NOT NULL）の削除と、既存行の snapshot_id 設定が行われないため、
+--   アプリを更新する前に一度だけ実行する
+-- ・既存の変換履歴のレートは、(通貨ペア, 取得日時) ごとに1件のスナップショットへまとめる
+
+CREATE TABLE IF NOT EXISTS rate_snapshot (
+    id              BIGINT         NOT NULL AUTO_INCREMENT,
+    base_currency   VARCHAR(255)   NOT NULL,
+    target_currency VARCHAR(255)   NOT NULL,
+    rate            DECIMAL(18, 4) NOT NULL,
+    fetched_at      DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_rate_snapshot_pair_fetched_at UNIQUE (base_currency, target_currency, fetched_at)
+);
+
+INSERT INTO rate_snapshot (base_currency, target_currency, rate, fetched_at)
+SELECT base_currency, target_currency, MAX(rate), fetched_at
+FROM currency_rate
+GROUP BY base_currency, target_currency, fetched_at;
+
+ALTER TABLE currency_rate ADD COLUMN snapshot_id BIGINT NULL;
+
+UPDATE currency_rate c
+JOIN rate_snapshot s
+  ON s.base_currency = c.base_currency
+ AND s.target_currency = c.target_currency
+ AND s.fetched_at = c.fetched_at
+SET c.snapshot_id = s.id;
+
+ALTER TABLE currency_rate
+    MODIFY snapshot_id BIGINT NOT NULL,
+    ADD CONSTRAINT fk_currency_rate_snapshot FOREIGN KEY (snapshot_id) REFERENCES rate_snapshot (id),
+    DROP COLUMN rate;
@@ -0,0 +1,103 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.exchange.CurrencyAppApplication;
+import com.example.exchange.domain.model.ConversionOutcome;
+import com.example.exchange.domain.model.ConversionRequest;
+import com.example.exchange.domain.model.ConversionResult;
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.domain.service.CurrencyConversionService;
+import com.example.exchange.domain.service.RateCache;
+import com.example.exchange.infrastructure.persistence.ConversionHistoryWriter;
+
+/**
+ * 一括変換と、1件ずつの変換を繰り返す場合の1件あたりのコスト比較（組み込み DB・レートはキャッシュ済み）
+ *
+ * ・batch：ITEMS 件を convertBatchAsync で1回に変換し、履歴を1回の saveAll で保存する
+ * ・oneByOne：ITEMS 件を convertAsync で1件ずつ変換し、write-behind による保存の完了まで待つ
+ *
+ * HTTP・セキュリティフィルタの分は含まない（1リクエストあたりの固定費はさらに一括変換側で償却される）。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchConversionBenchmark {
+
+	private static final int ITEMS = 1_000;
+
+	private static final List<String> PAIRS = List.of("USD/JPY", "EUR/JPY", "GBP/USD", "AUD/HKD");
+
+	@State(Scope.Benchmark)
+	public static class ServiceState {
+		ConfigurableApplicationContext context;
+		CurrencyConversionService service;
+		ConversionHistoryWriter writer;
+		List<ConversionRequest> requests;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			context = new SpringApplicationBuilder(CurrencyAppApplication.class)
+					.properties(
+							"server.port=0",
+							"logging.level.root=WARN",
+							"spring.jpa.show-sql=false",
+							"exchange.rate-refresh.enabled=false")
+					.run();
+			service = context.getBean(CurrencyConversionService.class);
+			writer = context.getBean(ConversionHistoryWriter.class);
+
+			// soft TTL 内のレートをキャッシュに載せ、外部 API を呼ばない状態にする
+			RateCache cache = context.getBean(RateCache.class);
+			for (String pair : PAIRS) {
+				String[] p = pair.split("/");
+				cache.put(new RateQuote(p[0], p[1], new BigDecimal("149.8523"), LocalDateTime.now()));
+			}
+			requests = new ArrayList<>(ITEMS);
+			for (int i = 0; i < ITEMS; i++) {
+				String[] p = PAIRS.get(i % PAIRS.size()).split("/");
+				requests.add(new ConversionRequest(new BigDecimal(100 + i), p[0], p[1]));
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			context.close();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ITEMS)
+	public List<ConversionOutcome> batch(ServiceState s) {
+		return s.service.convertBatchAsync("bench", s.requests).join();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ITEMS)
+	public boolean oneByOne(ServiceState s) throws InterruptedException {
+		List<CompletableFuture<ConversionResult>> futures = new ArrayList<>(ITEMS);
+		for (ConversionRequest r : s.requests) {
+			futures.add(s.service.convertAsync("bench", r.amount(), r.baseCurrency(), r.targetCurrency()));
+		}
+		futures.forEach(CompletableFuture::join);
+		return s.writer.flush(Duration.ofMinutes(1));
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.exchange.CurrencyAppApplication;
+import com.example.exchange.domain.service.CurrencyConversionService;
+import com.example.exchange.infrastructure.persistence.ConversionHistoryWriter;
+import com.example.exchange.support.StubRateServer;
+
+/**
+ * convertWithEntity の1件あたりのコスト（組み込み DB・外部 API はスタブサーバ）
+ *
+ * ・rate=cached：レートは共有キャッシュから取得する（外部 API・スナップショットの登録なし）
+ * ・rate=api：キャッシュの TTL を 0 にし、ほぼ毎回スタブの外部 API から取得してスナップショットを登録する
+ * ・OPS 件を変換した後、write-behind の保存の完了まで待つ（履歴の INSERT の分も1件あたりに含める）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConvertWithEntityBenchmark {
+
+	private static final int OPS = 100;
+
+	@State(Scope.Benchmark)
+	public static class ServiceState {
+
+		@Param({ "cached", "api" })
+		String rate;
+
+		StubRateServer stub;
+		ConfigurableApplicationContext context;
+		CurrencyConversionService service;
+		ConversionHistoryWriter writer;
+		BigDecimal amount = new BigDecimal("100");
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+			stub = StubRateServer.start();
+			// application.properties より優先させるため、TTL はコマンドライン引数で指定する
+			String ttl = rate.equals("api") ? "PT0S" : "PT1H";
+			context = new SpringApplicationBuilder(CurrencyAppApplication.class)
+					.properties(
+							"server.port=0",
+							"logging.level.root=WARN",
+							"spring.jpa.show-sql=false",
+							"exchange.rate-refresh.enabled=false",
+							"exchange.api.base-url=" + stub.baseUrl())
+					.run("--exchange.rate-cache.soft-ttl=" + ttl, "--exchange.rate-cache.hard-ttl=" + ttl);
+			service = context.getBean(CurrencyConversionService.class);
+			writer = context.getBean(ConversionHistoryWriter.class);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			context.close();
+			stub.close();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(OPS)
+	public boolean convertWithEntity(ServiceState s) throws InterruptedException {
+		for (int i = 0; i < OPS; i++) {
+			s.service.convertWithEntity("bench", s.amount, "USD", "JPY");
+		}
+		return s.writer.flush(Duration.ofMinutes(1));
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.exchange.domain.model.FixedPoint;
+
+/**
+ * 変換1件分の金額計算・レートの文字列化のコスト比較（BigDecimal vs 固定小数点）
+ *
+ * ・bigDecimal*：従来の計算（setScale(2) → multiply → setScale(2)、toPlainString）
+ * ・fixedPoint*：FixedPoint による計算（エンティティに設定する BigDecimal の生成を含む）
+ * ・計測前に、全ての入力で両者の結果が scale を含めて一致することを確認する（一致しない場合は失敗する）
+ * ・1件あたりの割り当て量は -prof gc（gc.alloc.rate.norm）で比較する
+ * 		例：-Djmh.args="FixedPointBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FixedPointBenchmark {
+
+	private static final int SIZE = 1024;
+
+	@State(Scope.Thread)
+	public static class Inputs {
+
+		/** 画面から入力される金額（整数・小数1〜2桁・端数あり） */
+		BigDecimal[] amounts = new BigDecimal[SIZE];
+
+		/** スナップショットのレート（scale=4） */
+		BigDecimal[] rates = new BigDecimal[SIZE];
+
+		/** スナップショットが保持するレートの固定小数点 */
+		long[] scaledRates = new long[SIZE];
+
+		int next;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			Random random = new Random(42);
+			for (int i = 0; i < SIZE; i++) {
+				int scale = switch (i % 4) {
+					case 0 -> 0;
+					case 1 -> 1;
+					case 2 -> 2;
+					default -> 3;
+				};
+				amounts[i] = BigDecimal.valueOf(random.nextInt(10_000_000), scale);
+				rates[i] = BigDecimal.valueOf(random.nextInt(2_000_000) + 1, FixedPoint.RATE_SCALE);
+				scaledRates[i] = FixedPoint.toScaled(rates[i], FixedPoint.RATE_SCALE);
+			}
+			for (int i = 0; i < SIZE; i++) {
+				BigDecimal[] expected = convertWithBigDecimal(amounts[i], rates[i]);
+				BigDecimal[] actual = convertWithFixedPoint(amounts[i], scaledRates[i]);
+				if (!expected[0].equals(actual[0]) || !expected[1].equals(actual[1])
+						|| !rates[i].toPlainString().equals(FixedPoint.toPlainString(scaledRates[i], FixedPoint.RATE_SCALE))) {
+					throw new IllegalStateException("Fixed-point result differs for " + amounts[i] + " x " + rates[i]);
+				}
+			}
+		}
+
+		int next() {
+			next = (next + 1) & (SIZE - 1);
+			return next;
+		}
+	}
+
+	@Benchmark
+	public void bigDecimalConvert(Inputs in, Blackhole bh) {
+		int i = in.next();
+		BigDecimal[] r = convertWithBigDecimal(in.amounts[i], in.rates[i]);
+		bh.consume(r[0]);
+		bh.consume(r[1]);
+	}
+
+	@Benchmark
+	public void fixedPointConvert(Inputs in, Blackhole bh) {
+		int i = in.next();
+		BigDecimal[] r = convertWithFixedPoint(in.amounts[i], in.scaledRates[i]);
+		bh.consume(r[0]);
+		bh.consume(r[1]);
+	}
+
+	@Benchmark
+	public String bigDecimalFormatRate(Inputs in) {
+		return in.rates[in.next()].toPlainString();
+	}
+
+	@Benchmark
+	public String fixedPointFormatRate(Inputs in) {
+		return FixedPoint.toPlainString(in.scaledRates[in.next()], FixedPoint.RATE_SCALE);
+	}
+
+	/**
+	 * 従来の計算（正規化した金額・変換後金額）
+	 */
+	private static BigDecimal[] convertWithBigDecimal(BigDecimal amount, BigDecimal rate) {
+		BigDecimal normalized = amount.setScale(2, RoundingMode.HALF_UP);
+		return new BigDecimal[] { normalized, normalized.multiply(rate).setScale(2, RoundingMode.HALF_UP) };
+	}
+
+	/**
+	 * 固定小数点による計算（CurrencyConversionService と同じ手順）
+	 */
+	private static BigDecimal[] convertWithFixedPoint(BigDecimal amount, long rate) {
+		long scaledAmount = FixedPoint.toScaled(amount, FixedPoint.AMOUNT_SCALE);
+		long converted = FixedPoint.convert(scaledAmount, rate);
+		BigDecimal normalized = amount.scale() == FixedPoint.AMOUNT_SCALE
+				? amount
+				: FixedPoint.toBigDecimal(scaledAmount, FixedPoint.AMOUNT_SCALE);
+		return new BigDecimal[] { normalized, FixedPoint.toBigDecimal(converted, FixedPoint.AMOUNT_SCALE) };
+	}
+}
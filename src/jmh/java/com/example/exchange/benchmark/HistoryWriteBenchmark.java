@@ -0,0 +1,102 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.exchange.CurrencyAppApplication;
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.infrastructure.persistence.ConversionHistoryWriter;
+
+/**
+ * 変換履歴の write-behind で、バッチの件数による保存スループットの比較
+ *
+ * ・writeBehind：RECORDS 件の履歴をキューに積み、全件の保存完了までの時間を計測する（1件あたり）
+ * ・synchronousSave：従来どおり1件ごとに repository.save（INSERT・コミット）する場合（batchSize は無関係）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HistoryWriteBenchmark {
+
+	private static final int RECORDS = 2_000;
+
+	@State(Scope.Benchmark)
+	public static class WriterState {
+
+		@Param({ "1", "20", "100" })
+		int batchSize;
+
+		ConfigurableApplicationContext context;
+		ConversionHistoryWriter writer;
+		CurrencyRateRepository repository;
+		RateSnapshot snapshot;
+		List<CurrencyRate> records;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			context = new SpringApplicationBuilder(CurrencyAppApplication.class)
+					.properties(
+							"server.port=0",
+							"logging.level.root=WARN",
+							"spring.jpa.show-sql=false",
+							"exchange.history.write-behind.batch-size=" + batchSize)
+					.run();
+			writer = context.getBean(ConversionHistoryWriter.class);
+			repository = context.getBean(CurrencyRateRepository.class);
+			snapshot = context.getBean(RateSnapshotRepository.class)
+					.save(new RateSnapshot("USD", "JPY", new BigDecimal("149.8523"), LocalDateTime.now()));
+		}
+
+		@Setup(Level.Invocation)
+		public void newRecords() {
+			records = new ArrayList<>(RECORDS);
+			for (int i = 0; i < RECORDS; i++) {
+				records.add(new CurrencyRate("bench", "USD", "JPY", snapshot,
+						new BigDecimal("100.00"), new BigDecimal("14985.23"), LocalDateTime.now()));
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			context.close();
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public boolean writeBehind(WriterState s) throws InterruptedException {
+		for (CurrencyRate r : s.records) {
+			s.writer.enqueue(r);
+		}
+		return s.writer.flush(Duration.ofMinutes(1));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public int synchronousSave(WriterState s) {
+		for (CurrencyRate r : s.records) {
+			s.repository.save(r);
+		}
+		return s.records.size();
+	}
+}
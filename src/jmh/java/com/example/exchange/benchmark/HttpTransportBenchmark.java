@@ -0,0 +1,119 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.exchange.config.RestTemplateConfig;
+import com.example.exchange.infrastructure.api.CircuitBreaker;
+import com.example.exchange.infrastructure.api.CurrencyRateApiClient;
+import com.example.exchange.support.StubRateServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 外部 API 呼び出しの HTTP 通信方式の比較（ローカルのスタブサーバに対して計測）
+ *
+ * ・freshConnection：呼び出しごとに接続を確立し直す（Connection: close）
+ * ・simpleFactory：SimpleClientHttpRequestFactory（HttpURLConnection、プールなし）
+ * 		※ JDK 内部の keep-alive キャッシュ（既定で接続先ごとに5本）のみで使い回す
+ * ・pooled：RestTemplateConfig と同じコネクションプール付き HTTP クライアント
+ *
+ * 複数スレッドから同時に呼び出し、1回あたりの所要時間と処理量を計測する。
+ */
+@BenchmarkMode({ Mode.AverageTime, Mode.Throughput })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class HttpTransportBenchmark {
+
+	private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+	private static final Duration READ_TIMEOUT = Duration.ofSeconds(3);
+
+	@State(Scope.Benchmark)
+	public static class StubState {
+		StubRateServer stub;
+		CurrencyRateApiClient freshClient;
+		CurrencyRateApiClient simpleClient;
+		CurrencyRateApiClient pooledClient;
+		PoolingHttpClientConnectionManager connectionManager;
+		CloseableHttpClient httpClient;
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+			stub = StubRateServer.start();
+
+			SimpleClientHttpRequestFactory simple = new SimpleClientHttpRequestFactory();
+			simple.setConnectTimeout(CONNECT_TIMEOUT);
+			simple.setReadTimeout(READ_TIMEOUT);
+			simpleClient = client(new RestTemplate(simple));
+
+			RestTemplate fresh = new RestTemplate(simple);
+			fresh.getInterceptors().add((request, body, execution) -> {
+				request.getHeaders().set(HttpHeaders.CONNECTION, "close");
+				return execution.execute(request, body);
+			});
+			freshClient = client(fresh);
+
+			RestTemplateConfig config = new RestTemplateConfig();
+			SimpleMeterRegistry registry = new SimpleMeterRegistry();
+			connectionManager = config.rateApiConnectionManager(20, 10, CONNECT_TIMEOUT, READ_TIMEOUT,
+					Duration.ofMinutes(5), Duration.ofSeconds(2), registry);
+			httpClient = config.rateApiHttpClient(connectionManager, READ_TIMEOUT, Duration.ofSeconds(1),
+					Duration.ofSeconds(30));
+			pooledClient = client(config.restTemplate(new RestTemplateBuilder(), httpClient));
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws Exception {
+			httpClient.close();
+			stub.close();
+		}
+
+		private CurrencyRateApiClient client(RestTemplate restTemplate) {
+			// ブレーカーは遮断しない設定（通信方式の差のみを計測する）
+			CircuitBreaker breaker = new CircuitBreaker("bench", 100, 100, 100, Duration.ofSeconds(1), 1,
+					Clock.systemUTC(), new SimpleMeterRegistry());
+			CurrencyRateApiClient client = new CurrencyRateApiClient(restTemplate, breaker,
+					HttpClient.newHttpClient(), new ObjectMapper(), new SimpleMeterRegistry());
+			ReflectionTestUtils.setField(client, "apiKey", "bench");
+			ReflectionTestUtils.setField(client, "baseUrl", stub.baseUrl());
+			return client;
+		}
+	}
+
+	@Benchmark
+	public BigDecimal freshConnection(StubState s) {
+		return s.freshClient.getRate("USD", "JPY");
+	}
+
+	@Benchmark
+	public BigDecimal simpleFactory(StubState s) {
+		return s.simpleClient.getRate("USD", "JPY");
+	}
+
+	@Benchmark
+	public BigDecimal pooled(StubState s) {
+		return s.pooledClient.getRate("USD", "JPY");
+	}
+}
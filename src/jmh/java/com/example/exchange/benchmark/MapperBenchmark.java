@@ -0,0 +1,124 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.exchange.application.dto.BatchConvertResultDto;
+import com.example.exchange.application.dto.ConvertResponseDto;
+import com.example.exchange.application.dto.CurrencyRateDto;
+import com.example.exchange.application.dto.HistoryDto;
+import com.example.exchange.application.mapper.CurrencyRateMapper;
+import com.example.exchange.domain.model.AdminRateRow;
+import com.example.exchange.domain.model.ConversionOutcome;
+import com.example.exchange.domain.model.ConversionResult;
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.HistoryRow;
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.domain.model.RateSnapshot;
+
+/**
+ * CurrencyRateMapper の各メソッドの1回あたりのコスト（DB・Spring コンテキストなし）
+ *
+ * ・1件の変換：toDto / toHistoryDto / toConvertDto / toBatchDto / toLatestDto
+ * ・1ページの変換：toHistoryDtos / toAdminDtos（rows 件。変換日時は1件ごとに1秒ずつずらし、同じ分の行が続く）
+ * ・1件・1ページあたりの割り当て量は -prof gc（gc.alloc.rate.norm）で比較する
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 5, 1, 12, 0);
+
+	@State(Scope.Thread)
+	public static class Inputs {
+		CurrencyRateMapper mapper = new CurrencyRateMapper();
+		CurrencyRate entity;
+		RateQuote quote;
+		ConversionResult result;
+		ConversionOutcome outcome;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			RateSnapshot snapshot = new RateSnapshot("USD", "JPY", new BigDecimal("149.8523"), NOW);
+			entity = new CurrencyRate("bench", "USD", "JPY", snapshot,
+					new BigDecimal("100.00"), new BigDecimal("14985.23"), NOW);
+			quote = snapshot.toQuote();
+			result = new ConversionResult(entity, quote, Duration.ofSeconds(12), false, false);
+			outcome = ConversionOutcome.succeeded(result);
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class PageInputs {
+
+		/** １ページあたりの件数 */
+		@Param({ "10", "100" })
+		int rows;
+
+		CurrencyRateMapper mapper = new CurrencyRateMapper();
+		List<HistoryRow> historyRows;
+		List<AdminRateRow> adminRows;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			historyRows = new ArrayList<>(rows);
+			adminRows = new ArrayList<>(rows);
+			for (int i = 0; i < rows; i++) {
+				LocalDateTime at = NOW.minusSeconds(i);
+				historyRows.add(new HistoryRow((long) i, "USD", "JPY", new BigDecimal("100.00"),
+						new BigDecimal("14985.23"), new BigDecimal("149.8523"), at));
+				adminRows.add(new AdminRateRow((long) i, "bench", "USD", "JPY", new BigDecimal("100.00"),
+						new BigDecimal("14985.23"), new BigDecimal("149.8523"), at, false, null, null));
+			}
+		}
+	}
+
+	@Benchmark
+	public CurrencyRateDto toDto(Inputs in) {
+		return in.mapper.toDto(in.entity);
+	}
+
+	@Benchmark
+	public HistoryDto toHistoryDto(Inputs in) {
+		return in.mapper.toHistoryDto(in.entity);
+	}
+
+	@Benchmark
+	public ConvertResponseDto toConvertDto(Inputs in) {
+		return in.mapper.toConvertDto(in.result);
+	}
+
+	@Benchmark
+	public BatchConvertResultDto toBatchDto(Inputs in) {
+		return in.mapper.toBatchDto(0, in.outcome);
+	}
+
+	@Benchmark
+	public CurrencyRateDto toLatestDto(Inputs in) {
+		return in.mapper.toLatestDto(in.quote);
+	}
+
+	@Benchmark
+	public List<HistoryDto> toHistoryDtos(PageInputs in) {
+		return in.mapper.toHistoryDtos(in.historyRows);
+	}
+
+	@Benchmark
+	public List<CurrencyRateDto> toAdminDtos(PageInputs in) {
+		return in.mapper.toAdminDtos(in.adminRows);
+	}
+}
@@ -0,0 +1,157 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.exchange.CurrencyAppApplication;
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * 深いページの取得コスト比較（OFFSET ページング vs キーセットページング、組み込み DB）
+ *
+ * ・offset*：OFFSET で page 番目を取得する（読み飛ばす行も DB が読む。admin は Page と同様に件数も数え、
+ * 		user は Slice と同様に次のページの有無を1行多く読んで判定する）
+ * ・keyset*：直前のページ末尾の行をカーソルとして、その続きから PAGE_SIZE 件だけ読む
+ * 		（アプリの一覧は列の射影で読むため、ここでは OFFSET と同じくエンティティを読む JPQL で比較する）
+ * ・admin* は ID 降順（主キー）、user* はユーザの (fetchedAt, id) 降順（idx_currency_rate_user_history）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PaginationBenchmark {
+
+	private static final int ROWS = 50_000;
+	private static final int PAGE_SIZE = 10;
+	private static final String USER = "bench";
+
+	@State(Scope.Benchmark)
+	public static class TableState {
+
+		/** 取得するページ番号（0 始まり） */
+		@Param({ "10", "1000", "4000" })
+		int page;
+
+		ConfigurableApplicationContext context;
+		CurrencyRateRepository repository;
+		EntityManager entityManager;
+
+		/** page 番目の直前の行（キーセットのカーソル） */
+		CurrencyRate boundary;
+		long adminBoundaryId;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			context = new SpringApplicationBuilder(CurrencyAppApplication.class)
+					.properties(
+							"server.port=0",
+							"logging.level.root=WARN",
+							"spring.jpa.show-sql=false",
+							"exchange.rate-refresh.enabled=false")
+					.run();
+			repository = context.getBean(CurrencyRateRepository.class);
+			entityManager = context.getBean(EntityManager.class);
+			LocalDateTime now = LocalDateTime.now();
+			RateSnapshot snapshot = context.getBean(RateSnapshotRepository.class)
+					.save(new RateSnapshot("USD", "JPY", new BigDecimal("149.8523"), now));
+
+			List<CurrencyRate> batch = new ArrayList<>(1_000);
+			for (int i = 0; i < ROWS; i++) {
+				batch.add(new CurrencyRate(USER, "USD", "JPY", snapshot,
+						new BigDecimal("100.00"), new BigDecimal("14985.23"), now.minusSeconds(i)));
+				if (batch.size() == 1_000) {
+					repository.saveAll(batch);
+					batch.clear();
+				}
+			}
+			boundary = userPage(entityManager, page * PAGE_SIZE - 1, 1).get(0);
+			adminBoundaryId = adminPage(entityManager, page * PAGE_SIZE - 1, 1).get(0).getId();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			context.close();
+		}
+	}
+
+	@Benchmark
+	public List<CurrencyRate> adminOffset(TableState s) {
+		s.entityManager.createQuery("select count(r) from CurrencyRate r", Long.class).getSingleResult();
+		return adminPage(s.entityManager, s.page * PAGE_SIZE, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<CurrencyRate> adminKeyset(TableState s) {
+		return s.entityManager.createQuery("""
+				select r from CurrencyRate r join fetch r.snapshot
+				where r.id < :id
+				order by r.id desc""", CurrencyRate.class)
+				.setParameter("id", s.adminBoundaryId)
+				.setMaxResults(PAGE_SIZE + 1)
+				.getResultList();
+	}
+
+	@Benchmark
+	public List<CurrencyRate> userOffset(TableState s) {
+		return userPage(s.entityManager, s.page * PAGE_SIZE, PAGE_SIZE + 1);
+	}
+
+	@Benchmark
+	public List<CurrencyRate> userKeyset(TableState s) {
+		return s.entityManager.createQuery("""
+				select r from CurrencyRate r join fetch r.snapshot
+				where r.username = :username and r.deleted = false
+				  and (r.fetchedAt < :fetchedAt or (r.fetchedAt = :fetchedAt and r.id < :id))
+				order by r.fetchedAt desc, r.id desc""", CurrencyRate.class)
+				.setParameter("username", USER)
+				.setParameter("fetchedAt", s.boundary.getFetchedAt())
+				.setParameter("id", s.boundary.getId())
+				.setMaxResults(PAGE_SIZE + 1)
+				.getResultList();
+	}
+
+	/**
+	 * 全ユーザの履歴を ID の降順に offset 行読み飛ばして取得する
+	 */
+	private static List<CurrencyRate> adminPage(EntityManager entityManager, int offset, int limit) {
+		return entityManager.createQuery("""
+				select r from CurrencyRate r join fetch r.snapshot
+				order by r.id desc""", CurrencyRate.class)
+				.setFirstResult(offset)
+				.setMaxResults(limit)
+				.getResultList();
+	}
+
+	/**
+	 * ユーザの履歴を変換日時の降順に offset 行読み飛ばして取得する
+	 */
+	private static List<CurrencyRate> userPage(EntityManager entityManager, int offset, int limit) {
+		return entityManager.createQuery("""
+				select r from CurrencyRate r join fetch r.snapshot
+				where r.username = :username and r.deleted = false
+				order by r.fetchedAt desc, r.id desc""", CurrencyRate.class)
+				.setParameter("username", USER)
+				.setFirstResult(offset)
+				.setMaxResults(limit)
+				.getResultList();
+	}
+}
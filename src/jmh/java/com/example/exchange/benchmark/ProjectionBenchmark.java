@@ -0,0 +1,135 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.exchange.CurrencyAppApplication;
+import com.example.exchange.application.dto.CurrencyRateDto;
+import com.example.exchange.application.dto.HistoryDto;
+import com.example.exchange.application.mapper.CurrencyRateMapper;
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.domain.service.CurrencyRateService;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * 一覧1ページの取得コスト比較（エンティティ経由 vs 列の射影、組み込み DB）
+ *
+ * ・entity*：エンティティ（履歴＋スナップショット）を JPQL で読み込み、1件ずつ DTO に変換する
+ * 		（読み書き可能なトランザクションのため、コミット時にダーティチェックが走る）
+ * ・projection*：必要な列だけを射影した行を読み取り専用トランザクションで読み込み、ページ単位で DTO に変換する
+ * ・1ページあたりの割り当て量は -prof gc（gc.alloc.rate.norm）で比較する
+ * 		例：-Djmh.args="ProjectionBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectionBenchmark {
+
+	private static final int ROWS = 5_000;
+	private static final String USER = "bench";
+
+	@State(Scope.Benchmark)
+	public static class TableState {
+
+		/** １ページあたりの件数 */
+		@Param({ "10", "100" })
+		int size;
+
+		ConfigurableApplicationContext context;
+		CurrencyRateRepository repository;
+		CurrencyRateService service;
+		CurrencyRateMapper mapper;
+		EntityManager entityManager;
+		TransactionTemplate transactionTemplate;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			context = new SpringApplicationBuilder(CurrencyAppApplication.class)
+					.properties(
+							"server.port=0",
+							"logging.level.root=WARN",
+							"spring.jpa.show-sql=false",
+							"exchange.rate-refresh.enabled=false")
+					.run();
+			repository = context.getBean(CurrencyRateRepository.class);
+			service = context.getBean(CurrencyRateService.class);
+			mapper = context.getBean(CurrencyRateMapper.class);
+			entityManager = context.getBean(EntityManager.class);
+			transactionTemplate = context.getBean(TransactionTemplate.class);
+			LocalDateTime now = LocalDateTime.now();
+			RateSnapshot snapshot = context.getBean(RateSnapshotRepository.class)
+					.save(new RateSnapshot("USD", "JPY", new BigDecimal("149.8523"), now));
+
+			List<CurrencyRate> batch = new ArrayList<>(1_000);
+			for (int i = 0; i < ROWS; i++) {
+				batch.add(new CurrencyRate(USER, "USD", "JPY", snapshot,
+						new BigDecimal("100.00"), new BigDecimal("14985.23"), now.minusSeconds(i)));
+				if (batch.size() == 1_000) {
+					repository.saveAll(batch);
+					batch.clear();
+				}
+			}
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			context.close();
+		}
+	}
+
+	@Benchmark
+	public List<HistoryDto> userEntity(TableState s) {
+		return s.transactionTemplate.execute(t -> s.entityManager.createQuery("""
+						select r from CurrencyRate r join fetch r.snapshot
+						where r.username = :username and r.deleted = false
+						order by r.fetchedAt desc, r.id desc""", CurrencyRate.class)
+				.setParameter("username", USER)
+				.setMaxResults(s.size + 1)
+				.getResultList().stream()
+				.limit(s.size)
+				.map(s.mapper::toHistoryDto)
+				.toList());
+	}
+
+	@Benchmark
+	public List<HistoryDto> userProjection(TableState s) {
+		return s.service.getHistoryPage(USER, null, null, s.size).getContent();
+	}
+
+	@Benchmark
+	public List<CurrencyRateDto> adminEntity(TableState s) {
+		return s.transactionTemplate.execute(t -> s.entityManager.createQuery("""
+						select r from CurrencyRate r join fetch r.snapshot
+						order by r.id desc""", CurrencyRate.class)
+				.setMaxResults(s.size + 1)
+				.getResultList().stream()
+				.limit(s.size)
+				.map(s.mapper::toDto)
+				.toList());
+	}
+
+	@Benchmark
+	public List<CurrencyRateDto> adminProjection(TableState s) {
+		return s.service.findAllPage(null, null, s.size).getContent();
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.exchange.CurrencyAppApplication;
+import com.example.exchange.domain.model.RateMatrix;
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.domain.service.CurrencyConversionService;
+import com.example.exchange.domain.service.RateMatrixHolder;
+
+/**
+ * レート参照＋変換計算のコスト比較
+ *
+ * ・matrixLookup：レート行列（プリミティブ配列）から参照し、固定小数点で計算
+ * ・cachedRate：/convert・/latest が実際に通る getCachedRate（レート行列に古くないレートがある場合）
+ * ・latestRateBigDecimal：従来の getLatestRate（DB 参照）＋ BigDecimal による正規化・計算
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLookupBenchmark {
+
+	private static final List<String> CURRENCIES = List.of("USD", "GBP", "EUR", "AUD", "KRW", "HKD", "JPY");
+
+	/** レート行列のみを使う状態（Spring コンテキスト不要） */
+	@State(Scope.Benchmark)
+	public static class MatrixState {
+		RateMatrixHolder holder;
+		long amountCents = 12_345L;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			holder = new RateMatrixHolder(Duration.ofHours(1), Duration.ofHours(24));
+			holder.publish(matrix());
+		}
+	}
+
+	/** 組み込み DB 上で従来の経路を動かす状態 */
+	@State(Scope.Benchmark)
+	public static class DatabaseState {
+		ConfigurableApplicationContext context;
+		CurrencyConversionService service;
+		BigDecimal amount = new BigDecimal("123.45");
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			context = new SpringApplicationBuilder(CurrencyAppApplication.class)
+					.properties("server.port=0", "logging.level.root=WARN")
+					.run();
+			service = context.getBean(CurrencyConversionService.class);
+			RateSnapshotRepository repository = context.getBean(RateSnapshotRepository.class);
+			for (int i = 0; i < 1_000; i++) {
+				repository.save(new RateSnapshot("USD", "JPY", new BigDecimal("149.8523"),
+						LocalDateTime.now().minusMinutes(i)));
+			}
+			context.getBean(RateMatrixHolder.class).publish(matrix());
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			context.close();
+		}
+	}
+
+	@Benchmark
+	public long matrixLookup(MatrixState s) {
+		long rate = s.holder.lookupScaled("USD", "JPY");
+		// 金額（scale=2）× レート（scale=4）→ scale=6 を HALF_UP で scale=2 へ
+		long product = s.amountCents * rate;
+		return (product + 5_000L) / 10_000L;
+	}
+
+	@Benchmark
+	public RateQuote cachedRate(DatabaseState s) {
+		return s.service.getCachedRate("USD", "JPY");
+	}
+
+	@Benchmark
+	public BigDecimal latestRateBigDecimal(DatabaseState s) {
+		RateQuote latest = s.service.getLatestRate("USD", "JPY");
+		BigDecimal normalizedRate = latest.rate().setScale(4, RoundingMode.HALF_UP);
+		BigDecimal normalizedAmount = s.amount.setScale(2, RoundingMode.HALF_UP);
+		return normalizedAmount.multiply(normalizedRate).setScale(2, RoundingMode.HALF_UP);
+	}
+
+	/**
+	 * 全通貨ペアのレート（取得直後）を持つ行列
+	 */
+	private static RateMatrix matrix() {
+		List<RateQuote> quotes = new ArrayList<>();
+		LocalDateTime now = LocalDateTime.now();
+		for (String b : CURRENCIES) {
+			for (String t : CURRENCIES) {
+				if (!b.equals(t)) {
+					quotes.add(new RateQuote(b, t, new BigDecimal("149.8523"), now));
+				}
+			}
+		}
+		return RateMatrix.of(CURRENCIES, quotes);
+	}
+}
@@ -0,0 +1,94 @@
+package com.example.exchange.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 2つの JMH の結果（-rf json）を比較して表示する
+ *
+ * ・ベンチマーク名とパラメータが同じ結果どうしで、スコアと1回あたりの割り当て量（gc.alloc.rate.norm）の変化を示す
+ * ・片方にしか無い結果は「-」と表示する
+ *
+ * 実行例（README の「ベンチマーク」を参照）：
+ * 		mvn -Pbenchmark -DskipTests test-compile exec:exec@compare-benchmarks \
+ * 			-Djmh.baseline=target/jmh-before.json -Djmh.result=target/jmh-after.json
+ */
+public final class ResultComparison {
+
+	private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+	private ResultComparison() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("usage: ResultComparison <baseline.json> <current.json>");
+			System.exit(2);
+		}
+		Map<String, JsonNode> baseline = read(new File(args[0]));
+		Map<String, JsonNode> current = read(new File(args[1]));
+
+		Map<String, JsonNode> keys = new LinkedHashMap<>(baseline);
+		current.forEach(keys::putIfAbsent);
+
+		System.out.printf("%-70s %14s %14s %8s %12s %12s %8s%n",
+				"Benchmark", "Baseline", "Current", "Change", "Alloc base", "Alloc now", "Change");
+		for (String key : keys.keySet()) {
+			JsonNode b = baseline.get(key);
+			JsonNode c = current.get(key);
+			String unit = (c != null ? c : b).path("primaryMetric").path("scoreUnit").asText();
+			System.out.printf("%-70s %14s %14s %8s %12s %12s %8s%n",
+					key + " (" + unit + ")",
+					format(score(b)), format(score(c)), change(score(b), score(c)),
+					format(allocation(b)), format(allocation(c)), change(allocation(b), allocation(c)));
+		}
+	}
+
+	/**
+	 * 結果のファイルを読み、ベンチマーク名とパラメータ → 結果 の表にする
+	 */
+	private static Map<String, JsonNode> read(File file) throws IOException {
+		Map<String, JsonNode> results = new LinkedHashMap<>();
+		for (JsonNode result : new ObjectMapper().readTree(file)) {
+			String name = result.path("benchmark").asText();
+			name = name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1);
+			StringJoiner params = new StringJoiner(",", "[", "]").setEmptyValue("");
+			Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> p = fields.next();
+				params.add(p.getKey() + "=" + p.getValue().asText());
+			}
+			results.put(name + params, result);
+		}
+		return results;
+	}
+
+	private static Double score(JsonNode result) {
+		return result == null ? null : result.path("primaryMetric").path("score").asDouble();
+	}
+
+	private static Double allocation(JsonNode result) {
+		if (result == null || !result.path("secondaryMetrics").has(ALLOCATION)) {
+			return null;
+		}
+		return result.path("secondaryMetrics").path(ALLOCATION).path("score").asDouble();
+	}
+
+	private static String format(Double value) {
+		return value == null ? "-" : String.format("%.3f", value);
+	}
+
+	private static String change(Double before, Double after) {
+		if (before == null || after == null || before == 0) {
+			return "-";
+		}
+		return String.format("%+.1f%%", (after - before) / before * 100);
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.exchange.benchmark;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.exchange.CurrencyAppApplication;
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.support.FormLogin;
+import com.example.exchange.support.StubRateServer;
+
+/**
+ * プラットフォームスレッドと仮想スレッドのモード比較（高同時実行時の /convert・/exchange/history）
+ *
+ * ・virtualThreads=false：Tomcat のスレッドプール（最大 TOMCAT_THREADS）で処理
+ * ・virtualThreads=true：spring.threads.virtual.enabled=true（リクエストごとに仮想スレッド）
+ *
+ * 組み込み DB 上でアプリを起動し、TOMCAT_THREADS を大きく超えるクライアントスレッドから
+ * ログイン済みセッションで同時にリクエストを送り、処理量と応答時間の分布を計測する。
+ * 仮想スレッドモードでは、ピン留めが発生すると VirtualThreadPinningMonitor が WARN で報告する。
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(ThreadingModeBenchmark.CLIENT_THREADS)
+public class ThreadingModeBenchmark {
+
+	static final int CLIENT_THREADS = 64;
+	static final int TOMCAT_THREADS = 32;
+
+	@State(Scope.Benchmark)
+	public static class AppState {
+
+		@Param({ "false", "true" })
+		boolean virtualThreads;
+
+		StubRateServer stub;
+		ConfigurableApplicationContext context;
+		HttpClient client;
+		String baseUrl;
+
+		@Setup(Level.Trial)
+		public void setUp() throws Exception {
+			stub = StubRateServer.start();
+			context = new SpringApplicationBuilder(CurrencyAppApplication.class)
+					.properties(
+							"server.port=0",
+							"logging.level.root=WARN",
+							"spring.threads.virtual.enabled=" + virtualThreads,
+							"server.tomcat.threads.max=" + TOMCAT_THREADS,
+							"spring.datasource.hikari.maximum-pool-size=" + TOMCAT_THREADS,
+							"exchange.api.base-url=" + stub.baseUrl())
+					.run();
+			baseUrl = "http://localhost:"
+					+ ((WebServerApplicationContext) context).getWebServer().getPort();
+
+			// 履歴画面に表示する件数を用意する
+			RateSnapshot snapshot = context.getBean(RateSnapshotRepository.class)
+					.save(new RateSnapshot("USD", "JPY", new BigDecimal("149.8523"), LocalDateTime.now()));
+			CurrencyRateRepository repository = context.getBean(CurrencyRateRepository.class);
+			for (int i = 0; i < 500; i++) {
+				repository.save(new CurrencyRate("admin", "USD", "JPY", snapshot,
+						new BigDecimal("100.00"), new BigDecimal("14985.23"), LocalDateTime.now().minusMinutes(i)));
+			}
+			client = FormLogin.login(baseUrl, "admin", "adminpass");
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			context.close();
+			stub.close();
+		}
+
+		HttpRequest get(String path) {
+			return HttpRequest.newBuilder(URI.create(baseUrl + path))
+					.timeout(Duration.ofSeconds(60))
+					.GET()
+					.build();
+		}
+	}
+
+	@Benchmark
+	public int convert(AppState s) throws Exception {
+		return send(s, "/convert?amount=100&base=USD&target=JPY");
+	}
+
+	@Benchmark
+	public int history(AppState s) throws Exception {
+		return send(s, "/exchange/history");
+	}
+
+	private static int send(AppState s, String path) throws Exception {
+		HttpResponse<byte[]> response = s.client.send(s.get(path), HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException(path + " returned " + response.statusCode());
+		}
+		return response.body().length;
+	}
+}
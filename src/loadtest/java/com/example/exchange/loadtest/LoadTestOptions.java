@@ -0,0 +1,111 @@
+package com.example.exchange.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 負荷試験の条件（起動引数 key=value から作る）
+ *
+ * ・users：ログインする一般ユーザ数（rates を指定しない場合は、各ユーザが応答を待って次を送る）
+ * ・rates：1秒あたりの送信数（カンマ区切りで段階的に上げる。応答を待たず一定間隔で送り、遅延は送信予定時刻から測る）
+ * ・duration / warmup：1段階あたりの計測時間 / 計測前に捨てる時間
+ * ・mix：リクエストの比率（例：convert:60,latest:20,history:15,admin:5）
+ * ・api-latency：スタブの外部 API の応答遅延、rate-ttl：共有キャッシュの TTL（PT0S でほぼ毎回外部 API を呼ぶ）
+ * ・out：レイテンシ分布（.hgrm）の出力先
+ * ・「--」で始まる引数はそのままアプリの起動引数にする（例：--server.tomcat.threads.max=50）
+ */
+record LoadTestOptions(
+		int users,
+		List<Integer> rates,
+		Duration duration,
+		Duration warmup,
+		Map<Operation, Integer> mix,
+		Duration apiLatency,
+		Duration rateTtl,
+		Duration requestTimeout,
+		Path out,
+		List<String> appArgs) {
+
+	static LoadTestOptions parse(String[] args) {
+		int users = 20;
+		List<Integer> rates = List.of();
+		Duration duration = Duration.ofSeconds(30);
+		Duration warmup = Duration.ofSeconds(10);
+		Map<Operation, Integer> mix = parseMix("convert:60,latest:20,history:15,admin:5");
+		Duration apiLatency = Duration.ofMillis(50);
+		Duration rateTtl = Duration.ofHours(1);
+		Duration requestTimeout = Duration.ofSeconds(10);
+		Path out = Path.of("target", "loadtest");
+		List<String> appArgs = new ArrayList<>();
+
+		for (String arg : args) {
+			if (arg.startsWith("--")) {
+				appArgs.add(arg);
+				continue;
+			}
+			int eq = arg.indexOf('=');
+			if (eq <= 0) {
+				throw new IllegalArgumentException("Expected key=value: " + arg);
+			}
+			String value = arg.substring(eq + 1);
+			switch (arg.substring(0, eq)) {
+				case "users" -> users = Integer.parseInt(value);
+				case "rates" -> rates = parseRates(value);
+				case "duration" -> duration = Duration.parse(value);
+				case "warmup" -> warmup = Duration.parse(value);
+				case "mix" -> mix = parseMix(value);
+				case "api-latency" -> apiLatency = Duration.parse(value);
+				case "rate-ttl" -> rateTtl = Duration.parse(value);
+				case "request-timeout" -> requestTimeout = Duration.parse(value);
+				case "out" -> out = Path.of(value);
+				default -> throw new IllegalArgumentException("Unknown option: " + arg);
+			}
+		}
+		if (users < 1) {
+			throw new IllegalArgumentException("users must be at least 1");
+		}
+		return new LoadTestOptions(users, rates, duration, warmup, mix, apiLatency, rateTtl, requestTimeout,
+				out, List.copyOf(appArgs));
+	}
+
+	/**
+	 * 送信数を決めて送るかどうか（false なら users 人が応答を待って次を送る）
+	 */
+	boolean openModel() {
+		return !rates.isEmpty();
+	}
+
+	private static List<Integer> parseRates(String value) {
+		List<Integer> rates = new ArrayList<>();
+		for (String rate : value.split(",")) {
+			int r = Integer.parseInt(rate.trim());
+			if (r < 1) {
+				throw new IllegalArgumentException("rates must be positive: " + value);
+			}
+			rates.add(r);
+		}
+		return List.copyOf(rates);
+	}
+
+	private static Map<Operation, Integer> parseMix(String value) {
+		Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+		for (String entry : value.split(",")) {
+			String[] kv = entry.trim().split(":");
+			if (kv.length != 2) {
+				throw new IllegalArgumentException("Expected operation:weight in mix: " + entry);
+			}
+			int weight = Integer.parseInt(kv[1]);
+			if (weight > 0) {
+				mix.put(Operation.of(kv[0]), weight);
+			}
+		}
+		if (mix.isEmpty()) {
+			throw new IllegalArgumentException("mix must contain at least one operation");
+		}
+		return mix;
+	}
+}
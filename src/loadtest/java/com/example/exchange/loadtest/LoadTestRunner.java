@@ -0,0 +1,246 @@
+package com.example.exchange.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.exchange.CurrencyAppApplication;
+import com.example.exchange.domain.service.UserService;
+import com.example.exchange.support.FormLogin;
+import com.example.exchange.support.StubRateServer;
+
+/**
+ * 1台あたりの処理能力を測る負荷試験（組み込み DB・外部 API はスタブサーバ）
+ *
+ * ・アプリを空いているポートで起動し、一般ユーザ（users 人）と管理者がフォームログインする
+ * ・/convert・/latest・/exchange/history・/admin/rates を mix の比率で送り、
+ *   段階ごとに種類別のスループット・エラー数・レイテンシ分布を表示し、分布を out に .hgrm で出力する
+ * ・rates を指定した場合は送信予定時刻から応答までを測る（応答の遅れで送信が止まり、遅延が隠れることを避ける）
+ *
+ * 実行例（README の「負荷試験」を参照）：
+ * 		mvn -Ploadtest -DskipTests verify -Dloadtest.args="rates=200,400,800 duration=PT30S"
+ */
+public final class LoadTestRunner {
+
+	private static final String PASSWORD = "loadtest-pass";
+
+	private final LoadTestOptions options;
+	private final String baseUrl;
+	private final List<HttpClient> userClients;
+	private final HttpClient adminClient;
+	private final Operation[] weighted;
+
+	private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+	private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+	private LoadTestRunner(LoadTestOptions options, String baseUrl, List<HttpClient> userClients,
+			HttpClient adminClient) {
+		this.options = options;
+		this.baseUrl = baseUrl;
+		this.userClients = userClients;
+		this.adminClient = adminClient;
+
+		List<Operation> ops = new ArrayList<>();
+		options.mix().forEach((op, weight) -> {
+			for (int i = 0; i < weight; i++) {
+				ops.add(op);
+			}
+		});
+		this.weighted = ops.toArray(Operation[]::new);
+		for (Operation op : options.mix().keySet()) {
+			recorders.put(op, new Recorder(3));
+			errors.put(op, new LongAdder());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+		// main スレッドから起動するため、devtools による再起動（main の再実行）を無効にする
+		System.setProperty("spring.devtools.restart.enabled", "false");
+
+		try (StubRateServer stub = StubRateServer.start()) {
+			stub.setLatency(options.apiLatency());
+
+			// application.properties より優先させるため、TTL と「--」の引数はコマンドライン引数で指定する
+			List<String> appArgs = new ArrayList<>();
+			appArgs.add("--exchange.rate-cache.soft-ttl=" + options.rateTtl());
+			appArgs.add("--exchange.rate-cache.hard-ttl=" + options.rateTtl());
+			appArgs.addAll(options.appArgs());
+			try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CurrencyAppApplication.class)
+					.properties(
+							"server.port=0",
+							"logging.level.root=WARN",
+							"spring.jpa.show-sql=false",
+							"exchange.rate-refresh.enabled=false",
+							"exchange.api.base-url=" + stub.baseUrl())
+					.run(appArgs.toArray(String[]::new))) {
+
+				String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+				UserService userService = context.getBean(UserService.class);
+				List<HttpClient> userClients = new ArrayList<>();
+				for (int i = 0; i < options.users(); i++) {
+					String username = "load-user-" + i;
+					userService.registerUser(username, PASSWORD);
+					userClients.add(FormLogin.login(baseUrl, username, PASSWORD));
+				}
+				HttpClient adminClient = FormLogin.login(baseUrl, "admin", "adminpass");
+
+				new LoadTestRunner(options, baseUrl, userClients, adminClient).run();
+				System.out.printf("%nExternal API requests: %d%n", stub.requestCount());
+			}
+		}
+	}
+
+	private void run() throws IOException {
+		Files.createDirectories(options.out());
+		System.out.printf("Load test: users=%d, mix=%s, duration=%s, warmup=%s%n",
+				options.users(), options.mix(), options.duration(), options.warmup());
+
+		// 計測前の段階（JIT・コネクションプール・キャッシュを温める）の結果は捨てる
+		if (!options.warmup().isZero()) {
+			runStage(options.openModel() ? options.rates().get(0) : 0, options.warmup().toNanos());
+			reset();
+		}
+
+		if (options.openModel()) {
+			for (int rate : options.rates()) {
+				report("rate-" + rate, runStage(rate, options.duration().toNanos()));
+			}
+		} else {
+			report("users-" + options.users(), runStage(0, options.duration().toNanos()));
+		}
+	}
+
+	/**
+	 * 1段階分のリクエストを送る
+	 *
+	 * @param rate 1秒あたりの送信数（0 なら users 人が応答を待って次を送る）
+	 * @return 最後の応答までを含めた経過時間（ナノ秒）
+	 */
+	private long runStage(int rate, long durationNanos) {
+		long start = System.nanoTime();
+		long end = start + durationNanos;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			if (rate == 0) {
+				for (int i = 0; i < userClients.size(); i++) {
+					HttpClient client = userClients.get(i);
+					executor.execute(() -> {
+						while (System.nanoTime() < end) {
+							send(pick(), client, System.nanoTime());
+						}
+					});
+				}
+			} else {
+				for (long i = 0;; i++) {
+					long scheduled = start + (long) (i * 1_000_000_000.0 / rate);
+					if (scheduled >= end) {
+						break;
+					}
+					long wait = scheduled - System.nanoTime();
+					if (wait > 0) {
+						LockSupport.parkNanos(wait);
+					}
+					HttpClient client = userClients.get((int) (i % userClients.size()));
+					executor.execute(() -> send(pick(), client, scheduled));
+				}
+			}
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * 1件送り、開始時刻からの応答時間（マイクロ秒）を記録する
+	 *
+	 * 200 以外の応答・通信エラーもエラー数に加えたうえで、応答時間を記録する。
+	 */
+	private void send(Operation op, HttpClient client, long startNanos) {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + op.path()))
+				.timeout(options.requestTimeout())
+				.GET()
+				.build();
+		try {
+			HttpResponse<Void> response = (op.admin ? adminClient : client)
+					.send(request, HttpResponse.BodyHandlers.discarding());
+			if (response.statusCode() != 200) {
+				errors.get(op).increment();
+			}
+		} catch (IOException e) {
+			errors.get(op).increment();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		recorders.get(op).recordValue((System.nanoTime() - startNanos) / 1_000);
+	}
+
+	private Operation pick() {
+		return weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+	}
+
+	private void reset() {
+		recorders.values().forEach(Recorder::reset);
+		errors.values().forEach(LongAdder::reset);
+	}
+
+	/**
+	 * 1段階分の結果を表示し、レイテンシ分布を出力する（表示後に記録をリセットする）
+	 */
+	private void report(String stage, long elapsedNanos) throws IOException {
+		double seconds = elapsedNanos / 1e9;
+		System.out.printf("%n== %s (%.1fs) ==%n", stage, seconds);
+		System.out.printf("%-10s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+				"operation", "count", "errors", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+
+		Histogram total = new Histogram(3);
+		long totalErrors = 0;
+		for (Operation op : recorders.keySet()) {
+			Histogram histogram = recorders.get(op).getIntervalHistogram();
+			long opErrors = errors.get(op).sumThenReset();
+			print(op.key, histogram, opErrors, seconds);
+			write(options.out().resolve(stage + "-" + op.key + ".hgrm"), histogram);
+			total.add(histogram);
+			totalErrors += opErrors;
+		}
+		print("total", total, totalErrors, seconds);
+		write(options.out().resolve(stage + "-total.hgrm"), total);
+	}
+
+	private static void print(String name, Histogram h, long errors, double seconds) {
+		System.out.printf("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+				name, h.getTotalCount(), errors, h.getTotalCount() / seconds,
+				ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+				ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+	}
+
+	private static double ms(long micros) {
+		return micros / 1000.0;
+	}
+
+	/**
+	 * レイテンシ分布を HdrHistogram の形式（ミリ秒単位）で出力する
+	 */
+	private static void write(Path file, Histogram histogram) throws IOException {
+		try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+			histogram.outputPercentileDistribution(out, 1000.0);
+		}
+	}
+}
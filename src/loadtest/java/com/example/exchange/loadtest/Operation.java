@@ -0,0 +1,58 @@
+package com.example.exchange.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 負荷試験で送るリクエストの種類
+ *
+ * ・CONVERT / LATEST は JSON の API、HISTORY / ADMIN は画面（HTML）
+ * ・ADMIN は管理者のセッションで送る
+ */
+enum Operation {
+
+	CONVERT("convert", false),
+	LATEST("latest", false),
+	HISTORY("history", false),
+	ADMIN("admin", true);
+
+	/** 変換する通貨ペア（共有キャッシュに載る程度の数に絞る） */
+	private static final String[][] PAIRS = {
+			{ "USD", "JPY" }, { "EUR", "JPY" }, { "USD", "EUR" }, { "GBP", "JPY" }, { "AUD", "USD" } };
+
+	private static final String[] AMOUNTS = { "1", "100", "2500.5", "99999.99" };
+
+	/** 起動引数（mix=convert:60,...）での名前 */
+	final String key;
+
+	/** 管理者のセッションで送るかどうか */
+	final boolean admin;
+
+	Operation(String key, boolean admin) {
+		this.key = key;
+		this.admin = admin;
+	}
+
+	/**
+	 * リクエストのパス（クエリ文字列を含む）
+	 */
+	String path() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String[] pair = PAIRS[random.nextInt(PAIRS.length)];
+		return switch (this) {
+			case CONVERT -> "/convert?amount=" + AMOUNTS[random.nextInt(AMOUNTS.length)]
+					+ "&base=" + pair[0] + "&target=" + pair[1];
+			case LATEST -> "/latest?base=" + pair[0] + "&target=" + pair[1];
+			case HISTORY -> "/exchange/history";
+			case ADMIN -> "/admin/rates";
+		};
+	}
+
+	static Operation of(String key) {
+		for (Operation op : values()) {
+			if (op.key.equals(key)) {
+				return op;
+			}
+		}
+		throw new IllegalArgumentException("Unknown operation: " + key);
+	}
+}
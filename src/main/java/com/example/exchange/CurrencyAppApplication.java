@@ -2,13 +2,16 @@ package com.example.exchange;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * アプリケーションのエントリポイント。
  * 
  * Spring Boot を起動し、全コンポーネントの自動設定を行う。
+ * @ConfigurationProperties を付与した設定クラスも自動で登録する。
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class CurrencyAppApplication {
 
 	public static void main(String[] args) {
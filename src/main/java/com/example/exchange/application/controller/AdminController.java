@@ -1,11 +1,22 @@
 package com.example.exchange.application.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.ToLongFunction;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,20 +24,30 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.exchange.application.dto.CurrencyRateDto;
+import com.example.exchange.application.dto.CursorPageDto;
 import com.example.exchange.application.mapper.UserMapper;
+import com.example.exchange.domain.model.HistoryCriteria;
+import com.example.exchange.domain.model.HistoryCursor;
 import com.example.exchange.domain.model.User;
 import com.example.exchange.domain.service.CurrencyRateService;
+import com.example.exchange.domain.service.DeletedHistoryPurger;
+import com.example.exchange.domain.service.RateCache;
 import com.example.exchange.domain.service.UserService;
+import com.example.exchange.infrastructure.monitoring.OnDemandRecording;
 
 /**
  * 管理者専用機能を提供するコントローラ。
  * 
  * 提供機能：
- * ・全ユーザのレート履歴一覧表示
+ * ・全ユーザのレート履歴一覧表示（共有レートキャッシュの集計値を含む）
  * ・レートの論理削除
  * ・レートの完全削除（物理削除）
+ * ・レートの一括の論理削除・復元・完全削除（選択した ID、またはユーザ・通貨ペア・日時の範囲で指定）
+ * ・論理削除済みの履歴の一括物理削除（バックグラウンド）の一時停止・再開
+ * ・JFR の記録の開始・停止・ダウンロード
  * ・ユーザ一覧表示
  * ・ユーザ削除
  * 
@@ -49,38 +70,59 @@ public class AdminController {
 	/** User Entity → DTO 変換を担当する Mapper */
 	private final UserMapper userMapper;
 	
+	/** 共有レートキャッシュ（集計値の表示用） */
+	private final RateCache rateCache;
+	
+	/** 論理削除済みの履歴の物理削除（実行状況の表示・一時停止・再開） */
+	private final DeletedHistoryPurger purger;
+	
+	/** 管理画面から操作する JFR の記録 */
+	private final OnDemandRecording recording;
+	
 	/**
 	 * コンストラクタインジェクション
 	 * 依存関係を明確にし、テスト容易性を高めるために採用。
 	 */
 	public AdminController(CurrencyRateService rateService,
 							UserService userService,
-							UserMapper userMapper) {
+							UserMapper userMapper,
+							RateCache rateCache,
+							DeletedHistoryPurger purger,
+							OnDemandRecording recording) {
 		this.rateService = rateService;
 		this.userService = userService;
 		this.userMapper = userMapper;
+		this.rateCache = rateCache;
+		this.purger = purger;
+		this.recording = recording;
 	}
 	
 	/**
 	 * 全ユーザの通貨レート履歴を表示する。
 	 * 管理者は論理削除済みも含めて全件閲覧可能。
-	 * ページング・並び順（ID 降順）を指定して取得する。
+	 * ID 降順のキーセットページングで取得する（大量の履歴でも深いページのコストが変わらない）。
 	 * 
-	 * @param page ページ番号
+	 * @param after 次のページのカーソル
+	 * @param before 前のページのカーソル
 	 * @param size 1ページあたりの件数
 	 * @param model 画面へ値を渡すための Model
 	 * @return admin/rates.html
 	 */
 	@GetMapping("/rates")
 	public String allRates(
-			@RequestParam(defaultValue = "0")int page,
+			@RequestParam(required = false) HistoryCursor after,
+			@RequestParam(required = false) HistoryCursor before,
 			@RequestParam(defaultValue = "10")int size,
 			Model model) {
-		Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-		Page<CurrencyRateDto> ratePage = rateService.findAllDto(pageable);
+		CursorPageDto<CurrencyRateDto> ratePage = rateService.findAllPage(after, before, size);
 		
 		model.addAttribute("ratePage", ratePage);
 		model.addAttribute("rates", ratePage.getContent());
+		// 件数は COUNT せず、管理している件数を表示する
+		model.addAttribute("counts", rateService.countAll());
+		model.addAttribute("cacheStats", rateCache.stats());
+		model.addAttribute("purgeStatus", purger.status());
+		model.addAttribute("jfrStatus", recording.status());
 		return "admin/rates";
 	}
 	
@@ -114,6 +156,157 @@ public class AdminController {
 		return "redirect:/admin/rates";
 	}
 	
+	/**
+	 * レート履歴の一括論理削除
+	 * 
+	 * 選択した ID（ids）、または条件（ユーザ・通貨ペア・変換日時の範囲）に一致する履歴を論理削除する。
+	 * 処理件数をクエリパラメータで一覧画面へ返す。
+	 * 
+	 * @return レート一覧画面へリダイレクト
+	 */
+	@PostMapping("/rates/bulk-delete")
+	public String bulkDelete(
+			@RequestParam(required = false) List<Long> ids,
+			@RequestParam(required = false) String username,
+			@RequestParam(required = false) String base,
+			@RequestParam(required = false) String target,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+		return bulk("delete", new HistoryCriteria(ids, username, base, target, from, to),
+				c -> rateService.bulkSoftDelete(c, "ADMIN"));
+	}
+	
+	/**
+	 * レート履歴の一括復元（論理削除の取り消し）
+	 * 
+	 * 条件の指定方法は bulkDelete と同じ。
+	 * 
+	 * @return レート一覧画面へリダイレクト
+	 */
+	@PostMapping("/rates/bulk-restore")
+	public String bulkRestore(
+			@RequestParam(required = false) List<Long> ids,
+			@RequestParam(required = false) String username,
+			@RequestParam(required = false) String base,
+			@RequestParam(required = false) String target,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+		return bulk("restore", new HistoryCriteria(ids, username, base, target, from, to),
+				rateService::bulkRestore);
+	}
+	
+	/**
+	 * レート履歴の一括完全削除（物理削除・論理削除の有無を問わない）
+	 * 
+	 * 条件の指定方法は bulkDelete と同じ。
+	 * 
+	 * @return レート一覧画面へリダイレクト
+	 */
+	@PostMapping("/rates/bulk-hard-delete")
+	public String bulkHardDelete(
+			@RequestParam(required = false) List<Long> ids,
+			@RequestParam(required = false) String username,
+			@RequestParam(required = false) String base,
+			@RequestParam(required = false) String target,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+		return bulk("hard-delete", new HistoryCriteria(ids, username, base, target, from, to),
+				rateService::bulkHardDelete);
+	}
+	
+	/**
+	 * 一括操作を実行し、処理件数（条件が無い場合はエラー）を付けて一覧画面へリダイレクトする
+	 */
+	private static String bulk(String action, HistoryCriteria criteria, ToLongFunction<HistoryCriteria> operation) {
+		if (criteria.isEmpty()) {
+			return "redirect:/admin/rates?bulkError";
+		}
+		long affected = operation.applyAsLong(criteria);
+		return "redirect:/admin/rates?bulk=" + action + "&affected=" + affected;
+	}
+	
+	/**
+	 * 論理削除済みの履歴の物理削除を一時停止する（実行中のチャンクの完了後に停止する）
+	 * 
+	 * @return レート一覧画面へリダイレクト
+	 */
+	@PostMapping("/purge/pause")
+	public String pausePurge() {
+		purger.pause();
+		return "redirect:/admin/rates";
+	}
+	
+	/**
+	 * 論理削除済みの履歴の物理削除を再開する（直ちに実行する）
+	 * 
+	 * @return レート一覧画面へリダイレクト
+	 */
+	@PostMapping("/purge/resume")
+	public String resumePurge() {
+		purger.resume();
+		return "redirect:/admin/rates";
+	}
+	
+	/**
+	 * JFR の記録を開始する
+	 * 
+	 * @param thresholdMs アプリのイベントを記録する所要時間の閾値（ミリ秒。省略時は exchange.jfr.threshold）
+	 * @return レート一覧画面へリダイレクト（既に記録中の場合は jfrError=running）
+	 */
+	@PostMapping("/jfr/start")
+	public String startRecording(@RequestParam(required = false) Long thresholdMs) {
+		Duration threshold = thresholdMs == null ? null : Duration.ofMillis(Math.max(0, thresholdMs));
+		if (!recording.start(threshold)) {
+			return "redirect:/admin/rates?jfrError=running";
+		}
+		return "redirect:/admin/rates?jfr=started";
+	}
+	
+	/**
+	 * JFR の記録を停止する（記録した内容は次の開始までダウンロードできる）
+	 * 
+	 * @return レート一覧画面へリダイレクト（記録中でない場合は jfrError=not-running）
+	 */
+	@PostMapping("/jfr/stop")
+	public String stopRecording() {
+		if (!recording.stop()) {
+			return "redirect:/admin/rates?jfrError=not-running";
+		}
+		return "redirect:/admin/rates?jfr=stopped";
+	}
+	
+	/**
+	 * JFR の記録をダウンロードする（記録中の場合はその時点までの内容）
+	 * 
+	 * 一時ファイルに書き出した記録を返し、送信後に削除する。
+	 * 
+	 * @return .jfr ファイル（記録が無い場合はレート一覧画面へリダイレクト）
+	 */
+	@GetMapping("/jfr/dump")
+	public ResponseEntity<StreamingResponseBody> dumpRecording() throws IOException {
+		Path file = recording.dump();
+		if (file == null) {
+			return ResponseEntity.status(HttpStatus.FOUND)
+					.location(URI.create("/admin/rates?jfrError=no-recording"))
+					.build();
+		}
+		String filename = "exchange-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+				+ ".jfr";
+		StreamingResponseBody body = out -> {
+			try (InputStream in = Files.newInputStream(file)) {
+				in.transferTo(out);
+			} finally {
+				Files.deleteIfExists(file);
+			}
+		};
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_OCTET_STREAM)
+				.contentLength(Files.size(file))
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename(filename).build().toString())
+				.body(body);
+	}
+	
 	/**
 	 * 全ユーザ一覧を表示する。
 	 * Entity を直接渡さず、DTO に変換してから View に渡す。
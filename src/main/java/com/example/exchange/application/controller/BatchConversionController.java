@@ -0,0 +1,205 @@
+package com.example.exchange.application.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.exchange.application.dto.BatchConvertRequestDto;
+import com.example.exchange.application.dto.BatchConvertResultDto;
+import com.example.exchange.application.mapper.CurrencyRateMapper;
+import com.example.exchange.domain.model.ConversionOutcome;
+import com.example.exchange.domain.model.ConversionRequest;
+import com.example.exchange.domain.service.CurrencyConversionService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 一括変換 API のコントローラ
+ *
+ * POST /convert/batch に (amount, base, target) を複数件まとめて送り、1リクエストで変換する。
+ * ・JSON 配列（application/json）→ JSON 配列で返す
+ * ・NDJSON（application/x-ndjson、1行1件）→ NDJSON で返す
+ *
+ * 結果はリクエストと同じ順に返し、解析できない項目・変換できない項目はその項目のみエラーとする。
+ * どちらの形式も本文を1件ずつ読み込み、最大件数を超えた時点で読み込みをやめる（本文全体を木構造にしない）。
+ * 認証は Basic 認証のみ（SecurityConfig の batchApiFilterChain）。
+ * GET /convert と同様に CompletableFuture を返し、レート取得中はリクエスト処理スレッドを解放する。
+ */
+@Controller
+public class BatchConversionController {
+
+	private static final String NDJSON = "application/x-ndjson";
+
+	/** 通貨変換に関する業務処理を担当する */
+	private final CurrencyConversionService currencyService;
+
+	/** Entity → DTO 変換を担当する Mapper */
+	private final CurrencyRateMapper mapper;
+
+	private final ObjectMapper objectMapper;
+
+	/** 1リクエストに含められる最大件数 */
+	private final int maxItems;
+
+	public BatchConversionController(
+			CurrencyConversionService currencyService,
+			CurrencyRateMapper mapper,
+			ObjectMapper objectMapper,
+			@Value("${exchange.conversion.batch.max-items:10000}") int maxItems) {
+		this.currencyService = currencyService;
+		this.mapper = mapper;
+		this.objectMapper = objectMapper;
+		this.maxItems = maxItems;
+	}
+
+	/**
+	 * JSON 配列で受け取った変換内容を一括変換する
+	 *
+	 * ・配列の要素を1件ずつ読み込んで解析し、最大件数を超えた時点で 413 を返す
+	 *
+	 * @param user ログインユーザ
+	 * @param body リクエスト本文（[{"amount":100,"base":"USD","target":"JPY"}, ...]）
+	 * @return 入力と同じ順の変換結果の Future
+	 */
+	@PostMapping(path = "/convert/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+			produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public CompletableFuture<List<BatchConvertResultDto>> convertJson(
+			@AuthenticationPrincipal UserDetails user,
+			InputStream body) throws IOException {
+
+		List<ParsedItem> items = new ArrayList<>();
+		try (JsonParser parser = objectMapper.createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_ARRAY) {
+				throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "request body must be a JSON array");
+			}
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				checkSize(items.size() + 1);
+				items.add(parse(parser.<JsonNode>readValueAsTree()));
+			}
+		} catch (JsonProcessingException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "malformed JSON: " + e.getOriginalMessage());
+		}
+		return convert(user.getUsername(), items);
+	}
+
+	/**
+	 * NDJSON（1行1件）で受け取った変換内容を一括変換する
+	 *
+	 * ・リクエストは1行ずつ読み込んで解析する（空行は無視する）
+	 * ・レスポンスも1行1件の NDJSON で返す
+	 *
+	 * @param user ログインユーザ
+	 * @param body リクエスト本文
+	 * @return 入力と同じ順の変換結果（NDJSON）の Future
+	 */
+	@PostMapping(path = "/convert/batch", consumes = NDJSON, produces = NDJSON)
+	@ResponseBody
+	public CompletableFuture<String> convertNdjson(
+			@AuthenticationPrincipal UserDetails user,
+			InputStream body) throws IOException {
+
+		List<ParsedItem> items = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.isBlank()) {
+					continue;
+				}
+				checkSize(items.size() + 1);
+				items.add(parse(line));
+			}
+		}
+		return convert(user.getUsername(), items).thenApply(this::toNdjson);
+	}
+
+	/**
+	 * 解析できた項目のみ Service でまとめて変換し、解析エラーと合わせて入力順に並べる
+	 */
+	private CompletableFuture<List<BatchConvertResultDto>> convert(String username, List<ParsedItem> items) {
+		List<ConversionRequest> requests = new ArrayList<>(items.size());
+		for (ParsedItem item : items) {
+			if (item.request() != null) {
+				requests.add(item.request());
+			}
+		}
+		return currencyService.convertBatchAsync(username, requests).thenApply(outcomes -> {
+			List<BatchConvertResultDto> results = new ArrayList<>(items.size());
+			int next = 0;
+			for (int i = 0; i < items.size(); i++) {
+				ConversionOutcome outcome = items.get(i).request() != null
+						? outcomes.get(next++)
+						: ConversionOutcome.failed(items.get(i).error());
+				results.add(mapper.toBatchDto(i, outcome));
+			}
+			return results;
+		});
+	}
+
+	private ParsedItem parse(JsonNode node) {
+		try {
+			return ParsedItem.of(objectMapper.treeToValue(node, BatchConvertRequestDto.class));
+		} catch (JsonProcessingException e) {
+			return new ParsedItem(null, "invalid item: " + e.getOriginalMessage());
+		}
+	}
+
+	private ParsedItem parse(String line) {
+		try {
+			return ParsedItem.of(objectMapper.readValue(line, BatchConvertRequestDto.class));
+		} catch (JsonProcessingException e) {
+			return new ParsedItem(null, "invalid item: " + e.getOriginalMessage());
+		}
+	}
+
+	private void checkSize(int size) {
+		if (size > maxItems) {
+			throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+					"batch must not contain more than " + maxItems + " items");
+		}
+	}
+
+	private String toNdjson(List<BatchConvertResultDto> results) {
+		StringBuilder sb = new StringBuilder(results.size() * 160);
+		try {
+			for (BatchConvertResultDto r : results) {
+				sb.append(objectMapper.writeValueAsString(r)).append('\n');
+			}
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * 1件分の解析結果（解析できた場合は変換内容、できなかった場合はエラー内容）
+	 */
+	private record ParsedItem(ConversionRequest request, String error) {
+
+		static ParsedItem of(BatchConvertRequestDto dto) {
+			if (dto == null) {
+				return new ParsedItem(null, "invalid item: null");
+			}
+			return new ParsedItem(new ConversionRequest(dto.getAmount(), dto.getBase(), dto.getTarget()), null);
+		}
+	}
+}
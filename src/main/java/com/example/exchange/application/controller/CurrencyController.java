@@ -1,6 +1,7 @@
 package com.example.exchange.application.controller;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,12 +14,15 @@ import org.springframework.web.bind.annotation.ResponseBody;
 import com.example.exchange.application.dto.ConvertResponseDto;
 import com.example.exchange.application.dto.CurrencyRateDto;
 import com.example.exchange.application.mapper.CurrencyRateMapper;
-import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.RateQuote;
 import com.example.exchange.domain.service.CurrencyConversionService;
 
 
 /**
  * 通貨変換に関するリクエストを処理するコントローラ
+ * 
+ * /latest・/convert は CompletableFuture を返す非同期処理とし、
+ * 外部 API の応答待ちの間もリクエスト処理スレッドを解放する。
  */
 @Controller
 public class CurrencyController {
@@ -43,30 +47,29 @@ public class CurrencyController {
 	
 	/**
 	 * 最新レートを取得する API
-	 * ログインユーザに紐づく最新レートを取得する。
+	 * 共有キャッシュに有効なレートがあればそれを返し、
+	 * 無ければ DB に記録された通貨ペアの最新レート（ユーザに依存しない）を取得する。
 	 * 
-	 * @param user ログインユーザ
 	 * @param base 基準通貨
 	 * @param target 対象通貨
-	 * @return 最新の通貨レート
+	 * @return 最新の通貨レートの Future
 	 */
 	@GetMapping("/latest")
 	@ResponseBody
-	public CurrencyRateDto getLatest(
-			@AuthenticationPrincipal UserDetails user,
+	public CompletableFuture<CurrencyRateDto> getLatest(
 			@RequestParam String base,
 			@RequestParam String target) {
 		
-		// 最新レート取得
-		CurrencyRate rate = currencyService.getLatestRate(username(user), base, target);
-		
-		// レートが存在しない場合は null
-		if(rate == null) {
-			return null;
+		// 共有キャッシュを優先（DB へは問い合わせない）
+		RateQuote cached = currencyService.getCachedRate(base, target);
+		if(cached != null) {
+			return CompletableFuture.completedFuture(mapper.toLatestDto(cached));
 		}
 		
-		// DTO へ変換して返却
-		return mapper.toLatestDto(rate);
+		// 最新レート取得（DB への問い合わせはリクエスト処理スレッド外で行う）
+		return currencyService.getLatestRateAsync(base, target)
+				// レートが存在しない場合は null、存在すれば DTO へ変換して返却
+				.thenApply(rate -> rate == null ? null : mapper.toLatestDto(rate));
 	}
 	
 	/**
@@ -76,21 +79,20 @@ public class CurrencyController {
 	 * @param amount 変換金額
 	 * @param base 基準通貨
 	 * @param target 対象通貨
-	 * @return 変換後金額
+	 * @return 変換後金額の Future（使用したレートの経過秒数・stale かどうかを含む）
 	 */
 	@GetMapping("/convert")
 	@ResponseBody
-	public ConvertResponseDto convert(
+	public CompletableFuture<ConvertResponseDto> convert(
 			@AuthenticationPrincipal UserDetails user,
 			@RequestParam BigDecimal amount,
 			@RequestParam String base,
 			@RequestParam String target) {
 
-		// Sevice で変換＋保存
-		CurrencyRate rate = currencyService.convertWithEntity(username(user), amount, base, target);
-		
-		// API 用 DTO へ変換して返す
-		return mapper.toConvertDto(rate);
+		// Sevice で変換＋保存（使用したレートの鮮度も受け取る）。レート取得中はスレッドを解放する
+		return currencyService.convertAsync(username(user), amount, base, target)
+				// API 用 DTO へ変換して返す
+				.thenApply(mapper::toConvertDto);
 	}
 	
 	/**
@@ -0,0 +1,70 @@
+package com.example.exchange.application.controller;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.example.exchange.application.dto.CurrencyRateDto;
+import com.example.exchange.application.dto.CursorPageDto;
+import com.example.exchange.application.dto.HistoryDto;
+import com.example.exchange.domain.model.HistoryCursor;
+import com.example.exchange.domain.service.CurrencyRateService;
+
+/**
+ * レート履歴一覧の JSON API を提供するコントローラ
+ *
+ * 画面（/exchange/history・/admin/rates）と同じキーセットページングの契約で返す。
+ * ・1ページ目はカーソル無し、以降は nextCursor を after に、previousCursor を before に指定する
+ * ・カーソルが不正な場合は 400
+ */
+@Controller
+public class HistoryApiController {
+
+	/** レート履歴関連の業務処理を担当する */
+	private final CurrencyRateService rateService;
+
+	public HistoryApiController(CurrencyRateService rateService) {
+		this.rateService = rateService;
+	}
+
+	/**
+	 * ログイン中のユーザのレート履歴を1ページ分返す（論理削除を除外・新しい順）
+	 *
+	 * @param user ログイン中のユーザ情報
+	 * @param after 次のページのカーソル
+	 * @param before 前のページのカーソル
+	 * @param size 1ページあたりの件数（最大 CurrencyRateService.MAX_PAGE_SIZE）
+	 * @return 履歴のページ
+	 */
+	@GetMapping("/api/history")
+	@ResponseBody
+	public CursorPageDto<HistoryDto> history(
+			@AuthenticationPrincipal UserDetails user,
+			@RequestParam(required = false) HistoryCursor after,
+			@RequestParam(required = false) HistoryCursor before,
+			@RequestParam(defaultValue = "10") int size) {
+		return rateService.getHistoryPage(user.getUsername(), after, before, size);
+	}
+
+	/**
+	 * 全ユーザのレート履歴を1ページ分返す（管理者用・論理削除済みを含む・ID 降順）
+	 *
+	 * @param after 次のページのカーソル
+	 * @param before 前のページのカーソル
+	 * @param size 1ページあたりの件数（最大 CurrencyRateService.MAX_PAGE_SIZE）
+	 * @return 履歴のページ
+	 */
+	@GetMapping("/api/admin/rates")
+	@ResponseBody
+	@PreAuthorize("hasRole('ADMIN')")
+	public CursorPageDto<CurrencyRateDto> allRates(
+			@RequestParam(required = false) HistoryCursor after,
+			@RequestParam(required = false) HistoryCursor before,
+			@RequestParam(defaultValue = "10") int size) {
+		return rateService.findAllPage(after, before, size);
+	}
+}
@@ -1,6 +1,5 @@
 package com.example.exchange.application.controller;
 
-import org.springframework.data.domain.Page;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
@@ -9,7 +8,9 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.example.exchange.application.dto.CursorPageDto;
 import com.example.exchange.application.dto.HistoryDto;
+import com.example.exchange.domain.model.HistoryCursor;
 import com.example.exchange.domain.service.CurrencyRateService;
 
 /**
@@ -39,27 +40,33 @@ public class HistoryController {
     /**
 	 * ログイン中のユーザのレート一覧を表示する。
 	 * 
-	 * ページ番号を受け取り、該当ユーザの履歴のみを取得して画面へ渡す。
+	 * カーソル（after / before）を受け取り、該当ユーザの履歴のみを取得して画面へ渡す。
 	 * 論理削除された履歴は Service 層で除外される。
+	 * ページングはキーセット方式のため、ページの深さに関わらず一定のコストで表示できる。
 	 * 
 	 * @param user ログイン中のユーザ情報
-	 * @param page ページ番号
+	 * @param after 次のページのカーソル（前ページの nextCursor）
+	 * @param before 前のページのカーソル（前ページの previousCursor）
+	 * @param size 1ページあたりの件数
 	 * @param model 画面へ値を渡すための Model
 	 * @return history.html
 	 */
     @GetMapping("/exchange/history")
     public String showHistory(
     		@AuthenticationPrincipal UserDetails user,
-    		@RequestParam(defaultValue = "0") int page,
+    		@RequestParam(required = false) HistoryCursor after,
+    		@RequestParam(required = false) HistoryCursor before,
+    		@RequestParam(defaultValue = "10") int size,
     		Model model) {
     	
     	String username = user.getUsername();
     	
-    	// ログインユーザの履歴をページング取得
-    	Page<HistoryDto> rates = rateService.getRatesDto(username, page, 10);
+    	// ログインユーザの履歴をカーソルの位置から1ページ分取得
+    	CursorPageDto<HistoryDto> rates = rateService.getHistoryPage(username, after, before, size);
     	
-    	// 画面へ渡す
+    	// 画面へ渡す（件数は COUNT せず、管理している件数を表示する）
     	model.addAttribute("rates", rates);
+    	model.addAttribute("total", rateService.countActive(username));
     	
     	return "history";	// templates/history.html
     }
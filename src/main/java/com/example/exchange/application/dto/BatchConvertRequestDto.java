@@ -0,0 +1,30 @@
+package com.example.exchange.application.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Getter;
+
+/**
+ * 一括変換 API のリクエスト1件分の DTO
+ *
+ * 項目名は GET /convert のパラメータ（amount / base / target）に揃える。
+ */
+@Getter
+public class BatchConvertRequestDto {
+
+	/** 変換金額 */
+	private BigDecimal amount;
+	/** 基準通貨 */
+	private String base;
+	/** 対象通貨 */
+	private String target;
+
+	/**
+	 * コンストラクタ（JSON から生成する）
+	 */
+	public BatchConvertRequestDto(BigDecimal amount, String base, String target) {
+		this.amount = amount;
+		this.base = base;
+		this.target = target;
+	}
+}
@@ -0,0 +1,32 @@
+package com.example.exchange.application.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+
+/**
+ * 一括変換 API のレスポンス1件分の DTO
+ *
+ * ・index はリクエスト内の位置（0 始まり）で、レスポンスもこの順に並ぶ
+ * ・成功時は result、失敗時は error のどちらか一方のみを返す
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchConvertResultDto {
+
+	/** リクエスト内の位置 */
+	private int index;
+	/** 変換結果（失敗時は null） */
+	private ConvertResponseDto result;
+	/** エラー内容（成功時は null） */
+	private String error;
+
+	/**
+	 * コンストラクタ
+	 */
+	public BatchConvertResultDto(int index, ConvertResponseDto result, String error) {
+		this.index = index;
+		this.result = result;
+		this.error = error;
+	}
+}
@@ -24,6 +24,12 @@ public class ConvertResponseDto {
 	private String rate;
 	/** 取得日時 */
 	private String fetchedAtText;
+	/** 変換に使用したレートの経過秒数 */
+	private long rateAgeSeconds;
+	/** レートが古い（裏で再取得中）かどうか */
+	private boolean stale;
+	/** 外部 API の障害により、最後に取得できたレートで代替したかどうか */
+	private boolean degraded;
 	
 	/**
 	 * コンストラクタ
@@ -34,12 +40,18 @@ public class ConvertResponseDto {
 			String targetCurrency,
 			BigDecimal convertedAmount,
 			String rate,
-			String fetchedAtText) {
+			String fetchedAtText,
+			long rateAgeSeconds,
+			boolean stale,
+			boolean degraded) {
 		this.amount = amount;
 		this.baseCurrency = baseCurrency;
 		this.targetCurrency = targetCurrency;
 		this.convertedAmount = convertedAmount;
 		this.rate = rate;
 		this.fetchedAtText = fetchedAtText;
+		this.rateAgeSeconds = rateAgeSeconds;
+		this.stale = stale;
+		this.degraded = degraded;
 	}
 }
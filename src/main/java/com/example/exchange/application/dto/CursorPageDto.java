@@ -0,0 +1,37 @@
+package com.example.exchange.application.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * キーセット（シーク）ページングの1ページ分の DTO（画面・JSON API 共通）
+ *
+ * ・総件数・総ページ数は持たない（件数を数えるクエリを発行しない）
+ * ・前後のページは nextCursor / previousCursor を after / before パラメータに渡して取得する
+ * 		（該当するページが無い場合は null）
+ *
+ * @param <T> 1行分の DTO
+ */
+@Getter
+public class CursorPageDto<T> {
+
+	/** このページの行 */
+	private List<T> content;
+	/** 1ページあたりの件数 */
+	private int size;
+	/** 次の（古い）ページのカーソル */
+	private String nextCursor;
+	/** 前の（新しい）ページのカーソル */
+	private String previousCursor;
+
+	/**
+	 * コンストラクタ
+	 */
+	public CursorPageDto(List<T> content, int size, String nextCursor, String previousCursor) {
+		this.content = content;
+		this.size = size;
+		this.nextCursor = nextCursor;
+		this.previousCursor = previousCursor;
+	}
+}
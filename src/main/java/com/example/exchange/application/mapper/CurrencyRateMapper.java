@@ -1,13 +1,25 @@
 package com.example.exchange.application.mapper;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.springframework.stereotype.Component;
 
+import com.example.exchange.application.dto.BatchConvertResultDto;
 import com.example.exchange.application.dto.ConvertResponseDto;
 import com.example.exchange.application.dto.CurrencyRateDto;
 import com.example.exchange.application.dto.HistoryDto;
+import com.example.exchange.domain.model.AdminRateRow;
+import com.example.exchange.domain.model.ConversionOutcome;
+import com.example.exchange.domain.model.ConversionResult;
 import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.FixedPoint;
+import com.example.exchange.domain.model.HistoryRow;
+import com.example.exchange.domain.model.RateQuote;
 
 /**
  * CurrencyRate Entity を画面表示用 DTO に変換する Mapper
@@ -40,7 +52,7 @@ public class CurrencyRateMapper {
 				e.getTargetCurrency(),
 				e.getAmount(),
 				e.getConvertedAmount(),
-				e.getRate().toPlainString(),
+				rateText(e),
 				e.getFetchedAt().format(F),
 				e.isDeleted(),
 				e.getDeletedAt(),
@@ -48,49 +60,65 @@ public class CurrencyRateMapper {
 	}
 
 	/**
-	 * Entity → ConvertResponseDto（変換結果画面用）
+	 * ConversionResult → ConvertResponseDto（変換結果画面用）
 	 * 
 	 * ・金額・レート・日時のみを返す軽量 DTO
+	 * ・使用したレートの経過秒数と stale かどうかを含める
 	 * ・削除情報は不要
 	 * 
-	 * @param e CurrencyRate Entity
+	 * @param r 変換結果
 	 * @return ConvertResponseDto
 	 */
-	public ConvertResponseDto toConvertDto(CurrencyRate e) {
+	public ConvertResponseDto toConvertDto(ConversionResult r) {
+		CurrencyRate e = r.history();
 		return new ConvertResponseDto(
 				e.getAmount(),
 				e.getBaseCurrency(),
 				e.getTargetCurrency(),
 				e.getConvertedAmount(),
-				e.getRate().toPlainString(),
-				e.getFetchedAt().format(F));
+				rateText(e),
+				e.getFetchedAt().format(F),
+				r.rateAge().toSeconds(),
+				r.stale(),
+				r.degraded());
 	}
 
 	/**
-	 * Entity → CurrencyRateDto（最新レート取得用）
+	 * ConversionOutcome → BatchConvertResultDto（一括変換 API 用）
 	 * 
-	 * ・amount / convertedAmount は不要のため null
-	 * ・削除情報は保持する（管理者画面で使用される可能性があるため）
+	 * ・成功時は変換結果（toConvertDto と同じ形式）、失敗時はエラー内容のみを返す
 	 * 
-	 * @param e CurrencyRate Entity
-	 * @return CurrencyRateDto
+	 * @param index リクエスト内の位置
+	 * @param o 1件分の変換結果
+	 * @return BatchConvertResultDto
 	 */
-	public CurrencyRateDto toLatestDto(CurrencyRate e) {
-		if (e == null)
-			return null;
+	public BatchConvertResultDto toBatchDto(int index, ConversionOutcome o) {
+		return o.isSuccess()
+				? new BatchConvertResultDto(index, toConvertDto(o.result()), null)
+				: new BatchConvertResultDto(index, null, o.error());
+	}
 
+	/**
+	 * RateQuote → CurrencyRateDto（共有キャッシュ・レートスナップショットからの最新レート取得用）
+	 * 
+	 * ・通貨ペア単位のレートのため、ID・ユーザ名・金額・削除情報は null
+	 * 
+	 * @param q 共有キャッシュ上のレート
+	 * @return CurrencyRateDto
+	 */
+	public CurrencyRateDto toLatestDto(RateQuote q) {
 		return new CurrencyRateDto(
-				e.getId(),
-				e.getUsername(),
-				e.getBaseCurrency(),
-				e.getTargetCurrency(),
-				null,	// amount は不要
-				null,	// convertedAmount も不要
-				e.getRate().toPlainString(),
-				e.getFetchedAt().format(F),
-				e.isDeleted(),
-				e.getDeletedAt(),
-				e.getDeletedBy());
+				null,	// 履歴レコードではないため ID なし
+				null,	// ユーザに依存しない
+				q.baseCurrency(),
+				q.targetCurrency(),
+				null,
+				null,
+				q.rate().toPlainString(),
+				q.fetchedAt().format(F),
+				false,
+				null,
+				null);
 	}
 
 	/**
@@ -109,7 +137,98 @@ public class CurrencyRateMapper {
 				e.getTargetCurrency(),
 				e.getAmount(),
 				e.getConvertedAmount(),
-				e.getRate().toPlainString(),
+				rateText(e),
 				e.getFetchedAt().format(F));
 	}
+
+	/**
+	 * HistoryRow の一覧 → HistoryDto の一覧（ユーザの履歴画面・API 用）
+	 * 
+	 * ・一覧は変換日時の順に並ぶため、同じ分・同じレートが続く行はフォーマット済みの文字列を使い回す
+	 * 
+	 * @param rows 一覧の行
+	 * @return HistoryDto の一覧
+	 */
+	public List<HistoryDto> toHistoryDtos(List<HistoryRow> rows) {
+		PageFormatter f = new PageFormatter();
+		List<HistoryDto> dtos = new ArrayList<>(rows.size());
+		for (HistoryRow r : rows) {
+			dtos.add(new HistoryDto(
+					r.id(),
+					r.baseCurrency(),
+					r.targetCurrency(),
+					r.amount(),
+					r.convertedAmount(),
+					f.rate(r.rate()),
+					f.minute(r.fetchedAt())));
+		}
+		return dtos;
+	}
+
+	/**
+	 * AdminRateRow の一覧 → CurrencyRateDto の一覧（管理者画面・API 用）
+	 * 
+	 * ・フォーマット済みの文字列の使い回しは toHistoryDtos と同じ
+	 * 
+	 * @param rows 一覧の行
+	 * @return CurrencyRateDto の一覧
+	 */
+	public List<CurrencyRateDto> toAdminDtos(List<AdminRateRow> rows) {
+		PageFormatter f = new PageFormatter();
+		List<CurrencyRateDto> dtos = new ArrayList<>(rows.size());
+		for (AdminRateRow r : rows) {
+			dtos.add(new CurrencyRateDto(
+					r.id(),
+					r.username(),
+					r.baseCurrency(),
+					r.targetCurrency(),
+					r.amount(),
+					r.convertedAmount(),
+					f.rate(r.rate()),
+					f.minute(r.fetchedAt()),
+					r.deleted(),
+					r.deletedAt(),
+					r.deletedBy()));
+		}
+		return dtos;
+	}
+
+	/**
+	 * 変換に使用したレートの表示用文字列（toPlainString と同じ文字列）
+	 * 
+	 * ・スナップショットの固定小数点から直接組み立てる（BigDecimal の文字列化を経由しない）
+	 */
+	private static String rateText(CurrencyRate e) {
+		long scaled = e.getScaledRate();
+		return scaled == FixedPoint.NONE
+				? e.getRate().toPlainString()
+				: FixedPoint.toPlainString(scaled, FixedPoint.RATE_SCALE);
+	}
+
+	/**
+	 * 1ページ分の変換で、直前の行と同じ値のフォーマット結果を使い回す（1回の変換内でのみ使用する）
+	 */
+	private static final class PageFormatter {
+		private LocalDateTime lastMinute;
+		private String lastMinuteText;
+		private BigDecimal lastRate;
+		private String lastRateText;
+
+		String minute(LocalDateTime t) {
+			LocalDateTime minute = t.truncatedTo(ChronoUnit.MINUTES);
+			if (!minute.equals(lastMinute)) {
+				lastMinute = minute;
+				lastMinuteText = minute.format(F);
+			}
+			return lastMinuteText;
+		}
+
+		String rate(BigDecimal rate) {
+			if (lastRate == null || rate.compareTo(lastRate) != 0 || rate.scale() != lastRate.scale()) {
+				lastRate = rate;
+				lastRateText = rate.toPlainString();
+			}
+			return lastRateText;
+		}
+	}
 }
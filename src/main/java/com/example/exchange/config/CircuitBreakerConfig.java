@@ -0,0 +1,51 @@
+package com.example.exchange.config;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.exchange.infrastructure.api.CircuitBreaker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 外部為替 API 用サーキットブレーカーの Bean 定義クラス
+ * 
+ * 閾値などの設定値は application.properties の exchange.api.circuit-breaker.* で指定する。
+ */
+@Configuration
+public class CircuitBreakerConfig {
+
+	/**
+	 * 外部為替 API 用のサーキットブレーカーを Spring コンテナへ登録する。
+	 * 
+	 * @param windowSize 失敗率を計算する直近の呼び出し件数
+	 * @param minimumCalls 失敗率を判定するのに必要な最小呼び出し件数
+	 * @param failureRateThreshold OPEN へ遷移する失敗率（%）
+	 * @param openDuration OPEN を維持する時間
+	 * @param halfOpenCalls HALF_OPEN で試験的に許可する呼び出し件数
+	 * @param meterRegistry メトリクス登録先
+	 * @return CircuitBreaker インスタンス
+	 */
+	@Bean
+	public CircuitBreaker rateApiCircuitBreaker(
+			@Value("${exchange.api.circuit-breaker.window-size:20}") int windowSize,
+			@Value("${exchange.api.circuit-breaker.minimum-calls:10}") int minimumCalls,
+			@Value("${exchange.api.circuit-breaker.failure-rate-threshold:50}") int failureRateThreshold,
+			@Value("${exchange.api.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+			@Value("${exchange.api.circuit-breaker.half-open-calls:3}") int halfOpenCalls,
+			MeterRegistry meterRegistry) {
+		return new CircuitBreaker(
+				"exchange-rate-api",
+				windowSize,
+				minimumCalls,
+				failureRateThreshold,
+				openDuration,
+				halfOpenCalls,
+				Clock.systemUTC(),
+				meterRegistry);
+	}
+}
@@ -0,0 +1,153 @@
+package com.example.exchange.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import com.example.exchange.domain.service.CurrencyRateService;
+import com.example.exchange.infrastructure.persistence.ReplicaLagMonitor;
+import com.example.exchange.infrastructure.persistence.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 読み取り用レプリカを使う場合の DataSource の Bean 定義クラス（exchange.datasource.replica.enabled=true の場合のみ）
+ *
+ * ・プライマリ（spring.datasource.*）とレプリカ（exchange.datasource.replica.*）のコネクションプールを別々に持つ
+ * ・サービス層の読み取り専用トランザクション（履歴・管理者画面の一覧など）をレプリカへ、それ以外をプライマリへ振り分ける
+ * ・レプリカの遅延が上限を超えた場合・接続できない場合はプライマリで読む
+ * ・無効の場合は Spring Boot の自動設定（プライマリのみ）を使う
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "exchange.datasource.replica", name = "enabled", havingValue = "true")
+public class DataSourceConfig {
+
+	/**
+	 * プライマリのコネクションプール（spring.datasource.* ・spring.datasource.hikari.* の設定を使う）
+	 *
+	 * @param properties spring.datasource.* の設定
+	 * @return HikariDataSource インスタンス
+	 */
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("primary");
+		return dataSource;
+	}
+
+	/**
+	 * 読み取り用レプリカのコネクションプール
+	 *
+	 * ・接続は読み取り専用とする（誤って振り分けられた更新はレプリカで失敗する）
+	 *
+	 * @param url JDBC URL
+	 * @param username ユーザ名
+	 * @param password パスワード
+	 * @param poolSize 最大接続数
+	 * @return HikariDataSource インスタンス
+	 */
+	@Bean
+	public HikariDataSource replicaDataSource(
+			@Value("${exchange.datasource.replica.url}") String url,
+			@Value("${exchange.datasource.replica.username:}") String username,
+			@Value("${exchange.datasource.replica.password:}") String password,
+			@Value("${exchange.datasource.replica.pool-size:10}") int poolSize) {
+		HikariDataSource dataSource = DataSourceBuilder.create()
+				.type(HikariDataSource.class)
+				.url(url)
+				.username(username)
+				.password(password)
+				.build();
+		dataSource.setPoolName("replica");
+		dataSource.setMaximumPoolSize(poolSize);
+		dataSource.setReadOnly(true);
+		return dataSource;
+	}
+
+	/**
+	 * レプリカの遅延の確認に使用するスケジューラ
+	 *
+	 * ・履歴の保守（長時間の削除など）に遅延の確認が待たされないよう、専用のスレッドで実行する
+	 *
+	 * @return TaskScheduler インスタンス
+	 */
+	@Bean
+	public TaskScheduler replicaLagCheckScheduler() {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(1);
+		scheduler.setThreadNamePrefix("replica-lag-");
+		return scheduler;
+	}
+
+	/**
+	 * レプリカの遅延の監視
+	 *
+	 * @param replica 読み取り用レプリカ
+	 * @param scheduler 確認に使用するスケジューラ
+	 * @param meterRegistry メトリクス登録先
+	 * @param lagQuery 遅延の秒数を返すクエリ（空の場合は SHOW REPLICA STATUS）
+	 * @param maxLag 読み込みに使う遅延の上限
+	 * @param checkInterval 確認の間隔
+	 * @return ReplicaLagMonitor インスタンス
+	 */
+	@Bean
+	public ReplicaLagMonitor replicaLagMonitor(
+			@Qualifier("replicaDataSource") DataSource replica,
+			@Qualifier("replicaLagCheckScheduler") TaskScheduler scheduler,
+			MeterRegistry meterRegistry,
+			@Value("${exchange.datasource.replica.lag-query:}") String lagQuery,
+			@Value("${exchange.datasource.replica.max-lag:PT5S}") Duration maxLag,
+			@Value("${exchange.datasource.replica.check-interval:PT5S}") Duration checkInterval) {
+		return new ReplicaLagMonitor(replica, scheduler, meterRegistry, lagQuery, maxLag, checkInterval);
+	}
+
+	/**
+	 * プライマリとレプリカへ振り分ける DataSource
+	 *
+	 * ・サービス層（domain.service パッケージ）で開始した読み取り専用トランザクションのみをレプリカへ振り分ける
+	 *
+	 * @param primary プライマリ
+	 * @param replica 読み取り用レプリカ
+	 * @param monitor レプリカの遅延の監視
+	 * @param meterRegistry メトリクス登録先
+	 * @return ReplicaRoutingDataSource インスタンス
+	 */
+	@Bean
+	public ReplicaRoutingDataSource routingDataSource(
+			@Qualifier("primaryDataSource") DataSource primary,
+			@Qualifier("replicaDataSource") DataSource replica,
+			ReplicaLagMonitor monitor,
+			MeterRegistry meterRegistry) {
+		return new ReplicaRoutingDataSource(primary, replica, monitor, meterRegistry,
+				CurrencyRateService.class.getPackageName() + ".");
+	}
+
+	/**
+	 * JPA・JdbcTemplate が使用する DataSource
+	 *
+	 * ・トランザクションが読み取り専用かどうかは開始後に決まるため、最初の SQL の実行時に振り分け先から接続を取得する
+	 *
+	 * @param routingDataSource プライマリとレプリカへ振り分ける DataSource
+	 * @return DataSource インスタンス
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+}
@@ -0,0 +1,143 @@
+package com.example.exchange.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * アプリケーション内で使用するスレッドプールの Bean 定義クラス
+ * 
+ * ・スレッド数とキュー長に上限を設け、外部 API の遅延がアプリ全体へ波及しないようにする
+ * ・Spring 管理下で生成し、終了時にタスクの完了を待ってから停止する
+ * ・spring.threads.virtual.enabled=true の場合は、スレッドプールの代わりに仮想スレッドを使用する
+ * 		（ブロッキング I/O の待ち時間にプラットフォームスレッドを占有しない）
+ */
+@Configuration
+public class ExecutorConfig {
+
+	/** 仮想スレッドモードで、終了時に実行中のタスクの完了を待つ時間の上限（ミリ秒） */
+	private static final long VIRTUAL_TERMINATION_TIMEOUT_MILLIS = 10_000;
+
+	/**
+	 * 外部 API からのレート取得に使用するスレッドプール
+	 * 
+	 * ・仮想スレッドモードでは、同時実行数を poolSize に制限した仮想スレッドで実行する
+	 * 		（上限に達した場合は待ち行列の代わりに呼び出し元が待つ）
+	 * 
+	 * @param poolSize スレッド数（仮想スレッドモードでは同時実行数の上限）
+	 * @param queueCapacity 待ち行列の上限
+	 * @param virtualThreads 仮想スレッドを使用するかどうか
+	 * @return AsyncTaskExecutor インスタンス
+	 */
+	@Bean
+	public AsyncTaskExecutor rateFetchExecutor(
+			@Value("${exchange.rate-fetch.pool-size:4}") int poolSize,
+			@Value("${exchange.rate-fetch.queue-capacity:100}") int queueCapacity,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		if (virtualThreads) {
+			SimpleAsyncTaskExecutor executor = virtualExecutor("rate-fetch-");
+			executor.setConcurrencyLimit(poolSize);
+			return executor;
+		}
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("rate-fetch-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+
+	/**
+	 * 非同期の変換処理で、レート決定後の DB アクセス（履歴の保存など）に使用するスレッドプール
+	 * 
+	 * ・外部 API の応答待ちには使用しない（応答待ちの間はスレッドを占有しない）
+	 * ・待ち行列が埋まった場合は呼び出し元のスレッドで実行し、処理を取りこぼさない
+	 * ・仮想スレッドモードでは、タスクごとに仮想スレッドを生成する
+	 * 		（同時に DB へアクセスできる数はコネクションプールで制限される）
+	 * 
+	 * @param poolSize スレッド数
+	 * @param queueCapacity 待ち行列の上限
+	 * @param virtualThreads 仮想スレッドを使用するかどうか
+	 * @return AsyncTaskExecutor インスタンス
+	 */
+	@Bean
+	public AsyncTaskExecutor conversionExecutor(
+			@Value("${exchange.conversion.pool-size:8}") int poolSize,
+			@Value("${exchange.conversion.queue-capacity:1000}") int queueCapacity,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		if (virtualThreads) {
+			return virtualExecutor("conversion-");
+		}
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("conversion-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		return executor;
+	}
+
+	/**
+	 * レートの事前更新の予約に使用するスケジューラ
+	 * 
+	 * ・予約と完了通知のみを担当し、API 呼び出し自体はレート取得用スレッドプールで行う
+	 * ・仮想スレッドモードでは、予約時刻になったタスクを仮想スレッドで実行する
+	 * 
+	 * @param properties 事前更新の設定値
+	 * @param virtualThreads 仮想スレッドを使用するかどうか
+	 * @return TaskScheduler インスタンス
+	 */
+	@Bean
+	public TaskScheduler rateRefreshTaskScheduler(
+			RateRefreshProperties properties,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		if (virtualThreads) {
+			SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+			scheduler.setVirtualThreads(true);
+			scheduler.setThreadNamePrefix("rate-refresh-");
+			scheduler.setTaskTerminationTimeout(VIRTUAL_TERMINATION_TIMEOUT_MILLIS);
+			return scheduler;
+		}
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(properties.getPoolSize());
+		scheduler.setThreadNamePrefix("rate-refresh-");
+		return scheduler;
+	}
+
+	/**
+	 * 変換履歴の保守（保持期間を過ぎたパーティションの切り離しなど）の予約・実行に使用するスケジューラ
+	 * 
+	 * ・保守は1件ずつ順に行うため、スレッドは1本とする（DDL・大きな削除を同時に実行しない）
+	 * 
+	 * @return TaskScheduler インスタンス
+	 */
+	@Bean
+	public TaskScheduler historyMaintenanceTaskScheduler() {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(1);
+		scheduler.setThreadNamePrefix("history-maintenance-");
+		return scheduler;
+	}
+
+	/**
+	 * タスクごとに仮想スレッドを生成する Executor を生成する
+	 * 
+	 * ・終了時は実行中のタスクの完了を一定時間待つ
+	 */
+	private static SimpleAsyncTaskExecutor virtualExecutor(String threadNamePrefix) {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+		executor.setVirtualThreads(true);
+		executor.setTaskTerminationTimeout(VIRTUAL_TERMINATION_TIMEOUT_MILLIS);
+		return executor;
+	}
+}
@@ -0,0 +1,40 @@
+package com.example.exchange.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 非同期 HTTP クライアントの Bean 定義クラス
+ *
+ * ・外部 API の応答を待つ間スレッドを占有しない JDK 標準の HttpClient を登録する
+ * ・接続は HttpClient 内部で keep-alive により使い回される
+ * ・仮想スレッドモードでは、応答の受け取り後の処理も仮想スレッドで実行する
+ */
+@Configuration
+public class HttpClientConfig {
+
+	/**
+	 * 外部為替 API の非同期呼び出しに使用する HttpClient を Spring コンテナへ登録する。
+	 *
+	 * @param connectTimeout 接続タイムアウト（読み取りタイムアウトはリクエストごとに指定する）
+	 * @param virtualThreads 仮想スレッドを使用するかどうか
+	 * @return HttpClient インスタンス（コンテナ終了時に close される）
+	 */
+	@Bean
+	public HttpClient rateApiAsyncHttpClient(
+			@Value("${exchange.api.connect-timeout:PT2S}") Duration connectTimeout,
+			@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+		HttpClient.Builder builder = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(connectTimeout);
+		if (virtualThreads) {
+			builder.executor(Executors.newVirtualThreadPerTaskExecutor());
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,54 @@
+package com.example.exchange.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.exchange.infrastructure.monitoring.PairTagLimiter;
+import com.example.exchange.infrastructure.monitoring.ViewRenderTimingInterceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+/**
+ * メトリクス（Micrometer）の設定クラス
+ *
+ * ・外部 API のメトリクス（exchange.api.request）の通貨ペア数を制限する
+ * ・画面の描画時間を記録するインターセプタを登録する
+ *
+ * レイテンシ分布（ヒストグラム）の出力や公開するエンドポイントは application.properties の management.* で指定する。
+ */
+@Configuration
+public class MetricsConfig {
+
+	/**
+	 * 外部 API のメトリクスの pair タグを、最初に現れた maxPairs 種類までに制限する
+	 *
+	 * MeterRegistry の生成時に適用されるよう、static で定義する。
+	 *
+	 * @param maxPairs 通貨ペアごとに分ける上限
+	 * @return MeterFilter
+	 */
+	@Bean
+	public static MeterFilter apiPairTagLimiter(@Value("${exchange.metrics.api.max-pairs:100}") int maxPairs) {
+		return new PairTagLimiter("exchange.api.request", maxPairs);
+	}
+
+	/**
+	 * 画面の描画時間を記録するインターセプタを登録する
+	 *
+	 * @param meterRegistry メトリクス登録先
+	 * @return WebMvcConfigurer
+	 */
+	@Bean
+	public WebMvcConfigurer viewRenderMetrics(MeterRegistry meterRegistry) {
+		return new WebMvcConfigurer() {
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(new ViewRenderTimingInterceptor(meterRegistry));
+			}
+		};
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.exchange.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * レートの事前更新（refresh-ahead）に関する設定値
+ * 
+ * application.properties の exchange.rate-refresh.* をバインドする。
+ * 
+ * ・currencies の全組み合わせ（基準通貨 ≠ 対象通貨）を更新対象とする
+ * ・通貨ペアごとの更新間隔は intervals（キー：USD-JPY 形式）で上書きできる
+ * ・更新間隔はキャッシュの TTL より短くし、期限切れ前に更新されるようにする
+ * ・bulk = true の場合は anchor の全レートを1回で取得し、他の通貨ペアは三角裁定で算出する
+ * 		（この場合の更新間隔は、全通貨ペアの更新間隔の最小値となる）
+ * ・揺らぎ（jitter）は全ての更新間隔より短くする（以上の場合は起動時にエラーとする。
+ * 		次回の更新までの待ち時間が 0 以下になり、API を連続で呼び出してしまうため）
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "exchange.rate-refresh")
+public class RateRefreshProperties implements InitializingBean {
+
+	/** 事前更新を行うかどうか */
+	private boolean enabled = true;
+
+	/** 更新対象の通貨（画面で選択できる通貨と同じ） */
+	private List<String> currencies = List.of("USD", "GBP", "EUR", "AUD", "KRW", "HKD", "JPY");
+
+	/** 1回の API 呼び出しで全通貨ペアを更新するかどうか */
+	private boolean bulk = true;
+
+	/** 一括更新時に API で取得する基準通貨 */
+	private String anchor = "USD";
+
+	/** 既定の更新間隔 */
+	private Duration defaultInterval = Duration.ofMinutes(45);
+
+	/** 通貨ペアごとの更新間隔（キー：基準通貨-対象通貨） */
+	private Map<String, Duration> intervals = new HashMap<>();
+
+	/** 更新時刻を分散させるための揺らぎ（更新間隔からランダムに差し引く） */
+	private Duration jitter = Duration.ofMinutes(5);
+
+	/** 取得に失敗した場合の再試行間隔 */
+	private Duration retryInterval = Duration.ofMinutes(1);
+
+	/** 起動直後の初回取得を分散させる幅 */
+	private Duration warmupSpread = Duration.ofSeconds(10);
+
+	/** 更新スケジュールを管理するスレッド数 */
+	private int poolSize = 2;
+
+	/**
+	 * バインド後に設定値を検証する（事前更新が無効の場合は検証しない）
+	 * 
+	 * @throws IllegalStateException 揺らぎが負、または更新間隔以上の場合
+	 */
+	@Override
+	public void afterPropertiesSet() {
+		if (!enabled) {
+			return;
+		}
+		if (jitter.isNegative()) {
+			throw new IllegalStateException("exchange.rate-refresh.jitter must not be negative: " + jitter);
+		}
+		checkInterval("default-interval", defaultInterval);
+		intervals.forEach((pair, interval) -> checkInterval("intervals." + pair, interval));
+	}
+	
+	private void checkInterval(String name, Duration interval) {
+		if (jitter.compareTo(interval) >= 0) {
+			throw new IllegalStateException("exchange.rate-refresh.jitter (" + jitter
+					+ ") must be shorter than exchange.rate-refresh." + name + " (" + interval + ")");
+		}
+	}
+
+	/**
+	 * 通貨ペアの更新間隔を取得する
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 個別設定があればその値、無ければ既定の更新間隔
+	 */
+	public Duration intervalFor(String base, String target) {
+		return intervals.getOrDefault(base + "-" + target, defaultInterval);
+	}
+
+	/**
+	 * 一括更新時の更新間隔を取得する
+	 * 
+	 * @return 全通貨ペアの更新間隔のうち最も短いもの
+	 */
+	public Duration bulkInterval() {
+		return intervals.values().stream()
+				.filter(i -> i.compareTo(defaultInterval) < 0)
+				.min(Duration::compareTo)
+				.orElse(defaultInterval);
+	}
+}
@@ -1,32 +1,123 @@
 package com.example.exchange.config;
 
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
 /**
  * RestTemplate の Bean 定義クラス
  * HTTP 通信を行う RestTemplate を Spring の管理対象として登録する
- * 
+ *
  * ・RestTemplate を直接 new せず、Spring 管理下で生成する
  * ・コンストラクタインジェクションを可能にし、依存関係を明確化する
  * ・テスト時にモックへ差し替え可能にし、テスト容易性を向上される
  * ・インフラ層の設定を Config パッケージへ集約し、責務分離をする
+ * ・外部 API への接続はプールで使い回し、呼び出しごとの接続確立（TLS ハンドシェイク）を避ける
  */
 @Configuration
 public class RestTemplateConfig {
-	
+
+	/**
+	 * 外部 API 用のコネクションプールを Spring コンテナへ登録する。
+	 *
+	 * ・接続先（ホスト）ごとの同時接続数に上限を設ける
+	 * ・一定時間使われなかった接続は、再利用前に生存確認を行う
+	 * ・プールの使用状況（使用中・待機中など）をメトリクスとして公開する
+	 *
+	 * @param maxTotal プール全体の最大接続数
+	 * @param maxPerRoute 接続先ごとの最大接続数
+	 * @param connectTimeout 接続タイムアウト
+	 * @param readTimeout 読み取りタイムアウト
+	 * @param timeToLive 接続を使い回す最大期間
+	 * @param validateAfterInactivity 再利用前に生存確認を行う未使用期間
+	 * @param meterRegistry メトリクス登録先
+	 * @return PoolingHttpClientConnectionManager インスタンス
+	 */
+	@Bean
+	public PoolingHttpClientConnectionManager rateApiConnectionManager(
+			@Value("${exchange.api.pool.max-total:20}") int maxTotal,
+			@Value("${exchange.api.pool.max-per-route:10}") int maxPerRoute,
+			@Value("${exchange.api.connect-timeout:PT2S}") Duration connectTimeout,
+			@Value("${exchange.api.read-timeout:PT3S}") Duration readTimeout,
+			@Value("${exchange.api.pool.time-to-live:PT5M}") Duration timeToLive,
+			@Value("${exchange.api.pool.validate-after-inactivity:PT2S}") Duration validateAfterInactivity,
+			MeterRegistry meterRegistry) {
+		PoolingHttpClientConnectionManager manager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(maxTotal)
+				.setMaxConnPerRoute(maxPerRoute)
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(Timeout.of(connectTimeout))
+						.setSocketTimeout(Timeout.of(readTimeout))
+						.setTimeToLive(TimeValue.of(timeToLive))
+						.setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+						.build())
+				.build();
+		new PoolingHttpClientConnectionManagerMetricsBinder(manager, "exchange-rate-api").bindTo(meterRegistry);
+		return manager;
+	}
+
+	/**
+	 * 外部 API 用の HTTP クライアントを Spring コンテナへ登録する。
+	 *
+	 * ・接続はプールから取得し、keep-alive で使い回す
+	 * ・一定時間使われなかった接続・期限切れの接続は、バックグラウンドで閉じる
+	 * ・プールが埋まっている場合の待ち時間に上限を設ける（外部 API の遅延で待ちが積み上がらないように）
+	 *
+	 * @param connectionManager コネクションプール
+	 * @param readTimeout 読み取りタイムアウト
+	 * @param connectionRequestTimeout プールから接続を取得するまでの待ち時間の上限
+	 * @param idleTimeout 未使用の接続を閉じるまでの時間
+	 * @return CloseableHttpClient インスタンス（コンテナ終了時に close される）
+	 */
+	@Bean
+	public CloseableHttpClient rateApiHttpClient(
+			PoolingHttpClientConnectionManager connectionManager,
+			@Value("${exchange.api.read-timeout:PT3S}") Duration readTimeout,
+			@Value("${exchange.api.pool.connection-request-timeout:PT1S}") Duration connectionRequestTimeout,
+			@Value("${exchange.api.pool.idle-timeout:PT30S}") Duration idleTimeout) {
+		return HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+						.setResponseTimeout(Timeout.of(readTimeout))
+						.build())
+				.evictIdleConnections(TimeValue.of(idleTimeout))
+				.evictExpiredConnections()
+				.build();
+	}
+
 	/**
 	 * RestTemplate を Spring コンテナへ登録する。
 	 * HTTP リクエスト送信用の RestTemplate インスタンスを生成
-	 * 
+	 *
 	 * ・@Bean により Spring がライフサイクル管理を行う
 	 * ・他クラスから DI により利用可能となる
-	 * 
+	 * ・通信はコネクションプール付きの HTTP クライアントで行う（タイムアウトはクライアント側で設定）
+	 *
+	 * @param builder Spring Boot が提供する RestTemplateBuilder
+	 * @param httpClient 外部 API 用の HTTP クライアント
 	 * @return RestTemplate インスタンス
 	 */
 	@Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpClient) {
+        return builder
+        		.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+        		.build();
     }
 }
@@ -2,12 +2,16 @@ package com.example.exchange.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 /**
  * Spring Security の設定クラス
  * 
@@ -26,6 +30,62 @@ public class SecurityConfig {
 		this.successHandler = successHandler;
 	}
 
+	/**
+	 * Actuator（/actuator/**）のセキュリティフィルタチェーンの設定
+	 * 
+	 * Prometheus などの収集側はフォームログインできないため、
+	 * 管理者のログイン済みセッションに加えて Basic 認証も受け付ける。
+	 * （Basic 認証ではセッションを作成しない）
+	 */
+	@Bean
+	@Order(1)
+	public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+		http
+				.securityMatcher("/actuator/**")
+				.authorizeHttpRequests(auth -> auth
+						.anyRequest().hasRole("ADMIN")
+				)
+				// 認証失敗時は 401 をそのまま返す（エラー画面へ転送するとログイン画面へリダイレクトされるため）
+				.httpBasic(basic -> basic
+						.authenticationEntryPoint((request, response, e) -> {
+							response.setHeader("WWW-Authenticate", "Basic realm=\"actuator\"");
+							response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+						})
+				);
+		
+		return http.build();
+	}
+
+	/**
+	 * 一括変換 API（/convert/batch）のセキュリティフィルタチェーンの設定
+	 * 
+	 * スクリプトなどの API クライアントから呼び出すため、Basic 認証のみで受け付ける。
+	 * ・セッションを作成・参照しない（ログイン済みのセッションの Cookie では呼び出せない）
+	 * ・Cookie による認証を使わないため、CSRF トークンは不要とする
+	 */
+	@Bean
+	@Order(2)
+	public SecurityFilterChain batchApiFilterChain(HttpSecurity http) throws Exception {
+		http
+				.securityMatcher("/convert/batch")
+				.authorizeHttpRequests(auth -> auth
+						.anyRequest().authenticated()
+				)
+				.sessionManagement(session -> session
+						.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+				)
+				.csrf(csrf -> csrf.disable())
+				// 認証失敗時は 401 をそのまま返す（Actuator と同じ）
+				.httpBasic(basic -> basic
+						.authenticationEntryPoint((request, response, e) -> {
+							response.setHeader("WWW-Authenticate", "Basic realm=\"exchange\"");
+							response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+						})
+				);
+		
+		return http.build();
+	}
+
 	/**
 	 * セキュリティフィルタチェーンの設定
 	 * 
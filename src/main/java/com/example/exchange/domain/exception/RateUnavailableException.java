@@ -0,0 +1,24 @@
+package com.example.exchange.domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 為替レートを取得できなかったことを表す例外
+ * 
+ * ・外部 API の失敗、または待ち時間の上限超過時にスローされる
+ * ・Controller まで伝播した場合は 503 (Service Unavailable) として応答する
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RateUnavailableException extends RuntimeException {
+
+	/**
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @param reason 取得できなかった理由
+	 * @param cause 原因となった例外
+	 */
+	public RateUnavailableException(String base, String target, String reason, Throwable cause) {
+		super("Rate unavailable for " + base + "/" + target + ": " + reason, cause);
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.exchange.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 管理者のレート一覧の1行（読み取り専用の射影・論理削除情報を含む）
+ *
+ * ・一覧表示に必要な列だけを JPQL のコンストラクタ式で直接受け取る
+ *
+ * @param id 履歴 ID
+ * @param username ユーザ名
+ * @param baseCurrency 基準通貨
+ * @param targetCurrency 対象通貨
+ * @param amount 変換前の金額
+ * @param convertedAmount 変換後の金額
+ * @param rate 使用したレート
+ * @param fetchedAt 変換日時
+ * @param deleted 論理削除済みかどうか
+ * @param deletedAt 論理削除日時
+ * @param deletedBy 削除を実行したユーザ名
+ */
+public record AdminRateRow(
+		Long id,
+		String username,
+		String baseCurrency,
+		String targetCurrency,
+		BigDecimal amount,
+		BigDecimal convertedAmount,
+		BigDecimal rate,
+		LocalDateTime fetchedAt,
+		boolean deleted,
+		LocalDateTime deletedAt,
+		String deletedBy) {
+
+	/**
+	 * この行を境界とするカーソル
+	 *
+	 * @return カーソル
+	 */
+	public HistoryCursor cursor() {
+		return new HistoryCursor(fetchedAt, id);
+	}
+}
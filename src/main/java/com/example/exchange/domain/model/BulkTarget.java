@@ -0,0 +1,14 @@
+package com.example.exchange.domain.model;
+
+/**
+ * 一括操作の1バッチ分としてロックした履歴（読み取り専用の射影）
+ *
+ * ・更新・削除は ID の一覧に対する1回の UPDATE / DELETE で行い、
+ * 		件数の調整に使うユーザ名と論理削除の状態だけを保持する
+ *
+ * @param id 履歴 ID
+ * @param username ユーザ名
+ * @param deleted 論理削除済みかどうか
+ */
+public record BulkTarget(Long id, String username, boolean deleted) {
+}
@@ -0,0 +1,24 @@
+package com.example.exchange.domain.model;
+
+/**
+ * 一括変換の1件分の結果（成功時は変換結果、失敗時はエラー内容のどちらか一方を持つ）
+ *
+ * @param result 変換結果（失敗時は null）
+ * @param error エラー内容（成功時は null）
+ */
+public record ConversionOutcome(
+		ConversionResult result,
+		String error) {
+
+	public static ConversionOutcome succeeded(ConversionResult result) {
+		return new ConversionOutcome(result, null);
+	}
+
+	public static ConversionOutcome failed(String error) {
+		return new ConversionOutcome(null, error);
+	}
+
+	public boolean isSuccess() {
+		return result != null;
+	}
+}
@@ -0,0 +1,16 @@
+package com.example.exchange.domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * 一括変換の1件分の変換内容
+ *
+ * @param amount 変換金額
+ * @param baseCurrency 基準通貨
+ * @param targetCurrency 対象通貨
+ */
+public record ConversionRequest(
+		BigDecimal amount,
+		String baseCurrency,
+		String targetCurrency) {
+}
@@ -0,0 +1,22 @@
+package com.example.exchange.domain.model;
+
+import java.time.Duration;
+
+/**
+ * 1回の変換処理の結果
+ * 
+ * 保存した変換履歴に加え、変換に使用したレートの鮮度を呼び出し元へ伝える。
+ * 
+ * @param history 保存した変換履歴
+ * @param quote 変換に使用したレート
+ * @param rateAge 変換時点でのレートの経過時間
+ * @param stale レートが soft TTL を過ぎていた（裏で再取得中）なら true
+ * @param degraded 外部 API から取得できず、最後に取得できたレートで代替したなら true
+ */
+public record ConversionResult(
+		CurrencyRate history,
+		RateQuote quote,
+		Duration rateAge,
+		boolean stale,
+		boolean degraded) {
+}
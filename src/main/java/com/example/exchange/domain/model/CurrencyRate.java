@@ -4,10 +4,17 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import lombok.Getter;
@@ -17,18 +24,33 @@ import lombok.Setter;
  * 通貨レート履歴を保存するエンティティ
  * 
  *・1回の変換処理につき1レコード保存される。
- *・ユーザが行った変換内容（通貨、金額、レート、日時）を保持する。
+ *・ユーザが行った変換内容（通貨、金額、日時）を保持する。
+ *・使用したレートは保持せず、レートスナップショット（RateSnapshot）を参照する。
  *・論理削除（deleted / deletedAt / deletedBy）に対応し、
  *	履歴の復元性と監査制を確保する。
+ *・ユーザの履歴一覧は (fetchedAt, id) の順に読むため、複合索引を設ける。
+ *・論理削除済みの履歴は (deletedAt, id) の順に物理削除するため、複合索引を設ける。
  */
 @Entity
-@Table(name = "currency_rate")
+@Table(name = "currency_rate", indexes = {
+		// ユーザの履歴のキーセットページング（username, deleted で絞り込み、(fetchedAt, id) の順に読む）
+		@Index(name = "idx_currency_rate_user_history", columnList = "username, deleted, fetched_at, id"),
+		// 論理削除済みの履歴の物理削除（deleted で絞り込み、(deletedAt, id) の順にチャンク単位で読む）
+		@Index(name = "idx_currency_rate_purge", columnList = "deleted, deleted_at, id")
+})
 @Getter
 @Setter
 public class CurrencyRate {
-	/** 主キー（自動採番）  */
+	/** 1回のシーケンス参照で確保する ID の件数 */
+	private static final int ALLOCATION_SIZE = 100;
+	
+	/**
+	 * 主キー（シーケンスから ALLOCATION_SIZE 件ずつまとめて採番）
+	 * IDENTITY と異なり INSERT 前に採番できるため、複数件の INSERT をバッチにまとめられる。
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "currency_rate_seq")
+	@SequenceGenerator(name = "currency_rate_seq", sequenceName = "currency_rate_seq", allocationSize = ALLOCATION_SIZE)
 	private Long id;
 	
 	/** 変換を行ったユーザ名 */
@@ -43,11 +65,15 @@ public class CurrencyRate {
 	@Column(nullable = false)
 	private String targetCurrency;
 	
-	/** 1単位当たりのレート（例：１USD = 153.6 JPY) */
-	@Column(nullable = false, precision = 18, scale = 4)
-	private BigDecimal rate;
+	/**
+	 * 変換に使用したレート（取得1回分のスナップショット）
+	 * パーティション化したテーブルには外部キーを設定できないため、外部キー制約は作成しない。
+	 */
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "snapshot_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+	private RateSnapshot snapshot;
 	
-	/** レートを取得した日時（API呼び出し時刻） */
+	/** 変換を行った日時 */
 	@Column(nullable = false)
 	private LocalDateTime fetchedAt;
 	
@@ -82,16 +108,16 @@ public class CurrencyRate {
 	 * @param username			ユーザー名
 	 * @param baseCurrency		基準通貨
 	 * @param targetCurrency	対象通貨
-	 * @param rate				レート
+	 * @param snapshot			使用したレート
 	 * @param amount			変換前の金額
 	 * @param convertedAmount	変換後の金額
-	 * @param fetchedAt			レート取得日時
+	 * @param fetchedAt			変換日時
 	 */
 	public CurrencyRate(
 			String username,
 			String baseCurrency,
 			String targetCurrency,
-			BigDecimal rate,
+			RateSnapshot snapshot,
 			BigDecimal amount,
 			BigDecimal convertedAmount,
 			LocalDateTime fetchedAt) {
@@ -99,12 +125,32 @@ public class CurrencyRate {
 		this.username = username;
 		this.baseCurrency = baseCurrency;
 		this.targetCurrency = targetCurrency;
-		this.rate = rate;
+		this.snapshot = snapshot;
 		this.amount = amount;
 		this.convertedAmount = convertedAmount;
 		this.fetchedAt = fetchedAt;
 	}
 	
+	/**
+	 * 変換に使用した1単位当たりのレート（例：１USD = 153.6 JPY)
+	 * （スナップショットが読み込まれている必要がある）
+	 * 
+	 * @return レート
+	 */
+	public BigDecimal getRate() {
+		return snapshot.getRate();
+	}
+	
+	/**
+	 * 変換に使用したレートの固定小数点（10,000 倍した値）
+	 * （スナップショットが読み込まれている必要がある）
+	 * 
+	 * @return レート（scale=4 でない場合は FixedPoint.NONE）
+	 */
+	public long getScaledRate() {
+		return snapshot.getScaledRate();
+	}
+	
 	/**
 	 * 論理削除フラグを設定する。
 	 * （Lombok の setter を使わず、意図を明確にするために明示的に定義）
@@ -0,0 +1,161 @@
+package com.example.exchange.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 金額・レートの固定小数点演算（10 の scale 乗した long で表す）
+ *
+ * 変換のたびに BigDecimal を生成せずに金額を計算・表示できるよう、
+ * 値を「10^scale 倍した long」として扱う静的メソッドを提供する（RateMatrix と同じ表現）。
+ *
+ * ・金額は scale=2（AMOUNT_SCALE）、レートは scale=4（RATE_SCALE）とする（DB の列と同じ精度）
+ * ・丸めは BigDecimal の RoundingMode.HALF_UP と同じ（0 から遠い方へ丸める）で、結果は BigDecimal の計算と一致する
+ * ・long に収まらない場合は ArithmeticException をスローする（呼び出し元で BigDecimal の計算に切り替える）
+ * ・BigDecimal との変換は、JPA・JSON との境界でのみ行う
+ */
+public final class FixedPoint {
+
+	/** 金額の精度 */
+	public static final int AMOUNT_SCALE = 2;
+
+	/** レートの精度 */
+	public static final int RATE_SCALE = 4;
+
+	/** 固定小数点で表せないことを表す値 */
+	public static final long NONE = Long.MIN_VALUE;
+
+	/** 10 の累乗（添字が指数） */
+	private static final long[] POW10 = new long[19];
+
+	static {
+		POW10[0] = 1;
+		for (int i = 1; i < POW10.length; i++) {
+			POW10[i] = POW10[i - 1] * 10;
+		}
+	}
+
+	private FixedPoint() {
+	}
+
+	/**
+	 * BigDecimal を固定小数点に変換する（scale より細かい桁は HALF_UP で丸める）
+	 *
+	 * ・value.setScale(scale, HALF_UP) の仮数と同じ値を返す
+	 * ・value の scale が 0 以下の場合はオブジェクトを生成しない
+	 *
+	 * @param value 値
+	 * @param scale 精度（0〜18）
+	 * @return 10^scale 倍した値
+	 * @throws ArithmeticException long に収まらない場合
+	 */
+	public static long toScaled(BigDecimal value, int scale) {
+		int s = value.scale();
+		if (s <= 0) {
+			return Math.multiplyExact(value.longValueExact(), POW10[scale]);
+		}
+		if (s <= scale) {
+			return Math.multiplyExact(value.movePointRight(s).longValueExact(), POW10[scale - s]);
+		}
+		return value.setScale(scale, RoundingMode.HALF_UP).movePointRight(scale).longValueExact();
+	}
+
+	/**
+	 * 固定小数点を BigDecimal に変換する（JPA・JSON との境界用）
+	 *
+	 * @param scaled 10^scale 倍した値
+	 * @param scale 精度
+	 * @return scale が scale の BigDecimal
+	 */
+	public static BigDecimal toBigDecimal(long scaled, int scale) {
+		return BigDecimal.valueOf(scaled, scale);
+	}
+
+	/**
+	 * 固定小数点どうしの積を、dropScale 桁だけ減らして HALF_UP で丸める
+	 *
+	 * ・例：金額（scale=2）× レート（scale=4）の積（scale=6）を、dropScale=4 で scale=2 の金額にする
+	 *
+	 * @param a 10^scaleA 倍した値
+	 * @param b 10^scaleB 倍した値
+	 * @param dropScale 減らす桁数（0〜18）
+	 * @return 10^(scaleA + scaleB - dropScale) 倍した積
+	 * @throws ArithmeticException 積が long に収まらない場合
+	 */
+	public static long multiply(long a, long b, int dropScale) {
+		long product = Math.multiplyExact(a, b);
+		if (dropScale == 0) {
+			return product;
+		}
+		long divisor = POW10[dropScale];
+		long quotient = product / divisor;
+		long remainder = product % divisor;
+		if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+			quotient += Long.signum(product);
+		}
+		return quotient;
+	}
+
+	/**
+	 * 金額（scale=2）にレート（scale=4）を掛けた金額（scale=2）
+	 *
+	 * ・amount.multiply(rate).setScale(2, HALF_UP) と同じ値を返す
+	 *
+	 * @param amount 金額（100 倍した値）
+	 * @param rate レート（10,000 倍した値）
+	 * @return 変換後の金額（100 倍した値）
+	 * @throws ArithmeticException 積が long に収まらない場合
+	 */
+	public static long convert(long amount, long rate) {
+		return multiply(amount, rate, RATE_SCALE);
+	}
+
+	/**
+	 * 固定小数点を文字列にする（BigDecimal.valueOf(scaled, scale).toPlainString() と同じ文字列）
+	 *
+	 * @param scaled 10^scale 倍した値
+	 * @param scale 精度（0〜18）
+	 * @return 指数表記を使わない文字列（小数部は scale 桁）
+	 */
+	public static String toPlainString(long scaled, int scale) {
+		if (scale == 0) {
+			return Long.toString(scaled);
+		}
+		if (scaled == Long.MIN_VALUE) {
+			return BigDecimal.valueOf(scaled, scale).toPlainString();
+		}
+		boolean negative = scaled < 0;
+		long abs = Math.abs(scaled);
+		long integer = abs / POW10[scale];
+		long fraction = abs % POW10[scale];
+
+		int integerDigits = digits(integer);
+		byte[] buf = new byte[(negative ? 1 : 0) + integerDigits + 1 + scale];
+		int pos = buf.length;
+		for (int i = 0; i < scale; i++) {
+			buf[--pos] = (byte) ('0' + fraction % 10);
+			fraction /= 10;
+		}
+		buf[--pos] = '.';
+		for (int i = 0; i < integerDigits; i++) {
+			buf[--pos] = (byte) ('0' + integer % 10);
+			integer /= 10;
+		}
+		if (negative) {
+			buf[--pos] = '-';
+		}
+		return new String(buf, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * 0 以上の値の10進数の桁数（0 は1桁）
+	 */
+	private static int digits(long value) {
+		int n = 1;
+		while (n < POW10.length && value >= POW10[n]) {
+			n++;
+		}
+		return n;
+	}
+}
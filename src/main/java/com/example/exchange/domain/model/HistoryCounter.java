@@ -0,0 +1,71 @@
+package com.example.exchange.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import lombok.Getter;
+
+/**
+ * 変換履歴の件数を保持するエンティティ（ユーザごと・全体）
+ *
+ *・一覧表示のたびに COUNT(*) を実行しないよう、履歴の保存・論理削除・完全削除のたびに
+ *	同じトランザクション内で差分だけ加減算する。
+ *・scope はユーザ単位が "user:{username}"、全体が "global"。
+ */
+@Entity
+@Table(name = "history_counter")
+@Getter
+public class HistoryCounter {
+
+	/** 全体の件数の scope */
+	public static final String GLOBAL = "global";
+
+	/** 集計の単位（主キー） */
+	@Id
+	private String scope;
+
+	/** 論理削除されていない履歴の件数 */
+	@Column(name = "active_count", nullable = false)
+	private long activeCount;
+
+	/** 論理削除済みを含む履歴の件数 */
+	@Column(name = "total_count", nullable = false)
+	private long totalCount;
+
+	/** JPA 用のデフォルトコンストラクタ */
+	protected HistoryCounter() {}
+
+	/**
+	 * 通常のコンストラクタ
+	 *
+	 * @param scope			集計の単位
+	 * @param activeCount	論理削除されていない履歴の件数
+	 * @param totalCount	論理削除済みを含む履歴の件数
+	 */
+	public HistoryCounter(String scope, long activeCount, long totalCount) {
+		this.scope = scope;
+		this.activeCount = activeCount;
+		this.totalCount = totalCount;
+	}
+
+	/**
+	 * ユーザ単位の scope
+	 *
+	 * @param username ユーザ名
+	 * @return scope
+	 */
+	public static String userScope(String username) {
+		return "user:" + username;
+	}
+
+	/**
+	 * 論理削除済みの履歴の件数
+	 *
+	 * @return 件数
+	 */
+	public long getDeletedCount() {
+		return totalCount - activeCount;
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.exchange.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 管理者による一括操作（論理削除・復元・完全削除）の対象条件
+ *
+ * ・ids を指定した場合は ID のみで対象を決める（他の条件は無視する）
+ * ・ids が無い場合は、指定された条件（ユーザ・通貨ペア・変換日時の範囲）の全てに一致する履歴が対象
+ * ・条件が1つも無い場合は全件が対象になるため、一括操作では受け付けない（isEmpty）
+ *
+ * @param ids 履歴 ID の一覧（null 可）
+ * @param username ユーザ名（null 可）
+ * @param baseCurrency 基準通貨（null 可）
+ * @param targetCurrency 対象通貨（null 可）
+ * @param from 変換日時の下限（この日時を含む・null 可）
+ * @param to 変換日時の上限（この日時を含まない・null 可）
+ */
+public record HistoryCriteria(
+		List<Long> ids,
+		String username,
+		String baseCurrency,
+		String targetCurrency,
+		LocalDateTime from,
+		LocalDateTime to) {
+
+	/**
+	 * 空文字の条件は指定なしとして扱う
+	 */
+	public HistoryCriteria {
+		ids = ids == null || ids.isEmpty() ? null : List.copyOf(ids);
+		username = blankToNull(username);
+		baseCurrency = blankToNull(baseCurrency);
+		targetCurrency = blankToNull(targetCurrency);
+	}
+
+	/**
+	 * ID の一覧による条件
+	 *
+	 * @param ids 履歴 ID の一覧
+	 * @return 条件
+	 */
+	public static HistoryCriteria ofIds(List<Long> ids) {
+		return new HistoryCriteria(ids, null, null, null, null, null);
+	}
+
+	/**
+	 * ID の一覧で対象を決めるかどうか
+	 *
+	 * @return ids を指定した場合 true
+	 */
+	public boolean hasIds() {
+		return ids != null;
+	}
+
+	/**
+	 * 条件が1つも無いかどうか
+	 *
+	 * @return 条件が無い場合 true
+	 */
+	public boolean isEmpty() {
+		return ids == null && username == null && baseCurrency == null && targetCurrency == null
+				&& from == null && to == null;
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value.trim();
+	}
+}
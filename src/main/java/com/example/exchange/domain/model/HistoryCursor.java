@@ -0,0 +1,66 @@
+package com.example.exchange.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 変換履歴のキーセット（シーク）ページングに使うカーソル
+ *
+ * ・ページ境界の行の (fetchedAt, id) を保持し、次のページはその行より後（または前）から読み始める
+ * 		（OFFSET のように読み飛ばす行を DB に読ませないため、ページの深さに依存しない）
+ * ・ユーザの履歴は (fetchedAt, id)、管理者の一覧は id のみで並べる（管理者用では fetchedAt は参照しない）
+ * ・画面・API には URL に載せられる不透明な文字列（encode）として渡し、valueOf で復元する
+ *
+ * @param fetchedAt 境界の行の変換日時
+ * @param id 境界の行の ID
+ */
+public record HistoryCursor(
+		LocalDateTime fetchedAt,
+		long id) {
+
+	private static final char SEPARATOR = '|';
+
+	/**
+	 * 履歴の行を指すカーソル
+	 *
+	 * @param history 境界の行
+	 * @return カーソル
+	 */
+	public static HistoryCursor of(CurrencyRate history) {
+		return new HistoryCursor(history.getFetchedAt(), history.getId());
+	}
+
+	/**
+	 * 文字列からカーソルを復元する（リクエストパラメータからの変換にも使用される）
+	 *
+	 * @param token encode で生成した文字列
+	 * @return カーソル
+	 * @throws IllegalArgumentException 不正な文字列の場合
+	 */
+	public static HistoryCursor valueOf(String token) {
+		try {
+			String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = decoded.indexOf(SEPARATOR);
+			if (separator < 0) {
+				throw new IllegalArgumentException("Invalid cursor: " + token);
+			}
+			return new HistoryCursor(
+					LocalDateTime.parse(decoded.substring(0, separator)),
+					Long.parseLong(decoded.substring(separator + 1)));
+		} catch (DateTimeParseException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + token, e);
+		}
+	}
+
+	/**
+	 * URL に載せられる文字列へ変換する
+	 *
+	 * @return カーソル文字列
+	 */
+	public String encode() {
+		String raw = fetchedAt.toString() + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
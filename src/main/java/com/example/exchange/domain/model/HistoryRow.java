@@ -0,0 +1,37 @@
+package com.example.exchange.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ユーザの履歴一覧の1行（読み取り専用の射影）
+ *
+ * ・一覧表示に必要な列だけを JPQL のコンストラクタ式で直接受け取る
+ * 		（エンティティを永続化コンテキストに載せず、変更検知・スナップショットの読み込みも行わない）
+ *
+ * @param id 履歴 ID
+ * @param baseCurrency 基準通貨
+ * @param targetCurrency 対象通貨
+ * @param amount 変換前の金額
+ * @param convertedAmount 変換後の金額
+ * @param rate 使用したレート
+ * @param fetchedAt 変換日時
+ */
+public record HistoryRow(
+		Long id,
+		String baseCurrency,
+		String targetCurrency,
+		BigDecimal amount,
+		BigDecimal convertedAmount,
+		BigDecimal rate,
+		LocalDateTime fetchedAt) {
+
+	/**
+	 * この行を境界とするカーソル
+	 *
+	 * @return カーソル
+	 */
+	public HistoryCursor cursor() {
+		return new HistoryCursor(fetchedAt, id);
+	}
+}
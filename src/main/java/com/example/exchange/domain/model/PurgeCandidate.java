@@ -0,0 +1,15 @@
+package com.example.exchange.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * 物理削除の対象となる論理削除済みの履歴（読み取り専用の射影）
+ *
+ * ・削除の単位（チャンク）を決め、件数の調整に使うユーザ名と、次のチャンクの境界だけを保持する
+ *
+ * @param id 履歴 ID
+ * @param username ユーザ名
+ * @param deletedAt 論理削除した日時
+ */
+public record PurgeCandidate(Long id, String username, LocalDateTime deletedAt) {
+}
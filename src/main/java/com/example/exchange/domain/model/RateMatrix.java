@@ -0,0 +1,158 @@
+package com.example.exchange.domain.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 全通貨ペアのレートを保持する不変の行列（スナップショット）
+ *
+ * 変換のたびに Entity や BigDecimal を生成せずにレートを参照できるよう、
+ * レートを通貨の添字で引けるプリミティブ配列に保持する。
+ *
+ * ・レートは scale=4 の固定小数点（10,000 倍した long）で保持する
+ * ・取得日時はエポックミリ秒で保持する
+ * ・BigDecimal との境界（RateQuote）は生成時に1回だけ作り、参照のたびには生成しない
+ * ・生成後は変更しない（更新時は新しい行列を作り、参照ごと差し替える）
+ * ・参照系のメソッドはオブジェクトを生成しない
+ */
+public final class RateMatrix {
+
+	/** レートの精度（保存時と同じ scale=4） */
+	public static final int RATE_SCALE = FixedPoint.RATE_SCALE;
+
+	/** 空の行列（事前更新前の初期値） */
+	public static final RateMatrix EMPTY = new RateMatrix(new String[0], new long[0], new long[0]);
+
+	/** レートが存在しないことを表す値（0.0000 に丸められる実在のレートと区別するため、0 は使わない） */
+	private static final long ABSENT = FixedPoint.NONE;
+
+	/** 通貨（添字 → 通貨コード） */
+	private final String[] currencies;
+
+	/** レート（[基準通貨の添字 * 通貨数 + 対象通貨の添字]、scale=4 の固定小数点） */
+	private final long[] scaledRates;
+
+	/** 取得日時（エポックミリ秒、添字はレートと同じ） */
+	private final long[] fetchedAtMillis;
+
+	/** レート（RateQuote、添字はレートと同じ。存在しない場合は null） */
+	private final RateQuote[] quotes;
+
+	private RateMatrix(String[] currencies, long[] scaledRates, long[] fetchedAtMillis) {
+		this.currencies = currencies;
+		this.scaledRates = scaledRates;
+		this.fetchedAtMillis = fetchedAtMillis;
+		this.quotes = new RateQuote[scaledRates.length];
+	}
+
+	/**
+	 * レートの一覧から行列を生成する
+	 *
+	 * ・currencies に含まれない通貨のレートは無視する
+	 *
+	 * @param currencies 行列に含める通貨
+	 * @param quotes レートの一覧
+	 * @return 生成した行列
+	 */
+	public static RateMatrix of(List<String> currencies, List<RateQuote> quotes) {
+		String[] codes = currencies.toArray(new String[0]);
+		int n = codes.length;
+		long[] rates = new long[n * n];
+		Arrays.fill(rates, ABSENT);
+		long[] fetchedAt = new long[n * n];
+		RateMatrix matrix = new RateMatrix(codes, rates, fetchedAt);
+
+		for (RateQuote q : quotes) {
+			int b = matrix.indexOf(q.baseCurrency());
+			int t = matrix.indexOf(q.targetCurrency());
+			if (b < 0 || t < 0) {
+				continue;
+			}
+			rates[b * n + t] = FixedPoint.toScaled(q.rate(), RATE_SCALE);
+			fetchedAt[b * n + t] = q.fetchedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		}
+		for (int b = 0; b < n; b++) {
+			for (int t = 0; t < n; t++) {
+				if (matrix.has(b, t)) {
+					matrix.quotes[b * n + t] = new RateQuote(
+							codes[b],
+							codes[t],
+							FixedPoint.toBigDecimal(rates[b * n + t], RATE_SCALE),
+							LocalDateTime.ofInstant(Instant.ofEpochMilli(fetchedAt[b * n + t]), ZoneId.systemDefault()));
+				}
+			}
+		}
+		return matrix;
+	}
+
+	/**
+	 * 通貨コードの添字を取得する
+	 *
+	 * 通貨数は少ないため、ハッシュ表ではなく線形探索とする（オブジェクト生成なし）。
+	 *
+	 * @param currency 通貨コード
+	 * @return 添字（行列に含まれない場合は -1）
+	 */
+	public int indexOf(String currency) {
+		for (int i = 0; i < currencies.length; i++) {
+			if (currencies[i].equals(currency)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 通貨ペアのレートが存在するか判定
+	 *
+	 * @param base 基準通貨の添字
+	 * @param target 対象通貨の添字
+	 * @return 存在すれば true
+	 */
+	public boolean has(int base, int target) {
+		return scaledRates[base * currencies.length + target] != ABSENT;
+	}
+
+	/**
+	 * 通貨ペアのレート（scale=4 の固定小数点）を取得する
+	 *
+	 * @param base 基準通貨の添字
+	 * @param target 対象通貨の添字
+	 * @return レートを 10,000 倍した値
+	 */
+	public long scaledRate(int base, int target) {
+		return scaledRates[base * currencies.length + target];
+	}
+
+	/**
+	 * 通貨ペアのレート取得日時（エポックミリ秒）を取得する
+	 *
+	 * @param base 基準通貨の添字
+	 * @param target 対象通貨の添字
+	 * @return 取得日時
+	 */
+	public long fetchedAtMillis(int base, int target) {
+		return fetchedAtMillis[base * currencies.length + target];
+	}
+
+	/**
+	 * 通貨ペアのレートを RateQuote として取得する（生成済みのものを返す）
+	 *
+	 * @param base 基準通貨の添字
+	 * @param target 対象通貨の添字
+	 * @return レート（存在しない場合は null）
+	 */
+	public RateQuote toQuote(int base, int target) {
+		return quotes[base * currencies.length + target];
+	}
+
+	/**
+	 * 行列に含まれる通貨数
+	 */
+	public int size() {
+		return currencies.length;
+	}
+}
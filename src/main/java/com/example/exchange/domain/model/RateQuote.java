@@ -0,0 +1,22 @@
+package com.example.exchange.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 通貨ペアごとの為替レート（ユーザに依存しない値オブジェクト）
+ *
+ * ・外部 API から取得したレートを、共有キャッシュ上で保持するために使用する
+ * ・変換履歴（CurrencyRate）とは異なり、金額やユーザ名は持たない
+ *
+ * @param baseCurrency 基準通貨
+ * @param targetCurrency 対象通貨
+ * @param rate 1単位当たりのレート
+ * @param fetchedAt レートを取得した日時
+ */
+public record RateQuote(
+		String baseCurrency,
+		String targetCurrency,
+		BigDecimal rate,
+		LocalDateTime fetchedAt) {
+}
@@ -0,0 +1,99 @@
+package com.example.exchange.domain.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+
+import lombok.Getter;
+
+/**
+ * 外部 API から取得したレートの記録（レートスナップショット）を保存するエンティティ
+ *
+ *・通貨ペア × 取得1回につき1レコード保存される（ユーザに依存しない）。
+ *・変換履歴（CurrencyRate）はレートを持たず、このレコードを参照する。
+ *・(base_currency, target_currency, fetched_at) の一意制約（複合インデックス）により、
+ *	同じ取得の重複登録を防ぎ、通貨ペアの最新レートを1行の索引参照で取得できる。
+ */
+@Entity
+@Table(
+		name = "rate_snapshot",
+		uniqueConstraints = @UniqueConstraint(
+				name = "uk_rate_snapshot_pair_fetched_at",
+				columnNames = { "base_currency", "target_currency", "fetched_at" }))
+@Getter
+public class RateSnapshot {
+	/** 主キー（自動採番） */
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	/** 基準通貨(例：USD) */
+	@Column(name = "base_currency", nullable = false)
+	private String baseCurrency;
+
+	/** 対象通貨(例：JPY) */
+	@Column(name = "target_currency", nullable = false)
+	private String targetCurrency;
+
+	/** 1単位当たりのレート（例：１USD = 153.6 JPY) */
+	@Column(nullable = false, precision = 18, scale = 4)
+	private BigDecimal rate;
+
+	/** レートを取得した日時（API呼び出し時刻） */
+	@Column(name = "fetched_at", nullable = false)
+	private LocalDateTime fetchedAt;
+
+	/**
+	 * レートの固定小数点（10,000 倍した値。scale=4 でない場合は FixedPoint.NONE）
+	 * （スナップショットは多くの変換で共有されるため、変換のたびに BigDecimal から変換しない）
+	 */
+	@Transient
+	private long scaledRate = FixedPoint.NONE;
+
+	/** JPA 用のデフォルトコンストラクタ */
+	protected RateSnapshot() {}
+
+	/**
+	 * 通常のコンストラクタ
+	 *
+	 * @param baseCurrency		基準通貨
+	 * @param targetCurrency	対象通貨
+	 * @param rate				レート（scale=4）
+	 * @param fetchedAt			レート取得日時
+	 */
+	public RateSnapshot(String baseCurrency, String targetCurrency, BigDecimal rate, LocalDateTime fetchedAt) {
+		this.baseCurrency = baseCurrency;
+		this.targetCurrency = targetCurrency;
+		this.rate = rate;
+		this.fetchedAt = fetchedAt;
+		scaleRate();
+	}
+
+	/**
+	 * 読み込んだレートの固定小数点を求める
+	 */
+	@PostLoad
+	void scaleRate() {
+		scaledRate = rate.scale() == FixedPoint.RATE_SCALE
+				? FixedPoint.toScaled(rate, FixedPoint.RATE_SCALE)
+				: FixedPoint.NONE;
+	}
+
+	/**
+	 * 共有キャッシュ等で使用する値オブジェクトへ変換する
+	 *
+	 * @return このスナップショットのレート
+	 */
+	public RateQuote toQuote() {
+		return new RateQuote(baseCurrency, targetCurrency, rate, fetchedAt);
+	}
+}
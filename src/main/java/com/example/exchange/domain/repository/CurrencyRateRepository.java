@@ -1,53 +1,309 @@
 package com.example.exchange.domain.repository;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.example.exchange.domain.model.AdminRateRow;
+import com.example.exchange.domain.model.BulkTarget;
 import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.HistoryRow;
+import com.example.exchange.domain.model.PurgeCandidate;
+
+import jakarta.persistence.LockModeType;
 
 /**
  * 通貨レート履歴を操作するリポジトリ
  * 
  * Spring Data JPA の命名規則に基づき、
  * ・ユーザごとの履歴取得
- * ・最新レートの取得
  * ・論理削除を考慮した検索
  * を自動生成されたクエリで実現する。
  * 
+ * 通貨ペアの最新レートは変換履歴ではなく RateSnapshotRepository から取得する。
+ * 
+ * 一覧のページングはキーセット（シーク）方式のメソッドを使用する。
+ * ・ユーザの履歴は (fetchedAt, id) の降順（索引 idx_currency_rate_user_history）
+ * ・管理者の一覧は id の降順（主キー）
+ * ・境界の行より後（または前）から Limit 件だけ読むため、OFFSET と異なりページの深さに依存しない
+ * ・一覧画面・API は *Rows メソッド（必要な列だけを HistoryRow / AdminRateRow に射影する）を使用する
+ * 		（エンティティを読み込む一覧との比較は、ベンチマーク・テスト側の JPQL で行う）
+ * 
+ * 論理削除済みの履歴の物理削除（DeletedHistoryPurger）は、(deletedAt, id) の順に
+ * 索引 idx_currency_rate_purge からチャンク単位で読み、主キーで削除する。
+ * 
+ * 管理者の一括操作は、対象を ID の昇順に上限件数ずつロックして読み、ID の一覧に対する
+ * 1回の UPDATE / DELETE で更新する（エンティティを読み込まない）。
+ * 
  * Repository は DB アクセスのみを担当し、
  * ビジネスロジックは Service 層に委譲する。
  */
 public interface CurrencyRateRepository extends JpaRepository<CurrencyRate, Long> {
 	
 	/**
-	 * 指定ユーザのレート履歴一覧を取得（新しい順）
-	 * ・論理削除されていないデータのみ取得する（deleted = false）
-	 * ・fetchedAt の降順で並べる
-	 * ・ページング対応
+	 * 指定ユーザのレート履歴の先頭ページを一覧表示用の列だけ取得（新しい順）
 	 * 
 	 * @param username ユーザ名
-	 * @param pageable ページング情報 
-	 * @return レート履歴のページ
-	 */	
-	Page<CurrencyRate>findByUsernameAndDeletedFalseOrderByFetchedAtDesc(String username, Pageable pageable);
-	/** 
-	 * 指定ユーザ・通貨ペアの最新レートを取得する
+	 * @param limit 取得件数
+	 * @return 一覧の行（fetchedAt, id の降順）
+	 */
+	@Query("""
+			select new com.example.exchange.domain.model.HistoryRow(
+			       r.id, r.baseCurrency, r.targetCurrency, r.amount, r.convertedAmount, s.rate, r.fetchedAt)
+			from CurrencyRate r join r.snapshot s
+			where r.username = :username and r.deleted = false
+			order by r.fetchedAt desc, r.id desc""")
+	List<HistoryRow> findHistoryRows(@Param("username") String username, Limit limit);
+	
+	/**
+	 * 指定ユーザのレート履歴のうち、境界の行より古いものを一覧表示用の列だけ取得（次のページ）
 	 * 
-	 * ・fetchedAt の降順で最初の１件を取得（最新レコード）
-	 * ・論理削除されたデータも対象（最新レート取得用途のため）
+	 * @param username ユーザ名
+	 * @param fetchedAt 境界の行の変換日時
+	 * @param id 境界の行の ID
+	 * @param limit 取得件数
+	 * @return 一覧の行（fetchedAt, id の降順）
+	 */
+	@Query("""
+			select new com.example.exchange.domain.model.HistoryRow(
+			       r.id, r.baseCurrency, r.targetCurrency, r.amount, r.convertedAmount, s.rate, r.fetchedAt)
+			from CurrencyRate r join r.snapshot s
+			where r.username = :username and r.deleted = false
+			  and (r.fetchedAt < :fetchedAt or (r.fetchedAt = :fetchedAt and r.id < :id))
+			order by r.fetchedAt desc, r.id desc""")
+	List<HistoryRow> findHistoryRowsOlderThan(
+			@Param("username") String username,
+			@Param("fetchedAt") LocalDateTime fetchedAt,
+			@Param("id") Long id,
+			Limit limit);
+	
+	/**
+	 * 指定ユーザのレート履歴のうち、境界の行より新しいものを境界に近い順に一覧表示用の列だけ取得（前のページ）
 	 * 
 	 * @param username ユーザ名
-	 * @param baseCurrency 基準通貨
-	 * @param targetCurrency 対象通貨
-	 * @return 最新レート（存在しない場合は empty ）
-	 */
-	Optional<CurrencyRate>
-	findTopByUsernameAndBaseCurrencyAndTargetCurrencyOrderByFetchedAtDesc(
-			String username,
-			String baseCurrency,
-			String targetCurrency);
+	 * @param fetchedAt 境界の行の変換日時
+	 * @param id 境界の行の ID
+	 * @param limit 取得件数
+	 * @return 一覧の行（fetchedAt, id の昇順）
+	 */
+	@Query("""
+			select new com.example.exchange.domain.model.HistoryRow(
+			       r.id, r.baseCurrency, r.targetCurrency, r.amount, r.convertedAmount, s.rate, r.fetchedAt)
+			from CurrencyRate r join r.snapshot s
+			where r.username = :username and r.deleted = false
+			  and (r.fetchedAt > :fetchedAt or (r.fetchedAt = :fetchedAt and r.id > :id))
+			order by r.fetchedAt asc, r.id asc""")
+	List<HistoryRow> findHistoryRowsNewerThan(
+			@Param("username") String username,
+			@Param("fetchedAt") LocalDateTime fetchedAt,
+			@Param("id") Long id,
+			Limit limit);
+	
+	/**
+	 * 全ユーザのレート履歴の先頭ページを一覧表示用の列だけ取得（管理者用・ID 降順）
+	 * 
+	 * @param limit 取得件数
+	 * @return 一覧の行（id の降順）
+	 */
+	@Query("""
+			select new com.example.exchange.domain.model.AdminRateRow(
+			       r.id, r.username, r.baseCurrency, r.targetCurrency, r.amount, r.convertedAmount, s.rate,
+			       r.fetchedAt, r.deleted, r.deletedAt, r.deletedBy)
+			from CurrencyRate r join r.snapshot s
+			order by r.id desc""")
+	List<AdminRateRow> findAdminRows(Limit limit);
+	
+	/**
+	 * 全ユーザのレート履歴のうち、境界の ID より小さいものを一覧表示用の列だけ取得（管理者用・次のページ）
+	 * 
+	 * @param id 境界の行の ID
+	 * @param limit 取得件数
+	 * @return 一覧の行（id の降順）
+	 */
+	@Query("""
+			select new com.example.exchange.domain.model.AdminRateRow(
+			       r.id, r.username, r.baseCurrency, r.targetCurrency, r.amount, r.convertedAmount, s.rate,
+			       r.fetchedAt, r.deleted, r.deletedAt, r.deletedBy)
+			from CurrencyRate r join r.snapshot s
+			where r.id < :id
+			order by r.id desc""")
+	List<AdminRateRow> findAdminRowsBelow(@Param("id") Long id, Limit limit);
+	
+	/**
+	 * 全ユーザのレート履歴のうち、境界の ID より大きいものを境界に近い順に一覧表示用の列だけ取得（管理者用・前のページ）
+	 * 
+	 * @param id 境界の行の ID
+	 * @param limit 取得件数
+	 * @return 一覧の行（id の昇順）
+	 */
+	@Query("""
+			select new com.example.exchange.domain.model.AdminRateRow(
+			       r.id, r.username, r.baseCurrency, r.targetCurrency, r.amount, r.convertedAmount, s.rate,
+			       r.fetchedAt, r.deleted, r.deletedAt, r.deletedBy)
+			from CurrencyRate r join r.snapshot s
+			where r.id > :id
+			order by r.id asc""")
+	List<AdminRateRow> findAdminRowsAbove(@Param("id") Long id, Limit limit);
+	
+	/**
+	 * ユーザごとの履歴の件数を集計する（件数の初期化・再集計用。一覧表示では使用しない）
+	 * 
+	 * @return ユーザごとの件数
+	 */
+	@Query("""
+			select r.username as username,
+			       sum(case when r.deleted = false then 1 else 0 end) as active,
+			       count(r) as total
+			from CurrencyRate r
+			group by r.username""")
+	List<UserHistoryCount> countByUsername();
+	
+	/**
+	 * ユーザごとの履歴の件数（countByUsername の結果）
+	 */
+	interface UserHistoryCount {
+		String getUsername();
+		Long getActive();
+		Long getTotal();
+	}
+
+	/**
+	 * 物理削除の対象（cutoff より前に論理削除された履歴）を、境界の続きから取得する（ロックしない）
+	 * 
+	 * ・(deletedAt, id) の昇順に、境界 (afterAt, afterId) より後ろから読む（キーセット）
+	 * 		削除済みの行を先頭から読み直さないため、チャンクを重ねても1回あたりの読み取り量が増えない
+	 * 
+	 * @param cutoff この日時より前に論理削除された履歴を対象とする
+	 * @param afterAt 境界の論理削除日時
+	 * @param afterId 境界の ID
+	 * @param limit 取得件数（チャンクの大きさ）
+	 * @return 物理削除の対象（(deletedAt, id) の昇順）
+	 */
+	@Query("""
+			select new com.example.exchange.domain.model.PurgeCandidate(r.id, r.username, r.deletedAt)
+			from CurrencyRate r
+			where r.deleted = true and r.deletedAt < :cutoff
+			  and (r.deletedAt > :afterAt or (r.deletedAt = :afterAt and r.id > :afterId))
+			order by r.deletedAt, r.id
+			""")
+	List<PurgeCandidate> findPurgeCandidates(
+			@Param("cutoff") LocalDateTime cutoff,
+			@Param("afterAt") LocalDateTime afterAt,
+			@Param("afterId") long afterId,
+			Limit limit);
+	
+	/**
+	 * 物理削除の対象のうち、まだ論理削除済みの行をロックして取得する（チャンクの削除と同じトランザクションで呼び出す）
+	 * 
+	 * ・対象の取得から削除までの間に復元された行を除き、件数の調整を削除した行と一致させる
+	 * 
+	 * @param ids 物理削除の対象の ID
+	 * @param cutoff この日時より前に論理削除された履歴を対象とする
+	 * @return ロックした行
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("""
+			select new com.example.exchange.domain.model.PurgeCandidate(r.id, r.username, r.deletedAt)
+			from CurrencyRate r
+			where r.id in :ids and r.deleted = true and r.deletedAt < :cutoff
+			""")
+	List<PurgeCandidate> lockPurgeCandidates(@Param("ids") List<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+	
+	/**
+	 * 指定 ID の履歴をまとめて物理削除する（エンティティを読み込まない）
+	 * 
+	 * @param ids 削除する履歴の ID
+	 * @return 削除した件数
+	 */
+	@Modifying
+	@Query("delete from CurrencyRate r where r.id in :ids")
+	int deleteAllByIdIn(@Param("ids") List<Long> ids);
 
-}
\ No newline at end of file
+	/**
+	 * 一括操作の対象のうち、指定 ID の行を1バッチ分ロックして取得する
+	 * 
+	 * @param ids 履歴 ID（1バッチ分）
+	 * @param deleted 論理削除の状態で絞り込む（null の場合は絞り込まない）
+	 * @return ロックした行
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("""
+			select new com.example.exchange.domain.model.BulkTarget(r.id, r.username, r.deleted)
+			from CurrencyRate r
+			where r.id in :ids and (:deleted is null or r.deleted = :deleted)
+			""")
+	List<BulkTarget> lockBulkTargets(@Param("ids") List<Long> ids, @Param("deleted") Boolean deleted);
+	
+	/**
+	 * 一括操作の対象のうち、条件に一致する行を境界の ID の続きから1バッチ分ロックして取得する（ID の昇順）
+	 * 
+	 * @param username ユーザ名（null の場合は絞り込まない）
+	 * @param baseCurrency 基準通貨（null の場合は絞り込まない）
+	 * @param targetCurrency 対象通貨（null の場合は絞り込まない）
+	 * @param from 変換日時の下限（この日時を含む・null の場合は絞り込まない）
+	 * @param to 変換日時の上限（この日時を含まない・null の場合は絞り込まない）
+	 * @param deleted 論理削除の状態で絞り込む（null の場合は絞り込まない）
+	 * @param afterId 境界の ID（この ID より後ろから読む）
+	 * @param limit 取得件数（バッチの大きさ）
+	 * @return ロックした行（ID の昇順）
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("""
+			select new com.example.exchange.domain.model.BulkTarget(r.id, r.username, r.deleted)
+			from CurrencyRate r
+			where r.id > :afterId
+			  and (:username is null or r.username = :username)
+			  and (:base is null or r.baseCurrency = :base)
+			  and (:target is null or r.targetCurrency = :target)
+			  and (:from is null or r.fetchedAt >= :from)
+			  and (:to is null or r.fetchedAt < :to)
+			  and (:deleted is null or r.deleted = :deleted)
+			order by r.id
+			""")
+	List<BulkTarget> lockBulkTargets(
+			@Param("username") String username,
+			@Param("base") String baseCurrency,
+			@Param("target") String targetCurrency,
+			@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to,
+			@Param("deleted") Boolean deleted,
+			@Param("afterId") long afterId,
+			Limit limit);
+	
+	/**
+	 * 指定 ID の履歴をまとめて論理削除する
+	 * 
+	 * @param ids 履歴 ID
+	 * @param deletedAt 論理削除した日時
+	 * @param deletedBy 論理削除した人
+	 * @return 更新した件数
+	 */
+	@Modifying
+	@Query("""
+			update CurrencyRate r set r.deleted = true, r.deletedAt = :deletedAt, r.deletedBy = :deletedBy
+			where r.id in :ids and r.deleted = false
+			""")
+	int softDeleteAllByIdIn(
+			@Param("ids") List<Long> ids,
+			@Param("deletedAt") LocalDateTime deletedAt,
+			@Param("deletedBy") String deletedBy);
+	
+	/**
+	 * 指定 ID の論理削除済みの履歴をまとめて復元する
+	 * 
+	 * @param ids 履歴 ID
+	 * @return 更新した件数
+	 */
+	@Modifying
+	@Query("""
+			update CurrencyRate r set r.deleted = false, r.deletedAt = null, r.deletedBy = null
+			where r.id in :ids and r.deleted = true
+			""")
+	int restoreAllByIdIn(@Param("ids") List<Long> ids);
+}
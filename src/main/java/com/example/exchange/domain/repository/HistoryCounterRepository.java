@@ -0,0 +1,48 @@
+package com.example.exchange.domain.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.exchange.domain.model.HistoryCounter;
+
+/**
+ * 変換履歴の件数（HistoryCounter）を操作するリポジトリ
+ *
+ * 件数は読み出して書き戻さず、UPDATE 文で差分を加算する（同時に更新されても取りこぼさない）。
+ */
+public interface HistoryCounterRepository extends JpaRepository<HistoryCounter, String> {
+
+	/**
+	 * 件数に差分を加算する（呼び出し元のトランザクションに参加する）
+	 *
+	 * @param scope 集計の単位
+	 * @param active 論理削除されていない件数の差分
+	 * @param total 論理削除済みを含む件数の差分
+	 * @return 更新した行数（scope の行が無い場合は 0）
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("""
+			update HistoryCounter c
+			set c.activeCount = c.activeCount + :active, c.totalCount = c.totalCount + :total
+			where c.scope = :scope""")
+	int add(@Param("scope") String scope, @Param("active") long active, @Param("total") long total);
+
+	/**
+	 * 件数の行を作成する（主キーが割り当て済みの save は既存の行を上書きし得るため、INSERT のみ行う）
+	 *
+	 * @param scope 集計の単位
+	 * @param active 論理削除されていない件数
+	 * @param total 論理削除済みを含む件数
+	 * @return 作成した行数
+	 */
+	@Transactional
+	@Modifying
+	@Query("""
+			insert into HistoryCounter (scope, activeCount, totalCount)
+			values (:scope, :active, :total)""")
+	int insert(@Param("scope") String scope, @Param("active") long active, @Param("total") long total);
+}
@@ -0,0 +1,44 @@
+package com.example.exchange.domain.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.exchange.domain.model.RateSnapshot;
+
+/**
+ * レートスナップショットを操作するリポジトリ
+ *
+ * いずれの検索も (base_currency, target_currency, fetched_at) の
+ * 複合インデックスで解決され、変換履歴の件数に依存しない。
+ */
+public interface RateSnapshotRepository extends JpaRepository<RateSnapshot, Long> {
+
+	/**
+	 * 指定通貨ペアの最新レートを取得する（ユーザを問わない）
+	 *
+	 * ・共有キャッシュに存在しない場合（再起動直後・外部 API 障害時など）に使用する
+	 *
+	 * @param baseCurrency 基準通貨
+	 * @param targetCurrency 対象通貨
+	 * @return 最新レート（存在しない場合は empty ）
+	 */
+	Optional<RateSnapshot>
+	findTopByBaseCurrencyAndTargetCurrencyOrderByFetchedAtDesc(
+			String baseCurrency,
+			String targetCurrency);
+
+	/**
+	 * 指定通貨ペア・取得日時のレートを取得する（同じ取得の重複登録を避けるために使用）
+	 *
+	 * @param baseCurrency 基準通貨
+	 * @param targetCurrency 対象通貨
+	 * @param fetchedAt レート取得日時
+	 * @return 該当するレート（存在しない場合は empty ）
+	 */
+	Optional<RateSnapshot> findByBaseCurrencyAndTargetCurrencyAndFetchedAt(
+			String baseCurrency,
+			String targetCurrency,
+			LocalDateTime fetchedAt);
+}
@@ -0,0 +1,76 @@
+package com.example.exchange.domain.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.example.exchange.domain.model.RateQuote;
+
+/**
+ * 基準通貨1つ分のレートから、全通貨ペアのレートを算出するクラス（三角裁定）
+ * 
+ * 例：USD→JPY と USD→EUR が分かれば
+ * ・JPY→USD = 1 / (USD→JPY)
+ * ・EUR→JPY = (USD→JPY) / (USD→EUR)
+ * を API を呼ばずに算出できる。
+ * 
+ * ・割り算は十分な精度（DECIMAL128）で行い、最後に保存時と同じ scale=4 に丸める
+ */
+public final class CrossRateCalculator {
+
+	/** 保存時と同じレートの精度 */
+	private static final int RATE_SCALE = 4;
+
+	private CrossRateCalculator() {
+	}
+
+	/**
+	 * 全通貨ペアのレートを算出する
+	 * 
+	 * @param anchor API で取得した基準通貨
+	 * @param anchorRates 基準通貨 → 各通貨のレート（キー：対象通貨）
+	 * @param currencies 算出対象の通貨
+	 * @param fetchedAt レートを取得した日時
+	 * @return 算出できた全通貨ペア（基準通貨 ≠ 対象通貨）のレート
+	 */
+	public static List<RateQuote> derive(
+			String anchor,
+			Map<String, BigDecimal> anchorRates,
+			List<String> currencies,
+			LocalDateTime fetchedAt) {
+
+		List<RateQuote> quotes = new ArrayList<>();
+		for (String base : currencies) {
+			BigDecimal anchorToBase = anchorRate(anchor, anchorRates, base);
+			if (anchorToBase == null || anchorToBase.signum() == 0) {
+				continue;
+			}
+			for (String target : currencies) {
+				if (base.equals(target)) {
+					continue;
+				}
+				BigDecimal anchorToTarget = anchorRate(anchor, anchorRates, target);
+				if (anchorToTarget == null) {
+					continue;
+				}
+				// base → target = (anchor → target) / (anchor → base)
+				BigDecimal rate = anchorToTarget
+						.divide(anchorToBase, MathContext.DECIMAL128)
+						.setScale(RATE_SCALE, RoundingMode.HALF_UP);
+				quotes.add(new RateQuote(base, target, rate, fetchedAt));
+			}
+		}
+		return quotes;
+	}
+
+	/**
+	 * 基準通貨 → 指定通貨のレートを取得する（基準通貨自身は 1）
+	 */
+	private static BigDecimal anchorRate(String anchor, Map<String, BigDecimal> anchorRates, String currency) {
+		return anchor.equals(currency) ? BigDecimal.ONE : anchorRates.get(currency);
+	}
+}
@@ -2,17 +2,36 @@ package com.example.exchange.domain.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import com.example.exchange.domain.exception.RateUnavailableException;
+import com.example.exchange.domain.model.ConversionOutcome;
+import com.example.exchange.domain.model.ConversionRequest;
+import com.example.exchange.domain.model.ConversionResult;
 import com.example.exchange.domain.model.CurrencyRate;
-import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.model.FixedPoint;
+import com.example.exchange.domain.model.RateMatrix;
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.domain.model.RateSnapshot;
 import com.example.exchange.infrastructure.api.CurrencyRateApiClient;
+import com.example.exchange.infrastructure.monitoring.ConversionEvent;
+import com.example.exchange.infrastructure.persistence.ConversionHistoryWriter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 /**
  *  通貨レート取得・変換処理を担当するサービス
@@ -20,8 +39,12 @@ import com.example.exchange.infrastructure.api.CurrencyRateApiClient;
  *  提供機能：
  *  ・外部 API からのレート取得
  *  ・レート履歴の保存
- *  ・最新レートの取得（１時間キャッシュ）
- *  ・金額変換ロジック
+ *  ・最新レートの取得（通貨ペア単位の共有キャッシュ・１時間）
+ *  ・金額変換ロジック（同期版・非同期版・一括変換）
+ *  ・1件の変換の所要時間を exchange.conversion（タグ：mode＝sync / async、
+ *  		outcome＝fresh / stale / degraded / failed）に記録する
+ *  ・1件の変換ごとに JFR イベント（ConversionEvent：通貨ペア・ユーザ名のハッシュ・レートの取得元・
+ *  		レートの決定 / DB 参照 / 履歴の保存の所要時間）を発行する
  *
  * Controller からビジネスロジックを切り離し、
  * 変換処理に関する責務をこのクラスに集約する
@@ -29,21 +52,87 @@ import com.example.exchange.infrastructure.api.CurrencyRateApiClient;
 @Service
 public class CurrencyConversionService {
 	
+	private static final Logger logger = LoggerFactory.getLogger(CurrencyConversionService.class);
+	
 	/** 外部 API クライアント（為替レート取得用 */
 	private final CurrencyRateApiClient apiClient;
 	
-	/** レート履歴を保存・取得するリポジトリ */
-	private final CurrencyRateRepository rateRepository;
+	/** 通貨ペア単位の共有レートキャッシュ */
+	private final RateCache rateCache;
+	
+	/** 通貨ペアごとに取得処理を1本にまとめる */
+	private final SingleFlightRateFetcher rateFetcher;
+	
+	/** 事前更新済みの全通貨ペアのレート行列 */
+	private final RateMatrixHolder rateMatrix;
+	
+	/** 変換に使用したレートの記録（通貨ペア × 取得1回につき1件） */
+	private final RateSnapshotService snapshotService;
+	
+	/** 変換履歴をまとめて非同期に保存するライタ */
+	private final ConversionHistoryWriter historyWriter;
+	
+	/** 非同期の変換処理で、DB アクセス（履歴の保存など）を行うスレッドプール */
+	private final Executor conversionExecutor;
+	
+	/** 所要時間の記録先 */
+	private final MeterRegistry meterRegistry;
+	
+	/** 変換結果 → 所要時間（同期版・非同期版） */
+	private final Map<String, Timer> syncTimers;
+	private final Map<String, Timer> asyncTimers;
 
 	/**
 	 * コンストラクタインジェクション
 	 * 依存関係を明確にし、テスト容易性を高めるために採用。
 	 */
 	public CurrencyConversionService(
-			CurrencyRateRepository rateRepository,
-			CurrencyRateApiClient apiClient) {
-		this.rateRepository = rateRepository;
+			CurrencyRateApiClient apiClient,
+			RateCache rateCache,
+			SingleFlightRateFetcher rateFetcher,
+			RateMatrixHolder rateMatrix,
+			RateSnapshotService snapshotService,
+			ConversionHistoryWriter historyWriter,
+			@Qualifier("conversionExecutor") Executor conversionExecutor,
+			MeterRegistry meterRegistry) {
 		this.apiClient = apiClient;
+		this.rateCache = rateCache;
+		this.rateFetcher = rateFetcher;
+		this.rateMatrix = rateMatrix;
+		this.snapshotService = snapshotService;
+		this.historyWriter = historyWriter;
+		this.conversionExecutor = conversionExecutor;
+		this.meterRegistry = meterRegistry;
+		this.syncTimers = conversionTimers("sync");
+		this.asyncTimers = conversionTimers("async");
+	}
+	
+	/**
+	 * 変換結果ごとの Timer を事前に登録する（変換のたびに検索しない）
+	 */
+	private Map<String, Timer> conversionTimers(String mode) {
+		Map<String, Timer> timers = new HashMap<>();
+		for (String outcome : List.of("fresh", "stale", "degraded", "failed")) {
+			timers.put(outcome, Timer.builder("exchange.conversion")
+					.description("Single conversion latency including rate resolution and history save")
+					.tag("mode", mode)
+					.tag("outcome", outcome)
+					.register(meterRegistry));
+		}
+		return timers;
+	}
+	
+	/**
+	 * 変換結果の分類（null は失敗）
+	 */
+	private static String outcome(ConversionResult result) {
+		if (result == null) {
+			return "failed";
+		}
+		if (result.degraded()) {
+			return "degraded";
+		}
+		return result.stale() ? "stale" : "fresh";
 	}
 
 	/**
@@ -58,74 +147,340 @@ public class CurrencyConversionService {
 	}
 
 	/**
-	 * レート履歴を DB に保存する
+	 * レート履歴の保存を受け付ける
 	 * 
+	 * ・使用したレートはスナップショットとして記録し、履歴からは参照のみ行う
+	 * 		（同じ取得のレートは既存のスナップショットを共有する）
 	 * ・レートは scale=4 金額は scale=2 に正規化して保存
 	 * ・変換後金額も計算して保存
+	 * ・履歴の INSERT は ConversionHistoryWriter がまとめて非同期に行う（ID は保存時に採番される）
 	 * 
 	 * @param username ユーザ名
-	 * @param base 基準通貨
-	 * @param target 対象通貨
-	 * @param rate レート
+	 * @param quote 使用したレート
 	 * @param amount 変換前の金額
-	 * @return 保存されたエンティティ
+	 * @return 保存を受け付けたエンティティ
 	 */
 	public CurrencyRate saveRate(
 			String username,
-			String base,
-			String target,
-			BigDecimal rate,
+			RateQuote quote,
 			BigDecimal amount) {
 		
-		// DB に保存するレートを必ず同じ制度にするため↓
-		BigDecimal normalizedRate = rate.setScale(4, RoundingMode.HALF_UP);
-		BigDecimal normalizedAmount = amount.setScale(2, RoundingMode.HALF_UP);
-		BigDecimal converted = normalizedAmount.multiply(normalizedRate).setScale(2, RoundingMode.HALF_UP);
-
-		CurrencyRate entity = new CurrencyRate(
+		CurrencyRate entity = history(username, snapshotService.snapshotOf(quote), amount, LocalDateTime.now());
+		historyWriter.enqueue(entity);
+		return entity;
+	}
+	
+	/**
+	 * 変換履歴のエンティティを組み立てる（金額は scale=2 に正規化し、変換後金額を計算する）
+	 * 
+	 * ・計算は固定小数点（FixedPoint）で行い、BigDecimal はエンティティに設定する値のみ生成する
+	 * 		（結果は BigDecimal で計算した場合と同じ。long に収まらない場合は BigDecimal で計算する）
+	 */
+	private static CurrencyRate history(String username, RateSnapshot snapshot, BigDecimal amount, LocalDateTime at) {
+		BigDecimal normalizedAmount = null;
+		BigDecimal converted = null;
+		long rate = snapshot.getScaledRate();
+		if (rate != FixedPoint.NONE) {
+			try {
+				long scaledAmount = FixedPoint.toScaled(amount, FixedPoint.AMOUNT_SCALE);
+				long scaledConverted = FixedPoint.convert(scaledAmount, rate);
+				normalizedAmount = amount.scale() == FixedPoint.AMOUNT_SCALE
+						? amount
+						: FixedPoint.toBigDecimal(scaledAmount, FixedPoint.AMOUNT_SCALE);
+				converted = FixedPoint.toBigDecimal(scaledConverted, FixedPoint.AMOUNT_SCALE);
+			} catch (ArithmeticException e) {
+				// long に収まらない金額は、下の BigDecimal の計算に切り替える
+			}
+		}
+		if (converted == null) {
+			normalizedAmount = amount.setScale(FixedPoint.AMOUNT_SCALE, RoundingMode.HALF_UP);
+			converted = normalizedAmount.multiply(snapshot.getRate())
+					.setScale(FixedPoint.AMOUNT_SCALE, RoundingMode.HALF_UP);
+		}
+		return new CurrencyRate(
 				username,
-				base,
-				target,
-				normalizedRate,
+				snapshot.getBaseCurrency(),
+				snapshot.getTargetCurrency(),
+				snapshot,
 				normalizedAmount,
 				converted,
-				LocalDateTime.now()
-		);
-		return rateRepository.save(entity);
+				at);
 	}
 	
 	/**
-	 * 指定ユーザのレート履歴一覧を取得（論理削除を除外）
+	 * 通貨ペアの最新レートを DB（レートスナップショット）から取得
 	 * 
-	 * @param username ユーザ名
-	 * @param page ページ番号
-	 * @param size １ページあたりの件数
-	 * @return レート履歴リスト
+	 * ・ユーザに依存せず、通貨ペアの索引参照1回で取得する
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 最新レート（存在しない場合は null ）
 	 */
-	public Page<CurrencyRate> getActiveRatesByUsername(String username, int page, int size){
-		Pageable pageable = PageRequest.of(page, size, Sort.by("fetchedAt").descending());
-		return rateRepository.findByUsernameAndDeletedFalseOrderByFetchedAtDesc(username, pageable);
+	public RateQuote getLatestRate(String base, String target) {
+		return snapshotService.findLatest(base, target);
 	}
 
 	/**
-	 * 指定したユーザ・通貨ペアの最新レートを取得
+	 * 通貨ペアの最新レートを DB（レートスナップショット）から非同期で取得
+	 * 
+	 * ・DB への問い合わせは変換処理用のスレッドプールで行う
 	 * 
-	 * @param username ユーザ名
 	 * @param base 基準通貨
 	 * @param target 対象通貨
-	 * @return 最新レート（存在しない場合は null ）
+	 * @return 最新レートの Future（存在しない場合は null で完了）
+	 */
+	public CompletableFuture<RateQuote> getLatestRateAsync(String base, String target) {
+		return CompletableFuture.supplyAsync(() -> getLatestRate(base, target), conversionExecutor);
+	}
+
+	/**
+	 * レート行列・共有キャッシュ上の使用可能なレートを取得する
+	 * 
+	 * ・DB には問い合わせない
+	 * ・レート行列に古くないレートがあればそれを返す（オブジェクトを生成しない）
+	 * ・レート行列のレートが古い場合は、共有キャッシュ側（個別に再取得済み）と新しい方を返す
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return hard TTL 以内のレート（どちらにも存在しない場合は null ）
+	 */
+	public RateQuote getCachedRate(String base, String target) {
+		RateQuote fresh = getFreshFromMatrix(base, target);
+		return fresh != null ? fresh : getStaleOrCachedRate(base, target);
+	}
+	
+	/**
+	 * レート行列の古くないレートを参照する（ヒットした場合はキャッシュの集計に記録する）
+	 */
+	private RateQuote getFreshFromMatrix(String base, String target) {
+		RateQuote fresh = rateMatrix.lookupFresh(base, target);
+		if (fresh != null) {
+			rateCache.recordHit(true, false);
+		}
+		return fresh;
+	}
+	
+	/**
+	 * レート行列に古くないレートが無い場合の参照（レート行列の古いレートと共有キャッシュのうち新しい方）
+	 * 
+	 * ・応答に使うレートの取得元で、キャッシュのヒット / ミスを記録する
+	 */
+	private RateQuote getStaleOrCachedRate(String base, String target) {
+		RateQuote fromMatrix = rateMatrix.lookup(base, target);
+		RateQuote fromCache = rateCache.get(base, target);
+		RateQuote chosen;
+		if (fromMatrix == null) {
+			chosen = fromCache;
+		} else {
+			chosen = fromCache != null && fromCache.fetchedAt().isAfter(fromMatrix.fetchedAt()) ? fromCache : fromMatrix;
+		}
+		if (chosen == null) {
+			rateCache.recordMiss();
+		} else {
+			rateCache.recordHit(chosen == fromMatrix, rateCache.isStale(chosen));
+		}
+		return chosen;
+	}
+
+	/**
+	 * 通貨ペアのレートを決定する
+	 * 
+	 * ・まずレート行列（事前更新済みの通貨ペア）、次に共有キャッシュを参照する
+	 * 		（ヒット時は DB・API ともに呼ばない）
+	 * ・soft TTL を過ぎたレートはそのまま返し、裏で再取得を開始する（stale-while-revalidate）
+	 * ・どちらにも無い（hard TTL 切れ）場合の取得処理は、通貨ペアごとに1本へまとめて完了を待つ
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 変換に使用するレート
+	 * @throws RateUnavailableException レートを取得できなかった場合
+	 */
+	public RateQuote resolveRate(String base, String target) {
+		return resolveRate(base, target, null);
+	}
+	
+	/**
+	 * 通貨ペアのレートを決定し、取得元を変換のイベントに記録する（event が null の場合は記録しない）
+	 */
+	private RateQuote resolveRate(String base, String target, ConversionEvent event) {
+		RateQuote fresh = getFreshFromMatrix(base, target);
+		if (fresh != null) {
+			source(event, ConversionEvent.CACHE);
+			return fresh;
+		}
+		RateQuote cached = getStaleOrCachedRate(base, target);
+		if (cached != null) {
+			boolean stale = rateCache.isStale(cached);
+			if (stale) {
+				// 呼び出し元は待たせず、再取得は裏で行う（同時に複数来ても1回にまとまる）
+				refreshRate(base, target);
+			}
+			source(event, stale ? ConversionEvent.STALE : ConversionEvent.CACHE);
+			return cached;
+		}
+		// 他のリクエストの取得を待った場合は SHARED のまま（自身で読み込んだ場合は loadRate で上書きする）
+		source(event, ConversionEvent.SHARED);
+		return rateFetcher.fetch(base, target, () -> loadRate(base, target, event));
+	}
+
+	/**
+	 * 通貨ペアのレートを非同期で決定する
+	 * 
+	 * ・レート行列・共有キャッシュの参照は resolveRate と同じ（ヒット時は完了済みの Future を返す）
+	 * ・API からの取得は非同期 HTTP クライアントで行い、応答待ちの間スレッドを占有しない
+	 * ・取得処理は通貨ペアごとに1本へまとめる
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 変換に使用するレートの Future（取得できない場合は RateUnavailableException で完了）
+	 */
+	public CompletableFuture<RateQuote> resolveRateAsync(String base, String target) {
+		return resolveRateAsync(base, target, null);
+	}
+	
+	private CompletableFuture<RateQuote> resolveRateAsync(String base, String target, ConversionEvent event) {
+		RateQuote fresh = getFreshFromMatrix(base, target);
+		if (fresh != null) {
+			source(event, ConversionEvent.CACHE);
+			return CompletableFuture.completedFuture(fresh);
+		}
+		RateQuote cached = getStaleOrCachedRate(base, target);
+		if (cached != null) {
+			boolean stale = rateCache.isStale(cached);
+			if (stale) {
+				refreshRate(base, target);
+			}
+			source(event, stale ? ConversionEvent.STALE : ConversionEvent.CACHE);
+			return CompletableFuture.completedFuture(cached);
+		}
+		source(event, ConversionEvent.SHARED);
+		return rateFetcher.fetchNonBlocking(base, target, () -> loadRateAsync(base, target, event));
+	}
+
+	/**
+	 * 通貨ペアのレートを API から取り直し、共有キャッシュを更新する（事前更新用）
+	 * 
+	 * ・変換時の取得と同時に走った場合は1回の取得にまとめる
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 取得結果の Future
+	 */
+	public CompletableFuture<RateQuote> refreshRate(String base, String target) {
+		return rateFetcher.refreshAsync(base, target,
+				() -> new RateQuote(base, target, fetchRateFromApi(base, target), LocalDateTime.now()));
+	}
+
+	/**
+	 * 全通貨ペアのレートを1回の API 呼び出しで取り直し、共有キャッシュを更新する（事前更新用）
+	 * 
+	 * ・anchor（基準通貨）→ 各通貨のレートのみを API から取得する
+	 * ・その他の通貨ペア（逆レート・クロスレート）は三角裁定で算出する（scale=4）
+	 * ・算出結果から新しいレート行列を生成し、参照の差し替えで公開する
+	 * 
+	 * @param anchor API で取得する基準通貨
+	 * @param currencies 対象通貨
+	 * @return 取得・算出した全レートの Future
 	 */
-	public CurrencyRate getLatestRate(String username, String base, String target) {
-		return rateRepository
-				.findTopByUsernameAndBaseCurrencyAndTargetCurrencyOrderByFetchedAtDesc(username, base, target)
-				.orElse(null);
+	public CompletableFuture<List<RateQuote>> refreshAllRates(String anchor, List<String> currencies) {
+		List<String> targets = currencies.stream().filter(c -> !c.equals(anchor)).toList();
+		return rateFetcher.refreshAllAsync(() -> {
+			List<RateQuote> quotes = CrossRateCalculator.derive(
+					anchor,
+					apiClient.getRates(anchor, targets),
+					currencies,
+					LocalDateTime.now());
+			rateMatrix.publish(RateMatrix.of(currencies, quotes));
+			return quotes;
+		});
+	}
+
+	/**
+	 * キャッシュに無い通貨ペアのレートを読み込む
+	 * 
+	 * ・DB 上の通貨ペアの最新レートが1時間以内ならそれを使う（再起動直後など）
+	 * ・それ以外は API から取得する
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 読み込んだレート
+	 */
+	private RateQuote loadRate(String base, String target, ConversionEvent event) {
+		RateQuote stored = lookUpLatestRate(base, target, event);
+		if (stored != null && !rateCache.isStale(stored)) {
+			source(event, ConversionEvent.DB);
+			return stored;
+		}
+		source(event, ConversionEvent.API);
+		return new RateQuote(base, target, fetchRateFromApi(base, target), LocalDateTime.now());
+	}
+
+	/**
+	 * キャッシュに無い通貨ペアのレートを非同期で読み込む
+	 * 
+	 * ・DB 上の通貨ペアの最新レートが1時間以内ならそれを使う
+	 * 		（DB への問い合わせは変換処理用のスレッドプールで行い、呼び出し元のスレッドを待たせない）
+	 * ・それ以外は非同期 HTTP クライアントで API から取得する
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 読み込んだレートの Future
+	 */
+	private CompletableFuture<RateQuote> loadRateAsync(String base, String target, ConversionEvent event) {
+		return CompletableFuture.supplyAsync(() -> lookUpLatestRate(base, target, event), conversionExecutor)
+				.thenCompose(stored -> {
+					if (stored != null && !rateCache.isStale(stored)) {
+						source(event, ConversionEvent.DB);
+						return CompletableFuture.completedFuture(stored);
+					}
+					source(event, ConversionEvent.API);
+					return apiClient.getRateAsync(base, target)
+							.thenApply(rate -> new RateQuote(base, target, rate, LocalDateTime.now()));
+				});
+	}
+	
+	/**
+	 * DB 上の通貨ペアの最新レートを取得し、所要時間を変換のイベントに記録する
+	 */
+	private RateQuote lookUpLatestRate(String base, String target, ConversionEvent event) {
+		if (event == null) {
+			return getLatestRate(base, target);
+		}
+		long mark = event.mark();
+		RateQuote stored = getLatestRate(base, target);
+		event.dbLookedUp(mark);
+		return stored;
+	}
+	
+	private static void source(ConversionEvent event, String rateSource) {
+		if (event != null) {
+			event.setRateSource(rateSource);
+		}
+	}
+
+	/**
+	 * 外部 API から取得できない場合に代替する、最後に取得できたレートを取得する
+	 * 
+	 * ・共有キャッシュ上のレート（hard TTL 切れを含む）と、DB 上の通貨ペアの最新レートのうち新しい方を返す
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 最後に取得できたレート（どちらにも存在しない場合は null ）
+	 */
+	public RateQuote getLastKnownRate(String base, String target) {
+		RateQuote fromCache = rateCache.lastKnown(base, target);
+		RateQuote fromDb = getLatestRate(base, target);
+		if (fromCache == null) {
+			return fromDb;
+		}
+		return fromDb != null && fromDb.fetchedAt().isAfter(fromCache.fetchedAt()) ? fromDb : fromCache;
 	}
 
 	/**
 	 * 金額変換のメインロジック
 	 * 
-	 * ・1時間以内なら DB のレートを使用（キャッシュ）
-	 * ・1時間以上経過していれば API 再取得
+	 * ・レートはレート行列・共有キャッシュ → DB → API の順に決定する（resolveRate）
+	 * ・API から取得できない場合（障害・遮断中）は、最後に取得できたレートで代替する（degraded）
 	 * ・履歴は毎回保存する
 	 * 
 	 * @return 変換後の金額
@@ -135,48 +490,215 @@ public class CurrencyConversionService {
 			BigDecimal amount,
 			String base,
 			String target) {
-
-		CurrencyRate latest = getLatestRate(username, base, target);
-		BigDecimal rate;
-
-		// DB レートが存在しない or 1時間以上経過
-		if (latest == null || isExpired(latest)) {
-			// 初回は API から取得
-			rate = fetchRateFromApi(base, target);
-		} else {
-			rate = latest.getRate();
+		
+		return convertInternal(username, amount, base, target).history().getConvertedAmount();
+	}
+	
+	private ConversionResult convertInternal(String username,
+			BigDecimal amount, String base, String target) {
+		
+		Timer.Sample sample = Timer.start(meterRegistry);
+		ConversionEvent event = ConversionEvent.start("sync", username, base, target);
+		ConversionResult result = null;
+		try {
+			long mark = event.mark();
+			RateQuote quote;
+			boolean degraded = false;
+			try {
+				quote = resolveRate(base, target, event);
+			} catch (RateUnavailableException e) {
+				quote = lastKnownOrThrow(base, target, e);
+				degraded = true;
+				event.setRateSource(ConversionEvent.FALLBACK);
+			}
+			event.rateResolved(mark);
+			result = complete(username, amount, base, target, quote, degraded, event);
+			return result;
+		} finally {
+			String outcome = outcome(result);
+			sample.stop(syncTimers.get(outcome));
+			event.finish(outcome);
 		}
-
+	}
+	
+	/**
+	 * 使用するレートが決まった後の変換処理（履歴の保存と結果の組み立て）
+	 */
+	private ConversionResult complete(String username, BigDecimal amount, String base, String target,
+			RateQuote quote, boolean degraded, ConversionEvent event) {
+		
 		// 履歴は毎回保存
-		CurrencyRate saved = saveRate(username, base, target, rate, amount);
+		long mark = event.mark();
+		CurrencyRate saved = saveRate(username, quote, amount);
+		event.historySaved(mark);
 		
-		return saved.getConvertedAmount();
+		return new ConversionResult(
+				saved,
+				quote,
+				Duration.between(quote.fetchedAt(), saved.getFetchedAt()),
+				rateCache.isStale(quote),
+				degraded);
 	}
 	
 	/**
-	 * レートが１時間以上前かどうか判定
-	 * 
-	 * @param rate レート履歴
-	 * @return 有効期限切れなら true
+	 * 最後に取得できたレートを返す（存在しない場合は取得失敗の例外をそのままスローする）
 	 */
-	private boolean isExpired(CurrencyRate rate) {
-		return rate.getFetchedAt()
-				.isBefore(LocalDateTime.now().minusHours(1));
+	private RateQuote lastKnownOrThrow(String base, String target, RateUnavailableException e) {
+		RateQuote quote = getLastKnownRate(base, target);
+		if (quote == null) {
+			throw e;
+		}
+		logger.warn("Using last known rate for {}/{} fetched at {}: {}",
+				base, target, quote.fetchedAt(), e.getMessage());
+		return quote;
 	}
 	
-	private CurrencyRate convertInternal(String username,
+	/**
+	 * 非同期の変換処理
+	 * 
+	 * ・レートの取得中は呼び出し元（リクエスト処理）のスレッドを占有しない
+	 * ・レート決定後の履歴保存は変換処理用のスレッドプールで行う
+	 * ・API から取得できない場合は、同期版と同様に最後に取得できたレートで代替する（degraded）
+	 * 
+	 * @return 変換結果の Future（代替できるレートも無い場合は RateUnavailableException で完了）
+	 */
+	public CompletableFuture<ConversionResult> convertAsync(String username,
 			BigDecimal amount, String base, String target) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		ConversionEvent event = ConversionEvent.start("async", username, base, target);
+		long mark = event.mark();
+		return resolveWithFallbackAsync(base, target, event)
+				.thenApply(r -> {
+					event.rateResolved(mark);
+					return complete(username, amount, base, target, r.quote(), r.degraded(), event);
+				})
+				.whenComplete((result, ex) -> {
+					String outcome = outcome(result);
+					sample.stop(asyncTimers.get(outcome));
+					event.finish(outcome);
+				});
+	}
+	
+	/**
+	 * 非同期でレートを決定し、API から取得できない場合は最後に取得できたレートで代替する
+	 * 
+	 * ・代替の判定（DB 参照を含む）は変換処理用のスレッドプールで行う
+	 * 
+	 * @return 決定したレートの Future（代替できるレートも無い場合は RateUnavailableException で完了）
+	 */
+	private CompletableFuture<ResolvedRate> resolveWithFallbackAsync(String base, String target,
+			ConversionEvent event) {
+		return resolveRateAsync(base, target, event).handleAsync((quote, ex) -> {
+			if (ex == null) {
+				return new ResolvedRate(quote, false);
+			}
+			Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+			RateUnavailableException unavailable = cause instanceof RateUnavailableException rue
+					? rue
+					: new RateUnavailableException(base, target, String.valueOf(cause), cause);
+			RateQuote lastKnown = lastKnownOrThrow(base, target, unavailable);
+			source(event, ConversionEvent.FALLBACK);
+			return new ResolvedRate(lastKnown, true);
+		}, conversionExecutor);
+	}
+	
+	/**
+	 * 変換に使用するレートと、最後に取得できたレートで代替したかどうか
+	 */
+	private record ResolvedRate(RateQuote quote, boolean degraded) {
+	}
+	
+	/**
+	 * 一括変換（非同期）
+	 * 
+	 * ・必要な通貨ペアのレートは、ペアごとに1回だけ並行して決定する（単体の変換と同様に代替あり）
+	 * ・全件の変換後、履歴は ConversionHistoryWriter.writeNow の1回の saveAll（1トランザクション・JDBC バッチ）でまとめて保存する
+	 * 		（応答時点で保存済みとなるよう、write-behind のキューは経由しない）
+	 * ・入力の不備やレートを決定できなかった項目は、その項目のみエラーとして返す
+	 * 
+	 * @param username ユーザ名
+	 * @param requests 変換内容（この順に結果を返す）
+	 * @return 入力と同じ順の変換結果の Future
+	 */
+	public CompletableFuture<List<ConversionOutcome>> convertBatchAsync(String username,
+			List<ConversionRequest> requests) {
+		Map<String, CompletableFuture<ResolvedRate>> rates = new HashMap<>();
+		for (ConversionRequest r : requests) {
+			if (invalidReason(r) == null) {
+				rates.computeIfAbsent(pairKey(r),
+						k -> resolveWithFallbackAsync(r.baseCurrency(), r.targetCurrency(), null));
+			}
+		}
+		return CompletableFuture.allOf(rates.values().toArray(CompletableFuture[]::new))
+				.handleAsync((ignored, ex) -> completeBatch(username, requests, rates), conversionExecutor);
+	}
+	
+	/**
+	 * レート決定後の一括変換（変換後金額の計算と履歴の一括保存）
+	 */
+	private List<ConversionOutcome> completeBatch(String username, List<ConversionRequest> requests,
+			Map<String, CompletableFuture<ResolvedRate>> rates) {
 		
-		CurrencyRate latest = getLatestRate(username, base, target);
-		BigDecimal rate;
+		LocalDateTime now = LocalDateTime.now();
+		Map<String, RateSnapshot> snapshots = new HashMap<>();
+		List<ConversionOutcome> outcomes = new ArrayList<>(requests.size());
+		List<CurrencyRate> histories = new ArrayList<>(requests.size());
 		
-		if(latest == null || isExpired(latest)) {
-			rate = fetchRateFromApi(base, target);
-		}else {
-			rate = latest.getRate();
+		for (ConversionRequest r : requests) {
+			String invalid = invalidReason(r);
+			if (invalid != null) {
+				outcomes.add(ConversionOutcome.failed(invalid));
+				continue;
+			}
+			CompletableFuture<ResolvedRate> rate = rates.get(pairKey(r));
+			if (rate.isCompletedExceptionally()) {
+				outcomes.add(ConversionOutcome.failed(failureMessage(rate)));
+				continue;
+			}
+			ResolvedRate resolved = rate.join();
+			RateSnapshot snapshot = snapshots.computeIfAbsent(pairKey(r),
+					k -> snapshotService.snapshotOf(resolved.quote()));
+			CurrencyRate history = history(username, snapshot, r.amount(), now);
+			histories.add(history);
+			outcomes.add(ConversionOutcome.succeeded(new ConversionResult(
+					history,
+					resolved.quote(),
+					Duration.between(resolved.quote().fetchedAt(), now),
+					rateCache.isStale(resolved.quote()),
+					resolved.degraded())));
 		}
 		
-		return saveRate(username, base, target, rate, amount);
+		historyWriter.writeNow(histories);
+		return outcomes;
+	}
+	
+	/**
+	 * 入力の不備を判定する
+	 * 
+	 * @return 不備の内容（問題無い場合は null）
+	 */
+	private static String invalidReason(ConversionRequest r) {
+		if (r.amount() == null) {
+			return "amount is required";
+		}
+		if (r.baseCurrency() == null || r.baseCurrency().isBlank()
+				|| r.targetCurrency() == null || r.targetCurrency().isBlank()) {
+			return "base and target are required";
+		}
+		return null;
+	}
+	
+	private static String pairKey(ConversionRequest r) {
+		return r.baseCurrency() + "/" + r.targetCurrency();
+	}
+	
+	private static String failureMessage(CompletableFuture<?> failed) {
+		try {
+			failed.join();
+			return null;
+		} catch (CompletionException e) {
+			return e.getCause() == null ? e.getMessage() : e.getCause().getMessage();
+		}
 	}
 	
 	/**
@@ -185,6 +707,15 @@ public class CurrencyConversionService {
 	 */
 	public CurrencyRate convertWithEntity(String username,
 			BigDecimal amount, String base, String target) {
+		return convertInternal(username, amount, base, target).history();
+	}
+	
+	/**
+	 * 変換結果を、使用したレートの鮮度（経過時間・stale かどうか）とともに返す変換処理。
+	 * API のレスポンスにレートの鮮度を含めるために使用する。
+	 */
+	public ConversionResult convertWithResult(String username,
+			BigDecimal amount, String base, String target) {
 		return convertInternal(username, amount, base, target);
 	}
 }
@@ -1,17 +1,32 @@
 package com.example.exchange.domain.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.exchange.application.dto.CurrencyRateDto;
+import com.example.exchange.application.dto.CursorPageDto;
 import com.example.exchange.application.dto.HistoryDto;
 import com.example.exchange.application.mapper.CurrencyRateMapper;
+import com.example.exchange.domain.model.AdminRateRow;
+import com.example.exchange.domain.model.BulkTarget;
 import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.HistoryCounter;
+import com.example.exchange.domain.model.HistoryCriteria;
+import com.example.exchange.domain.model.HistoryCursor;
+import com.example.exchange.domain.model.HistoryRow;
 import com.example.exchange.domain.repository.CurrencyRateRepository;
 
 /**
@@ -20,66 +35,148 @@ import com.example.exchange.domain.repository.CurrencyRateRepository;
  * 主な責務：
  * ・ユーザごとの履歴取得（論理削除を除外）
  * ・管理者用の全履歴取得
+ * ・キーセット（シーク）ページングによる一覧取得（画面・JSON API 共通）
+ * 		一覧は必要な列だけを射影して読み取り専用トランザクションで取得し、エンティティを生成しない
+ * 		（読み取り用レプリカを設定した場合、一覧・件数の読み取り専用トランザクションはレプリカで読む）
  * ・Entity → DTO 変換
- * ・論理削除および完全削除
+ * ・論理削除および完全削除（履歴の件数も同じトランザクションで更新する）
+ * ・管理者による一括の論理削除・復元・完全削除（ID の一覧・条件指定。上限件数ごとのバッチで更新する）
  * 
  * Controller は DTO のみ扱い、Entity を外部へ直接公開しない設計とする。
  */
 @Service
 public class CurrencyRateService {
 
+	/** キーセットページングで1ページに取得できる最大件数 */
+	public static final int MAX_PAGE_SIZE = 100;
+
 	/** 通貨レートデータアクセスを担当する Repository */
 	private final CurrencyRateRepository rateRepository;
 	
 	/** Entity → DTO 変換を担当する Mapper */
 	private final CurrencyRateMapper mapper;
 	
+	/** 履歴の件数（一覧の件数表示用） */
+	private final HistoryCounterService counters;
+	
+	/** 一括操作のバッチ単位のトランザクション */
+	private final TransactionTemplate transactionTemplate;
+	
+	/** 一括操作で1回の UPDATE / DELETE に含める最大件数 */
+	private final int bulkBatchSize;
+	
 	/** コンストラクタインジェクション */
-	public CurrencyRateService(CurrencyRateRepository repository, CurrencyRateMapper mapper) {
+	public CurrencyRateService(CurrencyRateRepository repository, CurrencyRateMapper mapper,
+			HistoryCounterService counters, TransactionTemplate transactionTemplate,
+			@Value("${exchange.history.bulk.batch-size:1000}") int bulkBatchSize) {
 		this.rateRepository = repository;
 		this.mapper = mapper;
+		this.counters = counters;
+		this.transactionTemplate = transactionTemplate;
+		this.bulkBatchSize = bulkBatchSize;
 	}
 	
 	/**
-	 * 指定したユーザのレート履歴を取得（論理削除を除外・新しい順）
+	 * 指定ユーザのレート履歴を1ページ分取得（キーセットページング・論理削除を除外・新しい順）
+	 * 
+	 * ・after を指定した場合はその行より古いページ、before を指定した場合はその行より新しいページを返す
+	 * 		（どちらも無い場合は先頭ページ。両方指定した場合は before を優先する）
+	 * ・(fetchedAt, id) の順に境界から size 件だけ読むため、ページの深さに関わらず一定のコストで取得できる
 	 * 
 	 * @param username ユーザ名
-	 * @param page ページ番号
-	 * @param size １ページあたりの件数
-	 * @return Entity のページ
+	 * @param after 次のページのカーソル（null 可）
+	 * @param before 前のページのカーソル（null 可）
+	 * @param size １ページあたりの件数（1〜MAX_PAGE_SIZE に丸める）
+	 * @return DTO のページ
 	 */
-	public Page<CurrencyRate> getRatesByUsername(String username, int page, int size){
-		Pageable pageable = PageRequest.of(page, size, Sort.by("fetchedAt").descending());
+	@Transactional(readOnly = true)
+	public CursorPageDto<HistoryDto> getHistoryPage(String username, HistoryCursor after, HistoryCursor before, int size) {
+		int pageSize = pageSize(size);
+		// 1件多く読み、続きのページがあるかを判定する
+		Limit limit = Limit.of(pageSize + 1);
 		
-		return rateRepository.findByUsernameAndDeletedFalseOrderByFetchedAtDesc(username, pageable);
+		if (before != null) {
+			return backwardPage(
+					rateRepository.findHistoryRowsNewerThan(username, before.fetchedAt(), before.id(), limit),
+					pageSize, HistoryRow::cursor, mapper::toHistoryDtos);
 		}
+		List<HistoryRow> rows = after == null
+				? rateRepository.findHistoryRows(username, limit)
+				: rateRepository.findHistoryRowsOlderThan(username, after.fetchedAt(), after.id(), limit);
+		return forwardPage(rows, pageSize, after != null, HistoryRow::cursor, mapper::toHistoryDtos);
+	}
 	
 	/**
-	 * 指定ユーザのレート履歴を DTO で取得
+	 * 全ユーザのレート履歴を1ページ分取得（管理者用・キーセットページング・論理削除済みを含む・ID 降順）
 	 * 
-	 * Controller は DTO のみ扱うため、Entity → DTO 変換をここで行う。
+	 * ・カーソルの扱いは getHistoryPage と同じ（境界は ID のみで判定する）
 	 * 
-	 * @param username ユーザ名
-	 * @param page ページ番号
-	 * @param size １ページあたりの件数
+	 * @param after 次のページのカーソル（null 可）
+	 * @param before 前のページのカーソル（null 可）
+	 * @param size １ページあたりの件数（1〜MAX_PAGE_SIZE に丸める）
 	 * @return DTO のページ
 	 */
-	public Page<HistoryDto> getRatesDto(String username, int page, int size){
-		Page<CurrencyRate> entityPage = getRatesByUsername(username, page, size);
+	@Transactional(readOnly = true)
+	public CursorPageDto<CurrencyRateDto> findAllPage(HistoryCursor after, HistoryCursor before, int size) {
+		int pageSize = pageSize(size);
+		Limit limit = Limit.of(pageSize + 1);
 		
-		return entityPage.map(mapper::toHistoryDto);
+		if (before != null) {
+			return backwardPage(rateRepository.findAdminRowsAbove(before.id(), limit),
+					pageSize, AdminRateRow::cursor, mapper::toAdminDtos);
 		}
-
+		List<AdminRateRow> rows = after == null
+				? rateRepository.findAdminRows(limit)
+				: rateRepository.findAdminRowsBelow(after.id(), limit);
+		return forwardPage(rows, pageSize, after != null, AdminRateRow::cursor, mapper::toAdminDtos);
+	}
+	
+	private static int pageSize(int size) {
+		return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+	}
+	
 	/**
-	 * 全ユーザのレート履歴を DTO で取得（管理者用）
+	 * 新しい順に読んだ行（最大 size + 1 件）からページを組み立てる
 	 * 
-	 * ・論理削除済みも含めて全件取得
+	 * @param rows 新しい順の行
+	 * @param size １ページあたりの件数
+	 * @param hasPrevious 前のページがあるかどうか（カーソルから読み進めた場合）
+	 * @param cursor 行 → カーソル
+	 * @param toDtos 行 → DTO 変換（1ページ分をまとめて変換する）
+	 */
+	private static <R, T> CursorPageDto<T> forwardPage(List<R> rows, int size, boolean hasPrevious,
+			Function<R, HistoryCursor> cursor, Function<List<R>, List<T>> toDtos) {
+		boolean hasNext = rows.size() > size;
+		List<R> page = hasNext ? rows.subList(0, size) : rows;
+		return toPage(page, size, hasNext, hasPrevious, cursor, toDtos);
+	}
+	
+	/**
+	 * 境界に近い順（古い順）に読んだ行（最大 size + 1 件）から、新しい順のページを組み立てる
 	 * 
-	 * @param pageable ページ情報
-	 * @return DTO のページ
+	 * @param rows 古い順の行
+	 * @param size １ページあたりの件数
+	 * @param cursor 行 → カーソル
+	 * @param toDtos 行 → DTO 変換（1ページ分をまとめて変換する）
 	 */
-	public Page<CurrencyRateDto> findAllDto(Pageable pageable){
-		return rateRepository.findAll(pageable).map(mapper::toDto);
+	private static <R, T> CursorPageDto<T> backwardPage(List<R> rows, int size,
+			Function<R, HistoryCursor> cursor, Function<List<R>, List<T>> toDtos) {
+		boolean hasPrevious = rows.size() > size;
+		List<R> page = new ArrayList<>(hasPrevious ? rows.subList(0, size) : rows);
+		Collections.reverse(page);
+		return toPage(page, size, true, hasPrevious, cursor, toDtos);
+	}
+	
+	private static <R, T> CursorPageDto<T> toPage(List<R> page, int size, boolean hasNext, boolean hasPrevious,
+			Function<R, HistoryCursor> cursor, Function<List<R>, List<T>> toDtos) {
+		if (page.isEmpty()) {
+			return new CursorPageDto<>(List.of(), size, null, null);
+		}
+		return new CursorPageDto<>(
+				toDtos.apply(page),
+				size,
+				hasNext ? cursor.apply(page.get(page.size() - 1)).encode() : null,
+				hasPrevious ? cursor.apply(page.get(0)).encode() : null);
 	}
 	
 	/**
@@ -88,16 +185,22 @@ public class CurrencyRateService {
 	 * ・deleted = true
 	 * ・deletedAt に削除日時を記録 
 	 * ・deletedBy に削除実行者（ユーザ or ADMIN）を記録
+	 * ・削除済みの場合は何もしない（件数を二重に減らさない）
 	 * 
 	 *  @param id 削除対象 ID
 	 *  @param changeBy 削除実行者　
 	 */
+	@Transactional
 	public void deleteById(Long id, String changedBy) {
 		CurrencyRate rate = rateRepository.findById(id).orElseThrow(() -> new RuntimeException("Not found"));
+		if (rate.isDeleted()) {
+			return;
+		}
 		rate.setDeleted(true);
 		rate.setDeletedAt(LocalDateTime.now());
 		rate.setDeletedBy(changedBy);
 		rateRepository.save(rate);
+		counters.recordSoftDeleted(rate);
 	}
 	
 	/**
@@ -108,7 +211,156 @@ public class CurrencyRateService {
 	 * 
 	 * @param id 削除対象 ID
 	 */
+	@Transactional
 	public void hardDelete(Long id) {
-		rateRepository.deleteById(id);
-	}	
+		rateRepository.findById(id).ifPresent(rate -> {
+			rateRepository.delete(rate);
+			counters.recordHardDeleted(rate);
+		});
+	}
+	
+	/**
+	 * 条件に一致する履歴をまとめて論理削除する（管理者用）
+	 * 
+	 * ・上限件数ごとのバッチで、対象をロックして読み、ID の一覧に対する1回の UPDATE で更新する
+	 * 		（バッチごとにトランザクションを分け、ロックを長く保持しない）
+	 * ・論理削除済みの履歴は対象外
+	 * 
+	 * @param criteria 対象の条件（条件が無い場合は IllegalArgumentException）
+	 * @param changedBy 削除実行者
+	 * @return 論理削除した件数
+	 */
+	public long bulkSoftDelete(HistoryCriteria criteria, String changedBy) {
+		LocalDateTime now = LocalDateTime.now();
+		return bulkUpdate(criteria, false, batch -> {
+			rateRepository.softDeleteAllByIdIn(ids(batch), now, changedBy);
+			// 未削除の件数のみ減らす
+			return deltas(batch, t -> -1, t -> 0);
+		});
+	}
+	
+	/**
+	 * 条件に一致する論理削除済みの履歴をまとめて復元する（管理者用）
+	 * 
+	 * ・バッチの扱いは bulkSoftDelete と同じ
+	 * 
+	 * @param criteria 対象の条件（条件が無い場合は IllegalArgumentException）
+	 * @return 復元した件数
+	 */
+	public long bulkRestore(HistoryCriteria criteria) {
+		return bulkUpdate(criteria, true, batch -> {
+			rateRepository.restoreAllByIdIn(ids(batch));
+			return deltas(batch, t -> 1, t -> 0);
+		});
+	}
+	
+	/**
+	 * 条件に一致する履歴をまとめて完全削除する（管理者用・論理削除の有無を問わない）
+	 * 
+	 * ・バッチの扱いは bulkSoftDelete と同じ（DELETE も ID の一覧に対する1回の文で行う）
+	 * 
+	 * @param criteria 対象の条件（条件が無い場合は IllegalArgumentException）
+	 * @return 完全削除した件数
+	 */
+	public long bulkHardDelete(HistoryCriteria criteria) {
+		return bulkUpdate(criteria, null, batch -> {
+			rateRepository.deleteAllByIdIn(ids(batch));
+			return deltas(batch, t -> t.deleted() ? 0 : -1, t -> -1);
+		});
+	}
+	
+	/**
+	 * 指定ユーザの（論理削除されていない）履歴の件数（COUNT を実行せず、管理している件数を返す）
+	 * 
+	 * @param username ユーザ名
+	 * @return 件数
+	 */
+	@Transactional(readOnly = true)
+	public long countActive(String username) {
+		return counters.countActive(username);
+	}
+	
+	/**
+	 * 全ユーザの履歴の件数（COUNT を実行せず、管理している件数を返す）
+	 * 
+	 * @return 件数
+	 */
+	@Transactional(readOnly = true)
+	public HistoryCounter countAll() {
+		return counters.global();
+	}
+	
+	/**
+	 * 対象をバッチ単位でロックして読み、更新する
+	 * 
+	 * @param criteria 対象の条件
+	 * @param deleted 対象の論理削除の状態（null の場合は絞り込まない）
+	 * @param update 1バッチ分の更新（件数の増減を返す）
+	 * @return 更新した件数
+	 */
+	private long bulkUpdate(HistoryCriteria criteria, Boolean deleted,
+			Function<List<BulkTarget>, List<HistoryCounter>> update) {
+		if (criteria.isEmpty()) {
+			throw new IllegalArgumentException("一括操作の条件を指定してください");
+		}
+		long affected = 0;
+		if (criteria.hasIds()) {
+			List<Long> ids = criteria.ids();
+			for (int i = 0; i < ids.size(); i += bulkBatchSize) {
+				List<Long> chunk = ids.subList(i, Math.min(i + bulkBatchSize, ids.size()));
+				affected += applyBatch(() -> rateRepository.lockBulkTargets(chunk, deleted), update).size();
+			}
+			return affected;
+		}
+		
+		long afterId = 0;
+		while (true) {
+			long boundary = afterId;
+			List<BulkTarget> batch = applyBatch(() -> rateRepository.lockBulkTargets(
+					criteria.username(), criteria.baseCurrency(), criteria.targetCurrency(),
+					criteria.from(), criteria.to(), deleted, boundary, Limit.of(bulkBatchSize)), update);
+			affected += batch.size();
+			if (batch.size() < bulkBatchSize) {
+				return affected;
+			}
+			afterId = batch.get(batch.size() - 1).id();
+		}
+	}
+	
+	/**
+	 * 1バッチ分を1トランザクションでロック・更新し、件数に反映する
+	 * 
+	 * @return ロックして更新した行
+	 */
+	private List<BulkTarget> applyBatch(Supplier<List<BulkTarget>> lock,
+			Function<List<BulkTarget>, List<HistoryCounter>> update) {
+		return transactionTemplate.execute(s -> {
+			List<BulkTarget> batch = lock.get();
+			if (!batch.isEmpty()) {
+				counters.recordChanged(update.apply(batch));
+			}
+			return batch;
+		});
+	}
+	
+	private static List<Long> ids(List<BulkTarget> batch) {
+		return batch.stream().map(BulkTarget::id).toList();
+	}
+	
+	/**
+	 * ユーザごとの件数の増減
+	 * 
+	 * @param batch 更新した行
+	 * @param active 1行あたりの未削除の件数の増減
+	 * @param total 1行あたりの全件数の増減
+	 */
+	private static List<HistoryCounter> deltas(List<BulkTarget> batch,
+			ToLongFunction<BulkTarget> active, ToLongFunction<BulkTarget> total) {
+		Map<String, List<BulkTarget>> perUser = batch.stream().collect(Collectors.groupingBy(BulkTarget::username));
+		return perUser.entrySet().stream()
+				.map(e -> new HistoryCounter(HistoryCounter.userScope(e.getKey()),
+						e.getValue().stream().mapToLong(active).sum(),
+						e.getValue().stream().mapToLong(total).sum()))
+				.toList();
+	}
 }
@@ -0,0 +1,301 @@
+package com.example.exchange.domain.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.exchange.domain.model.HistoryCounter;
+import com.example.exchange.domain.model.PurgeCandidate;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 論理削除から一定期間（olderThan）が過ぎた履歴を、バックグラウンドで物理削除する
+ *
+ * ・対象は (deletedAt, id) の順にキーセットで chunkSize 件ずつ読み（ロックしない）、
+ * 		チャンクごとの短いトランザクションで、まだ論理削除済みの行だけをロックして主キーで削除する
+ * ・チャンクの間は pauseBetweenChunks だけ待つ（ロックを長く保持せず、レプリケーションの遅延を溜めない）
+ * ・削除した件数は、同じトランザクション内でユーザごと・全体の件数（HistoryCounterService）から差し引く
+ * ・管理者画面から一時停止・再開できる（一時停止は実行中のチャンクの完了後に反映する。再開すると直ちに実行する）
+ * ・起動完了の initialDelay 後に1回実行し、以降は interval ごとに実行する（enabled=false の場合は定期実行しない）
+ *
+ * 削除件数・チャンク数・チャンクの処理時間・一時停止中かどうかをメトリクスとして公開し、
+ * 実行状況を status() で参照できる。
+ */
+@Component
+public class DeletedHistoryPurger {
+
+	private static final Logger logger = LoggerFactory.getLogger(DeletedHistoryPurger.class);
+
+	/** 最初のチャンクの境界（これより前に論理削除された履歴は無い） */
+	private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+	private final CurrencyRateRepository rateRepository;
+	private final HistoryCounterService counters;
+	private final TransactionTemplate transactionTemplate;
+	private final TaskScheduler scheduler;
+
+	/** false の場合は定期実行しない */
+	private final boolean enabled;
+
+	/** 論理削除からこの期間が過ぎた履歴を物理削除する */
+	private final Duration olderThan;
+
+	/** 1回のトランザクションで削除する最大件数 */
+	private final int chunkSize;
+
+	/** チャンクの間に待つ時間 */
+	private final Duration pauseBetweenChunks;
+
+	/** 起動完了から初回の実行までの待ち時間 */
+	private final Duration initialDelay;
+
+	/** 実行間隔 */
+	private final Duration interval;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+	private volatile boolean paused;
+
+	/** 起動後に削除した件数 */
+	private final AtomicLong purgedTotal = new AtomicLong();
+	/** 実行中（または前回）の実行で削除した件数 */
+	private final AtomicLong purgedInRun = new AtomicLong();
+	private volatile LocalDateTime lastRunStartedAt;
+	private volatile LocalDateTime lastRunFinishedAt;
+	/** 最後に削除したチャンクの境界（論理削除日時） */
+	private volatile LocalDateTime position;
+
+	private final Counter purgedRows;
+	private final Counter purgedChunks;
+	private final Timer chunkTimer;
+
+	/**
+	 * コンストラクタインジェクション
+	 *
+	 * @param rateRepository 履歴の削除先
+	 * @param counters 履歴の件数
+	 * @param transactionTemplate チャンク単位のトランザクション
+	 * @param scheduler 保守用のスケジューラ
+	 * @param meterRegistry メトリクス登録先
+	 * @param enabled 定期実行するかどうか
+	 * @param olderThan 論理削除からこの期間が過ぎた履歴を物理削除する
+	 * @param chunkSize 1回のトランザクションで削除する最大件数
+	 * @param pauseBetweenChunks チャンクの間に待つ時間
+	 * @param initialDelay 起動完了から初回の実行までの待ち時間
+	 * @param interval 実行間隔
+	 */
+	public DeletedHistoryPurger(
+			CurrencyRateRepository rateRepository,
+			HistoryCounterService counters,
+			TransactionTemplate transactionTemplate,
+			@Qualifier("historyMaintenanceTaskScheduler") TaskScheduler scheduler,
+			MeterRegistry meterRegistry,
+			@Value("${exchange.history.purge.enabled:true}") boolean enabled,
+			@Value("${exchange.history.purge.older-than:P30D}") Duration olderThan,
+			@Value("${exchange.history.purge.chunk-size:500}") int chunkSize,
+			@Value("${exchange.history.purge.pause-between-chunks:PT0.5S}") Duration pauseBetweenChunks,
+			@Value("${exchange.history.purge.initial-delay:PT2M}") Duration initialDelay,
+			@Value("${exchange.history.purge.interval:PT1H}") Duration interval) {
+		this.rateRepository = rateRepository;
+		this.counters = counters;
+		this.transactionTemplate = transactionTemplate;
+		this.scheduler = scheduler;
+		this.enabled = enabled;
+		this.olderThan = olderThan;
+		this.chunkSize = chunkSize;
+		this.pauseBetweenChunks = pauseBetweenChunks;
+		this.initialDelay = initialDelay;
+		this.interval = interval;
+
+		this.purgedRows = Counter.builder("exchange.history.purge.rows")
+				.description("Soft-deleted conversion history rows physically deleted by the purger")
+				.register(meterRegistry);
+		this.purgedChunks = Counter.builder("exchange.history.purge.chunks")
+				.description("Chunks deleted by the purger")
+				.register(meterRegistry);
+		this.chunkTimer = Timer.builder("exchange.history.purge.chunk")
+				.description("Time to delete one chunk of soft-deleted conversion history")
+				.register(meterRegistry);
+		Gauge.builder("exchange.history.purge.paused", this, p -> p.paused ? 1 : 0)
+				.description("Whether the purger is paused")
+				.register(meterRegistry);
+		Gauge.builder("exchange.history.purge.running", running, r -> r.get() ? 1 : 0)
+				.description("Whether the purger is deleting chunks")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 起動完了後、初回の実行と以降の定期実行を予約する
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (enabled) {
+			scheduler.scheduleWithFixedDelay(this::runSafely, Instant.now().plus(initialDelay), interval);
+		}
+	}
+
+	/**
+	 * 現在日時から olderThan より前に論理削除された履歴を物理削除する
+	 *
+	 * @return 削除した件数（一時停止中・実行中の場合は 0）
+	 */
+	public long purge() {
+		return purge(LocalDateTime.now().minus(olderThan));
+	}
+
+	/**
+	 * cutoff より前に論理削除された履歴を、チャンク単位で物理削除する
+	 *
+	 * ・一時停止された場合は、実行中のチャンクの完了後に終了する
+	 * ・同時に実行されている場合は何もしない
+	 *
+	 * @param cutoff この日時より前に論理削除された履歴を削除する
+	 * @return 削除した件数
+	 */
+	public long purge(LocalDateTime cutoff) {
+		if (paused || !running.compareAndSet(false, true)) {
+			return 0;
+		}
+		lastRunStartedAt = LocalDateTime.now();
+		purgedInRun.set(0);
+		try {
+			LocalDateTime afterAt = START;
+			long afterId = 0;
+			while (!paused) {
+				List<PurgeCandidate> chunk = rateRepository.findPurgeCandidates(
+						cutoff, afterAt, afterId, Limit.of(chunkSize));
+				if (chunk.isEmpty()) {
+					break;
+				}
+				long deleted = chunkTimer.record(() -> deleteChunk(chunk, cutoff));
+				purgedRows.increment(deleted);
+				purgedChunks.increment();
+				purgedInRun.addAndGet(deleted);
+				purgedTotal.addAndGet(deleted);
+
+				PurgeCandidate last = chunk.get(chunk.size() - 1);
+				afterAt = last.deletedAt();
+				afterId = last.id();
+				position = afterAt;
+				if (chunk.size() < chunkSize || !sleep(pauseBetweenChunks)) {
+					break;
+				}
+			}
+		} finally {
+			lastRunFinishedAt = LocalDateTime.now();
+			running.set(false);
+		}
+		if (purgedInRun.get() > 0) {
+			logger.info("Purged {} soft-deleted conversion history rows deleted before {}{}",
+					purgedInRun.get(), cutoff, paused ? " (paused)" : "");
+		}
+		return purgedInRun.get();
+	}
+
+	/**
+	 * 一時停止する（実行中のチャンクの完了後に停止する）
+	 */
+	public void pause() {
+		paused = true;
+		logger.info("Soft-deleted history purger paused");
+	}
+
+	/**
+	 * 再開し、直ちに実行する
+	 */
+	public void resume() {
+		paused = false;
+		logger.info("Soft-deleted history purger resumed");
+		scheduler.schedule(this::runSafely, Instant.now());
+	}
+
+	/**
+	 * 実行状況
+	 *
+	 * @return 実行状況
+	 */
+	public Status status() {
+		return new Status(paused, running.get(), purgedTotal.get(), purgedInRun.get(),
+				lastRunStartedAt, lastRunFinishedAt, position);
+	}
+
+	/**
+	 * 1チャンク分を1トランザクションで削除する
+	 *
+	 * @return 削除した件数
+	 */
+	private long deleteChunk(List<PurgeCandidate> chunk, LocalDateTime cutoff) {
+		List<Long> ids = chunk.stream().map(PurgeCandidate::id).toList();
+		return transactionTemplate.execute(s -> {
+			// 読んでから削除するまでに復元された行を除く
+			List<PurgeCandidate> locked = rateRepository.lockPurgeCandidates(ids, cutoff);
+			if (locked.isEmpty()) {
+				return 0L;
+			}
+			rateRepository.deleteAllByIdIn(locked.stream().map(PurgeCandidate::id).toList());
+			Map<String, Long> perUser = locked.stream()
+					.collect(Collectors.groupingBy(PurgeCandidate::username, Collectors.counting()));
+			counters.recordRemoved(perUser.entrySet().stream()
+					.map(e -> new HistoryCounter(HistoryCounter.userScope(e.getKey()), 0, e.getValue()))
+					.toList());
+			return (long) locked.size();
+		});
+	}
+
+	/**
+	 * @return 割り込まれた場合は false
+	 */
+	private static boolean sleep(Duration duration) {
+		try {
+			Thread.sleep(duration);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void runSafely() {
+		try {
+			purge();
+		} catch (RuntimeException e) {
+			// 次回の実行で再試行する
+			logger.warn("Soft-deleted history purge failed: {}", e.toString());
+		}
+	}
+
+	/**
+	 * 物理削除の実行状況
+	 *
+	 * @param paused 一時停止中かどうか
+	 * @param running 実行中かどうか
+	 * @param purgedTotal 起動後に削除した件数
+	 * @param purgedInRun 実行中（または前回）の実行で削除した件数
+	 * @param lastRunStartedAt 最後に実行を開始した日時
+	 * @param lastRunFinishedAt 最後に実行を終了した日時
+	 * @param position 最後に削除したチャンクの境界（論理削除日時）
+	 */
+	public record Status(boolean paused, boolean running, long purgedTotal, long purgedInRun,
+			LocalDateTime lastRunStartedAt, LocalDateTime lastRunFinishedAt, LocalDateTime position) {
+	}
+}
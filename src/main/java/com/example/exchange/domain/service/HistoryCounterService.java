@@ -0,0 +1,209 @@
+package com.example.exchange.domain.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.HistoryCounter;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.repository.HistoryCounterRepository;
+
+/**
+ * 変換履歴の件数（ユーザごと・全体）を管理するサービス
+ *
+ * ・一覧画面の件数表示に COUNT(*) を使わず、保存・論理削除・完全削除のたびに差分だけ加減算する
+ * ・加減算は履歴の更新と同じトランザクション内で行う（呼び出し元がトランザクションを開始する）
+ * ・件数の行はトランザクションの開始前に prepare で作成しておく
+ * 		（トランザクション内で存在しない行を UPDATE するとギャップロックを取るため、その中で別トランザクションから作成しない）
+ * ・起動時に全体の件数が無い場合（初回起動・既存データの移行時）は、履歴テーブルから1回だけ集計し直す
+ */
+@Service
+public class HistoryCounterService implements SmartInitializingSingleton {
+
+	private static final Logger logger = LoggerFactory.getLogger(HistoryCounterService.class);
+
+	private final HistoryCounterRepository counterRepository;
+	private final CurrencyRateRepository rateRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	/** 行の存在を確認済みの scope（prepare で DB を参照しないため） */
+	private final Set<String> knownScopes = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * コンストラクタインジェクション
+	 */
+	public HistoryCounterService(
+			HistoryCounterRepository counterRepository,
+			CurrencyRateRepository rateRepository,
+			TransactionTemplate transactionTemplate) {
+		this.counterRepository = counterRepository;
+		this.rateRepository = rateRepository;
+		this.transactionTemplate = transactionTemplate;
+	}
+
+	/**
+	 * 起動時、全体の件数が無ければ履歴テーブルから集計し直す
+	 */
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (!counterRepository.existsById(HistoryCounter.GLOBAL)) {
+			try {
+				rebuild();
+			} catch (DataIntegrityViolationException e) {
+				// 他のインスタンスが同時に集計した
+				logger.info("Conversion history counters were rebuilt concurrently: {}", e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * 全ての件数を履歴テーブルから集計し直す（COUNT を伴うため、初期化・移行時のみ使用する）
+	 */
+	public void rebuild() {
+		transactionTemplate.executeWithoutResult(s -> {
+			counterRepository.deleteAllInBatch();
+			long active = 0;
+			long total = 0;
+			for (CurrencyRateRepository.UserHistoryCount c : rateRepository.countByUsername()) {
+				counterRepository.insert(HistoryCounter.userScope(c.getUsername()), c.getActive(), c.getTotal());
+				active += c.getActive();
+				total += c.getTotal();
+			}
+			counterRepository.insert(HistoryCounter.GLOBAL, active, total);
+		});
+		knownScopes.clear();
+		logger.info("Rebuilt conversion history counters");
+	}
+
+	/**
+	 * 保存する履歴のユーザ・全体の件数の行を用意する（トランザクション外で呼び出す）
+	 *
+	 * @param histories 保存する履歴
+	 */
+	public void prepare(Collection<CurrencyRate> histories) {
+		ensureExists(HistoryCounter.GLOBAL);
+		for (CurrencyRate h : histories) {
+			ensureExists(HistoryCounter.userScope(h.getUsername()));
+		}
+	}
+
+	/**
+	 * 履歴の保存を件数に反映する
+	 *
+	 * @param histories 保存した履歴
+	 */
+	public void recordInserted(Collection<CurrencyRate> histories) {
+		Map<String, List<CurrencyRate>> perUser = histories.stream()
+				.collect(Collectors.groupingBy(CurrencyRate::getUsername));
+		perUser.forEach((username, list) -> add(HistoryCounter.userScope(username), countActive(list), list.size()));
+		add(HistoryCounter.GLOBAL, countActive(histories), histories.size());
+	}
+
+	/**
+	 * 履歴の論理削除を件数に反映する（削除済みの履歴には呼び出さない）
+	 *
+	 * @param history 論理削除した履歴
+	 */
+	public void recordSoftDeleted(CurrencyRate history) {
+		add(HistoryCounter.userScope(history.getUsername()), -1, 0);
+		add(HistoryCounter.GLOBAL, -1, 0);
+	}
+
+	/**
+	 * 履歴の完全削除を件数に反映する
+	 *
+	 * @param history 完全削除した履歴
+	 */
+	public void recordHardDeleted(CurrencyRate history) {
+		long active = history.isDeleted() ? 0 : -1;
+		add(HistoryCounter.userScope(history.getUsername()), active, -1);
+		add(HistoryCounter.GLOBAL, active, -1);
+	}
+
+	/**
+	 * 保持期間を過ぎた履歴の切り離し・物理削除をまとめて件数に反映する
+	 *
+	 * @param removed ユーザごとの削除した件数（scope はユーザ単位）
+	 */
+	public void recordRemoved(Collection<HistoryCounter> removed) {
+		recordChanged(removed.stream()
+				.map(c -> new HistoryCounter(c.getScope(), -c.getActiveCount(), -c.getTotalCount()))
+				.toList());
+	}
+
+	/**
+	 * 一括操作による件数の増減をまとめて反映する（全体の件数にはユーザごとの合計を反映する）
+	 *
+	 * @param deltas ユーザごとの増減（scope はユーザ単位・減少は負の値）
+	 */
+	public void recordChanged(Collection<HistoryCounter> deltas) {
+		transactionTemplate.executeWithoutResult(s -> {
+			long active = 0;
+			long total = 0;
+			for (HistoryCounter c : deltas) {
+				add(c.getScope(), c.getActiveCount(), c.getTotalCount());
+				active += c.getActiveCount();
+				total += c.getTotalCount();
+			}
+			add(HistoryCounter.GLOBAL, active, total);
+		});
+	}
+
+	/**
+	 * 指定ユーザの（論理削除されていない）履歴の件数
+	 *
+	 * @param username ユーザ名
+	 * @return 件数
+	 */
+	public long countActive(String username) {
+		return counterRepository.findById(HistoryCounter.userScope(username))
+				.map(HistoryCounter::getActiveCount)
+				.orElse(0L);
+	}
+
+	/**
+	 * 全ユーザの履歴の件数
+	 *
+	 * @return 件数（論理削除済みを含む件数・削除済みの件数を参照できる）
+	 */
+	public HistoryCounter global() {
+		return counterRepository.findById(HistoryCounter.GLOBAL)
+				.orElseGet(() -> new HistoryCounter(HistoryCounter.GLOBAL, 0, 0));
+	}
+
+	private static long countActive(Collection<CurrencyRate> histories) {
+		return histories.stream().filter(h -> !h.isDeleted()).count();
+	}
+
+	private void add(String scope, long active, long total) {
+		if (counterRepository.add(scope, active, total) == 0) {
+			// prepare されていない場合（通常は発生しない）は、このトランザクション内で作成する
+			counterRepository.insert(scope, active, total);
+		}
+	}
+
+	private void ensureExists(String scope) {
+		if (knownScopes.contains(scope)) {
+			return;
+		}
+		if (!counterRepository.existsById(scope)) {
+			try {
+				counterRepository.insert(scope, 0, 0);
+			} catch (DataIntegrityViolationException e) {
+				// 他のスレッド・インスタンスが同時に作成した
+			}
+		}
+		knownScopes.add(scope);
+	}
+}
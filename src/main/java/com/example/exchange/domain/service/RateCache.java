@@ -0,0 +1,242 @@
+package com.example.exchange.domain.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.exchange.domain.model.RateQuote;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 通貨ペア単位で為替レートを保持するプロセス共有のキャッシュ
+ *
+ * ・キーは「基準通貨/対象通貨」で、ユーザには依存しない
+ * 		（全ユーザで同じレートを共有し、API 呼び出しを削減する）
+ * ・soft TTL を過ぎたレートは「古い（stale）」とし、呼び出し元が裏で再取得を行う
+ * ・hard TTL を過ぎたレートは期限切れとして扱い、通常は使用しない
+ * 		（外部 API の障害時の代替用に lastKnown で参照できるよう、追い出すまでは保持する）
+ * ・保持件数が上限を超えた場合は、取得日時が最も古いレートから追い出す
+ * ・ヒット（うち stale）/ ミス / 追い出し件数を集計し、stats() とメトリクスで参照できる
+ * 		（exchange.rate-cache.gets（タグ：result＝hit / stale / miss。hit は stale を含む、
+ * 		source＝matrix / cache / none。レート行列と共有キャッシュのどちらで応答したか）・
+ * 		exchange.rate-cache.evictions・exchange.rate-cache.size）
+ * ・ヒット / ミスは、レート行列を含めて実際に応答したレートで判定するため、
+ * 		参照した側（CurrencyConversionService）が recordHit / recordMiss で記録する
+ */
+@Component
+public class RateCache {
+
+	/** 通貨ペア → レート */
+	private final Map<String, RateQuote> entries = new ConcurrentHashMap<>();
+
+	/** この期間を過ぎたレートは古いとみなす（裏で再取得する） */
+	private final Duration softTtl;
+
+	/** この期間を過ぎたレートは使用しない */
+	private final Duration hardTtl;
+
+	/** 保持する通貨ペア数の上限 */
+	private final int maxSize;
+
+	/** 集計用カウンタ（ヒットは応答したレートの取得元ごと） */
+	private final LongAdder matrixHits = new LongAdder();
+	private final LongAdder matrixStaleHits = new LongAdder();
+	private final LongAdder cacheHits = new LongAdder();
+	private final LongAdder cacheStaleHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * コンストラクタインジェクション
+	 *
+	 * @param softTtl 古いとみなすまでの期間（既定：1時間）
+	 * @param hardTtl 使用を止めるまでの期間（既定：24時間）
+	 * @param maxSize 保持する通貨ペア数の上限
+	 * @param meterRegistry メトリクス登録先
+	 */
+	public RateCache(
+			@Value("${exchange.rate-cache.soft-ttl:PT1H}") Duration softTtl,
+			@Value("${exchange.rate-cache.hard-ttl:PT24H}") Duration hardTtl,
+			@Value("${exchange.rate-cache.max-size:500}") int maxSize,
+			MeterRegistry meterRegistry) {
+		this.softTtl = softTtl;
+		this.hardTtl = hardTtl;
+		this.maxSize = maxSize;
+
+		gets(meterRegistry, "hit", "matrix", matrixHits);
+		gets(meterRegistry, "stale", "matrix", matrixStaleHits);
+		gets(meterRegistry, "hit", "cache", cacheHits);
+		gets(meterRegistry, "stale", "cache", cacheStaleHits);
+		gets(meterRegistry, "miss", "none", misses);
+		FunctionCounter.builder("exchange.rate-cache.evictions", evictions, LongAdder::sum)
+				.description("Rates evicted because the cache exceeded its maximum size")
+				.register(meterRegistry);
+		Gauge.builder("exchange.rate-cache.size", entries, Map::size)
+				.description("Currency pairs held in the shared rate cache")
+				.register(meterRegistry);
+	}
+
+	private static void gets(MeterRegistry meterRegistry, String result, String source, LongAdder counter) {
+		FunctionCounter.builder("exchange.rate-cache.gets", counter, LongAdder::sum)
+				.description("Rate lookups served from the rate matrix or the shared cache")
+				.tag("result", result)
+				.tag("source", source)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * hard TTL 以内のレートを取得する（集計には含めない）
+	 *
+	 * ・soft TTL を過ぎたレートも返す（古いかどうかは isStale で判定する）
+	 * ・hard TTL を過ぎたレートは返さない（障害時の代替用に保持は続ける）
+	 *
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 使用可能なレート（存在しない場合は null）
+	 */
+	public RateQuote get(String base, String target) {
+		RateQuote quote = entries.get(key(base, target));
+		return quote == null || isExpired(quote) ? null : quote;
+	}
+
+	/**
+	 * 参照したレートで応答したことを記録する
+	 *
+	 * @param fromMatrix レート行列のレートで応答した場合 true（共有キャッシュの場合 false）
+	 * @param stale 応答したレートが soft TTL を過ぎていた場合 true
+	 */
+	public void recordHit(boolean fromMatrix, boolean stale) {
+		(fromMatrix ? matrixHits : cacheHits).increment();
+		if (stale) {
+			(fromMatrix ? matrixStaleHits : cacheStaleHits).increment();
+		}
+	}
+
+	/**
+	 * レート行列・共有キャッシュのどちらにも使用可能なレートが無かったことを記録する
+	 */
+	public void recordMiss() {
+		misses.increment();
+	}
+
+	/**
+	 * soft TTL 以内の（古くない）レートを集計に含めずに参照する
+	 * 
+	 * ・取得処理の直前の再確認など、内部的な参照に使用する
+	 *
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 古くないレート（存在しない場合は null）
+	 */
+	public RateQuote peek(String base, String target) {
+		RateQuote quote = entries.get(key(base, target));
+		return quote == null || isStale(quote) ? null : quote;
+	}
+
+	/**
+	 * 最後に取得できたレートを、期限に関係なく集計に含めずに参照する
+	 * 
+	 * ・外部 API の障害時に、hard TTL を過ぎたレートで代替するために使用する
+	 *
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 最後に取得できたレート（存在しない場合は null）
+	 */
+	public RateQuote lastKnown(String base, String target) {
+		return entries.get(key(base, target));
+	}
+
+	/**
+	 * レートをキャッシュへ登録する
+	 *
+	 * 既に同じ通貨ペアがある場合は、取得日時が新しい方を残す。
+	 *
+	 * @param quote 登録するレート
+	 */
+	public void put(RateQuote quote) {
+		entries.merge(key(quote.baseCurrency(), quote.targetCurrency()), quote,
+				(current, candidate) -> candidate.fetchedAt().isBefore(current.fetchedAt()) ? current : candidate);
+
+		if (entries.size() > maxSize) {
+			evictOldest();
+		}
+	}
+
+	/**
+	 * レートが soft TTL を過ぎているか判定
+	 *
+	 * @param quote レート
+	 * @return 古い（再取得が必要）なら true
+	 */
+	public boolean isStale(RateQuote quote) {
+		return quote.fetchedAt().isBefore(LocalDateTime.now().minus(softTtl));
+	}
+
+	/**
+	 * レートが hard TTL を過ぎているか判定
+	 *
+	 * @param quote レート
+	 * @return 使用できないなら true
+	 */
+	public boolean isExpired(RateQuote quote) {
+		return quote.fetchedAt().isBefore(LocalDateTime.now().minus(hardTtl));
+	}
+
+	/**
+	 * キャッシュの集計値を取得する
+	 *
+	 * @return ヒット（うち stale）/ ミス / 追い出し件数と現在の保持件数
+	 */
+	public Stats stats() {
+		long fromMatrix = matrixHits.sum();
+		return new Stats(fromMatrix + cacheHits.sum(), matrixStaleHits.sum() + cacheStaleHits.sum(), fromMatrix,
+				misses.sum(), evictions.sum(), entries.size());
+	}
+
+	/**
+	 * 上限を超えている間、取得日時が最も古いレートを追い出す
+	 *
+	 * 通貨ペア数は多くないため、線形探索で十分とする。
+	 */
+	private void evictOldest() {
+		while (entries.size() > maxSize) {
+			Map.Entry<String, RateQuote> oldest = null;
+			for (Map.Entry<String, RateQuote> e : entries.entrySet()) {
+				if (oldest == null || e.getValue().fetchedAt().isBefore(oldest.getValue().fetchedAt())) {
+					oldest = e;
+				}
+			}
+			if (oldest == null) {
+				return;
+			}
+			if (entries.remove(oldest.getKey(), oldest.getValue())) {
+				evictions.increment();
+			}
+		}
+	}
+
+	private static String key(String base, String target) {
+		return base + "/" + target;
+	}
+
+	/**
+	 * キャッシュの集計値
+	 *
+	 * @param hits ヒット件数（レート行列・共有キャッシュの合計）
+	 * @param staleHits ヒットのうち soft TTL を過ぎていた件数
+	 * @param matrixHits ヒットのうちレート行列で応答した件数
+	 * @param misses ミス件数
+	 * @param evictions 上限超過による追い出し件数
+	 * @param size 現在の保持件数
+	 */
+	public record Stats(long hits, long staleHits, long matrixHits, long misses, long evictions, int size) {
+	}
+}
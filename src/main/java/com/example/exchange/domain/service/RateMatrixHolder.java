@@ -0,0 +1,126 @@
+package com.example.exchange.domain.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.exchange.domain.model.RateMatrix;
+import com.example.exchange.domain.model.RateQuote;
+
+/**
+ * 最新のレート行列（RateMatrix）を保持するクラス
+ * 
+ * ・事前更新（一括取得）のたびに新しい行列を生成し、参照を1回差し替えるだけで公開する
+ * ・読み取り側はロックを取らず、その時点の行列をそのまま参照する
+ * ・行列自体は不変のため、読み取り中に内容が変わることはない
+ * ・参照（lookupFresh / lookup / lookupScaled）はオブジェクトを生成しない
+ * 		（期限はエポックミリ秒で比較し、RateQuote は行列の生成時に作ったものを返す）
+ */
+@Component
+public class RateMatrixHolder {
+
+	/** 値が無いことを表す戻り値 */
+	public static final long NOT_FOUND = -1L;
+
+	/** 現在公開中の行列 */
+	private final AtomicReference<RateMatrix> current = new AtomicReference<>(RateMatrix.EMPTY);
+
+	/** 古いとみなすまでの期間（ミリ秒、共有キャッシュの soft TTL と同じ） */
+	private final long softTtlMillis;
+
+	/** 使用可能な期間（ミリ秒、共有キャッシュの hard TTL と同じ） */
+	private final long hardTtlMillis;
+
+	/**
+	 * コンストラクタインジェクション
+	 * 
+	 * @param softTtl 古いとみなすまでの期間（共有キャッシュと同じ値を使用）
+	 * @param hardTtl 使用可能な期間（共有キャッシュと同じ値を使用）
+	 */
+	public RateMatrixHolder(
+			@Value("${exchange.rate-cache.soft-ttl:PT1H}") Duration softTtl,
+			@Value("${exchange.rate-cache.hard-ttl:PT24H}") Duration hardTtl) {
+		this.softTtlMillis = softTtl.toMillis();
+		this.hardTtlMillis = hardTtl.toMillis();
+	}
+
+	/**
+	 * 新しい行列を公開する
+	 * 
+	 * @param matrix 公開する行列
+	 */
+	public void publish(RateMatrix matrix) {
+		current.set(matrix);
+	}
+
+	/**
+	 * 現在公開中の行列を取得する
+	 * 
+	 * @return 行列
+	 */
+	public RateMatrix current() {
+		return current.get();
+	}
+
+	/**
+	 * hard TTL 以内のレート（scale=4 の固定小数点）を取得する
+	 * 
+	 * ・オブジェクトを生成しない
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return レートを 10,000 倍した値（存在しない・期限切れの場合は NOT_FOUND）
+	 */
+	public long lookupScaled(String base, String target) {
+		RateMatrix m = current.get();
+		int b = m.indexOf(base);
+		int t = m.indexOf(target);
+		if (b < 0 || t < 0 || !isWithin(m, b, t, hardTtlMillis)) {
+			return NOT_FOUND;
+		}
+		return m.scaledRate(b, t);
+	}
+
+	/**
+	 * soft TTL 以内の（古くない）レートを取得する
+	 * 
+	 * ・オブジェクトを生成しない（/convert・/latest の通常の経路）
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return レート（存在しない・soft TTL を過ぎている場合は null）
+	 */
+	public RateQuote lookupFresh(String base, String target) {
+		return lookup(base, target, softTtlMillis);
+	}
+
+	/**
+	 * hard TTL 以内のレートを取得する（古いかどうかは呼び出し元で判定する）
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return レート（存在しない・期限切れの場合は null）
+	 */
+	public RateQuote lookup(String base, String target) {
+		return lookup(base, target, hardTtlMillis);
+	}
+
+	private RateQuote lookup(String base, String target, long ttlMillis) {
+		RateMatrix m = current.get();
+		int b = m.indexOf(base);
+		int t = m.indexOf(target);
+		if (b < 0 || t < 0 || !isWithin(m, b, t, ttlMillis)) {
+			return null;
+		}
+		return m.toQuote(b, t);
+	}
+
+	/**
+	 * 通貨ペアのレートが存在し、取得から ttlMillis 以内か判定
+	 */
+	private static boolean isWithin(RateMatrix m, int b, int t, long ttlMillis) {
+		return m.has(b, t) && m.fetchedAtMillis(b, t) >= System.currentTimeMillis() - ttlMillis;
+	}
+}
@@ -0,0 +1,159 @@
+package com.example.exchange.domain.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.example.exchange.config.RateRefreshProperties;
+
+/**
+ * 設定された通貨ペアのレートを、キャッシュの期限切れ前に更新するスケジューラ
+ * 
+ * ユーザの変換リクエストで期限切れを検知してから API を呼ぶと、
+ * API の遅延がそのままユーザの待ち時間になる。
+ * 本クラスでは設定済みの全通貨ペアを事前に更新し、キャッシュを常に有効な状態に保つ。
+ * 
+ * ・一括モード（既定）では anchor の全レートを1回の API 呼び出しで取得し、
+ * 		他の通貨ペアは三角裁定で算出する（7通貨なら 42 回 → 1 回）
+ * ・個別モードでは通貨ペアごとに「更新間隔 − 揺らぎ（jitter）」後に次回の更新を予約する
+ * ・実際の API 呼び出しはレート取得用スレッドプールで行う（変換時の取得と1本にまとめる）
+ * ・失敗時は再試行間隔の経過後に再度更新する
+ */
+@Component
+@ConditionalOnProperty(prefix = "exchange.rate-refresh", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateRefreshScheduler {
+
+	/** ログ出力用 */
+	private static final Logger logger = LoggerFactory.getLogger(RateRefreshScheduler.class);
+
+	/** 更新処理を担当するサービス */
+	private final CurrencyConversionService conversionService;
+
+	/** 事前更新の設定値 */
+	private final RateRefreshProperties properties;
+
+	/** 次回更新の予約に使用するスケジューラ */
+	private final TaskScheduler scheduler;
+
+	/** キャッシュの soft TTL（更新間隔の妥当性チェック用） */
+	private final Duration cacheTtl;
+
+	/**
+	 * コンストラクタインジェクション
+	 */
+	public RateRefreshScheduler(
+			CurrencyConversionService conversionService,
+			RateRefreshProperties properties,
+			@Qualifier("rateRefreshTaskScheduler") TaskScheduler rateRefreshTaskScheduler,
+			@Value("${exchange.rate-cache.soft-ttl:PT1H}") Duration cacheTtl) {
+		this.conversionService = conversionService;
+		this.properties = properties;
+		this.scheduler = rateRefreshTaskScheduler;
+		this.cacheTtl = cacheTtl;
+	}
+
+	/**
+	 * アプリケーション起動完了後、全通貨ペアの初回更新を予約する
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (properties.isBulk()) {
+			if (properties.bulkInterval().compareTo(cacheTtl) >= 0) {
+				logger.warn("更新間隔がキャッシュの TTL 以上です: interval={} ttl={}", properties.bulkInterval(), cacheTtl);
+			}
+			scheduleAll(randomUpTo(properties.getWarmupSpread()));
+			logger.info("レートの一括事前更新を開始しました（基準通貨 {}、{} 通貨）",
+					properties.getAnchor(), properties.getCurrencies().size());
+			return;
+		}
+
+		int pairs = 0;
+		for (String base : properties.getCurrencies()) {
+			for (String target : properties.getCurrencies()) {
+				if (base.equals(target)) {
+					continue;
+				}
+				// 揺らぎが更新間隔以上の設定は、RateRefreshProperties のバインド時にエラーとなる
+				if (properties.intervalFor(base, target).compareTo(cacheTtl) >= 0) {
+					logger.warn("更新間隔がキャッシュの TTL 以上です: {}/{} interval={} ttl={}",
+							base, target, properties.intervalFor(base, target), cacheTtl);
+				}
+				schedule(base, target, randomUpTo(properties.getWarmupSpread()));
+				pairs++;
+			}
+		}
+		logger.info("レートの事前更新を開始しました（{} 通貨ペア）", pairs);
+	}
+
+	/**
+	 * 通貨ペアの更新を予約する
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @param delay 更新までの待ち時間
+	 */
+	private void schedule(String base, String target, Duration delay) {
+		scheduler.schedule(() -> refresh(base, target), Instant.now().plus(delay));
+	}
+
+	/**
+	 * 通貨ペアを更新し、完了後に次回の更新を予約する
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 */
+	private void refresh(String base, String target) {
+		conversionService.refreshRate(base, target).whenComplete((quote, ex) -> {
+			if (ex != null) {
+				logger.warn("レートの事前更新に失敗しました: {}/{} ({})", base, target, ex.toString());
+				schedule(base, target, properties.getRetryInterval());
+				return;
+			}
+			Duration interval = properties.intervalFor(base, target);
+			schedule(base, target, interval.minus(randomUpTo(properties.getJitter())));
+		});
+	}
+
+	/**
+	 * 全通貨ペアの一括更新を予約する
+	 * 
+	 * @param delay 更新までの待ち時間
+	 */
+	private void scheduleAll(Duration delay) {
+		scheduler.schedule(this::refreshAll, Instant.now().plus(delay));
+	}
+
+	/**
+	 * 全通貨ペアを一括更新し、完了後に次回の更新を予約する
+	 */
+	private void refreshAll() {
+		conversionService.refreshAllRates(properties.getAnchor(), properties.getCurrencies())
+				.whenComplete((quotes, ex) -> {
+					if (ex != null) {
+						logger.warn("レートの一括事前更新に失敗しました ({})", ex.toString());
+						scheduleAll(properties.getRetryInterval());
+						return;
+					}
+					logger.debug("レートを一括更新しました（{} 通貨ペア）", quotes.size());
+					scheduleAll(properties.bulkInterval().minus(randomUpTo(properties.getJitter())));
+				});
+	}
+
+	/**
+	 * 0 以上 max 未満のランダムな時間を返す
+	 */
+	private static Duration randomUpTo(Duration max) {
+		long millis = max.toMillis();
+		return millis <= 0 ? Duration.ZERO : Duration.ofMillis(ThreadLocalRandom.current().nextLong(millis));
+	}
+}
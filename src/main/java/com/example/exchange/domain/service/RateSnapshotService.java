@@ -0,0 +1,92 @@
+package com.example.exchange.domain.service;
+
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+
+/**
+ * レートスナップショットの登録・参照を担当するサービス
+ *
+ * ・変換に使用したレート（取得1回分）を、通貨ペア × 取得日時につき1レコードだけ登録する
+ * 		（同じレートで何度変換しても、変換履歴は同じスナップショットを参照する）
+ * ・通貨ペアごとに直近のスナップショットを保持し、同じ取得のレートでは DB に問い合わせない
+ * ・複数スレッドが同時に登録した場合は一意制約で1件に揃え、既存のレコードを返す
+ */
+@Service
+public class RateSnapshotService {
+
+	private final RateSnapshotRepository snapshotRepository;
+
+	/** 通貨ペア → 直近に登録・参照したスナップショット */
+	private final Map<String, RateSnapshot> recent = new ConcurrentHashMap<>();
+
+	/** コンストラクタインジェクション */
+	public RateSnapshotService(RateSnapshotRepository snapshotRepository) {
+		this.snapshotRepository = snapshotRepository;
+	}
+
+	/**
+	 * レートに対応するスナップショットを取得する（無ければ登録する）
+	 *
+	 * ・レートは scale=4、取得日時は DB の精度（マイクロ秒）に揃えて登録する
+	 *
+	 * @param quote 変換に使用するレート
+	 * @return 対応するスナップショット
+	 */
+	public RateSnapshot snapshotOf(RateQuote quote) {
+		String key = quote.baseCurrency() + "/" + quote.targetCurrency();
+		LocalDateTime fetchedAt = quote.fetchedAt().truncatedTo(ChronoUnit.MICROS);
+
+		RateSnapshot last = recent.get(key);
+		if (last != null && last.getFetchedAt().equals(fetchedAt)) {
+			return last;
+		}
+
+		RateSnapshot snapshot = snapshotRepository
+				.findByBaseCurrencyAndTargetCurrencyAndFetchedAt(quote.baseCurrency(), quote.targetCurrency(), fetchedAt)
+				.orElseGet(() -> insert(quote, fetchedAt));
+		// 古い取得で上書きしないよう、新しい場合のみ差し替える
+		recent.merge(key, snapshot, (a, b) -> b.getFetchedAt().isAfter(a.getFetchedAt()) ? b : a);
+		return snapshot;
+	}
+
+	/**
+	 * 通貨ペアの最新スナップショットをレートとして取得する（ユーザを問わない）
+	 *
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @return 最新レート（存在しない場合は null ）
+	 */
+	public RateQuote findLatest(String base, String target) {
+		return snapshotRepository
+				.findTopByBaseCurrencyAndTargetCurrencyOrderByFetchedAtDesc(base, target)
+				.map(RateSnapshot::toQuote)
+				.orElse(null);
+	}
+
+	/**
+	 * スナップショットを登録する（同時に登録された場合は先に登録された方を返す）
+	 */
+	private RateSnapshot insert(RateQuote quote, LocalDateTime fetchedAt) {
+		try {
+			return snapshotRepository.save(new RateSnapshot(
+					quote.baseCurrency(),
+					quote.targetCurrency(),
+					quote.rate().setScale(4, RoundingMode.HALF_UP),
+					fetchedAt));
+		} catch (DataIntegrityViolationException e) {
+			return snapshotRepository
+					.findByBaseCurrencyAndTargetCurrencyAndFetchedAt(quote.baseCurrency(), quote.targetCurrency(), fetchedAt)
+					.orElseThrow(() -> e);
+		}
+	}
+}
@@ -0,0 +1,251 @@
+package com.example.exchange.domain.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.exchange.domain.exception.RateUnavailableException;
+import com.example.exchange.domain.model.RateQuote;
+
+/**
+ * 通貨ペア単位でレート取得処理を1本にまとめるクラス（single-flight）
+ * 
+ * 人気の通貨ペアが期限切れになった瞬間に、同時に届いたリクエストが
+ * それぞれ外部 API を呼び出してしまう（thundering herd）ことを防ぐ。
+ * 
+ * ・同じ通貨ペアの取得中は、後続の呼び出し元は同じ Future の完了を待つ
+ * ・取得処理は専用スレッドプールで実行し、待ち時間には上限を設ける
+ * ・非同期の取得処理（fetchNonBlocking）はスレッドを占有せず、Future の完了を待つ
+ * ・取得結果は共有キャッシュへ登録してから待機中の呼び出し元へ返す
+ * ・失敗・タイムアウト時は RateUnavailableException をスローする
+ */
+@Component
+public class SingleFlightRateFetcher {
+
+	/** 通貨ペア → 取得中の Future */
+	private final Map<String, CompletableFuture<RateQuote>> inFlight = new ConcurrentHashMap<>();
+
+	/** 全通貨ペアの一括取得中の Future（取得中でなければ null） */
+	private final AtomicReference<CompletableFuture<List<RateQuote>>> bulkInFlight = new AtomicReference<>();
+
+	/** 取得結果を登録する共有キャッシュ */
+	private final RateCache rateCache;
+
+	/** 取得処理を実行するスレッドプール */
+	private final Executor executor;
+
+	/** 呼び出し元が取得完了を待つ時間の上限 */
+	private final Duration timeout;
+
+	/**
+	 * コンストラクタインジェクション
+	 * 
+	 * @param rateCache 共有レートキャッシュ
+	 * @param executor レート取得用スレッドプール
+	 * @param timeout 待ち時間の上限
+	 */
+	public SingleFlightRateFetcher(
+			RateCache rateCache,
+			@Qualifier("rateFetchExecutor") Executor executor,
+			@Value("${exchange.rate-fetch.timeout:PT5S}") Duration timeout) {
+		this.rateCache = rateCache;
+		this.executor = executor;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * 通貨ペアのレートを取得する（同時呼び出しは1回の取得にまとめる）
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @param loader 実際の取得処理（DB 参照・API 呼び出しなど）
+	 * @return 取得したレート
+	 * @throws RateUnavailableException 取得失敗または待ち時間の上限超過
+	 */
+	public RateQuote fetch(String base, String target, Supplier<RateQuote> loader) {
+		CompletableFuture<RateQuote> future = fetchAsync(base, target, loader);
+		try {
+			return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			throw new RateUnavailableException(base, target, "timed out after " + timeout, e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RateUnavailableException rue) {
+				throw rue;
+			}
+			throw new RateUnavailableException(base, target, String.valueOf(cause), cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RateUnavailableException(base, target, "interrupted", e);
+		}
+	}
+
+	/**
+	 * 通貨ペアのレート取得を開始し、その Future を返す
+	 * 
+	 * 既に同じ通貨ペアを取得中であれば、新たな取得は行わず同じ Future を返す。
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @param loader 実際の取得処理
+	 * @return 取得結果の Future
+	 */
+	public CompletableFuture<RateQuote> fetchAsync(String base, String target, Supplier<RateQuote> loader) {
+		return start(base, target, supplyOnExecutor(base, target, loader), true);
+	}
+
+	/**
+	 * 非同期の取得処理で通貨ペアのレート取得を開始し、その Future を返す
+	 * 
+	 * ・取得処理（loader）は呼び出し元のスレッドで開始し、応答待ちの間はスレッドを占有しない
+	 * ・既に同じ通貨ペアを取得中であれば、新たな取得は行わず同じ Future を返す
+	 * ・待ち時間の上限を過ぎた場合は RateUnavailableException で完了する
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @param loader 非同期の取得処理（Future を返す）
+	 * @return 取得結果の Future
+	 */
+	public CompletableFuture<RateQuote> fetchNonBlocking(String base, String target,
+			Supplier<CompletableFuture<RateQuote>> loader) {
+		// 他の呼び出し元と共有する Future をタイムアウトで完了させないよう、複製に上限を設ける
+		return start(base, target, loader, true)
+				.copy()
+				.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+				.exceptionallyCompose(ex -> {
+					Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+					if (cause instanceof RateUnavailableException) {
+						return CompletableFuture.failedFuture(cause);
+					}
+					String reason = cause instanceof TimeoutException ? "timed out after " + timeout : String.valueOf(cause);
+					return CompletableFuture.failedFuture(new RateUnavailableException(base, target, reason, cause));
+				});
+	}
+
+	/**
+	 * キャッシュの有無に関わらず通貨ペアのレートを取り直す（事前更新用）
+	 * 
+	 * 既に同じ通貨ペアを取得中であれば、その Future を返す。
+	 * 
+	 * @param base 基準通貨
+	 * @param target 対象通貨
+	 * @param loader 実際の取得処理
+	 * @return 取得結果の Future
+	 */
+	public CompletableFuture<RateQuote> refreshAsync(String base, String target, Supplier<RateQuote> loader) {
+		return start(base, target, supplyOnExecutor(base, target, loader), false);
+	}
+
+	/**
+	 * 全通貨ペアのレートをまとめて取り直す（事前更新用）
+	 * 
+	 * 既に一括取得中であれば、その Future を返す。
+	 * 
+	 * @param loader 一括取得処理（API 呼び出しと三角裁定）
+	 * @return 取得した全レートの Future
+	 */
+	public CompletableFuture<List<RateQuote>> refreshAllAsync(Supplier<List<RateQuote>> loader) {
+		CompletableFuture<List<RateQuote>> created = new CompletableFuture<>();
+		if (!bulkInFlight.compareAndSet(null, created)) {
+			CompletableFuture<List<RateQuote>> existing = bulkInFlight.get();
+			if (existing != null) {
+				return existing;
+			}
+			return refreshAllAsync(loader);
+		}
+
+		try {
+			CompletableFuture.supplyAsync(loader, executor).whenComplete((quotes, ex) -> {
+				if (ex == null) {
+					quotes.forEach(rateCache::put);
+				}
+				bulkInFlight.compareAndSet(created, null);
+				if (ex == null) {
+					created.complete(quotes);
+				} else {
+					created.completeExceptionally(ex instanceof CompletionException ? ex.getCause() : ex);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			bulkInFlight.compareAndSet(created, null);
+			created.completeExceptionally(e);
+		}
+		return created;
+	}
+
+	/**
+	 * 通貨ペアの取得を開始する（取得中であれば既存の Future を返す）
+	 * 
+	 * @param loader 取得処理を開始し、その Future を返す処理
+	 * @param useCache true の場合、有効なキャッシュがあれば取得せずにそれを返す
+	 */
+	private CompletableFuture<RateQuote> start(String base, String target,
+			Supplier<CompletableFuture<RateQuote>> loader, boolean useCache) {
+		String key = base + "/" + target;
+		CompletableFuture<RateQuote> created = new CompletableFuture<>();
+		CompletableFuture<RateQuote> existing = inFlight.putIfAbsent(key, created);
+		if (existing != null) {
+			return existing;
+		}
+
+		// 直前に別の取得が完了していた場合は、その結果を使う
+		RateQuote cached = useCache ? rateCache.peek(base, target) : null;
+		if (cached != null) {
+			inFlight.remove(key, created);
+			created.complete(cached);
+			return created;
+		}
+
+		CompletableFuture<RateQuote> loading;
+		try {
+			loading = loader.get();
+		} catch (RuntimeException e) {
+			loading = CompletableFuture.failedFuture(e);
+		}
+		loading.whenComplete((quote, ex) -> {
+			// キャッシュ登録 → 取得中から除外 → 待機者へ通知 の順で行い、
+			// 完了直後に届いた呼び出し元がキャッシュを参照できるようにする
+			if (ex == null) {
+				rateCache.put(quote);
+			}
+			inFlight.remove(key, created);
+			if (ex == null) {
+				created.complete(quote);
+			} else {
+				created.completeExceptionally(ex instanceof CompletionException ? ex.getCause() : ex);
+			}
+		});
+		return created;
+	}
+
+	/**
+	 * 同期の取得処理をスレッドプールで実行する処理へ変換する
+	 * 
+	 * ・スレッドプールの待ち行列が埋まっている場合は RateUnavailableException で完了する
+	 */
+	private Supplier<CompletableFuture<RateQuote>> supplyOnExecutor(String base, String target,
+			Supplier<RateQuote> loader) {
+		return () -> {
+			try {
+				return CompletableFuture.supplyAsync(loader, executor);
+			} catch (RejectedExecutionException e) {
+				return CompletableFuture.failedFuture(
+						new RateUnavailableException(base, target, "fetch queue is full", e));
+			}
+		};
+	}
+}
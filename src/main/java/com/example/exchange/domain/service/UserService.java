@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.exchange.domain.model.User;
 import com.example.exchange.domain.repository.UserRepository;
@@ -73,6 +74,7 @@ public class UserService {
      *  
      * @return ユーザ一覧
      */
+    @Transactional(readOnly = true)
     public List<User> findAll(){
     	return userRepository.findAll();
     }
@@ -0,0 +1,303 @@
+package com.example.exchange.infrastructure.api;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 外部 API 呼び出し用のサーキットブレーカー（Infrastructure層）
+ *
+ * 外部 API が停止・遅延している間もリクエストを送り続けると、
+ * 応答待ちのスレッドが積み上がりアプリ全体が応答しなくなる。
+ * 失敗が続いた場合は一定時間呼び出しを遮断し、すぐに失敗させる。
+ *
+ * 状態遷移
+ * ・CLOSED：通常状態。直近 windowSize 件の失敗率を記録する
+ * ・OPEN：失敗率が閾値以上になった状態。openDuration の間は呼び出しを遮断する
+ * ・HALF_OPEN：openDuration 経過後、halfOpenCalls 件だけ試験的に呼び出す
+ * 		全て成功すれば CLOSED、1件でも失敗すれば再び OPEN へ戻る
+ *
+ * 状態（exchange.api.circuit.state）と遷移回数（exchange.api.circuit.transitions）、
+ * 呼び出し結果（exchange.api.circuit.calls）をメトリクスとして公開する。
+ */
+public class CircuitBreaker {
+
+	/** サーキットブレーカーの状態 */
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	/** ブレーカー名（メトリクスのタグに使用） */
+	private final String name;
+
+	/** 失敗率を計算する直近の呼び出し件数 */
+	private final int windowSize;
+
+	/** 失敗率を判定するのに必要な最小呼び出し件数 */
+	private final int minimumCalls;
+
+	/** OPEN へ遷移する失敗率（%） */
+	private final int failureRateThreshold;
+
+	/** OPEN を維持する時間 */
+	private final Duration openDuration;
+
+	/** HALF_OPEN で試験的に許可する呼び出し件数 */
+	private final int halfOpenCalls;
+
+	/** 時刻取得（テスト時に差し替え可能） */
+	private final Clock clock;
+
+	private final MeterRegistry meterRegistry;
+
+	/** 状態の更新はこのロック内で行う（処理は短く、I/O を含まない） */
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/** 直近の呼び出し結果（リングバッファ、true = 失敗） */
+	private final boolean[] outcomes;
+	private int recorded;
+	private int next;
+	private int failures;
+
+	private State state = State.CLOSED;
+	private Instant openedAt;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+
+	private final Counter successCalls;
+	private final Counter failedCalls;
+	private final Counter rejectedCalls;
+
+	/**
+	 * コンストラクタ
+	 */
+	public CircuitBreaker(
+			String name,
+			int windowSize,
+			int minimumCalls,
+			int failureRateThreshold,
+			Duration openDuration,
+			int halfOpenCalls,
+			Clock clock,
+			MeterRegistry meterRegistry) {
+		this.name = name;
+		this.windowSize = windowSize;
+		this.minimumCalls = Math.min(minimumCalls, windowSize);
+		this.failureRateThreshold = failureRateThreshold;
+		this.openDuration = openDuration;
+		this.halfOpenCalls = halfOpenCalls;
+		this.clock = clock;
+		this.meterRegistry = meterRegistry;
+		this.outcomes = new boolean[windowSize];
+
+		Gauge.builder("exchange.api.circuit.state", this, cb -> cb.getState().ordinal())
+				.description("Circuit breaker state (0=closed, 1=open, 2=half-open)")
+				.tag("name", name)
+				.register(meterRegistry);
+		this.successCalls = callCounter("success");
+		this.failedCalls = callCounter("failure");
+		this.rejectedCalls = callCounter("rejected");
+	}
+
+	/**
+	 * サーキットブレーカー経由で処理を実行する
+	 *
+	 * @param call 外部 API 呼び出し
+	 * @return 呼び出し結果
+	 * @throws CircuitOpenException 遮断中で呼び出しが許可されなかった場合
+	 */
+	public <T> T execute(Supplier<T> call) {
+		if (!tryAcquirePermission()) {
+			rejectedCalls.increment();
+			throw new CircuitOpenException(name);
+		}
+		try {
+			T result = call.get();
+			onSuccess();
+			return result;
+		} catch (RuntimeException e) {
+			onFailure();
+			throw e;
+		}
+	}
+
+	/**
+	 * サーキットブレーカー経由で非同期処理を実行する
+	 *
+	 * ・呼び出し結果は Future の完了時に記録する
+	 * ・遮断中は CircuitOpenException で失敗した Future を返す（例外はスローしない）
+	 *
+	 * @param call 外部 API の非同期呼び出し
+	 * @return 呼び出し結果の Future
+	 */
+	public <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> call) {
+		if (!tryAcquirePermission()) {
+			rejectedCalls.increment();
+			return CompletableFuture.failedFuture(new CircuitOpenException(name));
+		}
+		CompletableFuture<T> future;
+		try {
+			future = call.get();
+		} catch (RuntimeException e) {
+			onFailure();
+			return CompletableFuture.failedFuture(e);
+		}
+		return future.whenComplete((result, ex) -> {
+			if (ex == null) {
+				onSuccess();
+			} else {
+				onFailure();
+			}
+		});
+	}
+
+	/**
+	 * 現在の状態を取得する（OPEN の維持時間が過ぎていれば HALF_OPEN へ遷移する）
+	 *
+	 * @return 状態
+	 */
+	public State getState() {
+		lock.lock();
+		try {
+			transitionToHalfOpenIfDue();
+			return state;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 呼び出しを許可するか判定する
+	 */
+	private boolean tryAcquirePermission() {
+		lock.lock();
+		try {
+			transitionToHalfOpenIfDue();
+			switch (state) {
+			case CLOSED:
+				return true;
+			case HALF_OPEN:
+				if (halfOpenPermits > 0) {
+					halfOpenPermits--;
+					return true;
+				}
+				return false;
+			default:
+				return false;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 成功を記録する
+	 */
+	void onSuccess() {
+		successCalls.increment();
+		lock.lock();
+		try {
+			if (state == State.HALF_OPEN) {
+				halfOpenSuccesses++;
+				if (halfOpenSuccesses >= halfOpenCalls) {
+					transitionTo(State.CLOSED);
+				}
+			} else if (state == State.CLOSED) {
+				record(false);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 失敗を記録し、必要であれば OPEN へ遷移する
+	 */
+	void onFailure() {
+		failedCalls.increment();
+		lock.lock();
+		try {
+			if (state == State.HALF_OPEN) {
+				transitionTo(State.OPEN);
+			} else if (state == State.CLOSED) {
+				record(true);
+				if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+					transitionTo(State.OPEN);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 直近の呼び出し結果をリングバッファへ記録する
+	 */
+	private void record(boolean failed) {
+		if (recorded == windowSize) {
+			if (outcomes[next]) {
+				failures--;
+			}
+		} else {
+			recorded++;
+		}
+		outcomes[next] = failed;
+		if (failed) {
+			failures++;
+		}
+		next = (next + 1) % windowSize;
+	}
+
+	/**
+	 * OPEN の維持時間が経過していれば HALF_OPEN へ遷移する
+	 */
+	private void transitionToHalfOpenIfDue() {
+		if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+			transitionTo(State.HALF_OPEN);
+		}
+	}
+
+	/**
+	 * 状態を遷移させ、遷移回数を記録する
+	 */
+	private void transitionTo(State to) {
+		State from = state;
+		state = to;
+		switch (to) {
+		case OPEN:
+			openedAt = clock.instant();
+			break;
+		case HALF_OPEN:
+			halfOpenPermits = halfOpenCalls;
+			halfOpenSuccesses = 0;
+			break;
+		case CLOSED:
+			recorded = 0;
+			next = 0;
+			failures = 0;
+			break;
+		}
+		Counter.builder("exchange.api.circuit.transitions")
+				.description("Circuit breaker state transitions")
+				.tag("name", name)
+				.tag("from", from.name())
+				.tag("to", to.name())
+				.register(meterRegistry)
+				.increment();
+	}
+
+	private Counter callCounter(String outcome) {
+		return Counter.builder("exchange.api.circuit.calls")
+				.description("Calls through the circuit breaker")
+				.tag("name", name)
+				.tag("outcome", outcome)
+				.register(meterRegistry);
+	}
+}
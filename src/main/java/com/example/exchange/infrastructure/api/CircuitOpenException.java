@@ -0,0 +1,14 @@
+package com.example.exchange.infrastructure.api;
+
+/**
+ * サーキットブレーカーが遮断中のため、外部 API を呼び出さなかったことを表す例外
+ */
+public class CircuitOpenException extends RuntimeException {
+
+	/**
+	 * @param name サーキットブレーカー名
+	 */
+	public CircuitOpenException(String name) {
+		super("Circuit breaker '" + name + "' is open");
+	}
+}
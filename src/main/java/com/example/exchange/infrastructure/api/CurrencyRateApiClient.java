@@ -1,12 +1,33 @@
 package com.example.exchange.infrastructure.api;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import com.example.exchange.infrastructure.monitoring.RateApiCallEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 /**
  * 外部為替APIとの通信を担当するクライアントクラス（Infrastructuer層）
  * 
@@ -19,6 +40,9 @@ import org.springframework.web.util.UriComponentsBuilder;
  * 		Domain 層と分離することで責務を明確化している。
  * ・RestTemplate は Bean として定義し、コンストラクタインジェクションで受け取ることで
  * 		テスト容易性と依存性の明確化を実現している。
+ * ・応答を待つ間スレッドを占有しないよう、非同期 HTTP クライアントによる取得（getRateAsync）も提供する
+ * ・呼び出しごとの所要時間を exchange.api.request（endpoint・pair・outcome 別）に記録する
+ * 		（outcome：success / error / timeout / rejected（遮断中））。JFR イベント（RateApiCallEvent）も発行する
  */
 @Component
 public class CurrencyRateApiClient {
@@ -28,15 +52,44 @@ public class CurrencyRateApiClient {
 	 * ソースコードへ直接記述しないことでセキュリティを確保
 	 */
 	private final RestTemplate restTemplate;
+	
+	/** 外部 API の障害時に呼び出しを遮断するサーキットブレーカー */
+	private final CircuitBreaker circuitBreaker;
+	
+	/** 非同期呼び出し用の HTTP クライアント（応答待ちの間スレッドを占有しない） */
+	private final HttpClient httpClient;
+	
+	/** 非同期呼び出しのレスポンス（JSON）を DTO へ変換する */
+	private final ObjectMapper objectMapper;
+	
+	/** 呼び出しの所要時間の記録先 */
+	private final MeterRegistry meterRegistry;
 
 	@Value("${exchange.api.key}")
 	private String apiKey;
 	
+	/** API のベース URL（テスト時はスタブサーバへ差し替え可能） */
+	@Value("${exchange.api.base-url:https://api.exchangerate.host}")
+	private String baseUrl;
+	
+	/** 非同期呼び出しの応答待ち時間の上限 */
+	@Value("${exchange.api.read-timeout:PT3S}")
+	private Duration readTimeout;
+	
 	/**
 	 * コンストラクタインジェクション
 	 */
-	public CurrencyRateApiClient(RestTemplate restTemplate){
+	public CurrencyRateApiClient(
+			RestTemplate restTemplate,
+			CircuitBreaker circuitBreaker,
+			HttpClient httpClient,
+			ObjectMapper objectMapper,
+			MeterRegistry meterRegistry){
 		this.restTemplate = restTemplate;
+		this.circuitBreaker = circuitBreaker;
+		this.httpClient = httpClient;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
 	}
 
 	/**
@@ -50,28 +103,181 @@ public class CurrencyRateApiClient {
 	 * 設計ポイント
 	 * ・数値計算の制度保持のため、戻り値は BigDecimal を採用
 	 * ・JSON を直接扱わず DTO へマッピングすることで型安全性を確保
+	 * ・サーキットブレーカー経由で呼び出し、障害時は即座に失敗させる
 	 * 
 	 * @param base 基準通貨
 	 * @param target 変換先通貨
 	 * @return 取得した為替レート
+	 * @throws CircuitOpenException サーキットブレーカーが遮断中の場合
 	 */
 	public BigDecimal getRate(String base, String target) {
 
+		String url = convertUrl(base, target);
+
+		// 結果が空の応答も失敗として記録する
+		return timed("convert", base + "/" + target, () -> circuitBreaker.execute(() -> {
+			ExchangeResponse response = restTemplate.getForObject(url, ExchangeResponse.class);
+			if (response == null || response.getResult() == null) {
+				throw new IllegalStateException("API returned no result: " + response);
+			}
+			return response.getResult();
+		}));
+	}
+
+	/**
+	 * 指定された通貨ペアの為替レートを非同期で取得する。
+	 * 
+	 * 処理内容
+	 * ・getRate と同じ /convert を非同期 HTTP クライアントで呼び出す
+	 * ・応答待ちの間は呼び出し元のスレッドを占有せず、Future の完了で結果を通知する
+	 * ・HTTP エラー・不正なレスポンスの場合は Future を例外で完了する
+	 * 
+	 * @param base 基準通貨
+	 * @param target 変換先通貨
+	 * @return 取得した為替レートの Future（遮断中は CircuitOpenException で完了）
+	 */
+	public CompletableFuture<BigDecimal> getRateAsync(String base, String target) {
+
+		HttpRequest request = HttpRequest.newBuilder(URI.create(convertUrl(base, target)))
+				.timeout(readTimeout)
+				.header("Accept", "application/json")
+				.GET()
+				.build();
+
+		Timer.Sample sample = Timer.start(meterRegistry);
+		RateApiCallEvent event = RateApiCallEvent.start();
+		return circuitBreaker.executeAsync(() -> httpClient
+				.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+				.thenApply(this::parseRate))
+				.whenComplete((rate, ex) -> record(sample, event, "convert", base + "/" + target, ex));
+	}
+
+	/**
+	 * 基準通貨1つに対する複数通貨のレートを、1回のリクエストでまとめて取得する。
+	 * 
+	 * 処理内容
+	 * ・/live エンドポイントに source（基準通貨）と currencies（対象通貨一覧）を指定
+	 * ・レスポンスの quotes（キー：USDJPY 形式）を対象通貨ごとの Map へ変換
+	 * 
+	 * 設計ポイント
+	 * ・通貨ペアごとに /convert を呼ぶ代わりに使用し、API 呼び出し回数を削減する
+	 * ・その他の通貨ペアは呼び出し側で三角裁定により算出する
+	 * 
+	 * @param base 基準通貨
+	 * @param targets 対象通貨
+	 * @return 対象通貨 → レート
+	 * @throws CircuitOpenException サーキットブレーカーが遮断中の場合
+	 */
+	public Map<String, BigDecimal> getRates(String base, Collection<String> targets) {
+
 		String url = UriComponentsBuilder
-				.fromUriString("https://api.exchangerate.host/convert")
+				.fromUriString(baseUrl)
+				.path("/live")
+				.queryParam("access_key", apiKey)
+				.queryParam("source", base)
+				.queryParam("currencies", String.join(",", targets))
+				.build()
+				.toUriString();
+
+		// 対象通貨は呼び出しごとに異なるため、pair は「基準通貨/*」とする
+		LiveRatesResponse response = timed("live", base + "/*", () -> circuitBreaker.execute(() -> {
+			LiveRatesResponse r = restTemplate.getForObject(url, LiveRatesResponse.class);
+			if (r == null || r.getQuotes() == null) {
+				throw new IllegalStateException("API returned no quotes: " + r);
+			}
+			return r;
+		}));
+
+		Map<String, BigDecimal> rates = new HashMap<>();
+		for (String target : targets) {
+			BigDecimal rate = response.getQuotes().get(base + target);
+			if (rate != null) {
+				rates.put(target, rate);
+			}
+		}
+		return rates;
+	}
+
+	/**
+	 * 同期の呼び出しを実行し、所要時間を記録する
+	 */
+	private <T> T timed(String endpoint, String pair, Supplier<T> call) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		RateApiCallEvent event = RateApiCallEvent.start();
+		try {
+			T result = call.get();
+			record(sample, event, endpoint, pair, null);
+			return result;
+		} catch (RuntimeException e) {
+			record(sample, event, endpoint, pair, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * 所要時間を、呼び出しの結果（例外が null なら成功）ごとに記録する
+	 */
+	private void record(Timer.Sample sample, RateApiCallEvent event, String endpoint, String pair,
+			Throwable failure) {
+		String outcome = outcome(failure);
+		sample.stop(Timer.builder("exchange.api.request")
+				.description("External rate API call latency")
+				.tag("endpoint", endpoint)
+				.tag("pair", pair)
+				.tag("outcome", outcome)
+				.register(meterRegistry));
+		event.finish(endpoint, pair, outcome);
+	}
+
+	private static String outcome(Throwable failure) {
+		Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+				? failure.getCause()
+				: failure;
+		if (cause == null) {
+			return "success";
+		}
+		if (cause instanceof CircuitOpenException) {
+			return "rejected";
+		}
+		for (Throwable t = cause; t != null; t = t.getCause()) {
+			if (t instanceof SocketTimeoutException || t instanceof HttpTimeoutException) {
+				return "timeout";
+			}
+		}
+		return "error";
+	}
+
+	/**
+	 * 通貨ペアのレート取得（/convert）の URL を構築する
+	 */
+	private String convertUrl(String base, String target) {
+		return UriComponentsBuilder
+				.fromUriString(baseUrl)
+				.path("/convert")
 				.queryParam("access_key", apiKey)
 				.queryParam("from", base)
 				.queryParam("to", target)
 				.queryParam("amount", 1)
 				.build()
 				.toUriString();
+	}
 
-		ExchangeResponse response = restTemplate.getForObject(url, ExchangeResponse.class);
-
-		if (response == null || response.getResult() == null) {
-			throw new IllegalStateException("API returned no result: " + response);
+	/**
+	 * 非同期呼び出しのレスポンスからレートを取り出す
+	 */
+	private BigDecimal parseRate(HttpResponse<byte[]> response) {
+		if (response.statusCode() >= 400) {
+			throw new IllegalStateException("API returned status " + response.statusCode());
 		}
-
-		return response.getResult();
+		ExchangeResponse body;
+		try {
+			body = objectMapper.readValue(response.body(), ExchangeResponse.class);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (body == null || body.getResult() == null) {
+			throw new IllegalStateException("API returned no result: " + body);
+		}
+		return body.getResult();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.example.exchange.infrastructure.api;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 基準通貨1つに対する全レート取得 API（/live）のレスポンス DTO
+ * 
+ * quotes のキーは「基準通貨 + 対象通貨」（例：USDJPY）。
+ */
+@Getter
+@Setter
+public class LiveRatesResponse {
+	private Boolean success;
+	private String source;
+	private Map<String, BigDecimal> quotes;
+
+}
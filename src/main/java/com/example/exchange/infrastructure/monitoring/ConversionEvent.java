@@ -0,0 +1,177 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 変換1件の JFR イベント（CurrencyConversionService が発行する）
+ *
+ * ・イベントの期間は変換全体（レートの決定から履歴の保存の受付まで）
+ * ・レートの決定・DB 参照・履歴の保存の所要時間と、レートの取得元（rateSource）を持つ
+ * ・ユーザ名はそのまま記録せず、JVM ごとのソルト付きハッシュ（userHash）にする
+ * 		（同じ JVM の記録の中で同じユーザかどうかは判別できる）
+ * ・記録するかどうか（閾値）の判定後にのみ、通貨ペアの文字列・ハッシュを生成する
+ */
+@Name(ConversionEvent.NAME)
+@Label("Conversion")
+@Category("Exchange")
+@Description("Single currency conversion with the rate source and sub-phase durations")
+@StackTrace(false)
+public class ConversionEvent extends Event {
+
+	public static final String NAME = "com.example.exchange.Conversion";
+
+	/** レートの取得元：レート行列・共有キャッシュ（soft TTL 以内） */
+	public static final String CACHE = "cache";
+	/** レートの取得元：レート行列・共有キャッシュ（soft TTL 切れ。裏で再取得する） */
+	public static final String STALE = "stale";
+	/** レートの取得元：同じ通貨ペアの他のリクエストによる取得の完了を待った */
+	public static final String SHARED = "shared";
+	/** レートの取得元：DB 上の通貨ペアの最新レート */
+	public static final String DB = "db";
+	/** レートの取得元：外部 API */
+	public static final String API = "api";
+	/** レートの取得元：外部 API から取得できず、最後に取得できたレートで代替した */
+	public static final String FALLBACK = "fallback";
+
+	private static final byte[] SALT = salt();
+
+	@Label("Mode")
+	private String mode;
+
+	@Label("Pair")
+	private String pair;
+
+	@Label("User Hash")
+	@Description("Salted hash of the username, stable within one JVM")
+	private String userHash;
+
+	@Label("Rate Source")
+	private String rateSource;
+
+	@Label("Outcome")
+	private String outcome;
+
+	@Label("Rate Resolution")
+	@Timespan(Timespan.NANOSECONDS)
+	private long rateResolution;
+
+	@Label("DB Lookup")
+	@Timespan(Timespan.NANOSECONDS)
+	private long dbLookup;
+
+	@Label("History Save")
+	@Timespan(Timespan.NANOSECONDS)
+	private long historySave;
+
+	/** 記録する場合のみ userHash・pair へ変換する（イベントのフィールドにはしない） */
+	private transient String username;
+	private transient String base;
+	private transient String target;
+
+	/**
+	 * 変換の開始時に生成し、計測を開始する
+	 *
+	 * @param mode sync / async
+	 */
+	public static ConversionEvent start(String mode, String username, String base, String target) {
+		ConversionEvent event = new ConversionEvent();
+		event.mode = mode;
+		event.username = username;
+		event.base = base;
+		event.target = target;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * 所要時間の計測の起点（イベントが無効な場合は時刻を取得しない）
+	 */
+	public long mark() {
+		return isEnabled() ? System.nanoTime() : 0;
+	}
+
+	public void setRateSource(String rateSource) {
+		this.rateSource = rateSource;
+	}
+
+	/**
+	 * レートの決定が完了した
+	 *
+	 * @param mark 開始時の mark()
+	 */
+	public void rateResolved(long mark) {
+		rateResolution = since(mark);
+	}
+
+	/**
+	 * DB 上の最新レートの参照が完了した
+	 *
+	 * @param mark 開始時の mark()
+	 */
+	public void dbLookedUp(long mark) {
+		dbLookup = since(mark);
+	}
+
+	/**
+	 * 履歴の保存（スナップショットの登録・write-behind への受付）が完了した
+	 *
+	 * @param mark 開始時の mark()
+	 */
+	public void historySaved(long mark) {
+		historySave = since(mark);
+	}
+
+	/**
+	 * 計測を終了し、閾値を超えていれば記録する
+	 *
+	 * @param outcome fresh / stale / degraded / failed
+	 */
+	public void finish(String outcome) {
+		end();
+		if (shouldCommit()) {
+			this.outcome = outcome;
+			this.pair = base + "/" + target;
+			this.userHash = hash(username);
+			commit();
+		}
+	}
+
+	private long since(long mark) {
+		return mark == 0 ? 0 : System.nanoTime() - mark;
+	}
+
+	private static byte[] salt() {
+		byte[] salt = new byte[16];
+		new SecureRandom().nextBytes(salt);
+		return salt;
+	}
+
+	/**
+	 * ソルト付き SHA-256 の先頭 8 バイト（16 進）
+	 */
+	static String hash(String username) {
+		if (username == null) {
+			return null;
+		}
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(SALT);
+			byte[] hash = digest.digest(username.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(hash, 0, 8);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 変換履歴の1バッチ分の INSERT の JFR イベント（ConversionHistoryWriter が発行する）
+ *
+ * write-behind のため、変換（ConversionEvent）とは別のスレッド・時刻に記録される。
+ */
+@Name("com.example.exchange.HistoryBatch")
+@Label("History Batch Insert")
+@Category("Exchange")
+@Description("Conversion history batch written in one transaction")
+@StackTrace(false)
+public class HistoryBatchEvent extends Event {
+
+	@Label("Rows")
+	private int rows;
+
+	@Label("Outcome")
+	private String outcome;
+
+	public static HistoryBatchEvent start() {
+		HistoryBatchEvent event = new HistoryBatchEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * 計測を終了し、閾値を超えていれば記録する
+	 *
+	 * @param outcome success / failed（1件ずつ保存し直した）
+	 */
+	public void finish(int rows, String outcome) {
+		end();
+		if (shouldCommit()) {
+			this.rows = rows;
+			this.outcome = outcome;
+			commit();
+		}
+	}
+}
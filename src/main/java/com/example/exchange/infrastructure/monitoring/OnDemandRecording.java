@@ -0,0 +1,216 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * 管理画面から開始・停止・取得する JFR の記録
+ *
+ * ・JDK の設定（settings：default / profile）に、アプリのイベント
+ * 		（ConversionEvent・RateApiCallEvent・HistoryBatchEvent・ViewRenderEvent）を閾値付きで加えて記録する
+ * ・記録はディスクに書き出し、max-age / max-size を超えた古い分から捨てる
+ * ・同時に扱う記録は1つ（開始すると、停止済みの前回の記録は破棄する）
+ * ・取得（dump）は記録中・停止後のどちらでも行え、一時ファイルへ書き出す
+ *
+ * 開始・停止・取得は排他する（仮想スレッドのピン留めを避けるため synchronized は使わない）。
+ */
+@Component
+public class OnDemandRecording {
+
+	private static final Logger logger = LoggerFactory.getLogger(OnDemandRecording.class);
+
+	private static final List<Class<? extends Event>> APP_EVENTS = List.of(
+			ConversionEvent.class, RateApiCallEvent.class, HistoryBatchEvent.class, ViewRenderEvent.class);
+
+	/** JDK の記録設定の名前（default：常時記録向けの低負荷、profile：詳細） */
+	private final String settings;
+
+	/** アプリのイベントを記録する所要時間の閾値（開始時に指定しない場合） */
+	private final Duration defaultThreshold;
+
+	private final Duration maxAge;
+
+	private final DataSize maxSize;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private Recording recording;
+
+	private Duration threshold;
+
+	private LocalDateTime startedAt;
+
+	private LocalDateTime stoppedAt;
+
+	/**
+	 * コンストラクタインジェクション
+	 *
+	 * @param settings JDK の記録設定の名前
+	 * @param defaultThreshold アプリのイベントの閾値
+	 * @param maxAge 記録を保持する期間
+	 * @param maxSize 記録を保持するサイズ
+	 */
+	public OnDemandRecording(
+			@Value("${exchange.jfr.settings:default}") String settings,
+			@Value("${exchange.jfr.threshold:PT0.1S}") Duration defaultThreshold,
+			@Value("${exchange.jfr.max-age:PT30M}") Duration maxAge,
+			@Value("${exchange.jfr.max-size:256MB}") DataSize maxSize) {
+		this.settings = settings;
+		this.defaultThreshold = defaultThreshold;
+		this.maxAge = maxAge;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * 記録を開始する
+	 *
+	 * @param threshold アプリのイベントの閾値（null の場合は exchange.jfr.threshold）
+	 * @return 開始した場合 true（既に記録中の場合は false）
+	 */
+	public boolean start(Duration threshold) {
+		lock.lock();
+		try {
+			if (recording != null && recording.getState() == RecordingState.RUNNING) {
+				return false;
+			}
+			if (recording != null) {
+				recording.close();
+			}
+			Duration t = threshold != null ? threshold : defaultThreshold;
+			Recording r = new Recording(configuration());
+			r.setName("exchange-on-demand");
+			r.setToDisk(true);
+			r.setMaxAge(maxAge);
+			r.setMaxSize(maxSize.toBytes());
+			for (Class<? extends Event> event : APP_EVENTS) {
+				r.enable(event).withThreshold(t);
+			}
+			r.start();
+			recording = r;
+			this.threshold = t;
+			startedAt = LocalDateTime.now();
+			stoppedAt = null;
+			logger.info("JFR recording started (settings {}, threshold {})", settings, t);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 記録を停止する（記録した内容は次の開始まで取得できる）
+	 *
+	 * @return 停止した場合 true（記録中でない場合は false）
+	 */
+	public boolean stop() {
+		lock.lock();
+		try {
+			if (recording == null || recording.getState() != RecordingState.RUNNING) {
+				return false;
+			}
+			recording.stop();
+			stoppedAt = LocalDateTime.now();
+			logger.info("JFR recording stopped");
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 記録した内容を一時ファイルへ書き出す（不要になったら呼び出し元で削除する）
+	 *
+	 * @return 書き出したファイル（一度も開始していない場合は null）
+	 */
+	public Path dump() throws IOException {
+		lock.lock();
+		try {
+			if (recording == null) {
+				return null;
+			}
+			Path file = Files.createTempFile("exchange-", ".jfr");
+			try {
+				recording.dump(file);
+			} catch (IOException | RuntimeException e) {
+				Files.deleteIfExists(file);
+				throw e;
+			}
+			return file;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 記録の状態を取得する
+	 */
+	public Status status() {
+		lock.lock();
+		try {
+			if (recording == null) {
+				return new Status("none", null, null, null);
+			}
+			String state = recording.getState() == RecordingState.RUNNING ? "running" : "stopped";
+			return new Status(state, startedAt, stoppedAt, threshold);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * アプリケーション終了時に記録を破棄する
+	 */
+	@PreDestroy
+	public void close() {
+		lock.lock();
+		try {
+			if (recording != null) {
+				recording.close();
+				recording = null;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Configuration configuration() {
+		try {
+			return Configuration.getConfiguration(settings);
+		} catch (IOException | ParseException e) {
+			throw new IllegalStateException("Unknown JFR settings: " + settings, e);
+		}
+	}
+
+	/**
+	 * 記録の状態
+	 *
+	 * @param state none / running / stopped
+	 * @param startedAt 開始日時
+	 * @param stoppedAt 停止日時（記録中は null）
+	 * @param threshold アプリのイベントの閾値
+	 */
+	public record Status(String state, LocalDateTime startedAt, LocalDateTime stoppedAt, Duration threshold) {
+
+		public boolean running() {
+			return "running".equals(state);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+
+/**
+ * 指定したメトリクスの pair タグの種類数を制限するフィルタ
+ *
+ * 通貨ペアは画面・API から任意に指定できるため、そのままタグにするとメトリクスが際限なく増える。
+ * 最初に現れた maxPairs 種類までは通貨ペアごとに分け、それ以降の通貨ペアは pair=other にまとめる。
+ */
+public class PairTagLimiter implements MeterFilter {
+
+	private static final String TAG = "pair";
+	private static final String OTHER = "other";
+
+	private final String meterName;
+	private final int maxPairs;
+
+	/** タグとして分けている通貨ペア */
+	private final Set<String> pairs = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * @param meterName 対象のメトリクス名
+	 * @param maxPairs 通貨ペアごとに分ける上限
+	 */
+	public PairTagLimiter(String meterName, int maxPairs) {
+		this.meterName = meterName;
+		this.maxPairs = maxPairs;
+	}
+
+	@Override
+	public Meter.Id map(Meter.Id id) {
+		if (!id.getName().equals(meterName)) {
+			return id;
+		}
+		String pair = id.getTag(TAG);
+		if (pair == null || pairs.contains(pair)) {
+			return id;
+		}
+		// 上限の判定と追加は厳密でなくてよい（同時に追加された分だけ上限をわずかに超えることがある）
+		if (pairs.size() < maxPairs) {
+			pairs.add(pair);
+			return id;
+		}
+		// 同じキーのタグは置き換えられる
+		return id.withTag(Tag.of(TAG, OTHER));
+	}
+}
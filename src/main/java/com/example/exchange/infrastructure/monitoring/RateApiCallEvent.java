@@ -0,0 +1,52 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 外部為替 API の呼び出し1回の JFR イベント（CurrencyRateApiClient が発行する）
+ *
+ * イベントの期間は呼び出し全体（遮断中で送らなかった場合を含む）。
+ * 非同期の呼び出しは、応答を受け取ったスレッドで記録される。
+ */
+@Name("com.example.exchange.RateApiCall")
+@Label("Rate API Call")
+@Category("Exchange")
+@Description("External exchange-rate API call")
+@StackTrace(false)
+public class RateApiCallEvent extends Event {
+
+	@Label("Endpoint")
+	private String endpoint;
+
+	@Label("Pair")
+	private String pair;
+
+	@Label("Outcome")
+	private String outcome;
+
+	public static RateApiCallEvent start() {
+		RateApiCallEvent event = new RateApiCallEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * 計測を終了し、閾値を超えていれば記録する
+	 *
+	 * @param outcome success / error / timeout / rejected
+	 */
+	public void finish(String endpoint, String pair, String outcome) {
+		end();
+		if (shouldCommit()) {
+			this.endpoint = endpoint;
+			this.pair = pair;
+			this.outcome = outcome;
+			commit();
+		}
+	}
+}
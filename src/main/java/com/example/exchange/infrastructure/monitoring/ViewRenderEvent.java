@@ -0,0 +1,43 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 画面（テンプレート）の描画1回の JFR イベント（ViewRenderTimingInterceptor が発行する）
+ */
+@Name("com.example.exchange.ViewRender")
+@Label("View Render")
+@Category("Exchange")
+@Description("Thymeleaf template rendering")
+@StackTrace(false)
+public class ViewRenderEvent extends Event {
+
+	@Label("View")
+	private String view;
+
+	@Label("Outcome")
+	private String outcome;
+
+	public static ViewRenderEvent start() {
+		ViewRenderEvent event = new ViewRenderEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * 計測を終了し、閾値を超えていれば記録する
+	 */
+	public void finish(String view, String outcome) {
+		end();
+		if (shouldCommit()) {
+			this.view = view;
+			this.outcome = outcome;
+			commit();
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * 画面（テンプレート）の描画にかかった時間を記録するインターセプタ
+ *
+ * ・Controller の処理後（postHandle）から描画の完了（afterCompletion）までを、
+ * 		exchange.view.render（タグ：view＝テンプレート名）と JFR イベント（ViewRenderEvent）に記録する
+ * ・Controller の処理（DB からの取得など）を含めた全体は http.server.requests で参照できる
+ * ・リダイレクト・@ResponseBody（描画を伴わない応答）は記録しない
+ */
+public class ViewRenderTimingInterceptor implements HandlerInterceptor {
+
+	private static final String RENDER = ViewRenderTimingInterceptor.class.getName() + ".render";
+
+	private final MeterRegistry meterRegistry;
+
+	public ViewRenderTimingInterceptor(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+			ModelAndView modelAndView) {
+		if (modelAndView == null) {
+			return;
+		}
+		String view = modelAndView.getViewName();
+		if (view == null || view.startsWith("redirect:") || view.startsWith("forward:")) {
+			return;
+		}
+		request.setAttribute(RENDER, new Render(view, Timer.start(meterRegistry), ViewRenderEvent.start()));
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (request.getAttribute(RENDER) instanceof Render render) {
+			String outcome = ex == null ? "success" : "error";
+			render.sample().stop(Timer.builder("exchange.view.render")
+					.description("Template rendering time")
+					.tag("view", render.view())
+					.tag("outcome", outcome)
+					.register(meterRegistry));
+			render.event().finish(render.view(), outcome);
+		}
+	}
+
+	/**
+	 * 描画中の画面と計測
+	 */
+	private record Render(String view, Timer.Sample sample, ViewRenderEvent event) {
+	}
+}
@@ -0,0 +1,165 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * 仮想スレッドのピン留め（pinning）を検出・報告するモニタ（仮想スレッドモードでのみ有効）
+ *
+ * synchronized ブロック内やネイティブ呼び出し中にブロッキング I/O を行うと、
+ * 仮想スレッドがキャリアスレッドから外れられず（ピン留め）、キャリアスレッドを占有してしまう。
+ * JFR の jdk.VirtualThreadPinned イベントをアプリ内で購読し、発生箇所を報告する。
+ *
+ * ・閾値以上ピン留めされた場合に、発生箇所（アプリのコードに最も近いフレーム）とスタックを WARN で出力する
+ * ・発生箇所ごとの件数を exchange.virtual-thread.pinned（タグ：site）として公開する
+ * ・同じ発生箇所のスタックは初回のみ出力し、以降は件数のみ記録する
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "exchange.virtual-threads.pinning-monitor.enabled", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+	private static final String EVENT = "jdk.VirtualThreadPinned";
+
+	/** 発生箇所の判定に使用する、アプリのパッケージ */
+	private static final String APP_PACKAGE = "com.example.exchange.";
+
+	/** ログに出力するスタックの深さ */
+	private static final int LOGGED_FRAMES = 12;
+
+	private final MeterRegistry meterRegistry;
+
+	/** この時間以上ピン留めされた場合に報告する */
+	private final Duration threshold;
+
+	/** 発生箇所 → 件数 */
+	private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+	private RecordingStream stream;
+
+	/**
+	 * コンストラクタインジェクション
+	 *
+	 * @param meterRegistry メトリクス登録先
+	 * @param threshold 報告するピン留め時間の閾値
+	 */
+	public VirtualThreadPinningMonitor(
+			MeterRegistry meterRegistry,
+			@Value("${exchange.virtual-threads.pinning-threshold:PT0.02S}") Duration threshold) {
+		this.meterRegistry = meterRegistry;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * アプリケーション起動完了後、ピン留めイベントの購読を開始する
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		RecordingStream rs = new RecordingStream();
+		rs.enable(EVENT).withThreshold(threshold).withStackTrace();
+		rs.onEvent(EVENT, this::onPinned);
+		rs.startAsync();
+		stream = rs;
+		logger.info("Virtual thread pinning monitor started (threshold {})", threshold);
+	}
+
+	/**
+	 * アプリケーション終了時に購読を停止する
+	 */
+	@EventListener(ContextClosedEvent.class)
+	public void stop() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+
+	/**
+	 * 発生箇所ごとのピン留め件数を取得する
+	 *
+	 * @return 発生箇所 → 件数
+	 */
+	public Map<String, Long> pinnedSites() {
+		return sites.entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum()));
+	}
+
+	/**
+	 * ピン留めイベントを記録する
+	 */
+	void onPinned(RecordedEvent event) {
+		List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+		String site = site(frames);
+
+		LongAdder created = new LongAdder();
+		LongAdder existing = sites.putIfAbsent(site, created);
+		boolean first = existing == null;
+		(first ? created : existing).increment();
+		Counter.builder("exchange.virtual-thread.pinned")
+				.description("Virtual thread pinning events longer than the threshold")
+				.tag("site", site)
+				.register(meterRegistry)
+				.increment();
+
+		if (first) {
+			logger.warn("Virtual thread pinned for {} ms at {}\n{}",
+					event.getDuration().toMillis(), site, format(frames));
+		} else {
+			logger.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+		}
+	}
+
+	/**
+	 * アプリのコードに最も近いフレームを発生箇所とする（無ければ先頭のフレーム）
+	 */
+	private static String site(List<RecordedFrame> frames) {
+		RecordedFrame chosen = null;
+		for (RecordedFrame f : frames) {
+			if (!f.isJavaFrame()) {
+				continue;
+			}
+			if (chosen == null) {
+				chosen = f;
+			}
+			if (f.getMethod().getType().getName().startsWith(APP_PACKAGE)) {
+				chosen = f;
+				break;
+			}
+		}
+		return chosen == null ? "unknown" : name(chosen);
+	}
+
+	private static String format(List<RecordedFrame> frames) {
+		return frames.stream()
+				.limit(LOGGED_FRAMES)
+				.map(f -> "\tat " + name(f) + ":" + f.getLineNumber())
+				.collect(Collectors.joining("\n"));
+	}
+
+	private static String name(RecordedFrame f) {
+		return f.getMethod().getType().getName() + "." + f.getMethod().getName();
+	}
+}
@@ -0,0 +1,346 @@
+package com.example.exchange.infrastructure.persistence;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.service.HistoryCounterService;
+import com.example.exchange.infrastructure.monitoring.HistoryBatchEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 変換履歴を非同期にまとめて保存するライタ（write-behind）
+ *
+ * ・変換処理は履歴を上限付きのキューに積むだけで、INSERT の完了を待たない
+ * ・専用スレッドがキューから最大 batchSize 件ずつ取り出し、1トランザクション・1回の JDBC バッチで保存する
+ * 		（ID はシーケンスからまとめて採番するため、INSERT をバッチにまとめられる）
+ * ・キューが満杯のまま enqueueTimeout を過ぎた場合は、呼び出し元のスレッドでそのまま保存する（背圧）
+ * ・アプリケーション終了時は受付を止め、キューに残った履歴を全て保存してから停止する
+ * ・バッチの保存に失敗した場合は1件ずつ保存し直し、それでも失敗した履歴はログに出力して破棄する
+ * ・履歴の件数（HistoryCounterService）は、保存と同じトランザクション内で加算する
+ *
+ * キューの件数、保存件数、呼び出し元での保存件数、破棄件数、バッチの保存時間をメトリクスとして公開する。
+ * バッチの保存ごとに JFR イベント（HistoryBatchEvent）を発行する。
+ */
+@Component
+public class ConversionHistoryWriter implements SmartLifecycle {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConversionHistoryWriter.class);
+
+	private final CurrencyRateRepository rateRepository;
+	private final HistoryCounterService counters;
+	private final TransactionTemplate transactionTemplate;
+
+	/** false の場合はキューを使わず、呼び出し元で保存する */
+	private final boolean enabled;
+
+	/** 1回のバッチで保存する最大件数 */
+	private final int batchSize;
+
+	/** キューが空の場合に、停止要求を確認する間隔 */
+	private final Duration pollInterval;
+
+	/** キューが満杯の場合に、空きを待つ時間の上限 */
+	private final Duration enqueueTimeout;
+
+	private final BlockingQueue<CurrencyRate> queue;
+
+	/** 受付済みで未保存の件数（flush の完了判定に使用） */
+	private final AtomicLong pending = new AtomicLong();
+	private final ReentrantLock pendingLock = new ReentrantLock();
+	private final Condition drained = pendingLock.newCondition();
+
+	/** 受付と停止の切り替えを排他する（停止後にキューへ積まれる履歴を無くす） */
+	private final ReentrantReadWriteLock acceptLock = new ReentrantReadWriteLock();
+
+	private final Counter written;
+	private final Counter callerRuns;
+	private final Counter dropped;
+	private final Timer batchTimer;
+
+	private volatile boolean running;
+	private Thread writerThread;
+
+	/**
+	 * コンストラクタインジェクション
+	 *
+	 * @param rateRepository 履歴の保存先
+	 * @param counters 履歴の件数
+	 * @param transactionTemplate バッチ単位のトランザクション
+	 * @param meterRegistry メトリクス登録先
+	 * @param enabled write-behind を使用するかどうか
+	 * @param queueCapacity キューの上限件数
+	 * @param batchSize 1回のバッチで保存する最大件数
+	 * @param pollInterval キューが空の場合に停止要求を確認する間隔
+	 * @param enqueueTimeout キューが満杯の場合に空きを待つ時間の上限
+	 */
+	public ConversionHistoryWriter(
+			CurrencyRateRepository rateRepository,
+			HistoryCounterService counters,
+			TransactionTemplate transactionTemplate,
+			MeterRegistry meterRegistry,
+			@Value("${exchange.history.write-behind.enabled:true}") boolean enabled,
+			@Value("${exchange.history.write-behind.queue-capacity:10000}") int queueCapacity,
+			@Value("${exchange.history.write-behind.batch-size:100}") int batchSize,
+			@Value("${exchange.history.write-behind.poll-interval:PT0.2S}") Duration pollInterval,
+			@Value("${exchange.history.write-behind.enqueue-timeout:PT0.1S}") Duration enqueueTimeout) {
+		this.rateRepository = rateRepository;
+		this.counters = counters;
+		this.transactionTemplate = transactionTemplate;
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.pollInterval = pollInterval;
+		this.enqueueTimeout = enqueueTimeout;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+		Gauge.builder("exchange.history.queue.size", queue, BlockingQueue::size)
+				.description("Conversion history records waiting to be written")
+				.register(meterRegistry);
+		this.written = Counter.builder("exchange.history.written")
+				.description("Conversion history records written by the write-behind writer")
+				.register(meterRegistry);
+		this.callerRuns = Counter.builder("exchange.history.caller-runs")
+				.description("Conversion history records written on the caller thread because the queue was full or closed")
+				.register(meterRegistry);
+		this.dropped = Counter.builder("exchange.history.dropped")
+				.description("Conversion history records that could not be written")
+				.register(meterRegistry);
+		this.batchTimer = Timer.builder("exchange.history.batch")
+				.description("Time to write one batch of conversion history")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 変換履歴の保存を受け付ける
+	 *
+	 * ・通常はキューに積んで直ちに戻る（ID は保存時に採番される）
+	 * ・write-behind が無効・停止中、またはキューが満杯のまま enqueueTimeout を過ぎた場合は、この場で保存する
+	 *
+	 * @param history 保存する変換履歴
+	 */
+	public void enqueue(CurrencyRate history) {
+		acceptLock.readLock().lock();
+		try {
+			if (enabled && running) {
+				pending.incrementAndGet();
+				if (queue.offer(history, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+					return;
+				}
+				release(1);
+			}
+		} catch (InterruptedException e) {
+			release(1);
+			Thread.currentThread().interrupt();
+		} finally {
+			acceptLock.readLock().unlock();
+		}
+		callerRuns.increment();
+		saveOne(history);
+	}
+	
+	/**
+	 * 変換履歴をキューを経由せず、この場で1トランザクション（JDBC バッチ）で保存する
+	 *
+	 * ・一括変換など、応答までに保存を完了させる場合に使用する
+	 *
+	 * @param histories 保存する変換履歴
+	 */
+	public void writeNow(List<CurrencyRate> histories) {
+		if (histories.isEmpty()) {
+			return;
+		}
+		HistoryBatchEvent event = HistoryBatchEvent.start();
+		try {
+			counters.prepare(histories);
+			transactionTemplate.executeWithoutResult(s -> {
+				rateRepository.saveAll(histories);
+				counters.recordInserted(histories);
+			});
+			event.finish(histories.size(), "success");
+		} catch (RuntimeException e) {
+			event.finish(histories.size(), "failed");
+			throw e;
+		}
+	}
+
+	/**
+	 * 受付済みの履歴が全て保存されるまで待つ
+	 *
+	 * @param timeout 待つ時間の上限
+	 * @return 全て保存された場合 true
+	 */
+	public boolean flush(Duration timeout) throws InterruptedException {
+		long remaining = timeout.toNanos();
+		pendingLock.lock();
+		try {
+			while (pending.get() > 0) {
+				if (remaining <= 0) {
+					return false;
+				}
+				remaining = drained.awaitNanos(remaining);
+			}
+			return true;
+		} finally {
+			pendingLock.unlock();
+		}
+	}
+
+	/**
+	 * 書き込みスレッドを開始する
+	 */
+	@Override
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		writerThread = Thread.ofPlatform().name("history-writer").daemon(true).start(this::drainLoop);
+	}
+
+	/**
+	 * 受付を止め、キューに残った履歴を全て保存してから書き込みスレッドを停止する
+	 */
+	@Override
+	public void stop() {
+		acceptLock.writeLock().lock();
+		try {
+			running = false;
+		} finally {
+			acceptLock.writeLock().unlock();
+		}
+		if (writerThread == null) {
+			return;
+		}
+		try {
+			writerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		writerThread = null;
+		// 書き込みスレッドが中断された場合に備え、残りはこのスレッドで保存する
+		drainRemaining();
+		logger.info("Conversion history writer stopped ({} written)", (long) written.count());
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Web サーバ・スレッドプールより先に開始し、それらの停止（処理中のリクエストの完了）後に停止する
+	 */
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 4096;
+	}
+
+	/**
+	 * キューから取り出してバッチで保存する（停止要求後、キューが空になるまで続ける）
+	 */
+	private void drainLoop() {
+		List<CurrencyRate> batch = new ArrayList<>(batchSize);
+		try {
+			while (true) {
+				CurrencyRate first = queue.poll(pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+				if (first == null) {
+					if (!running) {
+						return;
+					}
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				write(batch);
+				batch.clear();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void drainRemaining() {
+		List<CurrencyRate> batch = new ArrayList<>(batchSize);
+		while (queue.drainTo(batch, batchSize) > 0) {
+			write(batch);
+			batch.clear();
+		}
+	}
+
+	/**
+	 * 1バッチ分を1トランザクションで保存する（失敗した場合は1件ずつ保存し直す）
+	 */
+	private void write(List<CurrencyRate> batch) {
+		HistoryBatchEvent event = HistoryBatchEvent.start();
+		try {
+			counters.prepare(batch);
+			batchTimer.record(() -> transactionTemplate.executeWithoutResult(s -> {
+				rateRepository.saveAll(batch);
+				counters.recordInserted(batch);
+			}));
+			written.increment(batch.size());
+			event.finish(batch.size(), "success");
+		} catch (RuntimeException e) {
+			event.finish(batch.size(), "failed");
+			logger.warn("Batch of {} conversion history records failed, retrying one by one: {}",
+					batch.size(), e.getMessage());
+			for (CurrencyRate history : batch) {
+				// 失敗したトランザクションで採番された ID は破棄して保存し直す
+				history.setId(null);
+				try {
+					saveOne(history);
+					written.increment();
+				} catch (RuntimeException ex) {
+					dropped.increment();
+					logger.error("Dropped conversion history of {} ({}/{} {})", history.getUsername(),
+							history.getBaseCurrency(), history.getTargetCurrency(), history.getAmount(), ex);
+				}
+			}
+		} finally {
+			release(batch.size());
+		}
+	}
+
+	/**
+	 * 1件を1トランザクションで保存する（件数の加算を含む）
+	 */
+	private void saveOne(CurrencyRate history) {
+		List<CurrencyRate> one = List.of(history);
+		counters.prepare(one);
+		transactionTemplate.executeWithoutResult(s -> {
+			rateRepository.save(history);
+			counters.recordInserted(one);
+		});
+	}
+
+	private void release(int count) {
+		if (pending.addAndGet(-count) == 0) {
+			pendingLock.lock();
+			try {
+				drained.signalAll();
+			} finally {
+				pendingLock.unlock();
+			}
+		}
+	}
+}
@@ -0,0 +1,266 @@
+package com.example.exchange.infrastructure.persistence;
+
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.exchange.domain.model.HistoryCounter;
+
+/**
+ * 変換履歴テーブル（currency_rate）の月単位のパーティションを管理する
+ *
+ * ・MySQL：fetched_at の RANGE COLUMNS パーティション（sql/currency_rate_partitioning.sql で作成）を前提とし、
+ * 		先の月のパーティションを pmax から切り出して追加する。
+ * 		期限切れのパーティションは EXCHANGE PARTITION で空のアーカイブ用テーブルと入れ替え、DROP PARTITION する
+ * 		（いずれもメタデータの変更のみで、行数に依存しない）
+ * ・組み込み DB（H2 など）：パーティションが無いため、月単位の範囲を1トランザクションの INSERT ... SELECT と DELETE で
+ * 		アーカイブ用テーブルへ移す（同じ手順・同じテーブル名で動作を確認するための代替）
+ * ・MySQL でもテーブルがパーティション化されていない場合は何もしない（大きなテーブルを行単位で削除しない）
+ *
+ * アーカイブ用テーブルは currency_rate_archive_{パーティション名}（例：currency_rate_archive_p202501）。
+ */
+@Component
+public class HistoryPartitionManager {
+
+	private static final Logger logger = LoggerFactory.getLogger(HistoryPartitionManager.class);
+
+	/** 変換履歴のテーブル */
+	private static final String TABLE = "currency_rate";
+
+	/** アーカイブ用テーブルの接頭辞 */
+	private static final String ARCHIVE_PREFIX = TABLE + "_archive_";
+
+	/** 上限の無いパーティション（新しい月はここから切り出す） */
+	private static final String MAX_PARTITION = "pmax";
+
+	private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	/** MySQL（MariaDB を含む）かどうか（null の場合は未判定） */
+	private volatile Boolean mysql;
+
+	/**
+	 * コンストラクタインジェクション
+	 */
+	public HistoryPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+	}
+
+	/**
+	 * 切り離した1か月分の変換履歴
+	 *
+	 * @param partition パーティション名
+	 * @param archiveTable 移した先のテーブル
+	 * @param upperBound 含まれる変換日時の上限（この日時を含まない）
+	 * @param removed ユーザごとの切り離した件数（scope はユーザ単位）
+	 */
+	public record DetachedPartition(String partition, String archiveTable, LocalDateTime upperBound,
+			List<HistoryCounter> removed) {
+	}
+
+	/**
+	 * 変換履歴テーブルが月単位にパーティション化されているかどうか
+	 *
+	 * @return MySQL でパーティション化済みの場合 true
+	 */
+	public boolean isPartitioned() {
+		return isMysql() && !partitions().isEmpty();
+	}
+
+	/**
+	 * 指定した月までのパーティションを用意する（MySQL のパーティション化済みのテーブルのみ）
+	 *
+	 * ・pmax（空）を REORGANIZE PARTITION で分割するため、行のコピーは発生しない
+	 *
+	 * @param through この月までのパーティションを用意する
+	 * @return 追加したパーティションの数
+	 */
+	public int ensurePartitionsThrough(YearMonth through) {
+		if (!isPartitioned()) {
+			return 0;
+		}
+		LocalDate last = partitions().stream()
+				.map(Partition::upperBound)
+				.filter(b -> b != null)
+				.max(LocalDate::compareTo)
+				.orElseThrow();
+		LocalDate end = through.plusMonths(1).atDay(1);
+
+		List<String> definitions = new ArrayList<>();
+		for (LocalDate bound = last; bound.isBefore(end); bound = bound.plusMonths(1)) {
+			definitions.add("PARTITION " + YearMonth.from(bound).format(PARTITION_NAME)
+					+ " VALUES LESS THAN ('" + bound.plusMonths(1) + "')");
+		}
+		if (definitions.isEmpty()) {
+			return 0;
+		}
+		definitions.add("PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+		jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION
+				+ " INTO (" + String.join(", ", definitions) + ")");
+		logger.info("Added {} conversion history partitions through {}", definitions.size() - 1, through);
+		return definitions.size() - 1;
+	}
+
+	/**
+	 * 変換日時が cutoff より前の変換履歴を、月単位でアーカイブ用テーブルへ切り離す
+	 *
+	 * ・MySQL では上限が cutoff 以前のパーティションのみを対象とする（cutoff を含む月は切り離さない）
+	 *
+	 * @param cutoff この日時より前の変換履歴を切り離す（月初を指定する）
+	 * @return 切り離したパーティション（古い順）
+	 */
+	public List<DetachedPartition> detachBefore(LocalDate cutoff) {
+		List<DetachedPartition> detached = new ArrayList<>();
+		if (isMysql()) {
+			for (Partition p : partitions()) {
+				if (p.upperBound() != null && !p.upperBound().isAfter(cutoff)) {
+					detached.add(exchangePartition(p));
+				}
+			}
+			return detached;
+		}
+
+		LocalDateTime end = cutoff.atStartOfDay();
+		LocalDateTime oldest;
+		while ((oldest = jdbcTemplate.queryForObject(
+				"SELECT MIN(fetched_at) FROM " + TABLE + " WHERE fetched_at < ?", LocalDateTime.class, end)) != null) {
+			detached.add(moveMonth(YearMonth.from(oldest)));
+		}
+		return detached;
+	}
+
+	/**
+	 * アーカイブ用テーブルを削除する
+	 *
+	 * @param archiveTable アーカイブ用テーブル
+	 */
+	public void dropArchive(String archiveTable) {
+		jdbcTemplate.execute("DROP TABLE " + checkArchive(archiveTable));
+	}
+
+	/**
+	 * パーティションを空のアーカイブ用テーブルと入れ替えてから削除する（MySQL）
+	 */
+	private DetachedPartition exchangePartition(Partition p) {
+		String archive = ARCHIVE_PREFIX + p.name();
+		// EXCHANGE PARTITION の相手はパーティション化されていない同じ構造のテーブル
+		jdbcTemplate.execute("CREATE TABLE " + archive + " LIKE " + TABLE);
+		jdbcTemplate.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+		jdbcTemplate.execute("ALTER TABLE " + TABLE + " EXCHANGE PARTITION " + p.name() + " WITH TABLE " + archive);
+		jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + p.name());
+		logger.info("Detached conversion history partition {} into {}", p.name(), archive);
+		// 切り離した後のテーブルを集計する（稼働中のテーブルの行を読まない）
+		return new DetachedPartition(p.name(), archive, p.upperBound().atStartOfDay(),
+				countByUser(archive, null, null));
+	}
+
+	/**
+	 * 1か月分の行をアーカイブ用テーブルへ移す（パーティションの無い組み込み DB 用）
+	 */
+	private DetachedPartition moveMonth(YearMonth month) {
+		String partition = month.format(PARTITION_NAME);
+		String archive = ARCHIVE_PREFIX + partition;
+		LocalDateTime from = month.atDay(1).atStartOfDay();
+		LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archive + " AS SELECT * FROM " + TABLE + " WHERE 1 = 0");
+		// 同じ月を再度移す場合はアーカイブ用テーブルに追記されるため、移す行を移す前に集計する
+		List<HistoryCounter> removed = transactionTemplate.execute(s -> {
+			List<HistoryCounter> counts = countByUser(TABLE, from, to);
+			jdbcTemplate.update("INSERT INTO " + archive + " SELECT * FROM " + TABLE
+					+ " WHERE fetched_at >= ? AND fetched_at < ?", from, to);
+			jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE fetched_at >= ? AND fetched_at < ?", from, to);
+			return counts;
+		});
+		logger.info("Moved conversion history of {} into {}", month, archive);
+		return new DetachedPartition(partition, archive, to, removed);
+	}
+
+	/**
+	 * 履歴の件数をユーザごとに集計する（件数の調整用）
+	 *
+	 * @param table 集計するテーブル
+	 * @param from 変換日時の下限（null の場合はテーブル全体）
+	 * @param to 変換日時の上限（この日時を含まない）
+	 * @return ユーザごとの件数（scope はユーザ単位）
+	 */
+	private List<HistoryCounter> countByUser(String table, LocalDateTime from, LocalDateTime to) {
+		String sql = "SELECT username, SUM(CASE WHEN deleted THEN 0 ELSE 1 END) AS active, COUNT(*) AS total"
+				+ " FROM " + table
+				+ (from == null ? "" : " WHERE fetched_at >= ? AND fetched_at < ?")
+				+ " GROUP BY username";
+		Object[] args = from == null ? new Object[0] : new Object[] { from, to };
+		return jdbcTemplate.query(sql,
+				(rs, i) -> new HistoryCounter(
+						HistoryCounter.userScope(rs.getString("username")), rs.getLong("active"), rs.getLong("total")),
+				args);
+	}
+
+	/**
+	 * 変換履歴テーブルのパーティション（MySQL・上限の昇順）
+	 */
+	private List<Partition> partitions() {
+		return jdbcTemplate.query(
+				"SELECT PARTITION_NAME, PARTITION_DESCRIPTION FROM information_schema.PARTITIONS"
+						+ " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL"
+						+ " ORDER BY PARTITION_ORDINAL_POSITION",
+				(rs, i) -> new Partition(rs.getString(1), parseBound(rs.getString(2))),
+				TABLE);
+	}
+
+	/**
+	 * パーティションの上限（'2025-02-01 00:00:00' 形式・MAXVALUE は null）
+	 */
+	private static LocalDate parseBound(String description) {
+		String value = description.replace("'", "").trim();
+		if (value.equalsIgnoreCase("MAXVALUE")) {
+			return null;
+		}
+		return LocalDate.parse(value.substring(0, 10));
+	}
+
+	private boolean isMysql() {
+		Boolean result = mysql;
+		if (result == null) {
+			try {
+				String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+						DatabaseMetaData::getDatabaseProductName);
+				result = product.contains("MySQL") || product.contains("MariaDB");
+			} catch (Exception e) {
+				throw new IllegalStateException("データベースの種類を判定できません", e);
+			}
+			mysql = result;
+		}
+		return result;
+	}
+
+	/**
+	 * テーブル名を SQL に埋め込むため、アーカイブ用テーブルの名前であることを確認する
+	 */
+	private static String checkArchive(String archiveTable) {
+		if (!archiveTable.matches(ARCHIVE_PREFIX + "[A-Za-z0-9_]+")) {
+			throw new IllegalArgumentException("not an archive table: " + archiveTable);
+		}
+		return archiveTable;
+	}
+
+	/**
+	 * パーティション名と上限（この日を含まない・MAXVALUE は null）
+	 */
+	private record Partition(String name, LocalDate upperBound) {
+	}
+}
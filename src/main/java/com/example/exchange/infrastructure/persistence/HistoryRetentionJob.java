@@ -0,0 +1,162 @@
+package com.example.exchange.infrastructure.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import com.example.exchange.domain.model.HistoryCounter;
+import com.example.exchange.domain.service.HistoryCounterService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 変換履歴の保持期間を管理するジョブ
+ *
+ * ・保持期間（retentionMonths）を過ぎた月の変換履歴を、月単位で切り離す（HistoryPartitionManager）
+ * 		MySQL ではパーティションの入れ替え・削除のみで、行単位の DELETE を行わない
+ * ・mode=archive の場合は切り離した履歴をアーカイブ用テーブルに残し、mode=drop の場合はテーブルごと削除する
+ * ・切り離したユーザごとの件数を、ユーザごと・全体の件数（HistoryCounterService）から差し引く
+ * ・先の monthsAhead か月分のパーティションを事前に用意する（新しい履歴が pmax に入らないようにする）
+ * ・起動完了の initialDelay 後に1回実行し、以降は interval ごとに実行する
+ */
+@Component
+@ConditionalOnProperty(prefix = "exchange.history.retention", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HistoryRetentionJob {
+
+	private static final Logger logger = LoggerFactory.getLogger(HistoryRetentionJob.class);
+
+	/** 切り離した履歴の扱い */
+	public enum Mode {
+		/** アーカイブ用テーブルに残す */
+		ARCHIVE,
+		/** アーカイブ用テーブルごと削除する */
+		DROP
+	}
+
+	private final HistoryPartitionManager partitions;
+	private final HistoryCounterService counters;
+	private final TaskScheduler scheduler;
+
+	/** 保持する月数（当月を含まない） */
+	private final int retentionMonths;
+
+	/** 事前に用意するパーティションの月数 */
+	private final int monthsAhead;
+
+	private final Mode mode;
+
+	/** 起動完了から初回の実行までの待ち時間 */
+	private final Duration initialDelay;
+
+	private final Duration interval;
+
+	private final Counter detachedPartitions;
+	private final Counter detachedRows;
+
+	/**
+	 * コンストラクタインジェクション
+	 *
+	 * @param partitions パーティションの管理
+	 * @param counters 履歴の件数
+	 * @param scheduler 保守用のスケジューラ
+	 * @param meterRegistry メトリクス登録先
+	 * @param retentionMonths 保持する月数（当月を含まない）
+	 * @param monthsAhead 事前に用意するパーティションの月数
+	 * @param mode 切り離した履歴の扱い
+	 * @param initialDelay 起動完了から初回の実行までの待ち時間
+	 * @param interval 実行間隔
+	 */
+	public HistoryRetentionJob(
+			HistoryPartitionManager partitions,
+			HistoryCounterService counters,
+			@Qualifier("historyMaintenanceTaskScheduler") TaskScheduler scheduler,
+			MeterRegistry meterRegistry,
+			@Value("${exchange.history.retention.months:12}") int retentionMonths,
+			@Value("${exchange.history.partitioning.months-ahead:3}") int monthsAhead,
+			@Value("${exchange.history.retention.mode:archive}") Mode mode,
+			@Value("${exchange.history.retention.initial-delay:PT1M}") Duration initialDelay,
+			@Value("${exchange.history.retention.interval:PT24H}") Duration interval) {
+		if (retentionMonths < 1) {
+			throw new IllegalArgumentException("exchange.history.retention.months must be at least 1");
+		}
+		this.partitions = partitions;
+		this.counters = counters;
+		this.scheduler = scheduler;
+		this.retentionMonths = retentionMonths;
+		this.monthsAhead = monthsAhead;
+		this.mode = mode;
+		this.initialDelay = initialDelay;
+		this.interval = interval;
+
+		this.detachedPartitions = Counter.builder("exchange.history.retention.partitions")
+				.description("Monthly conversion history partitions detached by the retention job")
+				.register(meterRegistry);
+		this.detachedRows = Counter.builder("exchange.history.retention.rows")
+				.description("Conversion history rows detached by the retention job")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 起動完了後、初回の実行と以降の定期実行を予約する
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		scheduler.scheduleWithFixedDelay(this::runSafely, Instant.now().plus(initialDelay), interval);
+	}
+
+	/**
+	 * 現在日時を基準に、保持期間を過ぎた履歴を切り離し、先の月のパーティションを用意する
+	 *
+	 * @return 切り離した履歴の件数
+	 */
+	public long run() {
+		return run(YearMonth.now());
+	}
+
+	/**
+	 * 指定した月を当月として、保持期間を過ぎた履歴を切り離し、先の月のパーティションを用意する
+	 *
+	 * @param current 当月
+	 * @return 切り離した履歴の件数
+	 */
+	public long run(YearMonth current) {
+		partitions.ensurePartitionsThrough(current.plusMonths(monthsAhead));
+
+		LocalDate cutoff = current.minusMonths(retentionMonths).atDay(1);
+		long rows = 0;
+		for (HistoryPartitionManager.DetachedPartition p : partitions.detachBefore(cutoff)) {
+			counters.recordRemoved(p.removed());
+			long count = p.removed().stream().mapToLong(HistoryCounter::getTotalCount).sum();
+			if (mode == Mode.DROP) {
+				partitions.dropArchive(p.archiveTable());
+			}
+			detachedPartitions.increment();
+			detachedRows.increment(count);
+			rows += count;
+			logger.info("Conversion history before {} removed from the live table: {} rows ({})",
+					p.upperBound(), count, mode == Mode.DROP ? "dropped" : "archived in " + p.archiveTable());
+		}
+		return rows;
+	}
+
+	private void runSafely() {
+		try {
+			run();
+		} catch (RuntimeException e) {
+			// 次回の実行で再試行する
+			logger.warn("Conversion history retention failed: {}", e.toString());
+		}
+	}
+}
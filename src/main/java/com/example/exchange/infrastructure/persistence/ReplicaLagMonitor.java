@@ -0,0 +1,167 @@
+package com.example.exchange.infrastructure.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 読み取り用レプリカのレプリケーション遅延を定期的に確認し、読み込みに使えるかどうかを判定する
+ *
+ * ・遅延が maxLag 以下の場合のみ使用可能とする（遅延が不明・レプリケーションの停止・接続できない場合は使用しない）
+ * ・遅延は lagQuery（遅延の秒数を返すクエリ）で取得する。未指定の場合は MySQL の SHOW REPLICA STATUS の
+ * 		Seconds_Behind_Source を使う（レプリケーションを構成していない DB は遅延なしとみなす）
+ * ・起動直後は、最初の確認が終わるまで使用しない
+ * ・接続に失敗した場合は ReplicaRoutingDataSource から markUnavailable() が呼ばれ、次の確認まで使用しない
+ *
+ * 使用可能かどうか・遅延（秒）をメトリクスとして公開する。
+ */
+public class ReplicaLagMonitor {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+	/** lagQuery を指定しない場合に使うクエリ（MySQL 8.0.22 以降） */
+	private static final String REPLICA_STATUS_QUERY = "SHOW REPLICA STATUS";
+
+	private final JdbcTemplate replica;
+	private final TaskScheduler scheduler;
+
+	/** 遅延の秒数を返すクエリ（空の場合は SHOW REPLICA STATUS） */
+	private final String lagQuery;
+
+	/** 読み込みに使う遅延の上限 */
+	private final Duration maxLag;
+
+	/** 確認の間隔 */
+	private final Duration checkInterval;
+
+	private volatile boolean available;
+
+	/** 最後に確認した遅延（不明の場合は null） */
+	private volatile Duration lag;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param replica 読み取り用レプリカ
+	 * @param scheduler 確認に使用するスケジューラ
+	 * @param meterRegistry メトリクス登録先
+	 * @param lagQuery 遅延の秒数を返すクエリ（空の場合は SHOW REPLICA STATUS）
+	 * @param maxLag 読み込みに使う遅延の上限
+	 * @param checkInterval 確認の間隔
+	 */
+	public ReplicaLagMonitor(DataSource replica, TaskScheduler scheduler, MeterRegistry meterRegistry,
+			String lagQuery, Duration maxLag, Duration checkInterval) {
+		this.replica = new JdbcTemplate(replica);
+		this.scheduler = scheduler;
+		this.lagQuery = lagQuery == null ? "" : lagQuery.trim();
+		this.maxLag = maxLag;
+		this.checkInterval = checkInterval;
+
+		Gauge.builder("exchange.datasource.replica.available", this, m -> m.available ? 1 : 0)
+				.description("Whether read-only transactions are routed to the replica")
+				.register(meterRegistry);
+		Gauge.builder("exchange.datasource.replica.lag", this,
+				m -> m.lag == null ? Double.NaN : m.lag.toMillis() / 1000.0)
+				.description("Replication lag of the replica in seconds (NaN when unknown)")
+				.baseUnit("seconds")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * 起動完了後、直ちに1回確認し、以降は checkInterval ごとに確認する
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		scheduler.scheduleWithFixedDelay(this::check, Instant.now(), checkInterval);
+	}
+
+	/**
+	 * 遅延を確認し、読み込みに使えるかどうかを更新する
+	 *
+	 * @return 読み込みに使える場合は true
+	 */
+	public boolean check() {
+		Duration measured;
+		try {
+			measured = measureLag();
+		} catch (DataAccessException e) {
+			lag = null;
+			markUnavailable(e);
+			return false;
+		}
+		lag = measured;
+		if (measured == null) {
+			update(false, "replication is not running");
+		} else if (measured.compareTo(maxLag) > 0) {
+			update(false, "lag " + measured + " exceeds " + maxLag);
+		} else {
+			update(true, null);
+		}
+		return available;
+	}
+
+	/**
+	 * 読み込みに使えるかどうか
+	 *
+	 * @return 読み込みに使える場合は true
+	 */
+	public boolean isAvailable() {
+		return available;
+	}
+
+	/**
+	 * 最後に確認した遅延
+	 *
+	 * @return 遅延（不明の場合は null）
+	 */
+	public Duration lag() {
+		return lag;
+	}
+
+	/**
+	 * 次に確認するまで読み込みに使わない（接続に失敗した場合など）
+	 *
+	 * @param cause 原因
+	 */
+	public void markUnavailable(Throwable cause) {
+		update(false, cause.toString());
+	}
+
+	private Duration measureLag() {
+		if (lagQuery.isEmpty()) {
+			List<Long> seconds = replica.query(REPLICA_STATUS_QUERY, (rs, i) -> {
+				long s = rs.getLong("Seconds_Behind_Source");
+				return rs.wasNull() ? null : s;
+			});
+			if (seconds.isEmpty()) {
+				// レプリケーションを構成していない DB（開発環境でプライマリと同じ DB を指定した場合など）
+				return Duration.ZERO;
+			}
+			return seconds.get(0) == null ? null : Duration.ofSeconds(seconds.get(0));
+		}
+		Double seconds = replica.queryForObject(lagQuery, Double.class);
+		return seconds == null ? null : Duration.ofMillis(Math.round(seconds * 1000));
+	}
+
+	private synchronized void update(boolean nowAvailable, String reason) {
+		if (available && !nowAvailable) {
+			logger.warn("Read-only transactions fall back to the primary: {}", reason);
+		} else if (!available && nowAvailable) {
+			logger.info("Read-only transactions are routed to the replica (lag {})", lag);
+		}
+		available = nowAvailable;
+	}
+}
@@ -0,0 +1,117 @@
+package com.example.exchange.infrastructure.persistence;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 読み取り専用のトランザクションを読み取り用レプリカへ、それ以外をプライマリへ振り分ける DataSource
+ *
+ * ・レプリカへ振り分けるのは、routedPrefix で始まるクラス（サービス層）で開始した
+ * 		@Transactional(readOnly = true) のトランザクションのみとする
+ * 		（Spring Data のリポジトリが既定で開始する読み取り専用のトランザクションはプライマリで読む。
+ * 		ログイン・重複チェック・更新前の読み込みが、レプリカへ未反映の行を見落とさないようにする）
+ * ・レプリカの遅延が上限を超えている場合（ReplicaLagMonitor）・接続に失敗した場合はプライマリで読む
+ * ・振り分けはトランザクションの開始後に決まるため、LazyConnectionDataSourceProxy で包み、
+ * 		最初の SQL の実行時に接続を取得する
+ *
+ * 振り分け先ごとの接続の取得回数をメトリクス（exchange.datasource.route）として公開する。
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	/** 振り分け先 */
+	public enum Target {
+		PRIMARY,
+		REPLICA
+	}
+
+	private final DataSource primary;
+	private final ReplicaLagMonitor monitor;
+
+	/** レプリカへ振り分けるトランザクションを開始したクラスの接頭辞 */
+	private final String routedPrefix;
+
+	private final Counter primaryRoutes;
+	private final Counter replicaRoutes;
+	private final Counter fallbackRoutes;
+
+	/**
+	 * コンストラクタ
+	 *
+	 * @param primary プライマリ
+	 * @param replica 読み取り用レプリカ
+	 * @param monitor レプリカの遅延の監視
+	 * @param meterRegistry メトリクス登録先
+	 * @param routedPrefix レプリカへ振り分けるトランザクションを開始したクラスの接頭辞（パッケージ名など）
+	 */
+	public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor,
+			MeterRegistry meterRegistry, String routedPrefix) {
+		this.primary = primary;
+		this.monitor = monitor;
+		this.routedPrefix = routedPrefix;
+		setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+
+		this.primaryRoutes = route(meterRegistry, "primary");
+		this.replicaRoutes = route(meterRegistry, "replica");
+		this.fallbackRoutes = route(meterRegistry, "fallback");
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return isRoutedToReplica() && monitor.isAvailable() ? Target.REPLICA : Target.PRIMARY;
+	}
+
+	/**
+	 * 振り分け先から接続を取得する（レプリカへ接続できない場合はプライマリから取得する）
+	 */
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (determineCurrentLookupKey() == Target.PRIMARY) {
+			primaryRoutes.increment();
+			return primary.getConnection();
+		}
+		try {
+			Connection connection = determineTargetDataSource().getConnection();
+			replicaRoutes.increment();
+			return connection;
+		} catch (SQLException e) {
+			monitor.markUnavailable(e);
+			fallbackRoutes.increment();
+			return primary.getConnection();
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		// 接続ごとに認証情報を指定する使い方はしない（プールの設定を使う）
+		return getConnection();
+	}
+
+	/**
+	 * 現在のトランザクションをレプリカへ振り分けるかどうか
+	 */
+	private boolean isRoutedToReplica() {
+		if (!TransactionSynchronizationManager.isActualTransactionActive()
+				|| !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return false;
+		}
+		String name = TransactionSynchronizationManager.getCurrentTransactionName();
+		return name != null && name.startsWith(routedPrefix);
+	}
+
+	private static Counter route(MeterRegistry meterRegistry, String target) {
+		return Counter.builder("exchange.datasource.route")
+				.description("Connections obtained for transactions, by the database they were routed to")
+				.tag("target", target)
+				.register(meterRegistry);
+	}
+}
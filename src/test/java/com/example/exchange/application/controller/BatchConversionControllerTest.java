@@ -0,0 +1,216 @@
+package com.example.exchange.application.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.domain.service.HistoryCounterService;
+import com.example.exchange.domain.service.RateCache;
+import com.example.exchange.support.StubRateServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 一括変換 API（JSON 配列・NDJSON）が入力順に結果を返し、
+ * 項目ごとのエラーを他の項目に影響させず、履歴を保存し終えてから応答することを確認するテスト
+ *
+ * ・Basic 認証で CSRF トークン無しに呼び出せ、認証できない場合は 401 を返す
+ * ・JSON 配列は最大件数を超えた時点で読み込みをやめる（残りの本文は解析しない）
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BatchConversionControllerTest {
+
+	private static StubRateServer stub;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RateCache rateCache;
+
+	@Autowired
+	private HistoryCounterService counters;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@BeforeAll
+	static void startStub() throws Exception {
+		stub = StubRateServer.start();
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	@DynamicPropertySource
+	static void apiProperties(DynamicPropertyRegistry registry) {
+		registry.add("exchange.api.base-url", () -> stub.baseUrl());
+		registry.add("exchange.api.read-timeout", () -> "PT0.5S");
+		registry.add("exchange.conversion.batch.max-items", () -> "5");
+	}
+
+	@BeforeEach
+	void resetStub() {
+		stub.setFailureStatus(0);
+		stub.setRate(new BigDecimal("150.0000"));
+	}
+
+	@Test
+	void jsonBatchReturnsResultsInInputOrderWithPerItemErrors() throws Exception {
+		int requestsBefore = stub.requestCount();
+		String body = """
+				[
+				  {"amount": 10, "base": "CHF", "target": "SEK"},
+				  {"amount": "abc", "base": "CHF", "target": "SEK"},
+				  {"base": "CHF", "target": "SEK"},
+				  {"amount": 20, "base": "CHF", "target": "SEK"},
+				  {"amount": 1.005, "base": "CHF", "target": "SEK"}
+				]
+				""";
+
+		MvcResult started = mockMvc.perform(post("/convert/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body)
+				.with(user("batch-json"))
+				.with(csrf()))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(5))
+				.andExpect(jsonPath("$[0].index").value(0))
+				.andExpect(jsonPath("$[0].result.convertedAmount").value(1500.00))
+				.andExpect(jsonPath("$[1].error").exists())
+				.andExpect(jsonPath("$[1].result").doesNotExist())
+				.andExpect(jsonPath("$[2].error").value("amount is required"))
+				.andExpect(jsonPath("$[3].result.convertedAmount").value(3000.00))
+				.andExpect(jsonPath("$[4].index").value(4))
+				.andExpect(jsonPath("$[4].result.amount").value(1.01));
+
+		// 通貨ペアのレートは1回だけ取得し、成功した3件の履歴は応答時点で保存済み
+		assertThat(stub.requestCount() - requestsBefore).isEqualTo(1);
+		assertThat(counters.countActive("batch-json")).isEqualTo(3);
+	}
+
+	@Test
+	void ndjsonBatchReportsUnavailablePairWithoutFailingOthers() throws Exception {
+		rateCache.put(new RateQuote("NZD", "CAD", new BigDecimal("0.8123"), LocalDateTime.now()));
+		stub.setFailureStatus(500);
+		String body = """
+				{"amount": 100, "base": "NZD", "target": "CAD"}
+
+				{"amount": 100, "base": "KRW", "target": "SEK"}
+				not json
+				{"amount": 50, "base": "NZD", "target": "CAD"}
+				""";
+
+		MvcResult started = mockMvc.perform(post("/convert/batch")
+				.contentType("application/x-ndjson")
+				.accept("application/x-ndjson")
+				.content(body)
+				.with(user("batch-ndjson"))
+				.with(csrf()))
+				.andReturn();
+
+		String response = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = response.split("\n");
+		assertThat(lines).hasSize(4);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertThat(first.get("index").asInt()).isZero();
+		assertThat(first.get("result").get("convertedAmount").decimalValue()).isEqualByComparingTo("81.23");
+		assertThat(objectMapper.readTree(lines[1]).get("error").asText()).contains("KRW");
+		assertThat(objectMapper.readTree(lines[2]).get("error").asText()).startsWith("invalid item");
+		assertThat(objectMapper.readTree(lines[3]).get("result").get("convertedAmount").decimalValue())
+				.isEqualByComparingTo("40.62");
+
+		assertThat(counters.countActive("batch-ndjson")).isEqualTo(2);
+	}
+
+	@Test
+	void rejectsNonArrayAndOversizedBatches() throws Exception {
+		mockMvc.perform(post("/convert/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"amount\": 10, \"base\": \"CHF\", \"target\": \"SEK\"}")
+				.with(user("batch-json"))
+				.with(csrf()))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(post("/convert/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{}, {}, {}, {}, {}, {}]")
+				.with(user("batch-json"))
+				.with(csrf()))
+				.andExpect(status().isPayloadTooLarge());
+
+		// 最大件数を超えた時点で 413（その先の壊れた本文までは読まない）
+		mockMvc.perform(post("/convert/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{}, {}, {}, {}, {}, {}, not json")
+				.with(user("batch-json"))
+				.with(csrf()))
+				.andExpect(status().isPayloadTooLarge());
+
+		mockMvc.perform(post("/convert/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{}, not json")
+				.with(user("batch-json"))
+				.with(csrf()))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void acceptsBasicAuthWithoutCsrfToken() throws Exception {
+		rateCache.put(new RateQuote("AUD", "NOK", new BigDecimal("7.0000"), LocalDateTime.now()));
+
+		MvcResult started = mockMvc.perform(post("/convert/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"amount\": 10, \"base\": \"AUD\", \"target\": \"NOK\"}]")
+				.with(httpBasic("admin", "adminpass")))
+				.andExpect(header().doesNotExist("Set-Cookie"))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].result.convertedAmount").value(70.00));
+
+		mockMvc.perform(post("/convert/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[]"))
+				.andExpect(status().isUnauthorized())
+				.andExpect(header().exists("WWW-Authenticate"));
+		mockMvc.perform(post("/convert/batch")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[]")
+				.with(httpBasic("admin", "wrong")))
+				.andExpect(status().isUnauthorized());
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.exchange.application.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.HistoryCounter;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.domain.service.HistoryCounterService;
+import com.example.exchange.infrastructure.persistence.ConversionHistoryWriter;
+
+/**
+ * 管理者の一括操作（論理削除・復元・完全削除）が、条件・選択した ID に一致する履歴だけを
+ * バッチに分けて更新し、処理件数を一覧画面へ返し、件数の表示と一致し続けることを確認するテスト
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BulkHistoryOperationTest {
+
+	private static final String SPAM = "spammer";
+	private static final String OTHER = "bystander";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ConversionHistoryWriter historyWriter;
+
+	@Autowired
+	private HistoryCounterService counters;
+
+	@Autowired
+	private CurrencyRateRepository rateRepository;
+
+	@Autowired
+	private RateSnapshotRepository snapshotRepository;
+
+	@Test
+	void bulkOperationsAffectOnlyMatchingRowsAndReportCounts() throws Exception {
+		LocalDateTime base = LocalDateTime.of(2026, 5, 1, 12, 0);
+		RateSnapshot usdJpy = snapshotRepository.save(new RateSnapshot("USD", "JPY", new BigDecimal("150.0000"), base));
+		RateSnapshot eurJpy = snapshotRepository.save(new RateSnapshot("EUR", "JPY", new BigDecimal("160.0000"), base));
+		// spammer：USD/JPY 5件（5月1日〜5日）、EUR/JPY 2件。bystander：USD/JPY 2件
+		List<CurrencyRate> rows = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			rows.add(history(SPAM, usdJpy, base.plusDays(i)));
+		}
+		rows.add(history(SPAM, eurJpy, base));
+		rows.add(history(SPAM, eurJpy, base.plusDays(1)));
+		rows.add(history(OTHER, usdJpy, base));
+		rows.add(history(OTHER, usdJpy, base.plusDays(1)));
+		historyWriter.writeNow(rows);
+		HistoryCounter globalBefore = counters.global();
+
+		// 条件指定：spammer の USD/JPY のうち 5月2日〜4日（上限を含まない）の3件を論理削除（バッチ 3件 → 2回に分かれる）
+		admin("/admin/rates/bulk-delete", "username", SPAM, "base", "USD", "target", "JPY",
+				"from", "2026-05-02T00:00", "to", "2026-05-05T00:00")
+				.andExpect(redirectedUrl("/admin/rates?bulk=delete&affected=3"));
+		assertThat(counters.countActive(SPAM)).isEqualTo(4);
+		assertThat(counters.countActive(OTHER)).isEqualTo(2);
+
+		// ID 指定：論理削除済みの2件と未削除の1件を選んで復元 → 論理削除済みの2件だけが復元される
+		List<Long> deletedIds = rateRepository.findAll().stream()
+				.filter(r -> r.getUsername().equals(SPAM) && r.isDeleted())
+				.map(CurrencyRate::getId)
+				.toList();
+		Long activeId = rows.get(0).getId();
+		admin("/admin/rates/bulk-restore", "ids", String.valueOf(deletedIds.get(0)), "ids",
+				String.valueOf(deletedIds.get(1)), "ids", String.valueOf(activeId))
+				.andExpect(redirectedUrl("/admin/rates?bulk=restore&affected=2"));
+		assertThat(counters.countActive(SPAM)).isEqualTo(6);
+
+		// ユーザ指定：spammer の全履歴を完全削除（論理削除済みの1件を含む）
+		admin("/admin/rates/bulk-hard-delete", "username", SPAM)
+				.andExpect(redirectedUrl("/admin/rates?bulk=hard-delete&affected=7"));
+		mockMvc.perform(get("/admin/rates").param("bulk", "hard-delete").param("affected", "7")
+				.with(user("admin").roles("ADMIN")))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("一括完全削除")));
+		assertThat(rateRepository.findAll()).noneMatch(r -> r.getUsername().equals(SPAM));
+		assertThat(counters.countActive(SPAM)).isZero();
+		assertThat(counters.countActive(OTHER)).isEqualTo(2);
+		assertThat(counters.global().getTotalCount()).isEqualTo(globalBefore.getTotalCount() - 7);
+		assertThat(counters.global().getActiveCount()).isEqualTo(globalBefore.getActiveCount() - 7);
+
+		// 条件が無い場合は何もしない
+		admin("/admin/rates/bulk-hard-delete", "username", " ")
+				.andExpect(redirectedUrl("/admin/rates?bulkError"));
+		assertThat(counters.countActive(OTHER)).isEqualTo(2);
+
+		// 管理者以外は実行できない
+		mockMvc.perform(post("/admin/rates/bulk-hard-delete").param("username", OTHER).with(user(OTHER)).with(csrf()))
+				.andExpect(status().isForbidden());
+	}
+
+	private ResultActions admin(String path, String... params) throws Exception {
+		MockHttpServletRequestBuilder request = post(path).with(user("admin").roles("ADMIN")).with(csrf());
+		for (int i = 0; i < params.length; i += 2) {
+			request.param(params[i], params[i + 1]);
+		}
+		return mockMvc.perform(request).andExpect(status().is3xxRedirection());
+	}
+
+	private static CurrencyRate history(String username, RateSnapshot snapshot, LocalDateTime at) {
+		return new CurrencyRate(username, snapshot.getBaseCurrency(), snapshot.getTargetCurrency(), snapshot,
+				new BigDecimal("10.00"), new BigDecimal("1500.00"), at);
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.exchange.application.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.exchange.support.FormLogin;
+import com.example.exchange.support.StubRateServer;
+
+/**
+ * Tomcat のスレッド数を絞った状態で、スレッド数を大きく超える /convert が
+ * 同時に処理中（外部 API の応答待ち）になれることを確認する負荷テスト
+ *
+ * スタブサーバは全ての応答を保留し、同時に届いたリクエスト数を数える。
+ * 保留中の件数が Tomcat のスレッド数を超えることで、応答待ちの間に
+ * リクエスト処理スレッドが解放されていることを確認する。
+ */
+@SpringBootTest(
+		webEnvironment = WebEnvironment.RANDOM_PORT,
+		properties = {
+				"server.tomcat.threads.max=" + CurrencyControllerAsyncLoadTest.TOMCAT_THREADS,
+				"server.tomcat.threads.min-spare=1",
+				"exchange.api.read-timeout=PT30S",
+				"exchange.rate-fetch.timeout=PT30S",
+				"spring.mvc.async.request-timeout=PT30S"
+		})
+class CurrencyControllerAsyncLoadTest {
+
+	static final int TOMCAT_THREADS = 4;
+	private static final int REQUESTS = 200;
+
+	private static StubRateServer stub;
+
+	@LocalServerPort
+	private int port;
+
+	@BeforeAll
+	static void startStub() throws Exception {
+		stub = StubRateServer.start();
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	@DynamicPropertySource
+	static void apiProperties(DynamicPropertyRegistry registry) {
+		registry.add("exchange.api.base-url", () -> stub.baseUrl());
+	}
+
+	@Test
+	void inFlightConversionsExceedTomcatThreads() throws Exception {
+		HttpClient client = FormLogin.login("http://localhost:" + port, "admin", "adminpass");
+
+		stub.holdResponses();
+		List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+		for (int i = 0; i < REQUESTS; i++) {
+			// 通貨ペアを全て異なるものにし、取得処理がまとめられないようにする
+			String base = String.format("C%03d", i);
+			responses.add(client.sendAsync(
+					HttpRequest.newBuilder(uri("/convert?amount=100&base=" + base + "&target=JPY")).GET().build(),
+					HttpResponse.BodyHandlers.ofString()));
+		}
+
+		try {
+			assertThat(stub.awaitInFlight(REQUESTS, Duration.ofSeconds(30)))
+					.as("in-flight upstream calls (max observed %d)", stub.maxInFlight())
+					.isTrue();
+		} finally {
+			stub.releaseResponses();
+		}
+
+		for (CompletableFuture<HttpResponse<String>> response : responses) {
+			HttpResponse<String> r = response.get();
+			assertThat(r.statusCode()).isEqualTo(200);
+			assertThat(r.body()).contains("\"convertedAmount\":15012.34");
+		}
+		assertThat(stub.maxInFlight()).isGreaterThan(TOMCAT_THREADS * 10);
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.exchange.application.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.exchange.infrastructure.api.CurrencyRateApiClient;
+
+/**
+ * 同時に大量の /convert が届いても、外部 API の呼び出しが
+ * 通貨ペアごとに1回へまとめられることを確認するテスト
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CurrencyControllerConcurrencyTest {
+
+	private static final int REQUESTS = 2000;
+	private static final int CLIENT_THREADS = 64;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private CurrencyRateApiClient apiClient;
+
+	@Test
+	void concurrentConvertsTriggerSingleUpstreamFetch() throws Exception {
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		when(apiClient.getRateAsync("GBP", "HKD")).thenAnswer(inv -> {
+			upstreamCalls.incrementAndGet();
+			// 取得中に後続リクエストが到着するよう、遅い API を模擬する
+			return CompletableFuture.supplyAsync(() -> new BigDecimal("9.8765"),
+					CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS));
+		});
+
+		ExecutorService clients = Executors.newFixedThreadPool(CLIENT_THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> statuses = new ArrayList<>();
+		try {
+			for (int i = 0; i < REQUESTS; i++) {
+				String username = "user" + (i % 100);
+				statuses.add(clients.submit(() -> {
+					start.await();
+					MvcResult started = mockMvc.perform(get("/convert")
+							.param("amount", "100")
+							.param("base", "GBP")
+							.param("target", "HKD")
+							.with(user(username)))
+							.andReturn();
+					return mockMvc.perform(asyncDispatch(started)).andReturn().getResponse().getStatus();
+				}));
+			}
+			start.countDown();
+
+			for (Future<Integer> status : statuses) {
+				assertThat(status.get(60, TimeUnit.SECONDS)).isEqualTo(200);
+			}
+		} finally {
+			clients.shutdownNow();
+		}
+
+		assertThat(upstreamCalls.get()).isEqualTo(1);
+		verify(apiClient, times(1)).getRateAsync("GBP", "HKD");
+	}
+}
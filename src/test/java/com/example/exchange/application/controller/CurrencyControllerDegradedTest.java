@@ -0,0 +1,93 @@
+package com.example.exchange.application.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.support.StubRateServer;
+
+/**
+ * 外部 API が障害中でも、最後に保存したレートで変換を続け、
+ * レスポンスに degraded を立てることを確認するテスト
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CurrencyControllerDegradedTest {
+
+	private static StubRateServer stub;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RateSnapshotRepository snapshotRepository;
+
+	@BeforeAll
+	static void startStub() throws Exception {
+		stub = StubRateServer.start();
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	@DynamicPropertySource
+	static void apiProperties(DynamicPropertyRegistry registry) {
+		registry.add("exchange.api.base-url", () -> stub.baseUrl());
+		registry.add("exchange.api.read-timeout", () -> "PT0.5S");
+	}
+
+	@Test
+	void upstreamFailureFallsBackToLastStoredRate() throws Exception {
+		// hard TTL（24時間）を過ぎた保存済みレートのみが存在する状態
+		snapshotRepository.save(new RateSnapshot("EUR", "JPY", new BigDecimal("160.5000"),
+				LocalDateTime.now().minusDays(2)));
+		stub.setFailureStatus(500);
+
+		MvcResult started = mockMvc.perform(get("/convert")
+				.param("amount", "10")
+				.param("base", "EUR")
+				.param("target", "JPY")
+				.with(user("alice")))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.convertedAmount").value(1605.00))
+				.andExpect(jsonPath("$.degraded").value(true));
+	}
+
+	@Test
+	void upstreamFailureWithoutStoredRateIsUnavailable() throws Exception {
+		stub.setFailureStatus(500);
+
+		MvcResult started = mockMvc.perform(get("/convert")
+				.param("amount", "10")
+				.param("base", "KRW")
+				.param("target", "AUD")
+				.with(user("alice")))
+				.andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isServiceUnavailable());
+	}
+}
@@ -0,0 +1,196 @@
+package com.example.exchange.application.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.exchange.application.dto.CurrencyRateDto;
+import com.example.exchange.application.dto.CursorPageDto;
+import com.example.exchange.application.dto.HistoryDto;
+import com.example.exchange.application.mapper.CurrencyRateMapper;
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.HistoryCursor;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.domain.service.CurrencyRateService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * キーセット（シーク）ページングで、同じ変換日時の行を含めて漏れ・重複なく前後のページを辿れること、
+ * 画面と JSON API が同じカーソルの契約で動くこと、
+ * 列の射影で組み立てたページがエンティティから変換した DTO と同じ内容になることを確認するテスト
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class HistoryPaginationTest {
+
+	private static final String USER = "pager";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CurrencyRateService rateService;
+
+	@Autowired
+	private CurrencyRateRepository rateRepository;
+
+	@Autowired
+	private RateSnapshotRepository snapshotRepository;
+
+	@Autowired
+	private CurrencyRateMapper mapper;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/** 表示されるべき履歴（新しい順・テストクラスで1回だけ登録する） */
+	private static List<CurrencyRate> expected;
+
+	@BeforeEach
+	void seed() {
+		if (expected != null) {
+			return;
+		}
+		LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+		RateSnapshot snapshot = snapshotRepository.save(
+				new RateSnapshot("USD", "JPY", new BigDecimal("150.0000"), base.minusDays(1)));
+		List<CurrencyRate> rows = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			// 3件ずつ同じ変換日時にし、ID による並びの確定を確認する
+			rows.add(new CurrencyRate(USER, "USD", "JPY", snapshot, new BigDecimal(i), new BigDecimal(150 * i),
+					base.minusMinutes(i / 3)));
+		}
+		CurrencyRate deleted = new CurrencyRate(USER, "USD", "JPY", snapshot, BigDecimal.ONE, new BigDecimal("150"),
+				base.minusMinutes(2));
+		deleted.setDeleted(true);
+		rows.add(deleted);
+		rateRepository.saveAll(rows);
+
+		expected = rows.stream()
+				.filter(r -> !r.isDeleted())
+				.sorted(Comparator.comparing(CurrencyRate::getFetchedAt).thenComparing(CurrencyRate::getId).reversed())
+				.toList();
+	}
+
+	@Test
+	void walksUserHistoryForwardAndBackWithoutGapsOrDuplicates() {
+		List<CursorPageDto<HistoryDto>> pages = new ArrayList<>();
+		CursorPageDto<HistoryDto> page = rateService.getHistoryPage(USER, null, null, 10);
+		pages.add(page);
+		while (page.getNextCursor() != null) {
+			page = rateService.getHistoryPage(USER, HistoryCursor.valueOf(page.getNextCursor()), null, 10);
+			pages.add(page);
+		}
+
+		assertThat(pages).extracting(p -> p.getContent().size()).containsExactly(10, 10, 5);
+		assertThat(pages.get(0).getPreviousCursor()).isNull();
+		assertThat(pages.stream().flatMap(p -> p.getContent().stream()).map(HistoryDto::getId).toList())
+				.containsExactlyElementsOf(expected.stream().map(CurrencyRate::getId).toList());
+
+		// 最後のページから前のページへ戻ると、2ページ目と同じ内容になる
+		CursorPageDto<HistoryDto> back = rateService.getHistoryPage(USER, null,
+				HistoryCursor.valueOf(pages.get(2).getPreviousCursor()), 10);
+		assertThat(back.getContent()).extracting(HistoryDto::getId)
+				.containsExactlyElementsOf(pages.get(1).getContent().stream().map(HistoryDto::getId).toList());
+		assertThat(back.getNextCursor()).isEqualTo(pages.get(1).getNextCursor());
+
+		// さらに戻ると先頭ページ（前のページは無い）
+		CursorPageDto<HistoryDto> first = rateService.getHistoryPage(USER, null,
+				HistoryCursor.valueOf(back.getPreviousCursor()), 10);
+		assertThat(first.getPreviousCursor()).isNull();
+		assertThat(first.getContent()).extracting(HistoryDto::getId)
+				.containsExactlyElementsOf(pages.get(0).getContent().stream().map(HistoryDto::getId).toList());
+	}
+
+	@Test
+	void walksAdminListingByDescendingId() {
+		List<Long> ids = new ArrayList<>();
+		CursorPageDto<CurrencyRateDto> page = rateService.findAllPage(null, null, 7);
+		ids.addAll(page.getContent().stream().map(CurrencyRateDto::getId).toList());
+		while (page.getNextCursor() != null) {
+			page = rateService.findAllPage(HistoryCursor.valueOf(page.getNextCursor()), null, 7);
+			ids.addAll(page.getContent().stream().map(CurrencyRateDto::getId).toList());
+		}
+
+		assertThat(ids).hasSize((int) rateRepository.count()).doesNotHaveDuplicates();
+		assertThat(ids).isSortedAccordingTo(Comparator.reverseOrder());
+	}
+
+	@Test
+	void jsonApiUsesTheSameCursorContract() throws Exception {
+		String next = rateService.getHistoryPage(USER, null, null, 10).getNextCursor();
+
+		mockMvc.perform(get("/api/history")
+				.param("after", next)
+				.param("size", "10")
+				.with(user(USER)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content.length()").value(10))
+				.andExpect(jsonPath("$.content[0].id").value(expected.get(10).getId()))
+				.andExpect(jsonPath("$.nextCursor").isNotEmpty())
+				.andExpect(jsonPath("$.previousCursor").isNotEmpty());
+
+		mockMvc.perform(get("/exchange/history")
+				.param("after", next)
+				.with(user(USER)))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/history")
+				.param("after", "not-a-cursor")
+				.with(user(USER)))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(get("/api/admin/rates").with(user(USER)))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/api/admin/rates").with(user("admin").roles("ADMIN")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.size").value(10));
+	}
+
+	@Test
+	void projectedPagesMatchEntityMappedDtos() {
+		CursorPageDto<HistoryDto> page = rateService.getHistoryPage(USER, null, null, 20);
+		List<HistoryDto> fromEntities = entityManager.createQuery("""
+						select r from CurrencyRate r join fetch r.snapshot
+						where r.username = :username and r.deleted = false
+						order by r.fetchedAt desc, r.id desc""", CurrencyRate.class)
+				.setParameter("username", USER)
+				.setMaxResults(20)
+				.getResultList().stream()
+				.map(mapper::toHistoryDto)
+				.toList();
+		assertThat(page.getContent()).usingRecursiveFieldByFieldElementComparator()
+				.containsExactlyElementsOf(fromEntities);
+
+		CursorPageDto<CurrencyRateDto> adminPage = rateService.findAllPage(null, null, 30);
+		List<CurrencyRateDto> adminFromEntities = entityManager.createQuery("""
+						select r from CurrencyRate r join fetch r.snapshot
+						order by r.id desc""", CurrencyRate.class)
+				.setMaxResults(30)
+				.getResultList().stream()
+				.map(mapper::toDto)
+				.toList();
+		assertThat(adminPage.getContent()).usingRecursiveFieldByFieldElementComparator()
+				.containsExactlyElementsOf(adminFromEntities);
+	}
+}
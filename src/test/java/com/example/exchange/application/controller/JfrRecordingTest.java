@@ -0,0 +1,152 @@
+package com.example.exchange.application.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.exchange.domain.service.CurrencyConversionService;
+import com.example.exchange.infrastructure.persistence.ConversionHistoryWriter;
+import com.example.exchange.support.StubRateServer;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * 管理画面から JFR の記録を開始・停止・ダウンロードでき、
+ * 記録に変換・外部 API 呼び出し・履歴の保存のイベントが含まれることを確認するテスト
+ *
+ * ・変換のイベントは通貨ペア・ユーザ名のハッシュ（ユーザ名そのものではない）・レートの取得元を持つ
+ * ・記録の操作は管理者のみ
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class JfrRecordingTest {
+
+	private static StubRateServer stub;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CurrencyConversionService conversionService;
+
+	@Autowired
+	private ConversionHistoryWriter historyWriter;
+
+	@BeforeAll
+	static void startStub() throws Exception {
+		stub = StubRateServer.start();
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	@DynamicPropertySource
+	static void apiProperties(DynamicPropertyRegistry registry) {
+		registry.add("exchange.api.base-url", () -> stub.baseUrl());
+	}
+
+	@Test
+	void recordingContainsConversionApiAndHistoryEvents() throws Exception {
+		// 閾値 0 ms：全てのイベントを記録する
+		mockMvc.perform(admin(post("/admin/jfr/start").param("thresholdMs", "0")))
+				.andExpect(redirectedUrl("/admin/rates?jfr=started"));
+		mockMvc.perform(admin(post("/admin/jfr/start")))
+				.andExpect(redirectedUrl("/admin/rates?jfrError=running"));
+		mockMvc.perform(admin(get("/admin/rates")))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("記録中")));
+
+		// 1回目は外部 API から取得（同期）、2回目は共有キャッシュから取得（非同期）
+		conversionService.convertWithResult("jfr-user", new BigDecimal("100"), "CHF", "SEK");
+		conversionService.convertAsync("jfr-user", new BigDecimal("200"), "CHF", "SEK").join();
+		assertThat(historyWriter.flush(Duration.ofSeconds(10))).isTrue();
+
+		MvcResult started = mockMvc.perform(admin(get("/admin/jfr/dump"))).andReturn();
+		MvcResult dumped = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Disposition", endsWith(".jfr\"")))
+				.andReturn();
+		Path file = Files.createTempFile("jfr-test-", ".jfr");
+		try {
+			Files.write(file, dumped.getResponse().getContentAsByteArray());
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+			List<RecordedEvent> conversions = events.stream()
+					.filter(e -> e.getEventType().getName().equals("com.example.exchange.Conversion"))
+					.filter(e -> "CHF/SEK".equals(e.getString("pair")))
+					.toList();
+			assertThat(conversions).anySatisfy(e -> {
+				assertThat(e.getString("mode")).isEqualTo("sync");
+				assertThat(e.getString("rateSource")).isEqualTo("api");
+				assertThat(e.getString("outcome")).isEqualTo("fresh");
+				assertThat(e.getString("userHash")).isNotBlank().isNotEqualTo("jfr-user");
+				assertThat(e.getDuration("rateResolution")).isPositive();
+				assertThat(e.getDuration("dbLookup")).isPositive();
+			});
+			assertThat(conversions).anySatisfy(e -> {
+				assertThat(e.getString("mode")).isEqualTo("async");
+				assertThat(e.getString("rateSource")).isEqualTo("cache");
+			});
+			// 同じユーザは同じハッシュになる
+			assertThat(conversions).extracting(e -> e.getString("userHash")).containsOnly(
+					conversions.get(0).getString("userHash"));
+
+			assertThat(events).anyMatch(e -> e.getEventType().getName().equals("com.example.exchange.RateApiCall")
+					&& "CHF/SEK".equals(e.getString("pair")) && "success".equals(e.getString("outcome")));
+			assertThat(events).anyMatch(e -> e.getEventType().getName().equals("com.example.exchange.HistoryBatch")
+					&& "success".equals(e.getString("outcome")));
+		} finally {
+			Files.deleteIfExists(file);
+		}
+
+		mockMvc.perform(admin(post("/admin/jfr/stop")))
+				.andExpect(redirectedUrl("/admin/rates?jfr=stopped"));
+		mockMvc.perform(admin(get("/admin/rates")))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("停止中")));
+		mockMvc.perform(admin(post("/admin/jfr/stop")))
+				.andExpect(redirectedUrl("/admin/rates?jfrError=not-running"));
+	}
+
+	@Test
+	void recordingRequiresAdmin() throws Exception {
+		mockMvc.perform(post("/admin/jfr/start").with(user("someone").roles("USER")).with(csrf()))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/admin/jfr/dump").with(user("someone").roles("USER")))
+				.andExpect(status().isForbidden());
+	}
+
+	private static MockHttpServletRequestBuilder admin(MockHttpServletRequestBuilder request) {
+		return request.with(user("admin").roles("ADMIN")).with(csrf());
+	}
+}
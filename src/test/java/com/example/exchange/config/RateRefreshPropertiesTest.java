@@ -0,0 +1,54 @@
+package com.example.exchange.config;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 揺らぎ（jitter）が更新間隔以上の設定を、バインド時にエラーとすることを確認するテスト
+ * （次回の更新までの待ち時間が 0 以下になり、API を連続で呼び出すことを防ぐ）
+ */
+class RateRefreshPropertiesTest {
+
+	@Test
+	void acceptsJitterShorterThanEveryInterval() {
+		RateRefreshProperties properties = new RateRefreshProperties();
+		properties.setIntervals(Map.of("USD-JPY", Duration.ofMinutes(15)));
+
+		assertThatCode(properties::afterPropertiesSet).doesNotThrowAnyException();
+	}
+
+	@Test
+	void rejectsJitterNotShorterThanDefaultInterval() {
+		RateRefreshProperties properties = new RateRefreshProperties();
+		properties.setJitter(Duration.ofMinutes(45));
+
+		assertThatThrownBy(properties::afterPropertiesSet)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("default-interval");
+	}
+
+	@Test
+	void rejectsJitterNotShorterThanPairInterval() {
+		// 一括モードでは最短の通貨ペアの間隔が更新間隔になる
+		RateRefreshProperties properties = new RateRefreshProperties();
+		properties.setIntervals(Map.of("USD-JPY", Duration.ofMinutes(5)));
+
+		assertThatThrownBy(properties::afterPropertiesSet)
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("intervals.USD-JPY");
+	}
+
+	@Test
+	void skipsValidationWhenDisabled() {
+		RateRefreshProperties properties = new RateRefreshProperties();
+		properties.setEnabled(false);
+		properties.setJitter(Duration.ofHours(2));
+
+		assertThatCode(properties::afterPropertiesSet).doesNotThrowAnyException();
+	}
+}
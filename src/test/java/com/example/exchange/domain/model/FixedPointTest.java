@@ -0,0 +1,92 @@
+package com.example.exchange.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 固定小数点による金額の正規化・変換後金額の計算・レートの文字列化が、
+ * 従来の BigDecimal の計算（setScale / multiply / toPlainString）と同じ結果（scale を含めて一致）になることを確認するテスト
+ */
+class FixedPointTest {
+
+	/** 丸めの境界・符号・桁数の境界を含む入力 */
+	private static final List<String> AMOUNTS = List.of(
+			"0", "1", "100", "100.5", "0.005", "0.004", "-0.005", "-0.015", "12345.675", "999.995",
+			"1E+3", "0.00001", "-100", "99999999999999.99", "1.23456789");
+
+	private static final List<String> RATES = List.of(
+			"149.8523", "0.0067", "1.0000", "0.0001", "0.0000", "9999.9999", "-1.2345", "1234567.8901");
+
+	@Test
+	void matchesBigDecimalForEdgeCases() {
+		for (String amount : AMOUNTS) {
+			for (String rate : RATES) {
+				assertSameAsBigDecimal(new BigDecimal(amount), new BigDecimal(rate));
+			}
+		}
+	}
+
+	@Test
+	void matchesBigDecimalForRandomInputs() {
+		Random random = new Random(20261018);
+		for (int i = 0; i < 200_000; i++) {
+			// 金額：整数部 0〜9 桁・scale 0〜6（負数を含む）、レート：scale=4・整数部 0〜6 桁
+			BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000_000L, random.nextInt(7));
+			if (amount.precision() - amount.scale() > 9) {
+				amount = amount.movePointLeft(amount.precision() - amount.scale() - 9);
+			}
+			BigDecimal rate = BigDecimal.valueOf(Math.abs(random.nextLong() % 10_000_000_000L), 4);
+			assertSameAsBigDecimal(amount, rate);
+		}
+	}
+
+	@Test
+	void formatsLikeToPlainString() {
+		long[] values = { 0, 1, -1, 9, 10, 9999, 10000, -10000, 1498523, -67, Long.MAX_VALUE, Long.MIN_VALUE };
+		for (long v : values) {
+			for (int scale = 0; scale <= 6; scale++) {
+				assertThat(FixedPoint.toPlainString(v, scale))
+						.isEqualTo(BigDecimal.valueOf(v, scale).toPlainString());
+			}
+		}
+	}
+
+	@Test
+	void rejectsValuesOutsideLong() {
+		assertThatThrownBy(() -> FixedPoint.toScaled(new BigDecimal("100000000000000000000"), 2))
+				.isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> FixedPoint.convert(Long.MAX_VALUE / 2, 10_000))
+				.isInstanceOf(ArithmeticException.class);
+	}
+
+	private static void assertSameAsBigDecimal(BigDecimal amount, BigDecimal rate) {
+		// 従来の計算（CurrencyConversionService）
+		BigDecimal normalized = amount.setScale(2, RoundingMode.HALF_UP);
+		BigDecimal converted = normalized.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+
+		long scaledAmount = FixedPoint.toScaled(amount, FixedPoint.AMOUNT_SCALE);
+		long scaledRate = FixedPoint.toScaled(rate, FixedPoint.RATE_SCALE);
+		BigDecimal actualAmount = FixedPoint.toBigDecimal(scaledAmount, FixedPoint.AMOUNT_SCALE);
+		assertThat(actualAmount).as("amount %s", amount).isEqualTo(normalized);
+		assertThat(FixedPoint.toPlainString(scaledRate, FixedPoint.RATE_SCALE)).isEqualTo(rate.toPlainString());
+
+		long scaledConverted;
+		try {
+			scaledConverted = FixedPoint.convert(scaledAmount, scaledRate);
+		} catch (ArithmeticException e) {
+			// 積が long に収まらない場合のみ（呼び出し元は BigDecimal の計算に切り替える）
+			assertThat(normalized.unscaledValue().multiply(rate.unscaledValue()).bitLength()).isGreaterThan(63);
+			return;
+		}
+		BigDecimal actualConverted = FixedPoint.toBigDecimal(scaledConverted, FixedPoint.AMOUNT_SCALE);
+		assertThat(actualConverted).as("%s x %s", amount, rate).isEqualTo(converted);
+		assertThat(actualConverted.toPlainString()).isEqualTo(converted.toPlainString());
+	}
+}
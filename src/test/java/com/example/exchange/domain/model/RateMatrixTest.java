@@ -0,0 +1,61 @@
+package com.example.exchange.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * レート行列が、存在しない通貨ペアと 0.0000 に丸められるレートを区別し、
+ * 参照のたびに RateQuote を生成しない（生成時に作ったものを返す）ことを確認するテスト
+ */
+class RateMatrixTest {
+
+	private static final List<String> CURRENCIES = List.of("USD", "JPY", "KRW");
+
+	@Test
+	void distinguishesZeroRateFromMissingPair() {
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+		// KRW → USD は scale=4 で 0.0000 に丸められる
+		RateMatrix matrix = RateMatrix.of(CURRENCIES, List.of(
+				new RateQuote("KRW", "USD", new BigDecimal("0.00004"), now),
+				new RateQuote("USD", "JPY", new BigDecimal("149.85236"), now)));
+		int usd = matrix.indexOf("USD");
+		int jpy = matrix.indexOf("JPY");
+		int krw = matrix.indexOf("KRW");
+
+		assertThat(matrix.has(krw, usd)).isTrue();
+		assertThat(matrix.scaledRate(krw, usd)).isZero();
+		assertThat(matrix.toQuote(krw, usd).rate()).isEqualTo(new BigDecimal("0.0000"));
+
+		assertThat(matrix.has(usd, krw)).isFalse();
+		assertThat(matrix.toQuote(usd, krw)).isNull();
+
+		// レートは scale=4 に HALF_UP で丸めて保持する
+		assertThat(matrix.scaledRate(usd, jpy)).isEqualTo(1_498_524L);
+		assertThat(matrix.toQuote(usd, jpy)).isEqualTo(new RateQuote("USD", "JPY", new BigDecimal("149.8524"), now));
+	}
+
+	@Test
+	void returnsTheSameQuoteOnEveryLookup() {
+		RateMatrix matrix = RateMatrix.of(CURRENCIES, List.of(
+				new RateQuote("USD", "JPY", new BigDecimal("149.8523"), LocalDateTime.now())));
+		int usd = matrix.indexOf("USD");
+		int jpy = matrix.indexOf("JPY");
+
+		assertThat(matrix.toQuote(usd, jpy)).isSameAs(matrix.toQuote(usd, jpy));
+	}
+
+	@Test
+	void ignoresCurrenciesOutsideTheMatrix() {
+		RateMatrix matrix = RateMatrix.of(CURRENCIES, List.of(
+				new RateQuote("USD", "EUR", new BigDecimal("0.9100"), LocalDateTime.now())));
+
+		assertThat(matrix.indexOf("EUR")).isEqualTo(-1);
+		assertThat(matrix.size()).isEqualTo(3);
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.exchange.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.exchange.domain.model.ConversionOutcome;
+import com.example.exchange.domain.model.ConversionRequest;
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.support.StubRateServer;
+
+/**
+ * 非同期の変換で、キャッシュに無い通貨ペアの DB 参照が呼び出し元のスレッドで行われず、
+ * Future が DB 参照・API の応答を待たずに返されることを確認するテスト
+ *
+ * ・単体の変換（resolveRateAsync）と一括変換（convertBatchAsync）の両方を確認する
+ * ・DB 参照は変換処理用のスレッドプール（conversion-）で行われる
+ */
+@SpringBootTest
+class AsyncRateLoadTest {
+
+	private static StubRateServer stub;
+
+	@Autowired
+	private CurrencyConversionService conversionService;
+
+	@SpyBean
+	private RateSnapshotService snapshotService;
+
+	@BeforeAll
+	static void startStub() throws Exception {
+		stub = StubRateServer.start();
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	@DynamicPropertySource
+	static void apiProperties(DynamicPropertyRegistry registry) {
+		registry.add("exchange.api.base-url", () -> stub.baseUrl());
+	}
+
+	@Test
+	void coldPairLooksUpDatabaseOffTheCallingThread() throws Exception {
+		stub.setRate(new BigDecimal("0.9876"));
+		List<String> lookupThreads = new CopyOnWriteArrayList<>();
+		doAnswer(invocation -> {
+			lookupThreads.add(Thread.currentThread().getName());
+			return invocation.callRealMethod();
+		}).when(snapshotService).findLatest(anyString(), anyString());
+
+		// API の応答を保留し、DB 参照・API 呼び出しの途中で Future が返されることを確認する
+		stub.holdResponses();
+		CompletableFuture<RateQuote> single;
+		CompletableFuture<List<ConversionOutcome>> batch;
+		try {
+			single = conversionService.resolveRateAsync("SEK", "NOK");
+			batch = conversionService.convertBatchAsync("async-loader", List.of(
+					new ConversionRequest(new BigDecimal("10"), "DKK", "PLN"),
+					new ConversionRequest(new BigDecimal("20"), "HUF", "CZK"),
+					new ConversionRequest(new BigDecimal("30"), "DKK", "PLN")));
+
+			assertThat(stub.awaitInFlight(3, Duration.ofSeconds(5))).isTrue();
+			assertThat(single).isNotDone();
+			assertThat(batch).isNotDone();
+		} finally {
+			stub.releaseResponses();
+		}
+
+		assertThat(single.get(5, TimeUnit.SECONDS).rate()).isEqualByComparingTo("0.9876");
+		assertThat(batch.get(5, TimeUnit.SECONDS)).hasSize(3);
+
+		// 通貨ペアごとに1回、いずれも変換処理用のスレッドで DB を参照する
+		String caller = Thread.currentThread().getName();
+		assertThat(lookupThreads).hasSize(3)
+				.allSatisfy(name -> assertThat(name).startsWith("conversion-").isNotEqualTo(caller));
+	}
+}
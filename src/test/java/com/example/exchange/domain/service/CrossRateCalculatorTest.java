@@ -0,0 +1,80 @@
+package com.example.exchange.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.exchange.domain.model.RateQuote;
+
+/**
+ * 基準通貨1つ分のレートから、逆レート・クロスレートを scale=4（HALF_UP）で算出し、
+ * レートの無い通貨を含む通貨ペアは算出しないことを確認するテスト
+ */
+class CrossRateCalculatorTest {
+
+	private static final LocalDateTime FETCHED_AT = LocalDateTime.of(2026, 10, 18, 9, 0);
+
+	@Test
+	void derivesDirectInverseAndCrossRates() {
+		List<RateQuote> quotes = CrossRateCalculator.derive("USD",
+				Map.of("JPY", new BigDecimal("150"), "EUR", new BigDecimal("0.9")),
+				List.of("USD", "JPY", "EUR"), FETCHED_AT);
+
+		// 3通貨の全組み合わせ（基準通貨 ≠ 対象通貨）
+		assertThat(quotes).hasSize(6);
+		assertThat(rate(quotes, "USD", "JPY")).isEqualTo("150.0000");
+		// 逆レート：1 / 150 = 0.00666…
+		assertThat(rate(quotes, "JPY", "USD")).isEqualTo("0.0067");
+		// クロスレート：150 / 0.9 = 166.666…、0.9 / 150 = 0.006
+		assertThat(rate(quotes, "EUR", "JPY")).isEqualTo("166.6667");
+		assertThat(rate(quotes, "JPY", "EUR")).isEqualTo("0.0060");
+		assertThat(rate(quotes, "EUR", "USD")).isEqualTo("1.1111");
+		assertThat(quotes).extracting(RateQuote::fetchedAt).containsOnly(FETCHED_AT);
+	}
+
+	@Test
+	void roundsHalfUpAtScaleFour() {
+		// 0.00025 → 0.0003（HALF_EVEN なら 0.0002）、8 / 0.00025 = 32000
+		List<RateQuote> quotes = CrossRateCalculator.derive("USD",
+				Map.of("AAA", new BigDecimal("0.00025"), "BBB", new BigDecimal("8")),
+				List.of("USD", "AAA", "BBB"), FETCHED_AT);
+
+		assertThat(rate(quotes, "USD", "AAA")).isEqualTo("0.0003");
+		assertThat(rate(quotes, "AAA", "BBB")).isEqualTo("32000.0000");
+		// 0.00025 / 8 = 0.00003125 → 0.0000
+		assertThat(rate(quotes, "BBB", "AAA")).isEqualTo("0.0000");
+		assertThat(quotes).extracting(q -> q.rate().scale()).containsOnly(4);
+
+		// クロスレートの丸め：0.0005 / 2 = 0.00025 → 0.0003（割り算の結果を丸める）
+		List<RateQuote> cross = CrossRateCalculator.derive("USD",
+				Map.of("CCC", new BigDecimal("2"), "DDD", new BigDecimal("0.0005")),
+				List.of("USD", "CCC", "DDD"), FETCHED_AT);
+		assertThat(rate(cross, "CCC", "DDD")).isEqualTo("0.0003");
+	}
+
+	@Test
+	void skipsPairsWithoutAnAnchorRate() {
+		// KRW のレートが無い・HKD のレートが 0（基準通貨にできない）
+		List<RateQuote> quotes = CrossRateCalculator.derive("USD",
+				Map.of("JPY", new BigDecimal("150"), "HKD", BigDecimal.ZERO),
+				List.of("USD", "JPY", "KRW", "HKD"), FETCHED_AT);
+
+		assertThat(quotes).noneMatch(q -> q.baseCurrency().equals("KRW") || q.targetCurrency().equals("KRW"));
+		assertThat(quotes).noneMatch(q -> q.baseCurrency().equals("HKD"));
+		assertThat(rate(quotes, "USD", "HKD")).isEqualTo("0.0000");
+		assertThat(rate(quotes, "JPY", "USD")).isEqualTo("0.0067");
+	}
+
+	private static String rate(List<RateQuote> quotes, String base, String target) {
+		return quotes.stream()
+				.filter(q -> q.baseCurrency().equals(base) && q.targetCurrency().equals(target))
+				.findFirst()
+				.map(q -> q.rate().toPlainString())
+				.orElse(null);
+	}
+}
@@ -0,0 +1,92 @@
+package com.example.exchange.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.exchange.domain.model.ConversionRequest;
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.HistoryCounter;
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.infrastructure.persistence.ConversionHistoryWriter;
+
+/**
+ * 履歴の件数が COUNT を使わずに、保存（write-behind・一括変換）・論理削除・完全削除のたびに
+ * 差分で更新され、実際の件数と一致し続けることを確認するテスト
+ */
+@SpringBootTest
+class HistoryCounterServiceTest {
+
+	private static final String USER = "counted";
+
+	@Autowired
+	private CurrencyConversionService conversionService;
+
+	@Autowired
+	private CurrencyRateService rateService;
+
+	@Autowired
+	private HistoryCounterService counters;
+
+	@Autowired
+	private RateCache rateCache;
+
+	@Autowired
+	private CurrencyRateRepository rateRepository;
+
+	@Autowired
+	private ConversionHistoryWriter historyWriter;
+
+	@Test
+	void countersFollowInsertsAndDeletes() throws Exception {
+		rateCache.put(new RateQuote("SGD", "JPY", new BigDecimal("110.1234"), LocalDateTime.now()));
+		HistoryCounter before = counters.global();
+
+		// write-behind で3件、一括変換で2件保存する
+		for (int i = 1; i <= 3; i++) {
+			conversionService.convertWithEntity(USER, new BigDecimal(i), "SGD", "JPY");
+		}
+		assertThat(historyWriter.flush(Duration.ofSeconds(5))).isTrue();
+		conversionService.convertBatchAsync(USER, List.of(
+				new ConversionRequest(new BigDecimal("10"), "SGD", "JPY"),
+				new ConversionRequest(new BigDecimal("20"), "SGD", "JPY"))).join();
+
+		assertThat(rateService.countActive(USER)).isEqualTo(5);
+		assertThat(counters.global().getTotalCount() - before.getTotalCount()).isEqualTo(5);
+
+		// 論理削除（2回目は件数を変えない）
+		List<CurrencyRate> histories = rateRepository.findAll().stream()
+				.filter(h -> h.getUsername().equals(USER))
+				.toList();
+		Long target = histories.get(0).getId();
+		rateService.deleteById(target, USER);
+		rateService.deleteById(target, USER);
+
+		assertThat(rateService.countActive(USER)).isEqualTo(4);
+		assertThat(counters.global().getDeletedCount() - before.getDeletedCount()).isEqualTo(1);
+
+		// 論理削除済みの完全削除は、削除済みの件数のみ減らす
+		rateService.hardDelete(target);
+		// 未削除の完全削除は、両方の件数を減らす
+		rateService.hardDelete(histories.get(1).getId());
+
+		assertThat(rateService.countActive(USER)).isEqualTo(3);
+		assertThat(counters.global().getTotalCount() - before.getTotalCount()).isEqualTo(3);
+		assertThat(counters.global().getDeletedCount()).isEqualTo(before.getDeletedCount());
+
+		// 管理している件数は、集計し直した値と一致する
+		HistoryCounter maintained = counters.global();
+		counters.rebuild();
+		assertThat(rateService.countActive(USER)).isEqualTo(3);
+		assertThat(counters.global().getActiveCount()).isEqualTo(maintained.getActiveCount());
+		assertThat(counters.global().getTotalCount()).isEqualTo(maintained.getTotalCount());
+	}
+}
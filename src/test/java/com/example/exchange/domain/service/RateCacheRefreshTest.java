@@ -0,0 +1,138 @@
+package com.example.exchange.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.support.StubRateServer;
+
+/**
+ * 共有キャッシュの soft TTL / hard TTL によるレートの決定を確認するテスト
+ *
+ * ・soft TTL を過ぎたレートは API の応答を待たずにそのまま返し、裏で1回だけ再取得する
+ * 		（同時に複数の呼び出し元が来ても再取得は1回にまとまり、完了後はキャッシュが更新される）
+ * ・hard TTL を過ぎたレートは使わず、API から取得し終えるまで待つ
+ */
+@SpringBootTest
+class RateCacheRefreshTest {
+
+	private static final int CALLERS = 16;
+
+	private static StubRateServer stub;
+
+	@Autowired
+	private CurrencyConversionService conversionService;
+
+	@Autowired
+	private RateCache rateCache;
+
+	@BeforeAll
+	static void startStub() throws Exception {
+		stub = StubRateServer.start();
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	@DynamicPropertySource
+	static void cacheProperties(DynamicPropertyRegistry registry) {
+		registry.add("exchange.api.base-url", () -> stub.baseUrl());
+		registry.add("exchange.rate-cache.soft-ttl", () -> "PT30S");
+		registry.add("exchange.rate-cache.hard-ttl", () -> "PT2M");
+	}
+
+	@Test
+	void staleRateIsServedWhileOneBackgroundRefreshRuns() throws Exception {
+		rateCache.put(new RateQuote("ZAR", "MXN", new BigDecimal("1.1111"), LocalDateTime.now().minusMinutes(1)));
+		stub.setRate(new BigDecimal("1.2345"));
+		int requestsBefore = stub.requestCount();
+
+		// 再取得の応答を保留しても、呼び出し元は古いレートですぐに応答できる
+		stub.holdResponses();
+		ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+		try {
+			List<Future<RateQuote>> sync = new ArrayList<>();
+			List<CompletableFuture<RateQuote>> async = new ArrayList<>();
+			for (int i = 0; i < CALLERS; i++) {
+				sync.add(callers.submit(() -> conversionService.resolveRate("ZAR", "MXN")));
+				async.add(conversionService.resolveRateAsync("ZAR", "MXN"));
+			}
+			for (Future<RateQuote> f : sync) {
+				assertThat(f.get(2, TimeUnit.SECONDS).rate()).isEqualByComparingTo("1.1111");
+			}
+			for (CompletableFuture<RateQuote> f : async) {
+				assertThat(f).isCompleted();
+				assertThat(f.join().rate()).isEqualByComparingTo("1.1111");
+			}
+			assertThat(stub.awaitInFlight(1, Duration.ofSeconds(5))).isTrue();
+		} finally {
+			stub.releaseResponses();
+			callers.shutdownNow();
+		}
+
+		// 再取得は1回だけで、完了後はキャッシュが新しいレートに置き換わる
+		RateQuote refreshed = awaitFresh("ZAR", "MXN");
+		assertThat(refreshed.rate()).isEqualByComparingTo("1.2345");
+		assertThat(stub.requestCount() - requestsBefore).isEqualTo(1);
+		assertThat(conversionService.resolveRate("ZAR", "MXN").rate()).isEqualByComparingTo("1.2345");
+		assertThat(stub.requestCount() - requestsBefore).isEqualTo(1);
+	}
+
+	@Test
+	void expiredRateWaitsForTheFetch() throws Exception {
+		rateCache.put(new RateQuote("ILS", "THB", new BigDecimal("9.0000"), LocalDateTime.now().minusMinutes(5)));
+		stub.setRate(new BigDecimal("9.8765"));
+		int requestsBefore = stub.requestCount();
+
+		stub.holdResponses();
+		ExecutorService caller = Executors.newSingleThreadExecutor();
+		Future<RateQuote> resolved;
+		try {
+			resolved = caller.submit(() -> conversionService.resolveRate("ILS", "THB"));
+
+			// API の応答が返るまで、期限切れのレートでは応答しない
+			assertThat(stub.awaitInFlight(1, Duration.ofSeconds(5))).isTrue();
+			assertThat(resolved).isNotDone();
+		} finally {
+			stub.releaseResponses();
+			caller.shutdown();
+		}
+
+		assertThat(resolved.get(5, TimeUnit.SECONDS).rate()).isEqualByComparingTo("9.8765");
+		assertThat(stub.requestCount() - requestsBefore).isEqualTo(1);
+		assertThat(rateCache.peek("ILS", "THB").rate()).isEqualByComparingTo("9.8765");
+	}
+
+	/**
+	 * 裏での再取得が完了し、古くないレートがキャッシュに入るまで待つ
+	 */
+	private RateQuote awaitFresh(String base, String target) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		RateQuote fresh;
+		while ((fresh = rateCache.peek(base, target)) == null) {
+			assertThat(System.nanoTime()).as("refresh did not complete").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+		return fresh;
+	}
+}
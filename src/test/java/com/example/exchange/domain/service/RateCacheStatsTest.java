@@ -0,0 +1,89 @@
+package com.example.exchange.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.exchange.domain.model.RateMatrix;
+import com.example.exchange.domain.model.RateQuote;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * キャッシュのヒット / ミスが、レート行列を含めて実際に応答したレートの取得元で集計されることを確認するテスト
+ *
+ * ・レート行列の古くないレート：ヒット（source=matrix）
+ * ・レート行列の古いレート：stale のヒット（source=matrix）。共有キャッシュのミスにはしない
+ * ・どちらにも無い：ミス
+ */
+@SpringBootTest
+class RateCacheStatsTest {
+
+	@Autowired
+	private CurrencyConversionService conversionService;
+
+	@Autowired
+	private RateMatrixHolder rateMatrix;
+
+	@Autowired
+	private RateCache rateCache;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@AfterEach
+	void clearMatrix() {
+		rateMatrix.publish(RateMatrix.EMPTY);
+	}
+
+	@Test
+	void countsMatrixHitsByTheSourceThatServedTheRate() {
+		LocalDateTime now = LocalDateTime.now();
+		rateMatrix.publish(RateMatrix.of(List.of("NZD", "SGD", "CAD"), List.of(
+				new RateQuote("NZD", "SGD", new BigDecimal("0.8123"), now),
+				// soft TTL（1時間）切れ・hard TTL（24時間）以内
+				new RateQuote("SGD", "NZD", new BigDecimal("1.2311"), now.minusHours(2)))));
+		RateCache.Stats before = rateCache.stats();
+		double matrixHitsBefore = gets("hit", "matrix");
+		double cacheStaleBefore = gets("stale", "cache");
+
+		assertThat(conversionService.getCachedRate("NZD", "SGD")).isNotNull();
+		assertThat(conversionService.getCachedRate("SGD", "NZD")).isNotNull();
+		assertThat(conversionService.getCachedRate("NZD", "CAD")).isNull();
+
+		RateCache.Stats after = rateCache.stats();
+		assertThat(after.hits() - before.hits()).isEqualTo(2);
+		assertThat(after.matrixHits() - before.matrixHits()).isEqualTo(2);
+		assertThat(after.staleHits() - before.staleHits()).isEqualTo(1);
+		assertThat(after.misses() - before.misses()).isEqualTo(1);
+
+		assertThat(gets("hit", "matrix") - matrixHitsBefore).isEqualTo(2);
+		assertThat(gets("stale", "matrix")).isPositive();
+		assertThat(gets("stale", "cache")).isEqualTo(cacheStaleBefore);
+	}
+
+	@Test
+	void countsSharedCacheHitsAsCacheSource() {
+		rateCache.put(new RateQuote("NZD", "CAD", new BigDecimal("0.8200"), LocalDateTime.now()));
+		double cacheHitsBefore = gets("hit", "cache");
+
+		assertThat(conversionService.getCachedRate("NZD", "CAD")).isNotNull();
+
+		assertThat(gets("hit", "cache") - cacheHitsBefore).isEqualTo(1);
+	}
+
+	private double gets(String result, String source) {
+		return meterRegistry.get("exchange.rate-cache.gets")
+				.tag("result", result)
+				.tag("source", source)
+				.functionCounter()
+				.count();
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.exchange.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.exchange.domain.model.RateQuote;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 共有キャッシュの期限（soft TTL / hard TTL）と、上限超過時の追い出しを確認するテスト
+ *
+ * ・上限を超えた場合は取得日時が最も古い通貨ペアから追い出し、追い出し件数を集計する
+ * ・hard TTL を過ぎたレートは使用しない（障害時の代替用に lastKnown では参照できる）
+ */
+class RateCacheTest {
+
+	private static final int MAX_SIZE = 3;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final RateCache cache = new RateCache(Duration.ofMinutes(30), Duration.ofHours(2), MAX_SIZE, registry);
+
+	@Test
+	void evictsOldestPairWhenFull() {
+		LocalDateTime now = LocalDateTime.now();
+		cache.put(quote("USD", "JPY", now.minusMinutes(10)));
+		cache.put(quote("EUR", "JPY", now.minusMinutes(20)));
+		cache.put(quote("GBP", "JPY", now.minusMinutes(5)));
+		assertThat(cache.stats().evictions()).isZero();
+
+		// 上限超過：取得日時が最も古い EUR/JPY を追い出す（登録順ではない）
+		cache.put(quote("AUD", "JPY", now));
+
+		assertThat(cache.lastKnown("EUR", "JPY")).isNull();
+		assertThat(cache.get("USD", "JPY")).isNotNull();
+		assertThat(cache.get("GBP", "JPY")).isNotNull();
+		assertThat(cache.get("AUD", "JPY")).isNotNull();
+		assertThat(cache.stats().evictions()).isEqualTo(1);
+		assertThat(cache.stats().size()).isEqualTo(MAX_SIZE);
+		assertThat(registry.get("exchange.rate-cache.evictions").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("exchange.rate-cache.size").gauge().value()).isEqualTo(MAX_SIZE);
+
+		// 既にある通貨ペアの更新は追い出さない
+		cache.put(quote("USD", "JPY", now));
+		assertThat(cache.stats().evictions()).isEqualTo(1);
+	}
+
+	@Test
+	void expiredRateIsNoLongerServed() {
+		LocalDateTime now = LocalDateTime.now();
+		cache.put(quote("USD", "JPY", now.minusMinutes(45)));
+		cache.put(quote("EUR", "JPY", now.minusHours(3)));
+
+		// soft TTL 切れ：古いとして使用はできる（peek では返さない）
+		RateQuote stale = cache.get("USD", "JPY");
+		assertThat(stale).isNotNull();
+		assertThat(cache.isStale(stale)).isTrue();
+		assertThat(cache.peek("USD", "JPY")).isNull();
+
+		// hard TTL 切れ：使用しないが、代替用には保持している
+		assertThat(cache.get("EUR", "JPY")).isNull();
+		assertThat(cache.peek("EUR", "JPY")).isNull();
+		assertThat(cache.lastKnown("EUR", "JPY")).isNotNull();
+
+		// 新しいレートを登録すると再び使用できる（古いレートでは上書きしない）
+		cache.put(quote("EUR", "JPY", now));
+		cache.put(quote("EUR", "JPY", now.minusHours(4)));
+		assertThat(cache.peek("EUR", "JPY").fetchedAt()).isEqualTo(now);
+	}
+
+	private static RateQuote quote(String base, String target, LocalDateTime fetchedAt) {
+		return new RateQuote(base, target, new BigDecimal("150.0000"), fetchedAt);
+	}
+}
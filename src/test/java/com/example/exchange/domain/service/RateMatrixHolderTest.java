@@ -0,0 +1,64 @@
+package com.example.exchange.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.exchange.domain.model.RateMatrix;
+import com.example.exchange.domain.model.RateQuote;
+
+/**
+ * レート行列の参照が soft TTL / hard TTL に従い、
+ * 新しい行列の公開（参照の差し替え）が直ちに反映されることを確認するテスト
+ */
+class RateMatrixHolderTest {
+
+	private static final List<String> CURRENCIES = List.of("USD", "JPY", "EUR");
+
+	private final RateMatrixHolder holder = new RateMatrixHolder(Duration.ofHours(1), Duration.ofHours(24));
+
+	@Test
+	void appliesSoftAndHardTtl() {
+		LocalDateTime now = LocalDateTime.now();
+		holder.publish(RateMatrix.of(CURRENCIES, List.of(
+				new RateQuote("USD", "JPY", new BigDecimal("150.0000"), now),
+				new RateQuote("USD", "EUR", new BigDecimal("0.9000"), now.minusHours(2)),
+				new RateQuote("EUR", "JPY", new BigDecimal("166.6667"), now.minusHours(25)))));
+
+		// soft TTL 以内
+		assertThat(holder.lookupFresh("USD", "JPY").rate()).isEqualByComparingTo("150");
+		assertThat(holder.lookupScaled("USD", "JPY")).isEqualTo(1_500_000L);
+
+		// soft TTL 切れ・hard TTL 以内：古いレートとしてのみ参照できる
+		assertThat(holder.lookupFresh("USD", "EUR")).isNull();
+		assertThat(holder.lookup("USD", "EUR").rate()).isEqualByComparingTo("0.9");
+
+		// hard TTL 切れ：参照できない
+		assertThat(holder.lookupFresh("EUR", "JPY")).isNull();
+		assertThat(holder.lookup("EUR", "JPY")).isNull();
+		assertThat(holder.lookupScaled("EUR", "JPY")).isEqualTo(RateMatrixHolder.NOT_FOUND);
+
+		// 行列に無い通貨ペア・通貨
+		assertThat(holder.lookup("JPY", "USD")).isNull();
+		assertThat(holder.lookupScaled("GBP", "JPY")).isEqualTo(RateMatrixHolder.NOT_FOUND);
+	}
+
+	@Test
+	void publishReplacesTheWholeMatrix() {
+		assertThat(holder.lookup("USD", "JPY")).isNull();
+
+		holder.publish(RateMatrix.of(CURRENCIES, List.of(
+				new RateQuote("USD", "JPY", new BigDecimal("150.0000"), LocalDateTime.now()))));
+		assertThat(holder.lookup("USD", "JPY")).isNotNull();
+
+		holder.publish(RateMatrix.of(CURRENCIES, List.of(
+				new RateQuote("USD", "EUR", new BigDecimal("0.9000"), LocalDateTime.now()))));
+		assertThat(holder.lookup("USD", "JPY")).isNull();
+		assertThat(holder.lookup("USD", "EUR")).isNotNull();
+	}
+}
@@ -0,0 +1,66 @@
+package com.example.exchange.domain.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.exchange.application.dto.HistoryDto;
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.RateQuote;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.infrastructure.persistence.ConversionHistoryWriter;
+
+/**
+ * 変換履歴がレートを複製せず、取得1回分のスナップショットを共有して参照すること、
+ * 通貨ペアの最新レートがユーザに依存せず取得できることを確認するテスト
+ */
+@SpringBootTest
+class RateSnapshotServiceTest {
+
+	@Autowired
+	private CurrencyConversionService conversionService;
+
+	@Autowired
+	private CurrencyRateService rateService;
+
+	@Autowired
+	private RateCache rateCache;
+
+	@Autowired
+	private RateSnapshotRepository snapshotRepository;
+
+	@Autowired
+	private ConversionHistoryWriter historyWriter;
+
+	@Test
+	void conversionsWithTheSameFetchShareOneSnapshot() throws Exception {
+		rateCache.put(new RateQuote("GBP", "HKD", new BigDecimal("9.87654"), LocalDateTime.now()));
+
+		List<CurrencyRate> saved = List.of(
+				conversionService.convertWithEntity("alice", new BigDecimal("10"), "GBP", "HKD"),
+				conversionService.convertWithEntity("bob", new BigDecimal("20"), "GBP", "HKD"),
+				conversionService.convertWithEntity("alice", new BigDecimal("30"), "GBP", "HKD"));
+
+		assertThat(saved).extracting(h -> h.getSnapshot().getId()).containsOnly(saved.get(0).getSnapshot().getId());
+		assertThat(snapshotRepository.findAll())
+				.filteredOn(s -> s.getBaseCurrency().equals("GBP") && s.getTargetCurrency().equals("HKD"))
+				.hasSize(1);
+		assertThat(saved.get(1).getConvertedAmount()).isEqualByComparingTo("197.53");
+
+		// 通貨ペアの最新レートはユーザを問わない
+		RateQuote latest = conversionService.getLatestRate("GBP", "HKD");
+		assertThat(latest.rate()).isEqualByComparingTo("9.8765");
+
+		// 履歴画面ではスナップショットのレートを表示する（トランザクション外で DTO へ変換できる）
+		assertThat(historyWriter.flush(Duration.ofSeconds(5))).isTrue();
+		List<HistoryDto> history = rateService.getHistoryPage("alice", null, null, 10).getContent();
+		assertThat(history).extracting(HistoryDto::getRate).contains("9.8765");
+	}
+}
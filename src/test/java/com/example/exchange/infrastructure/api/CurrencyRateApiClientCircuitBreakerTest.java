@@ -0,0 +1,244 @@
+package com.example.exchange.infrastructure.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.exchange.support.StubRateServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * スタブサーバで遅延・エラーを発生させ、
+ * タイムアウトとサーキットブレーカーの状態遷移、呼び出しの所要時間の記録（exchange.api.request）を確認するテスト
+ */
+class CurrencyRateApiClientCircuitBreakerTest {
+
+	private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+	private StubRateServer stub;
+	private MutableClock clock;
+	private SimpleMeterRegistry meterRegistry;
+	private CircuitBreaker circuitBreaker;
+	private CurrencyRateApiClient client;
+
+	/**
+	 * JDK の HttpClient を1回使用しておく
+	 * （初回のクラスロードの時間を、各テストの読み取りタイムアウト（200ms）に含めない）
+	 */
+	@BeforeAll
+	static void warmUpHttpClient() throws Exception {
+		try (StubRateServer warmUp = StubRateServer.start()) {
+			HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(warmUp.baseUrl())).build(),
+					HttpResponse.BodyHandlers.discarding());
+		}
+	}
+
+	@BeforeEach
+	void setUp() throws Exception {
+		stub = StubRateServer.start();
+		clock = new MutableClock();
+		meterRegistry = new SimpleMeterRegistry();
+		// 直近4件中、半数以上の失敗で遮断。HALF_OPEN では2件の試験呼び出しを許可する
+		circuitBreaker = new CircuitBreaker("test", 4, 4, 50, OPEN_DURATION, 2, clock, meterRegistry);
+
+		SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+		factory.setConnectTimeout(500);
+		factory.setReadTimeout(200);
+		client = new CurrencyRateApiClient(new RestTemplate(factory), circuitBreaker,
+				HttpClient.newHttpClient(), new ObjectMapper(), meterRegistry);
+		ReflectionTestUtils.setField(client, "apiKey", "test-key");
+		ReflectionTestUtils.setField(client, "baseUrl", stub.baseUrl());
+		ReflectionTestUtils.setField(client, "readTimeout", Duration.ofMillis(200));
+	}
+
+	@AfterEach
+	void tearDown() {
+		stub.close();
+	}
+
+	@Test
+	void slowUpstreamTimesOutAndOpensCircuit() {
+		stub.setLatency(Duration.ofSeconds(2));
+
+		for (int i = 0; i < 4; i++) {
+			long started = System.nanoTime();
+			assertThatThrownBy(() -> client.getRate("USD", "JPY")).isInstanceOf(ResourceAccessException.class);
+			// 読み取りタイムアウトで打ち切られ、2秒待たされない
+			assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+		}
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		// 遮断中は外部 API へリクエストを送らずに失敗する
+		assertThatThrownBy(() -> client.getRate("USD", "JPY")).isInstanceOf(CircuitOpenException.class);
+		assertThat(stub.requestCount()).isEqualTo(4);
+
+		assertThat(meterRegistry.get("exchange.api.circuit.state").gauge().value()).isEqualTo(1.0);
+		assertThat(transitions("CLOSED", "OPEN")).isEqualTo(1.0);
+		assertThat(meterRegistry.get("exchange.api.circuit.calls").tag("outcome", "rejected").counter().count())
+				.isEqualTo(1.0);
+		assertThat(apiRequests("convert", "USD/JPY", "timeout")).isEqualTo(4);
+		assertThat(apiRequests("convert", "USD/JPY", "rejected")).isEqualTo(1);
+	}
+
+	@Test
+	void successfulProbesCloseCircuit() {
+		openCircuitWithServerErrors();
+
+		clock.advance(OPEN_DURATION);
+		stub.setFailureStatus(0);
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+		assertThat(client.getRate("USD", "JPY")).isEqualByComparingTo(new BigDecimal("150.1234"));
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+		assertThat(client.getRate("USD", "JPY")).isEqualByComparingTo(new BigDecimal("150.1234"));
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+		assertThat(transitions("OPEN", "HALF_OPEN")).isEqualTo(1.0);
+		assertThat(transitions("HALF_OPEN", "CLOSED")).isEqualTo(1.0);
+		assertThat(meterRegistry.get("exchange.api.circuit.state").gauge().value()).isEqualTo(0.0);
+	}
+
+	@Test
+	void failedProbeReopensCircuit() {
+		openCircuitWithServerErrors();
+
+		clock.advance(OPEN_DURATION);
+		assertThatThrownBy(() -> client.getRate("USD", "JPY")).isInstanceOf(HttpServerErrorException.class);
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		int before = stub.requestCount();
+		assertThatThrownBy(() -> client.getRate("USD", "JPY")).isInstanceOf(CircuitOpenException.class);
+		assertThat(stub.requestCount()).isEqualTo(before);
+		assertThat(transitions("HALF_OPEN", "OPEN")).isEqualTo(1.0);
+	}
+
+	@Test
+	void failuresBelowThresholdKeepCircuitClosed() {
+		for (int i = 0; i < 3; i++) {
+			client.getRate("USD", "JPY");
+		}
+		stub.setFailureStatus(503);
+		assertThatThrownBy(() -> client.getRate("USD", "JPY")).isInstanceOf(HttpServerErrorException.class);
+
+		// 直近4件中1件の失敗（25%）では遮断しない
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+
+	@Test
+	void asyncCallsAreRecordedAndRejectedWhileOpen() {
+		stub.setFailureStatus(500);
+		for (int i = 0; i < 4; i++) {
+			assertThat(client.getRateAsync("USD", "JPY"))
+					.failsWithin(Duration.ofSeconds(1))
+					.withThrowableOfType(ExecutionException.class)
+					.withCauseInstanceOf(IllegalStateException.class);
+		}
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+		assertThat(client.getRateAsync("USD", "JPY"))
+				.failsWithin(Duration.ofSeconds(1))
+				.withThrowableOfType(ExecutionException.class)
+				.withCauseInstanceOf(CircuitOpenException.class);
+		assertThat(stub.requestCount()).isEqualTo(4);
+	}
+
+	@Test
+	void slowUpstreamTimesOutAsync() {
+		stub.setLatency(Duration.ofSeconds(2));
+
+		assertThat(client.getRateAsync("USD", "JPY"))
+				.failsWithin(Duration.ofSeconds(1))
+				.withThrowableOfType(ExecutionException.class)
+				.withCauseInstanceOf(HttpTimeoutException.class);
+		assertThat(apiRequests("convert", "USD/JPY", "timeout")).isEqualTo(1);
+	}
+
+	@Test
+	void requestLatencyIsRecordedByPairAndOutcome() {
+		client.getRate("USD", "JPY");
+		client.getRate("USD", "JPY");
+		assertThat(client.getRateAsync("EUR", "JPY")).succeedsWithin(Duration.ofSeconds(1));
+		stub.setFailureStatus(500);
+		assertThatThrownBy(() -> client.getRate("USD", "JPY")).isInstanceOf(HttpServerErrorException.class);
+
+		assertThat(apiRequests("convert", "USD/JPY", "success")).isEqualTo(2);
+		assertThat(apiRequests("convert", "EUR/JPY", "success")).isEqualTo(1);
+		assertThat(apiRequests("convert", "USD/JPY", "error")).isEqualTo(1);
+		assertThat(meterRegistry.get("exchange.api.request").tag("pair", "USD/JPY").tag("outcome", "success")
+				.timer().totalTime(TimeUnit.NANOSECONDS)).isPositive();
+	}
+
+	private void openCircuitWithServerErrors() {
+		stub.setFailureStatus(500);
+		for (int i = 0; i < 4; i++) {
+			assertThatThrownBy(() -> client.getRate("USD", "JPY")).isInstanceOf(HttpServerErrorException.class);
+		}
+		assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+
+	private long apiRequests(String endpoint, String pair, String outcome) {
+		return meterRegistry.get("exchange.api.request")
+				.tag("endpoint", endpoint)
+				.tag("pair", pair)
+				.tag("outcome", outcome)
+				.timer()
+				.count();
+	}
+
+	private double transitions(String from, String to) {
+		return meterRegistry.get("exchange.api.circuit.transitions")
+				.tag("from", from)
+				.tag("to", to)
+				.counter()
+				.count();
+	}
+
+	/** テストから時刻を進められる Clock */
+	private static class MutableClock extends Clock {
+		private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.exchange.domain.service.UserService;
+import com.example.exchange.support.FormLogin;
+import com.example.exchange.support.StubRateServer;
+
+/**
+ * 変換・外部 API 呼び出し・リポジトリ・画面の描画のメトリクスが、
+ * /actuator/prometheus から Prometheus 形式で取得できることを確認するテスト
+ *
+ * ・/actuator/prometheus は管理者のみ（Basic 認証で収集できる）
+ * ・外部 API のメトリクスの通貨ペアは max-pairs 種類までに制限される
+ */
+@AutoConfigureObservability
+@SpringBootTest(
+		webEnvironment = WebEnvironment.RANDOM_PORT,
+		properties = "exchange.metrics.api.max-pairs=2")
+class PrometheusMetricsTest {
+
+	private static StubRateServer stub;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private UserService userService;
+
+	@BeforeAll
+	static void startStub() throws Exception {
+		stub = StubRateServer.start();
+	}
+
+	@AfterAll
+	static void stopStub() {
+		stub.close();
+	}
+
+	@DynamicPropertySource
+	static void apiProperties(DynamicPropertyRegistry registry) {
+		registry.add("exchange.api.base-url", () -> stub.baseUrl());
+	}
+
+	@Test
+	void exposesConversionApiRepositoryAndViewMetrics() throws Exception {
+		HttpClient client = FormLogin.login(baseUrl(), "admin", "adminpass");
+		// 1回目は外部 API から取得、2回目は共有キャッシュから取得する
+		assertThat(get(client, "/convert?amount=100&base=USD&target=JPY").statusCode()).isEqualTo(200);
+		assertThat(get(client, "/convert?amount=100&base=USD&target=JPY").statusCode()).isEqualTo(200);
+		assertThat(get(client, "/convert?amount=100&base=EUR&target=JPY").statusCode()).isEqualTo(200);
+		assertThat(get(client, "/convert?amount=100&base=GBP&target=JPY").statusCode()).isEqualTo(200);
+		assertThat(get(client, "/exchange/history").statusCode()).isEqualTo(200);
+
+		HttpResponse<String> response = HttpClient.newHttpClient().send(
+				HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/prometheus"))
+						.header("Authorization", basic("admin", "adminpass"))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+		assertThat(response.statusCode()).isEqualTo(200);
+		String body = response.body();
+
+		List<String> api = lines(body, "exchange_api_request_seconds_count{");
+		assertThat(api).anyMatch(l -> l.contains("pair=\"USD/JPY\"") && l.contains("outcome=\"success\""));
+		assertThat(api).anyMatch(l -> l.contains("pair=\"EUR/JPY\""));
+		// 3種類目の通貨ペアは other にまとめられる
+		assertThat(api).anyMatch(l -> l.contains("pair=\"other\""));
+		assertThat(api).noneMatch(l -> l.contains("pair=\"GBP/JPY\""));
+		assertThat(body).contains("exchange_api_request_seconds_bucket{");
+
+		assertThat(lines(body, "exchange_conversion_seconds_count{"))
+				.anyMatch(l -> l.contains("mode=\"async\"") && l.contains("outcome=\"fresh\"") && l.endsWith(" 4.0"));
+		assertThat(lines(body, "exchange_rate_cache_gets_total{"))
+				.anyMatch(l -> l.contains("result=\"hit\"") && !l.endsWith(" 0.0"))
+				.anyMatch(l -> l.contains("result=\"miss\"") && !l.endsWith(" 0.0"));
+		assertThat(lines(body, "spring_data_repository_invocations_seconds_bucket{"))
+				.anyMatch(l -> l.contains("repository=\"CurrencyRateRepository\""));
+		assertThat(lines(body, "exchange_view_render_seconds_count{"))
+				.anyMatch(l -> l.contains("view=\"history\""));
+	}
+
+	@Test
+	void prometheusEndpointRequiresAdmin() throws Exception {
+		userService.registerUser("metrics-user", "userpass");
+
+		assertThat(scrape(null).statusCode()).isEqualTo(401);
+		assertThat(scrape(basic("metrics-user", "userpass")).statusCode()).isEqualTo(403);
+		assertThat(scrape(basic("admin", "wrong")).statusCode()).isEqualTo(401);
+	}
+
+	private HttpResponse<Void> scrape(String authorization) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/prometheus"));
+		if (authorization != null) {
+			request.header("Authorization", authorization);
+		}
+		return HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.discarding());
+	}
+
+	private HttpResponse<String> get(HttpClient client, String path) throws Exception {
+		return client.send(HttpRequest.newBuilder(URI.create(baseUrl() + path)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private String baseUrl() {
+		return "http://localhost:" + port;
+	}
+
+	private static String basic(String username, String password) {
+		return "Basic " + Base64.getEncoder()
+				.encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static List<String> lines(String body, String prefix) {
+		return body.lines().filter(l -> l.startsWith(prefix)).toList();
+	}
+}
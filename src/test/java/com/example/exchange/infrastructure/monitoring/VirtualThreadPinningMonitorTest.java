@@ -0,0 +1,50 @@
+package com.example.exchange.infrastructure.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * synchronized ブロック内でブロッキングした仮想スレッドのピン留めが、
+ * 発生箇所とともに報告されることを確認するテスト
+ */
+class VirtualThreadPinningMonitorTest {
+
+	private final Object lock = new Object();
+
+	@Test
+	void reportsPinnedSiteInApplicationCode() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+		monitor.start();
+		try {
+			Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+			long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+			while (monitor.pinnedSites().isEmpty() && System.nanoTime() < deadline) {
+				Thread.sleep(50);
+			}
+		} finally {
+			monitor.stop();
+		}
+
+		String site = VirtualThreadPinningMonitorTest.class.getName() + ".sleepWhileHoldingMonitor";
+		assertThat(monitor.pinnedSites()).containsEntry(site, 1L);
+		assertThat(meterRegistry.get("exchange.virtual-thread.pinned").tag("site", site).counter().count())
+				.isEqualTo(1.0);
+	}
+
+	private void sleepWhileHoldingMonitor() {
+		synchronized (lock) {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
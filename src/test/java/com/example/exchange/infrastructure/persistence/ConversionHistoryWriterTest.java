@@ -0,0 +1,147 @@
+package com.example.exchange.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.service.HistoryCounterService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 変換履歴の write-behind（バッチ保存・背圧・終了時の書き出し）を確認するテスト
+ */
+class ConversionHistoryWriterTest {
+
+	private final CurrencyRateRepository repository = mock(CurrencyRateRepository.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	/** saveAll に渡された件数（バッチごと） */
+	private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+	private ConversionHistoryWriter writer;
+
+	@AfterEach
+	void stopWriter() {
+		if (writer.isRunning()) {
+			writer.stop();
+		}
+	}
+
+	@Test
+	void writesQueuedHistoryInBoundedBatches() throws Exception {
+		recordBatches(null);
+		writer = writer(1_000, 50);
+		writer.start();
+
+		for (int i = 0; i < 200; i++) {
+			writer.enqueue(new CurrencyRate());
+		}
+
+		assertThat(writer.flush(Duration.ofSeconds(5))).isTrue();
+		assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(200);
+		assertThat(batchSizes).allMatch(size -> size <= 50);
+		assertThat(meterRegistry.get("exchange.history.written").counter().count()).isEqualTo(200.0);
+		verify(repository, never()).save(any());
+	}
+
+	@Test
+	void fullQueueWritesOnCallerThread() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		recordBatches(release);
+		writer = writer(1, 10);
+		writer.start();
+
+		// 1件目は書き込みスレッドが保存中のまま止まり、2件目でキューが満杯になる
+		writer.enqueue(new CurrencyRate());
+		waitUntil(() -> batchSizes.size() == 1);
+		writer.enqueue(new CurrencyRate());
+		writer.enqueue(new CurrencyRate());
+
+		verify(repository, times(1)).save(any());
+		assertThat(meterRegistry.get("exchange.history.caller-runs").counter().count()).isEqualTo(1.0);
+
+		release.countDown();
+		assertThat(writer.flush(Duration.ofSeconds(5))).isTrue();
+		assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(2);
+	}
+
+	@Test
+	void stopWritesEverythingAcceptedBeforeShutdown() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		recordBatches(release);
+		writer = writer(100, 10);
+		writer.start();
+
+		for (int i = 0; i < 25; i++) {
+			writer.enqueue(new CurrencyRate());
+		}
+		Thread releaser = Thread.ofPlatform().start(() -> {
+			sleep(100);
+			release.countDown();
+		});
+		writer.stop();
+		releaser.join();
+
+		assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(25);
+
+		// 停止後は呼び出し元で保存する
+		writer.enqueue(new CurrencyRate());
+		verify(repository, times(1)).save(any());
+	}
+
+	private ConversionHistoryWriter writer(int capacity, int batchSize) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+		return new ConversionHistoryWriter(repository, mock(HistoryCounterService.class), transactionTemplate, meterRegistry,
+				true, capacity, batchSize, Duration.ofMillis(20), Duration.ofMillis(50));
+	}
+
+	/**
+	 * saveAll の件数を記録する（release が指定された場合は、解放されるまで保存を止める）
+	 */
+	private void recordBatches(CountDownLatch release) {
+		doAnswer(invocation -> {
+			List<?> batch = invocation.getArgument(0);
+			batchSizes.add(batch.size());
+			if (release != null) {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			return batch;
+		}).when(repository).saveAll(anyList());
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.exchange.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.HistoryCounter;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.domain.service.HistoryCounterService;
+
+/**
+ * 保持期間を過ぎた月の変換履歴が月単位でアーカイブ用テーブルへ切り離され、
+ * 保持期間内の履歴は残り、件数が切り離した分だけ減ることを確認するテスト（組み込み DB の代替手順）
+ *
+ * ・パーティション化できるよう、エンティティから変換履歴の外部キー制約が作成されないことも確認する
+ */
+@SpringBootTest
+class HistoryRetentionJobTest {
+
+	private static final String USER = "retained";
+
+	@Autowired
+	private HistoryRetentionJob retentionJob;
+
+	@Autowired
+	private HistoryPartitionManager partitions;
+
+	@Autowired
+	private ConversionHistoryWriter historyWriter;
+
+	@Autowired
+	private HistoryCounterService counters;
+
+	@Autowired
+	private RateSnapshotRepository snapshotRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void detachesExpiredMonthsAndAdjustsCounters() {
+		// 2001年1月に2件（うち1件は論理削除済み）、2月に1件、3月に2件
+		RateSnapshot snapshot = snapshotRepository.save(
+				new RateSnapshot("EUR", "GBP", new BigDecimal("0.8500"), LocalDateTime.of(2001, 1, 1, 0, 0)));
+		CurrencyRate deleted = history(snapshot, LocalDateTime.of(2001, 1, 10, 9, 0));
+		deleted.setDeleted(true);
+		historyWriter.writeNow(List.of(
+				deleted,
+				history(snapshot, LocalDateTime.of(2001, 1, 31, 23, 59, 59)),
+				history(snapshot, LocalDateTime.of(2001, 2, 1, 0, 0)),
+				history(snapshot, LocalDateTime.of(2001, 3, 1, 0, 0)),
+				history(snapshot, LocalDateTime.of(2001, 3, 15, 12, 0))));
+		long activeBefore = counters.countActive(USER);
+		HistoryCounter globalBefore = counters.global();
+
+		// 当月 2002年3月・保持期間 12か月 → 2001年3月より前が対象
+		long removed = retentionJob.run(YearMonth.of(2002, 3));
+
+		assertThat(removed).isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM currency_rate WHERE username = ?", Long.class, USER)).isEqualTo(2);
+		assertThat(count("currency_rate_archive_p200101")).isEqualTo(2);
+		assertThat(count("currency_rate_archive_p200102")).isEqualTo(1);
+
+		assertThat(counters.countActive(USER)).isEqualTo(activeBefore - 2);
+		assertThat(counters.global().getTotalCount()).isEqualTo(globalBefore.getTotalCount() - 3);
+		assertThat(counters.global().getActiveCount()).isEqualTo(globalBefore.getActiveCount() - 2);
+
+		// 2回目は切り離す履歴が無い
+		assertThat(retentionJob.run(YearMonth.of(2002, 3))).isZero();
+
+		partitions.dropArchive("currency_rate_archive_p200101");
+		partitions.dropArchive("currency_rate_archive_p200102");
+	}
+
+	@Test
+	void historyTableHasNoForeignKey() {
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS"
+						+ " WHERE TABLE_NAME = 'CURRENCY_RATE' AND CONSTRAINT_TYPE = 'FOREIGN KEY'",
+				Long.class)).isZero();
+	}
+
+	private static CurrencyRate history(RateSnapshot snapshot, LocalDateTime at) {
+		return new CurrencyRate(USER, "EUR", "GBP", snapshot, new BigDecimal("10.00"), new BigDecimal("8.50"), at);
+	}
+
+	private long count(String table) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+	}
+}
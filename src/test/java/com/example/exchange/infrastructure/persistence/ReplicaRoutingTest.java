@@ -0,0 +1,140 @@
+package com.example.exchange.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.example.exchange.domain.model.CurrencyRate;
+import com.example.exchange.domain.model.RateSnapshot;
+import com.example.exchange.domain.model.User;
+import com.example.exchange.domain.repository.CurrencyRateRepository;
+import com.example.exchange.domain.repository.RateSnapshotRepository;
+import com.example.exchange.domain.service.CurrencyRateService;
+import com.example.exchange.domain.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 2つの組み込み DB をプライマリ・読み取り用レプリカとして、サービス層の読み取り専用トランザクションだけがレプリカで読み、
+ * レプリカの遅延が上限を超えた場合・接続できない場合はプライマリで読むことを確認するテスト
+ *
+ * レプリケーションの代わりに、プライマリの内容（SCRIPT）をレプリカで実行し直す。
+ */
+@SpringBootTest(properties = {
+		"exchange.datasource.replica.enabled=true",
+		"exchange.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1",
+		"exchange.datasource.replica.username=sa",
+		"exchange.datasource.replica.lag-query=SELECT seconds FROM replication_lag",
+		"exchange.datasource.replica.max-lag=PT5S",
+		"exchange.datasource.replica.check-interval=PT24H" })
+@DirtiesContext
+class ReplicaRoutingTest {
+
+	private static final String USER = "replicated";
+
+	@Autowired
+	private CurrencyRateService rateService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private CurrencyRateRepository rateRepository;
+
+	@Autowired
+	private RateSnapshotRepository snapshotRepository;
+
+	@Autowired
+	private ConversionHistoryWriter historyWriter;
+
+	@Autowired
+	private ReplicaLagMonitor monitor;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private HikariDataSource replicaDataSource;
+
+	@Test
+	void readOnlyServiceTransactionsReadFromReplicaWhileItKeepsUp() {
+		RateSnapshot snapshot = snapshotRepository.save(
+				new RateSnapshot("USD", "JPY", new BigDecimal("150.0000"), LocalDateTime.now()));
+		historyWriter.writeNow(List.of(history(snapshot), history(snapshot)));
+		replicate(0);
+		assertThat(monitor.check()).isTrue();
+
+		// レプリカへ未反映の履歴1件・ユーザ1人
+		historyWriter.writeNow(List.of(history(snapshot)));
+		userService.registerUser("late-user", "password");
+
+		// サービス層の読み取り専用トランザクション（一覧・件数）はレプリカで読む
+		assertThat(historyCount()).isEqualTo(2);
+		assertThat(rateService.countActive(USER)).isEqualTo(2);
+		assertThat(userService.findAll()).extracting(User::getUsername).doesNotContain("late-user");
+		// リポジトリが既定で開始する読み取り専用トランザクションはプライマリで読む
+		assertThat(rateRepository.findAll()).filteredOn(r -> r.getUsername().equals(USER)).hasSize(3);
+
+		// 遅延が上限を超えた場合はプライマリで読み、追いついたらレプリカへ戻す
+		setLag(30);
+		assertThat(monitor.check()).isFalse();
+		assertThat(historyCount()).isEqualTo(3);
+		assertThat(rateService.countActive(USER)).isEqualTo(3);
+		assertThat(userService.findAll()).extracting(User::getUsername).contains("late-user");
+
+		setLag(0.5);
+		assertThat(monitor.check()).isTrue();
+		assertThat(historyCount()).isEqualTo(2);
+
+		// 遅延を取得できない場合はプライマリで読む
+		replica().execute("DELETE FROM replication_lag");
+		assertThat(monitor.check()).isFalse();
+		assertThat(historyCount()).isEqualTo(3);
+
+		// レプリカへ接続できない場合は、その場でプライマリへ切り替える
+		setLag(0);
+		assertThat(monitor.check()).isTrue();
+		replicaDataSource.close();
+		assertThat(historyCount()).isEqualTo(3);
+		assertThat(monitor.isAvailable()).isFalse();
+	}
+
+	private long historyCount() {
+		return rateService.getHistoryPage(USER, null, null, 10).getContent().size();
+	}
+
+	/**
+	 * プライマリの現在の内容をレプリカへ写し、遅延を設定する
+	 */
+	private void replicate(double lagSeconds) {
+		List<String> script = jdbcTemplate.queryForList("SCRIPT", String.class);
+		JdbcTemplate replica = replica();
+		replica.execute("DROP ALL OBJECTS");
+		script.forEach(replica::execute);
+		replica.execute("CREATE TABLE replication_lag (seconds DOUBLE)");
+		replica.update("INSERT INTO replication_lag VALUES (?)", lagSeconds);
+	}
+
+	private void setLag(double seconds) {
+		replica().update("DELETE FROM replication_lag");
+		replica().update("INSERT INTO replication_lag VALUES (?)", seconds);
+	}
+
+	private JdbcTemplate replica() {
+		return new JdbcTemplate(replicaDataSource);
+	}
+
+	private static CurrencyRate history(RateSnapshot snapshot) {
+		return new CurrencyRate(USER, "USD", "JPY", snapshot, new BigDecimal("10.00"), new BigDecimal("1500.00"),
+				LocalDateTime.now());
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.exchange.support;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 起動中のアプリへフォームログインし、セッションを保持した HttpClient を返すテスト用ヘルパー
+ *
+ * CSRF トークンはログイン画面から取得する。
+ */
+public final class FormLogin {
+
+	private static final Pattern CSRF = Pattern.compile("name=\"_csrf\" value=\"([^\"]+)\"");
+
+	private FormLogin() {
+	}
+
+	/**
+	 * フォームログインを行う
+	 *
+	 * @param baseUrl アプリの URL（例：http://localhost:8080）
+	 * @param username ユーザ名
+	 * @param password パスワード
+	 * @return セッション Cookie を保持した HttpClient
+	 * @throws IllegalStateException ログインに失敗した場合
+	 */
+	public static HttpClient login(String baseUrl, String username, String password)
+			throws IOException, InterruptedException {
+		HttpClient client = HttpClient.newBuilder()
+				.cookieHandler(new CookieManager())
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.build();
+
+		String page = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login")).GET().build(),
+				HttpResponse.BodyHandlers.ofString()).body();
+		Matcher m = CSRF.matcher(page);
+		if (!m.find()) {
+			throw new IllegalStateException("CSRF token not found on the login page");
+		}
+
+		String form = "username=" + encode(username)
+				+ "&password=" + encode(password)
+				+ "&_csrf=" + encode(m.group(1));
+		HttpResponse<Void> result = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form))
+				.build(), HttpResponse.BodyHandlers.discarding());
+
+		String location = result.headers().firstValue("Location").orElse("");
+		if (result.statusCode() != 302 || location.contains("error")) {
+			throw new IllegalStateException("Login failed for " + username + ": " + result.statusCode() + " " + location);
+		}
+		return client;
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,209 @@
+package com.example.exchange.support;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * テスト用の外部為替 API スタブサーバ
+ *
+ * ローカルポートで /convert と /live を応答する。
+ * 遅延（latency）とエラー応答（failureStatus）を実行中に切り替えられるため、
+ * タイムアウトやサーキットブレーカーの挙動を実際の HTTP 通信で確認できる。
+ * また、応答を保留（holdResponses）して同時に処理中のリクエスト数を観測できる。
+ */
+public class StubRateServer implements AutoCloseable {
+
+	static {
+		// ヘッダと本文が別パケットになるため、Nagle アルゴリズムによる応答遅延（約40ms）を避ける
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+	}
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	/** 応答の保留を解除するまで待たせるゲート（保留しない場合は null） */
+	private volatile CountDownLatch gate;
+
+	/** 応答までの遅延 */
+	private volatile Duration latency = Duration.ZERO;
+
+	/** 0 以外ならこの HTTP ステータスでエラー応答する */
+	private volatile int failureStatus;
+
+	/** 応答するレート */
+	private volatile BigDecimal rate = new BigDecimal("150.1234");
+
+	private StubRateServer(HttpServer server) {
+		this.server = server;
+	}
+
+	/**
+	 * 空いているポートでスタブサーバを起動する
+	 */
+	public static StubRateServer start() throws IOException {
+		HttpServer http = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		StubRateServer stub = new StubRateServer(http);
+		http.createContext("/", stub::handle);
+		http.setExecutor(stub.executor);
+		http.start();
+		return stub;
+	}
+
+	/**
+	 * exchange.api.base-url に指定する URL
+	 */
+	public String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	public void setLatency(Duration latency) {
+		this.latency = latency;
+	}
+
+	public void setFailureStatus(int failureStatus) {
+		this.failureStatus = failureStatus;
+	}
+
+	public void setRate(BigDecimal rate) {
+		this.rate = rate;
+	}
+
+	/**
+	 * releaseResponses が呼ばれるまで、全ての応答を保留する
+	 */
+	public void holdResponses() {
+		this.gate = new CountDownLatch(1);
+	}
+
+	/**
+	 * 保留中の応答を全て返す
+	 */
+	public void releaseResponses() {
+		CountDownLatch current = gate;
+		gate = null;
+		if (current != null) {
+			current.countDown();
+		}
+	}
+
+	/**
+	 * 同時に処理中のリクエスト数が指定数に達するまで待つ
+	 *
+	 * @return 指定時間内に達した場合は true
+	 */
+	public boolean awaitInFlight(int count, Duration timeout) throws InterruptedException {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		while (inFlight.get() < count) {
+			if (System.nanoTime() > deadline) {
+				return false;
+			}
+			Thread.sleep(10);
+		}
+		return true;
+	}
+
+	/**
+	 * 同時に処理中だったリクエスト数の最大値
+	 */
+	public int maxInFlight() {
+		return maxInFlight.get();
+	}
+
+	/**
+	 * 受け付けたリクエスト数
+	 */
+	public int requestCount() {
+		return requests.get();
+	}
+
+	@Override
+	public void close() {
+		releaseResponses();
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try {
+			CountDownLatch current = gate;
+			if (current != null) {
+				current.await(30, TimeUnit.SECONDS);
+			}
+			if (!latency.isZero()) {
+				Thread.sleep(latency.toMillis());
+			}
+			if (failureStatus != 0) {
+				respond(exchange, failureStatus, "{\"success\":false}");
+				return;
+			}
+			String path = exchange.getRequestURI().getPath();
+			if (path.equals("/convert")) {
+				respond(exchange, 200, "{\"success\":true,\"result\":" + rate.toPlainString() + "}");
+			} else if (path.equals("/live")) {
+				respond(exchange, 200, liveBody(exchange.getRequestURI()));
+			} else {
+				respond(exchange, 404, "{\"success\":false}");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			inFlight.decrementAndGet();
+			exchange.close();
+		}
+	}
+
+	private String liveBody(URI uri) {
+		Map<String, String> params = queryParams(uri);
+		String source = params.getOrDefault("source", "USD");
+		StringJoiner quotes = new StringJoiner(",", "{", "}");
+		for (String currency : params.getOrDefault("currencies", "").split(",")) {
+			if (!currency.isEmpty()) {
+				quotes.add("\"" + source + currency + "\":" + rate.toPlainString());
+			}
+		}
+		return "{\"success\":true,\"source\":\"" + source + "\",\"quotes\":" + quotes + "}";
+	}
+
+	private static Map<String, String> queryParams(URI uri) {
+		Map<String, String> params = new HashMap<>();
+		if (uri.getQuery() != null) {
+			for (String pair : uri.getQuery().split("&")) {
+				int eq = pair.indexOf('=');
+				if (eq > 0) {
+					params.put(pair.substring(0, eq), pair.substring(eq + 1));
+				}
+			}
+		}
+		return params;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}